@@ -0,0 +1,98 @@
+package com.newsapp.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * 一级缓存失效广播
+ * 本节点写入或删除缓存后通过 Redis pub/sub 通知其他节点清除各自的一级缓存；
+ * 消息带有节点 ID，收到自己发出的消息时直接忽略
+ */
+public class CacheInvalidationBus implements MessageListener {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheInvalidationBus.class);
+
+    /**
+     * 失效消息
+     *
+     * @param nodeId    发出消息的节点
+     * @param cacheName 缓存名称
+     * @param key       缓存 key，为 null 表示清空整个缓存
+     */
+    public record Invalidation(String nodeId, String cacheName, String key) {
+    }
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final String channel;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final List<Consumer<Invalidation>> subscribers = new CopyOnWriteArrayList<>();
+
+    public CacheInvalidationBus(StringRedisTemplate redisTemplate, ObjectMapper objectMapper, String channel) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.channel = channel;
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * 注册失效消息的处理器，只会收到其他节点发出的消息
+     */
+    public void subscribe(Consumer<Invalidation> subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    /**
+     * 广播失效消息
+     * 发送失败只记录日志：其他节点的一级缓存最迟在 TTL 到期后自行失效
+     */
+    public void publish(String cacheName, String key) {
+        try {
+            String payload = objectMapper.writeValueAsString(new Invalidation(nodeId, cacheName, key));
+            redisTemplate.convertAndSend(channel, payload);
+        } catch (Exception e) {
+            log.warn("广播缓存失效消息失败: cache={}, key={}, error={}", cacheName, key, e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        Invalidation invalidation;
+        try {
+            invalidation = objectMapper.readValue(message.getBody(), Invalidation.class);
+        } catch (IOException e) {
+            log.warn("无法解析缓存失效消息: {}", e.getMessage());
+            return;
+        }
+        deliver(invalidation);
+    }
+
+    /**
+     * 把失效消息分发给处理器，忽略本节点发出的消息
+     */
+    void deliver(Invalidation invalidation) {
+        if (nodeId.equals(invalidation.nodeId())) {
+            return;
+        }
+        for (Consumer<Invalidation> subscriber : subscribers) {
+            subscriber.accept(invalidation);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.newsapp.cache;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 基于 Redis 的缓存加载租约
+ * 缓存未命中时，集群内只有拿到租约的节点请求数据源，其他节点等待它把结果写入 Redis。
+ * 租约带过期时间，持有者崩溃后自动释放。新闻后台拉取也用它保证每个类别每轮只有一个节点请求 NewsAPI。
+ */
+public class RedisLoadLease {
+
+    private static final String KEY_PREFIX = "cache:lease:";
+
+    /**
+     * 只有持有者才能释放租约，避免误删其他节点在租约过期后重新获得的租约
+     */
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final Duration leaseTtl;
+    private final Duration waitTimeout;
+    private final Duration pollInterval;
+
+    /**
+     * @param leaseTtl     租约过期时间，应大于一次加载的最长耗时
+     * @param waitTimeout  未拿到租约时等待其他节点写入结果的最长时间，超时后自行加载
+     * @param pollInterval 等待期间轮询 Redis 的间隔
+     */
+    public RedisLoadLease(StringRedisTemplate redisTemplate, Duration leaseTtl,
+                          Duration waitTimeout, Duration pollInterval) {
+        this.redisTemplate = redisTemplate;
+        this.leaseTtl = leaseTtl;
+        this.waitTimeout = waitTimeout;
+        this.pollInterval = pollInterval;
+    }
+
+    /**
+     * 尝试获取租约
+     *
+     * @return 租约令牌，已被其他节点持有时返回 null
+     */
+    public String tryAcquire(String key) {
+        String token = UUID.randomUUID().toString();
+        Boolean acquired = redisTemplate.opsForValue().setIfAbsent(KEY_PREFIX + key, token, leaseTtl);
+        return Boolean.TRUE.equals(acquired) ? token : null;
+    }
+
+    /**
+     * 释放租约
+     */
+    public void release(String key, String token) {
+        redisTemplate.execute(RELEASE_SCRIPT, List.of(KEY_PREFIX + key), token);
+    }
+
+    /**
+     * 租约是否仍被持有
+     */
+    public boolean isHeld(String key) {
+        return Boolean.TRUE.equals(redisTemplate.hasKey(KEY_PREFIX + key));
+    }
+
+    public Duration getWaitTimeout() {
+        return waitTimeout;
+    }
+
+    public Duration getPollInterval() {
+        return pollInterval;
+    }
+}
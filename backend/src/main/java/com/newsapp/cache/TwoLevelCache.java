@@ -0,0 +1,255 @@
+package com.newsapp.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 二级缓存
+ * L1 为进程内的 Caffeine 缓存，容量小、过期时间短；L2 为 Redis 缓存。
+ * 读取时先查 L1，未命中再查 L2 并回填 L1；写入和删除同时作用于两级，
+ * 并通过 {@link CacheInvalidationBus} 通知其他节点清除各自的 L1。
+ * 两级都不缓存 null 值。
+ * <p>
+ * 带加载函数的读取是 single-flight 的：同一 key 在本节点同时只有一个加载，
+ * 其余调用等待同一个结果；配置了 {@link RedisLoadLease} 时，集群内也只有持有租约的节点加载。
+ */
+public class TwoLevelCache implements Cache {
+
+    private static final Logger log = LoggerFactory.getLogger(TwoLevelCache.class);
+
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<String, Object> l1;
+    private final Cache l2;
+    private final CacheInvalidationBus invalidationBus;
+    private final RedisLoadLease loadLease;
+
+    /**
+     * 本节点正在进行的加载，key 为 L1 key
+     */
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    public TwoLevelCache(String name, com.github.benmanes.caffeine.cache.Cache<String, Object> l1,
+                         Cache l2, CacheInvalidationBus invalidationBus, RedisLoadLease loadLease) {
+        this.name = name;
+        this.l1 = l1;
+        this.l2 = l2;
+        this.invalidationBus = invalidationBus;
+        this.loadLease = loadLease;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return l2.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String l1Key = l1Key(key);
+        Object value = l1.getIfPresent(l1Key);
+        if (value != null) {
+            return new SimpleValueWrapper(value);
+        }
+
+        ValueWrapper wrapper = l2.get(key);
+        if (wrapper != null && wrapper.get() != null) {
+            l1.put(l1Key, wrapper.get());
+        }
+        return wrapper;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException(
+                    "缓存 " + name + " 中 key=" + key + " 的值不是 " + type.getName() + " 类型: " + value);
+        }
+        return (T) value;
+    }
+
+    /**
+     * 读取缓存，未命中时加载
+     * 并发未命中同一 key 时只有第一个调用执行加载，其余调用等待并共享它的结果或异常
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper != null && wrapper.get() != null) {
+            return (T) wrapper.get();
+        }
+
+        String l1Key = l1Key(key);
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(l1Key, flight);
+        if (existing != null) {
+            try {
+                return (T) existing.join();
+            } catch (CompletionException e) {
+                throw new ValueRetrievalException(key, valueLoader, e.getCause());
+            }
+        }
+
+        try {
+            Object value = load(key, l1Key, valueLoader);
+            flight.complete(value);
+            return (T) value;
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            flight.completeExceptionally(e);
+            throw new ValueRetrievalException(key, valueLoader, e);
+        } finally {
+            inFlight.remove(l1Key, flight);
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        l2.put(key, value);
+        if (value != null) {
+            l1.put(l1Key(key), value);
+        } else {
+            l1.invalidate(l1Key(key));
+        }
+        invalidationBus.publish(name, l1Key(key));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = l2.putIfAbsent(key, value);
+        Object current = existing != null ? existing.get() : value;
+        if (current != null) {
+            l1.put(l1Key(key), current);
+        }
+        if (existing == null) {
+            invalidationBus.publish(name, l1Key(key));
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        l2.evict(key);
+        l1.invalidate(l1Key(key));
+        invalidationBus.publish(name, l1Key(key));
+    }
+
+    @Override
+    public void clear() {
+        l2.clear();
+        l1.invalidateAll();
+        invalidationBus.publish(name, null);
+    }
+
+    /**
+     * 只清除本节点的 L1，用于处理其他节点广播的失效消息
+     *
+     * @param key L1 key，为 null 表示清空
+     */
+    void invalidateLocal(String key) {
+        if (key == null) {
+            l1.invalidateAll();
+        } else {
+            l1.invalidate(key);
+        }
+    }
+
+    /**
+     * 执行加载并写入两级缓存
+     * 持有本节点的加载权后再检查一次 L2（可能刚被其他节点写入），然后按集群租约决定由谁请求数据源
+     */
+    private Object load(Object key, String l1Key, Callable<?> valueLoader) throws Exception {
+        ValueWrapper wrapper = l2.get(key);
+        if (wrapper != null && wrapper.get() != null) {
+            l1.put(l1Key, wrapper.get());
+            return wrapper.get();
+        }
+        if (loadLease == null) {
+            return loadAndPut(key, valueLoader);
+        }
+
+        String leaseKey = name + "::" + l1Key;
+        String token;
+        try {
+            token = loadLease.tryAcquire(leaseKey);
+        } catch (RuntimeException e) {
+            log.warn("获取缓存加载租约失败，直接加载: key={}, error={}", leaseKey, e.getMessage());
+            return loadAndPut(key, valueLoader);
+        }
+
+        if (token != null) {
+            try {
+                return loadAndPut(key, valueLoader);
+            } finally {
+                releaseLease(leaseKey, token);
+            }
+        }
+        return awaitOtherNode(key, l1Key, leaseKey, valueLoader);
+    }
+
+    /**
+     * 等待持有租约的节点把结果写入 L2
+     * 租约被释放仍没有结果（对方加载失败）或等待超时时，由本节点自行加载
+     */
+    private Object awaitOtherNode(Object key, String l1Key, String leaseKey, Callable<?> valueLoader) throws Exception {
+        long deadline = System.nanoTime() + loadLease.getWaitTimeout().toNanos();
+        long pollMs = Math.max(loadLease.getPollInterval().toMillis(), 1L);
+        try {
+            while (System.nanoTime() < deadline) {
+                Thread.sleep(pollMs);
+                ValueWrapper wrapper = l2.get(key);
+                if (wrapper != null && wrapper.get() != null) {
+                    l1.put(l1Key, wrapper.get());
+                    return wrapper.get();
+                }
+                if (!loadLease.isHeld(leaseKey)) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("等待其他节点加载缓存时出错，直接加载: key={}, error={}", leaseKey, e.getMessage());
+        }
+        log.debug("其他节点未写入缓存 {}，本节点加载", leaseKey);
+        return loadAndPut(key, valueLoader);
+    }
+
+    private Object loadAndPut(Object key, Callable<?> valueLoader) throws Exception {
+        Object value = valueLoader.call();
+        if (value != null) {
+            put(key, value);
+        }
+        return value;
+    }
+
+    private void releaseLease(String leaseKey, String token) {
+        try {
+            loadLease.release(leaseKey, token);
+        } catch (RuntimeException e) {
+            log.warn("释放缓存加载租约失败，等待其自动过期: key={}, error={}", leaseKey, e.getMessage());
+        }
+    }
+
+    /**
+     * L1 key 与 Redis 缓存 key 一致，使用 key 的字符串形式
+     */
+    private static String l1Key(Object key) {
+        return String.valueOf(key);
+    }
+}
@@ -0,0 +1,88 @@
+package com.newsapp.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * 二级缓存管理器
+ * 包装 Redis 的 CacheManager，为每个缓存加上按缓存名配置容量和过期时间的进程内 L1
+ */
+public class TwoLevelCacheManager implements CacheManager {
+
+    private static final Logger log = LoggerFactory.getLogger(TwoLevelCacheManager.class);
+
+    /**
+     * L1 配置
+     *
+     * @param maximumSize 最大条目数
+     * @param ttl         写入后的过期时间
+     */
+    public record L1Spec(long maximumSize, Duration ttl) {
+    }
+
+    private final CacheManager l2CacheManager;
+    private final Function<String, L1Spec> l1Specs;
+    private final CacheInvalidationBus invalidationBus;
+    private final RedisLoadLease loadLease;
+    private final Map<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+
+    /**
+     * @param loadLease 集群内的加载租约，为 null 时只在本节点内合并并发加载
+     */
+    public TwoLevelCacheManager(CacheManager l2CacheManager, Function<String, L1Spec> l1Specs,
+                                CacheInvalidationBus invalidationBus, RedisLoadLease loadLease) {
+        this.l2CacheManager = l2CacheManager;
+        this.l1Specs = l1Specs;
+        this.invalidationBus = invalidationBus;
+        this.loadLease = loadLease;
+        invalidationBus.subscribe(this::onInvalidation);
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        TwoLevelCache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache l2 = l2CacheManager.getCache(name);
+        if (l2 == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, key -> createCache(key, l2));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableCollection(l2CacheManager.getCacheNames());
+    }
+
+    private TwoLevelCache createCache(String name, Cache l2) {
+        L1Spec spec = l1Specs.apply(name);
+        log.info("创建二级缓存 {}: L1 maximumSize={}, ttl={}", name, spec.maximumSize(), spec.ttl());
+        com.github.benmanes.caffeine.cache.Cache<String, Object> l1 = Caffeine.newBuilder()
+                .maximumSize(spec.maximumSize())
+                .expireAfterWrite(spec.ttl())
+                .build();
+        return new TwoLevelCache(name, l1, l2, invalidationBus, loadLease);
+    }
+
+    /**
+     * 处理其他节点的失效消息，只清除本节点的 L1
+     */
+    private void onInvalidation(CacheInvalidationBus.Invalidation invalidation) {
+        TwoLevelCache cache = caches.get(invalidation.cacheName());
+        if (cache != null) {
+            cache.invalidateLocal(invalidation.key());
+        }
+    }
+}
@@ -1,13 +1,30 @@
 package com.newsapp.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.newsapp.cache.CacheInvalidationBus;
+import com.newsapp.cache.RedisLoadLease;
+import com.newsapp.cache.TwoLevelCacheManager;
+import com.newsapp.dto.CachedUser;
+import com.newsapp.security.TokenRevocationList;
+import com.newsapp.service.NewsService;
+import com.newsapp.service.NotificationPushService;
+import com.newsapp.service.UserIdentityIndex;
+import com.newsapp.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
@@ -15,16 +32,66 @@ import java.time.Duration;
 
 /**
  * Redis 缓存配置
+ * 缓存分两级：进程内 Caffeine（L1）+ Redis（L2），各节点的 L1 通过 Redis pub/sub 互相失效；
+ * 并发未命中时通过 Redis 租约保证集群内只有一个节点加载。
+ * JWT 吊销列表也存放在 Redis，并通过同一个监听容器接收其他节点的吊销通知；
+ * 用户名/邮箱索引的增量更新同样通过这个容器同步
  */
 @Configuration
 @EnableCaching
 public class RedisConfig {
 
+    @Value("${cache.l1.enabled:true}")
+    private boolean l1Enabled;
+
+    @Value("${cache.invalidation.channel:cache:invalidate}")
+    private String invalidationChannel;
+
+    @Value("${cache.single-flight.cluster-lease:true}")
+    private boolean clusterLease;
+
+    @Value("${cache.single-flight.lease-ttl-ms:15000}")
+    private long leaseTtlMs;
+
+    @Value("${cache.single-flight.wait-timeout-ms:5000}")
+    private long leaseWaitTimeoutMs;
+
+    @Value("${cache.single-flight.poll-interval-ms:50}")
+    private long leasePollIntervalMs;
+
+    @Value("${jwt.revocation.channel:jwt:revoked}")
+    private String revocationChannel;
+
+    @Value("${jwt.revocation.expected-insertions:100000}")
+    private long revocationExpectedInsertions;
+
+    @Value("${jwt.revocation.false-positive-rate:0.001}")
+    private double revocationFalsePositiveRate;
+
+    @Value("${jwt.revocation.fail-open-when-unloaded:true}")
+    private boolean revocationFailOpenWhenUnloaded;
+
+    @Value("${jwt.revocation.load-retry-min-ms:1000}")
+    private long revocationLoadRetryMinMs;
+
+    @Value("${jwt.revocation.load-retry-max-ms:30000}")
+    private long revocationLoadRetryMaxMs;
+
+    @Value("${newsapi.cache.max-stale-ms:86400000}")
+    private long newsMaxStaleMs;
+
+    @Value("${cache.users.ttl-ms:600000}")
+    private long userCacheTtlMs;
+
     /**
      * 配置 CacheManager
      */
     @Bean
-    public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+    public CacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                     CacheInvalidationBus cacheInvalidationBus,
+                                     StringRedisTemplate stringRedisTemplate,
+                                     ObjectMapper objectMapper,
+                                     Environment environment) {
         RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig()
                 .entryTtl(Duration.ofMinutes(10))  // 缓存过期时间：10分钟
                 .serializeKeysWith(RedisSerializationContext.SerializationPair
@@ -33,8 +100,78 @@ public class RedisConfig {
                         .fromSerializer(new GenericJackson2JsonRedisSerializer()))
                 .disableCachingNullValues();  // 不缓存 null 值
 
-        return RedisCacheManager.builder(connectionFactory)
+        // news 缓存的新鲜度由条目内的写入和拉取时间判断（软/硬过期），Redis 过期时间只决定旧数据最多保留多久
+        // users 缓存固定为 CachedUser，使用应用的 ObjectMapper（支持 LocalDateTime），不写入类型信息
+        RedisCacheConfiguration userConfig = config
+                .entryTtl(Duration.ofMillis(userCacheTtlMs))
+                .serializeValuesWith(RedisSerializationContext.SerializationPair
+                        .fromSerializer(new Jackson2JsonRedisSerializer<>(objectMapper, CachedUser.class)));
+
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
                 .cacheDefaults(config)
+                .withCacheConfiguration(NewsService.NEWS_CACHE, config.entryTtl(Duration.ofMillis(newsMaxStaleMs)))
+                .withCacheConfiguration(UserService.USER_CACHE, userConfig)
                 .build();
+        redisCacheManager.afterPropertiesSet();
+
+        if (!l1Enabled) {
+            return redisCacheManager;
+        }
+        RedisLoadLease loadLease = clusterLease
+                ? new RedisLoadLease(stringRedisTemplate, Duration.ofMillis(leaseTtlMs),
+                        Duration.ofMillis(leaseWaitTimeoutMs), Duration.ofMillis(leasePollIntervalMs))
+                : null;
+        return new TwoLevelCacheManager(redisCacheManager,
+                name -> l1Spec(environment, name), cacheInvalidationBus, loadLease);
+    }
+
+    /**
+     * 一级缓存失效广播
+     */
+    @Bean
+    public CacheInvalidationBus cacheInvalidationBus(StringRedisTemplate stringRedisTemplate,
+                                                     ObjectMapper objectMapper) {
+        return new CacheInvalidationBus(stringRedisTemplate, objectMapper, invalidationChannel);
+    }
+
+    /**
+     * JWT 吊销列表（Redis + 本地布隆过滤器）
+     */
+    @Bean
+    public TokenRevocationList tokenRevocationList(StringRedisTemplate stringRedisTemplate,
+                                                   MeterRegistry meterRegistry) {
+        return new TokenRevocationList(stringRedisTemplate, revocationChannel,
+                revocationExpectedInsertions, revocationFalsePositiveRate, revocationFailOpenWhenUnloaded,
+                revocationLoadRetryMinMs, revocationLoadRetryMaxMs, meterRegistry);
+    }
+
+    /**
+     * 订阅一级缓存失效频道、JWT 吊销频道和用户名/邮箱索引频道
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                       CacheInvalidationBus cacheInvalidationBus,
+                                                                       TokenRevocationList tokenRevocationList,
+                                                                       UserIdentityIndex userIdentityIndex,
+                                                                       NotificationPushService notificationPushService) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(cacheInvalidationBus, new ChannelTopic(cacheInvalidationBus.getChannel()));
+        container.addMessageListener(tokenRevocationList, new ChannelTopic(tokenRevocationList.getChannel()));
+        container.addMessageListener(userIdentityIndex, new ChannelTopic(userIdentityIndex.getChannel()));
+        container.addMessageListener(notificationPushService,
+                new ChannelTopic(notificationPushService.getChannel()));
+        return container;
+    }
+
+    /**
+     * 读取缓存的 L1 配置：cache.l1.&lt;name&gt;.* 未配置时使用 cache.l1.default.*
+     */
+    private static TwoLevelCacheManager.L1Spec l1Spec(Environment environment, String name) {
+        long defaultMaximumSize = environment.getProperty("cache.l1.default.maximum-size", Long.class, 1000L);
+        long defaultTtlMs = environment.getProperty("cache.l1.default.ttl-ms", Long.class, 60_000L);
+        long maximumSize = environment.getProperty("cache.l1." + name + ".maximum-size", Long.class, defaultMaximumSize);
+        long ttlMs = environment.getProperty("cache.l1." + name + ".ttl-ms", Long.class, defaultTtlMs);
+        return new TwoLevelCacheManager.L1Spec(maximumSize, Duration.ofMillis(ttlMs));
     }
 }
@@ -1,6 +1,10 @@
 package com.newsapp.config;
 
 import com.newsapp.filter.JwtAuthenticationFilter;
+import com.newsapp.security.BCryptCostCalibrator;
+import com.newsapp.security.BoundedPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
@@ -8,10 +12,14 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.util.Map;
+import java.util.regex.Pattern;
+
 /**
  * Spring Security 配置
  * 支持 JWT 认证和基于 Session 的认证
@@ -20,8 +28,33 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 @EnableWebSecurity
 public class SecurityConfig {
 
+    private static final String BCRYPT_ID = "bcrypt";
+
+    /**
+     * 没有算法前缀的旧 BCrypt 哈希
+     */
+    private static final Pattern LEGACY_BCRYPT = Pattern.compile("^\\$2[aby]?\\$\\d{2}\\$.{53}$");
+
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    @Value("${security.password.bcrypt.cost:0}")
+    private int bcryptCost;
+
+    @Value("${security.password.bcrypt.target-ms:250}")
+    private long bcryptTargetMs;
+
+    @Value("${security.password.bcrypt.min-cost:10}")
+    private int bcryptMinCost;
+
+    @Value("${security.password.bcrypt.max-cost:14}")
+    private int bcryptMaxCost;
+
+    @Value("${security.password.hashing.threads:0}")
+    private int hashingThreads;
+
+    @Value("${security.password.hashing.queue-capacity:64}")
+    private int hashingQueueCapacity;
+
     public SecurityConfig(JwtAuthenticationFilter jwtAuthenticationFilter) {
         this.jwtAuthenticationFilter = jwtAuthenticationFilter;
     }
@@ -38,6 +71,8 @@ public class SecurityConfig {
                 .requestMatchers("/api/auth/**").permitAll()
                 // CSRF 端点放行
                 .requestMatchers("/api/csrf/**").permitAll()
+                // JWT 公钥（JWKS）放行
+                .requestMatchers("/.well-known/jwks.json").permitAll()
                 // 其他请求需要认证（可选，根据需要启用）
                 .anyRequest().permitAll()
             )
@@ -67,6 +102,7 @@ public class SecurityConfig {
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers("/api/auth/**").permitAll()
                 .requestMatchers("/api/csrf/**").permitAll()
+                .requestMatchers("/.well-known/jwks.json").permitAll()
                 .anyRequest().permitAll()
             )
             .csrf(csrf -> csrf.disable())
@@ -79,11 +115,36 @@ public class SecurityConfig {
     }
 
     /**
-     * 密码编码器 - 使用 BCrypt 加密算法
-     * 强度设置为 10，是安全性和性能的平衡点
+     * 密码编码器
+     * 哈希带算法前缀（{bcrypt}$2a$12$...），算法和 cost 都记录在哈希里，以后更换算法或提高 cost 时旧哈希仍可校验。
+     * cost 未固定时在启动时按 target-ms 校准；没有前缀的旧哈希按 BCrypt 校验，登录后在后台重新哈希。
+     * 哈希在独立的有界线程池中执行，饱和时返回 429。
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(10);
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry) {
+        int cost = bcryptCost > 0
+                ? bcryptCost
+                : BCryptCostCalibrator.calibrate(bcryptTargetMs, bcryptMinCost, bcryptMaxCost);
+        return new BoundedPasswordEncoder(delegatingPasswordEncoder(cost), hashingThreads, hashingQueueCapacity,
+                meterRegistry);
+    }
+
+    /**
+     * 应用使用的哈希格式：{bcrypt} 前缀 + BCrypt，没有前缀的旧哈希按 BCrypt 校验
+     * 离线工具（PasswordFixer）也用它写入哈希，与应用写入的格式一致
+     */
+    public static DelegatingPasswordEncoder delegatingPasswordEncoder(int cost) {
+        DelegatingPasswordEncoder encoder =
+                new DelegatingPasswordEncoder(BCRYPT_ID, Map.of(BCRYPT_ID, new BCryptPasswordEncoder(cost)));
+        encoder.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+        return encoder;
+    }
+
+    /**
+     * 存储的密码是否已经是哈希（{bcrypt} 前缀或旧的无前缀 BCrypt），而不是明文
+     */
+    public static boolean isEncodedPassword(String stored) {
+        return stored != null
+                && (stored.startsWith("{" + BCRYPT_ID + "}") || LEGACY_BCRYPT.matcher(stored).matches());
     }
 }
@@ -1,5 +1,6 @@
 package com.newsapp.controller;
 
+import com.newsapp.config.SecurityConfig;
 import com.newsapp.dto.ApiResponse;
 import com.newsapp.repository.UserRepository;
 import org.slf4j.Logger;
@@ -46,8 +47,8 @@ public class AdminController {
         for (var user : users) {
             String password = user.getPassword();
 
-            // 检查是否已经是 BCrypt 格式
-            if (password != null && password.startsWith("$2a$")) {
+            // 检查是否已经是哈希（{bcrypt} 前缀或旧的无前缀 BCrypt）
+            if (SecurityConfig.isEncodedPassword(password)) {
                 skippedCount++;
                 log.debug("跳过已加密用户: {}", user.getUsername());
             } else if (password != null && !password.isEmpty()) {
@@ -3,9 +3,9 @@ package com.newsapp.controller;
 import com.newsapp.dto.ApiResponse;
 import com.newsapp.dto.CreateAnnouncementRequest;
 import com.newsapp.entity.Announcement;
-import com.newsapp.entity.User;
+import com.newsapp.security.CurrentUser;
+import com.newsapp.security.JwtPrincipal;
 import com.newsapp.service.AnnouncementService;
-import jakarta.servlet.http.HttpSession;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -48,13 +48,8 @@ public class AnnouncementController {
      * 获取所有公告（管理员）
      */
     @GetMapping
-    public ApiResponse<List<Announcement>> getAllAnnouncements(HttpSession session) {
+    public ApiResponse<List<Announcement>> getAllAnnouncements(@CurrentUser JwtPrincipal currentUser) {
         try {
-            User currentUser = (User) session.getAttribute("user");
-            if (currentUser == null) {
-                return ApiResponse.error("未登录");
-            }
-
             // TODO: 添加管理员权限检查
             List<Announcement> announcements = announcementService.getAllAnnouncements();
             return ApiResponse.success(announcements);
@@ -84,15 +79,10 @@ public class AnnouncementController {
     @PostMapping
     public ApiResponse<Announcement> createAnnouncement(
             @Valid @RequestBody CreateAnnouncementRequest request,
-            HttpSession session) {
+            @CurrentUser JwtPrincipal currentUser) {
         try {
-            User currentUser = (User) session.getAttribute("user");
-            if (currentUser == null) {
-                return ApiResponse.error("未登录");
-            }
-
             // TODO: 添加管理员权限检查
-            Announcement announcement = announcementService.createAnnouncement(currentUser.getId(), request);
+            Announcement announcement = announcementService.createAnnouncement(currentUser.userId(), request);
             log.info("公告创建成功: announcementId={}", announcement.getId());
             return ApiResponse.success("创建成功", announcement);
         } catch (Exception e) {
@@ -107,13 +97,8 @@ public class AnnouncementController {
     @PutMapping("/{id}/publish")
     public ApiResponse<Announcement> publishAnnouncement(
             @PathVariable Long id,
-            HttpSession session) {
+            @CurrentUser JwtPrincipal currentUser) {
         try {
-            User currentUser = (User) session.getAttribute("user");
-            if (currentUser == null) {
-                return ApiResponse.error("未登录");
-            }
-
             // TODO: 添加管理员权限检查
             Announcement announcement = announcementService.publishAnnouncement(id);
             log.info("公告发布成功: announcementId={}", id);
@@ -131,13 +116,8 @@ public class AnnouncementController {
     public ApiResponse<Announcement> updateAnnouncement(
             @PathVariable Long id,
             @Valid @RequestBody CreateAnnouncementRequest request,
-            HttpSession session) {
+            @CurrentUser JwtPrincipal currentUser) {
         try {
-            User currentUser = (User) session.getAttribute("user");
-            if (currentUser == null) {
-                return ApiResponse.error("未登录");
-            }
-
             // TODO: 添加管理员权限检查
             Announcement announcement = announcementService.updateAnnouncement(id, request);
             log.info("公告更新成功: announcementId={}", id);
@@ -154,13 +134,8 @@ public class AnnouncementController {
     @DeleteMapping("/{id}")
     public ApiResponse<Void> deleteAnnouncement(
             @PathVariable Long id,
-            HttpSession session) {
+            @CurrentUser JwtPrincipal currentUser) {
         try {
-            User currentUser = (User) session.getAttribute("user");
-            if (currentUser == null) {
-                return ApiResponse.error("未登录");
-            }
-
             // TODO: 添加管理员权限检查
             announcementService.deleteAnnouncement(id);
             log.info("公告删除成功: announcementId={}", id);
@@ -1,24 +1,32 @@
 package com.newsapp.controller;
 
 import com.newsapp.dto.ApiResponse;
+import com.newsapp.dto.CachedUser;
 import com.newsapp.dto.LoginRequest;
 import com.newsapp.dto.LoginResponse;
+import com.newsapp.dto.RefreshTokenRequest;
 import com.newsapp.dto.RegisterRequest;
 import com.newsapp.entity.User;
+import com.newsapp.exception.TooManyRequestsException;
+import com.newsapp.security.CurrentUser;
+import com.newsapp.security.JwtPrincipal;
+import com.newsapp.security.LoginRateLimiter;
+import com.newsapp.security.TokenRevocationList;
+import com.newsapp.service.NotificationPushService;
+import com.newsapp.service.RefreshTokenService;
 import com.newsapp.service.UserService;
 import com.newsapp.util.JwtUtil;
-import jakarta.servlet.http.HttpSession;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 /**
  * 认证控制器
- * 支持 JWT 认证
+ * 支持 JWT 认证：访问令牌短期有效，过期后用刷新令牌换取新的令牌对
  */
 @RestController
 @RequestMapping("/api/auth")
@@ -29,25 +37,37 @@ public class AuthController {
 
     private final UserService userService;
     private final JwtUtil jwtUtil;
+    private final TokenRevocationList revocationList;
+    private final RefreshTokenService refreshTokenService;
+    private final LoginRateLimiter loginRateLimiter;
+    private final NotificationPushService pushService;
 
-    public AuthController(UserService userService, JwtUtil jwtUtil) {
+    public AuthController(UserService userService, JwtUtil jwtUtil, TokenRevocationList revocationList,
+                          RefreshTokenService refreshTokenService, LoginRateLimiter loginRateLimiter,
+                          NotificationPushService pushService) {
         this.userService = userService;
         this.jwtUtil = jwtUtil;
+        this.revocationList = revocationList;
+        this.refreshTokenService = refreshTokenService;
+        this.loginRateLimiter = loginRateLimiter;
+        this.pushService = pushService;
     }
 
     /**
      * 用户注册
-     * 注册成功后返回 JWT token
+     * 注册成功后返回访问令牌和刷新令牌
      */
     @PostMapping("/register")
     public ApiResponse<LoginResponse> register(@Valid @RequestBody RegisterRequest request) {
         try {
             User user = userService.register(request);
-            // 生成 JWT token
-            String token = jwtUtil.generateToken(user.getUsername(), user.getId());
-            LoginResponse response = new LoginResponse(user, token, jwtUtil.getExpirationTime());
+            // 生成访问令牌和新的刷新令牌家族
+            LoginResponse response = issueTokens(user, refreshTokenService.issue(user.getId()));
             log.info("用户注册成功: {}", user.getUsername());
             return ApiResponse.success("注册成功", response);
+        } catch (TooManyRequestsException e) {
+            // 哈希线程池饱和，交给全局异常处理器返回 429
+            throw e;
         } catch (RuntimeException e) {
             log.error("注册失败: {}", e.getMessage());
             return ApiResponse.error(e.getMessage());
@@ -56,50 +76,83 @@ public class AuthController {
 
     /**
      * 用户登录
-     * 登录成功后返回 JWT token
+     * 登录成功后返回访问令牌和刷新令牌；按 IP 和用户名限流，超出时返回 429
      */
     @PostMapping("/login")
-    public ApiResponse<LoginResponse> login(@Valid @RequestBody LoginRequest request) {
+    public ApiResponse<LoginResponse> login(@Valid @RequestBody LoginRequest request,
+                                            HttpServletRequest httpRequest) {
+        // 在查询用户和校验密码之前限流
+        loginRateLimiter.check(httpRequest, request.getUsername());
         try {
             User user = userService.login(request);
-            // 生成 JWT token
-            String token = jwtUtil.generateToken(user.getUsername(), user.getId());
-            LoginResponse response = new LoginResponse(user, token, jwtUtil.getExpirationTime());
+            // 生成访问令牌和新的刷新令牌家族
+            LoginResponse response = issueTokens(user, refreshTokenService.issue(user.getId()));
             log.info("用户登录成功: {}", user.getUsername());
             return ApiResponse.success("登录成功", response);
+        } catch (TooManyRequestsException e) {
+            // 哈希线程池饱和，交给全局异常处理器返回 429
+            throw e;
         } catch (RuntimeException e) {
             log.error("登录失败: {}", e.getMessage());
             return ApiResponse.error(e.getMessage());
         }
     }
 
+    /**
+     * 刷新令牌
+     * 旧的刷新令牌随即失效；同一个刷新令牌被使用两次时，整个令牌家族作废
+     */
+    @PostMapping("/refresh")
+    public ApiResponse<LoginResponse> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        try {
+            RefreshTokenService.IssuedToken rotated = refreshTokenService.rotate(request.getRefreshToken());
+            User user = userService.getUserById(rotated.userId());
+            return ApiResponse.success("刷新成功", issueTokens(user, rotated));
+        } catch (RuntimeException e) {
+            log.warn("刷新令牌失败: {}", e.getMessage());
+            return ApiResponse.error(e.getMessage());
+        }
+    }
+
     /**
      * 用户登出
-     * JWT 无状态，客户端只需删除 token
+     * 吊销当前请求携带的访问令牌，以及请求体中刷新令牌所在的家族，
+     * 之后即使客户端没有删除也不能再使用；用该访问令牌打开的推送连接随之关闭
      */
     @PostMapping("/logout")
-    public ApiResponse<Void> logout() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        log.info("用户登出: {}", authentication != null ? authentication.getName() : "unknown");
-        // JWT 无状态，客户端负责删除 token
+    public ApiResponse<Void> logout(@CurrentUser(required = false) JwtPrincipal currentUser,
+                                    @RequestBody(required = false) RefreshTokenRequest refreshRequest) {
+        log.info("用户登出: {}", currentUser != null ? currentUser.username() : "unknown");
+
+        try {
+            if (currentUser != null) {
+                revocationList.revoke(currentUser.tokenId(), currentUser.expiresAt());
+                pushService.disconnect(currentUser.userId(), currentUser.tokenId());
+            }
+            // 访问令牌可能已经过期，刷新令牌单独吊销
+            if (refreshRequest != null && refreshRequest.getRefreshToken() != null) {
+                refreshTokenService.revoke(refreshRequest.getRefreshToken());
+            }
+        } catch (RuntimeException e) {
+            log.error("吊销 token 失败: {}", e.getMessage());
+            return ApiResponse.error("登出失败，请稍后重试");
+        }
         SecurityContextHolder.clearContext();
         return ApiResponse.success("登出成功", null);
     }
 
     /**
      * 获取当前登录用户
-     * 从 JWT token 中获取用户信息
+     * 用户 ID 取自 JWT，资料从用户缓存读取（不含密码哈希）
      */
     @GetMapping("/current")
-    public ApiResponse<User> getCurrentUser(Authentication authentication) {
-        if (authentication == null || !authentication.isAuthenticated()) {
-            return ApiResponse.error("未登录");
-        }
-
-        // 从 authentication 中获取 userId
-        Long userId = (Long) authentication.getPrincipal();
-        User user = userService.getUserById(userId);
+    public ApiResponse<CachedUser> getCurrentUser(@CurrentUser JwtPrincipal currentUser) {
+        return ApiResponse.success(userService.getCachedUser(currentUser.userId()));
+    }
 
-        return ApiResponse.success(user);
+    private LoginResponse issueTokens(User user, RefreshTokenService.IssuedToken refreshToken) {
+        String token = jwtUtil.generateToken(user.getUsername(), user.getId());
+        return new LoginResponse(CachedUser.from(user), token, jwtUtil.getExpirationTime(),
+                refreshToken.token(), refreshToken.expiresIn());
     }
 }
@@ -1,10 +1,10 @@
 package com.newsapp.controller;
 
 import com.newsapp.dto.ApiResponse;
-import com.newsapp.entity.User;
+import com.newsapp.security.CurrentUser;
+import com.newsapp.security.JwtPrincipal;
 import com.newsapp.service.FileStorageService;
 import com.newsapp.service.UserService;
-import jakarta.servlet.http.HttpSession;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.web.bind.annotation.*;
@@ -36,28 +36,21 @@ public class AvatarController {
     @PostMapping
     public ApiResponse<Map<String, String>> uploadAvatar(
             @RequestParam("file") MultipartFile file,
-            HttpSession session) {
+            @CurrentUser JwtPrincipal currentUser) {
         try {
-            User currentUser = (User) session.getAttribute("user");
-            if (currentUser == null) {
-                return ApiResponse.error("未登录");
-            }
-
             // 存储文件
-            String fileUrl = fileStorageService.storeAvatar(file, currentUser.getId());
+            String fileUrl = fileStorageService.storeAvatar(file, currentUser.userId());
 
             // 删除旧头像
-            String oldAvatarUrl = currentUser.getAvatarUrl();
+            String oldAvatarUrl = userService.getCachedUser(currentUser.userId()).avatarUrl();
             if (oldAvatarUrl != null && !oldAvatarUrl.isEmpty()) {
                 fileStorageService.deleteFile(oldAvatarUrl);
             }
 
             // 更新用户头像URL
-            userService.updateAvatarUrl(currentUser.getId(), fileUrl);
-            currentUser.setAvatarUrl(fileUrl);
-            session.setAttribute("user", currentUser);
+            userService.updateAvatarUrl(currentUser.userId(), fileUrl);
 
-            log.info("头像上传成功: userId={}, fileUrl={}", currentUser.getId(), fileUrl);
+            log.info("头像上传成功: userId={}, fileUrl={}", currentUser.userId(), fileUrl);
 
             Map<String, String> result = new HashMap<>();
             result.put("avatarUrl", fileUrl);
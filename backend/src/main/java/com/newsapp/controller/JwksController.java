@@ -0,0 +1,79 @@
+package com.newsapp.controller;
+
+import com.newsapp.security.JwtKey;
+import com.newsapp.security.JwtKeyRing;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.math.BigInteger;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWKS 控制器
+ * 按 RFC 7517 格式公开 JWT 验签公钥，其他服务可以按 kid 本地验签，无需共享密钥。
+ * 响应不包装为 ApiResponse，JWT 库可以直接读取。
+ */
+@RestController
+public class JwksController {
+
+    private final JwtKeyRing keyRing;
+
+    public JwksController(JwtKeyRing keyRing) {
+        this.keyRing = keyRing;
+    }
+
+    /**
+     * 获取验签公钥集合
+     */
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<Map<String, Object>> getJwks() {
+        List<Map<String, Object>> keys = new ArrayList<>();
+        for (JwtKey key : keyRing.getPublicKeys()) {
+            keys.add(toJwk(key));
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(5, TimeUnit.MINUTES).cachePublic())
+                .body(Map.of("keys", keys));
+    }
+
+    static Map<String, Object> toJwk(JwtKey key) {
+        Map<String, Object> jwk = new LinkedHashMap<>();
+        if (key.verificationKey() instanceof RSAPublicKey rsa) {
+            jwk.put("kty", "RSA");
+            jwk.put("n", base64Url(rsa.getModulus(), 0));
+            jwk.put("e", base64Url(rsa.getPublicExponent(), 0));
+        } else if (key.verificationKey() instanceof ECPublicKey ec) {
+            int fieldSize = ec.getParams().getCurve().getField().getFieldSize();
+            int length = (fieldSize + 7) / 8;
+            jwk.put("kty", "EC");
+            jwk.put("crv", fieldSize == 521 ? "P-521" : "P-" + fieldSize);
+            jwk.put("x", base64Url(ec.getW().getAffineX(), length));
+            jwk.put("y", base64Url(ec.getW().getAffineY(), length));
+        }
+        jwk.put("kid", key.kid());
+        jwk.put("use", "sig");
+        jwk.put("alg", key.algorithm().getValue());
+        return jwk;
+    }
+
+    /**
+     * 无符号大端编码，length 大于 0 时左侧补零到固定长度
+     */
+    private static String base64Url(BigInteger value, int length) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        if (length > bytes.length) {
+            byte[] padded = new byte[length];
+            System.arraycopy(bytes, 0, padded, length - bytes.length, bytes.length);
+            bytes = padded;
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
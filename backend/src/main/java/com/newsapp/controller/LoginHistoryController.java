@@ -2,9 +2,9 @@ package com.newsapp.controller;
 
 import com.newsapp.dto.ApiResponse;
 import com.newsapp.dto.LoginHistoryResponse;
-import com.newsapp.entity.User;
+import com.newsapp.security.CurrentUser;
+import com.newsapp.security.JwtPrincipal;
 import com.newsapp.service.LoginHistoryService;
-import jakarta.servlet.http.HttpSession;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.web.bind.annotation.*;
@@ -32,14 +32,9 @@ public class LoginHistoryController {
     @GetMapping
     public ApiResponse<List<LoginHistoryResponse>> getRecentLogins(
             @RequestParam(defaultValue = "10") int limit,
-            HttpSession session) {
+            @CurrentUser JwtPrincipal currentUser) {
         try {
-            User currentUser = (User) session.getAttribute("user");
-            if (currentUser == null) {
-                return ApiResponse.error("未登录");
-            }
-
-            List<LoginHistoryResponse> histories = loginHistoryService.getRecentLogins(currentUser.getId(), limit);
+            List<LoginHistoryResponse> histories = loginHistoryService.getRecentLogins(currentUser.userId(), limit);
             return ApiResponse.success(histories);
         } catch (Exception e) {
             log.error("获取登录历史失败: {}", e.getMessage());
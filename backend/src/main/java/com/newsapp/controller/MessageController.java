@@ -1,11 +1,15 @@
 package com.newsapp.controller;
 
 import com.newsapp.dto.ApiResponse;
+import com.newsapp.dto.BroadcastProgress;
+import com.newsapp.dto.MessagePage;
 import com.newsapp.dto.SendMessageRequest;
 import com.newsapp.entity.Message;
-import com.newsapp.entity.User;
+import com.newsapp.security.AdminPolicy;
+import com.newsapp.security.CurrentUser;
+import com.newsapp.security.JwtPrincipal;
+import com.newsapp.service.MessageBroadcastService;
 import com.newsapp.service.MessageService;
-import jakarta.servlet.http.HttpSession;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -27,23 +31,26 @@ public class MessageController {
     private static final Logger log = LoggerFactory.getLogger(MessageController.class);
 
     private final MessageService messageService;
+    private final MessageBroadcastService broadcastService;
+    private final AdminPolicy adminPolicy;
 
-    public MessageController(MessageService messageService) {
+    public MessageController(MessageService messageService, MessageBroadcastService broadcastService,
+                             AdminPolicy adminPolicy) {
         this.messageService = messageService;
+        this.broadcastService = broadcastService;
+        this.adminPolicy = adminPolicy;
     }
 
     /**
-     * 获取所有消息
+     * 获取消息列表（不含正文），按时间倒序分页
+     * 下一页传入上一页返回的 nextCursor
      */
     @GetMapping
-    public ApiResponse<List<Message>> getMessages(HttpSession session) {
+    public ApiResponse<MessagePage> getMessages(@RequestParam(required = false) String cursor,
+                                                @RequestParam(defaultValue = "20") int size,
+                                                @CurrentUser JwtPrincipal currentUser) {
         try {
-            User currentUser = (User) session.getAttribute("user");
-            if (currentUser == null) {
-                return ApiResponse.error("未登录");
-            }
-
-            List<Message> messages = messageService.getUserMessages(currentUser.getId());
+            MessagePage messages = messageService.getUserMessages(currentUser.userId(), cursor, size);
             return ApiResponse.success(messages);
         } catch (Exception e) {
             log.error("获取消息列表失败: {}", e.getMessage());
@@ -52,17 +59,14 @@ public class MessageController {
     }
 
     /**
-     * 获取未读消息
+     * 获取未读消息列表（不含正文），按时间倒序分页
      */
     @GetMapping("/unread")
-    public ApiResponse<List<Message>> getUnreadMessages(HttpSession session) {
+    public ApiResponse<MessagePage> getUnreadMessages(@RequestParam(required = false) String cursor,
+                                                      @RequestParam(defaultValue = "20") int size,
+                                                      @CurrentUser JwtPrincipal currentUser) {
         try {
-            User currentUser = (User) session.getAttribute("user");
-            if (currentUser == null) {
-                return ApiResponse.error("未登录");
-            }
-
-            List<Message> messages = messageService.getUnreadMessages(currentUser.getId());
+            MessagePage messages = messageService.getUnreadMessages(currentUser.userId(), cursor, size);
             return ApiResponse.success(messages);
         } catch (Exception e) {
             log.error("获取未读消息失败: {}", e.getMessage());
@@ -74,14 +78,9 @@ public class MessageController {
      * 获取未读消息数量
      */
     @GetMapping("/unread/count")
-    public ApiResponse<Map<String, Long>> getUnreadCount(HttpSession session) {
+    public ApiResponse<Map<String, Long>> getUnreadCount(@CurrentUser JwtPrincipal currentUser) {
         try {
-            User currentUser = (User) session.getAttribute("user");
-            if (currentUser == null) {
-                return ApiResponse.error("未登录");
-            }
-
-            long count = messageService.getUnreadCount(currentUser.getId());
+            long count = messageService.getUnreadCount(currentUser.userId());
             Map<String, Long> result = new HashMap<>();
             result.put("count", count);
             return ApiResponse.success(result);
@@ -91,18 +90,26 @@ public class MessageController {
         }
     }
 
+    /**
+     * 获取消息详情（含正文）
+     */
+    @GetMapping("/{id}")
+    public ApiResponse<Message> getMessage(@PathVariable Long id, @CurrentUser JwtPrincipal currentUser) {
+        try {
+            return ApiResponse.success(messageService.getMessage(id, currentUser.userId()));
+        } catch (Exception e) {
+            log.error("获取消息详情失败: {}", e.getMessage());
+            return ApiResponse.error(e.getMessage());
+        }
+    }
+
     /**
      * 标记消息为已读
      */
     @PutMapping("/{id}/read")
-    public ApiResponse<Void> markAsRead(@PathVariable Long id, HttpSession session) {
+    public ApiResponse<Void> markAsRead(@PathVariable Long id, @CurrentUser JwtPrincipal currentUser) {
         try {
-            User currentUser = (User) session.getAttribute("user");
-            if (currentUser == null) {
-                return ApiResponse.error("未登录");
-            }
-
-            messageService.markAsRead(id, currentUser.getId());
+            messageService.markAsRead(id, currentUser.userId());
             return ApiResponse.success("标记成功", null);
         } catch (Exception e) {
             log.error("标记消息已读失败: {}", e.getMessage());
@@ -111,18 +118,15 @@ public class MessageController {
     }
 
     /**
-     * 标记所有消息为已读
+     * 标记所有消息为已读，返回标记的消息数
      */
     @PutMapping("/read-all")
-    public ApiResponse<Void> markAllAsRead(HttpSession session) {
+    public ApiResponse<Map<String, Integer>> markAllAsRead(@CurrentUser JwtPrincipal currentUser) {
         try {
-            User currentUser = (User) session.getAttribute("user");
-            if (currentUser == null) {
-                return ApiResponse.error("未登录");
-            }
-
-            messageService.markAllAsRead(currentUser.getId());
-            return ApiResponse.success("全部标记为已读", null);
+            int count = messageService.markAllAsRead(currentUser.userId());
+            Map<String, Integer> result = new HashMap<>();
+            result.put("count", count);
+            return ApiResponse.success("全部标记为已读", result);
         } catch (Exception e) {
             log.error("标记所有消息已读失败: {}", e.getMessage());
             return ApiResponse.error(e.getMessage());
@@ -133,14 +137,9 @@ public class MessageController {
      * 删除消息
      */
     @DeleteMapping("/{id}")
-    public ApiResponse<Void> deleteMessage(@PathVariable Long id, HttpSession session) {
+    public ApiResponse<Void> deleteMessage(@PathVariable Long id, @CurrentUser JwtPrincipal currentUser) {
         try {
-            User currentUser = (User) session.getAttribute("user");
-            if (currentUser == null) {
-                return ApiResponse.error("未登录");
-            }
-
-            messageService.deleteMessage(id, currentUser.getId());
+            messageService.deleteMessage(id, currentUser.userId());
             return ApiResponse.success("删除成功", null);
         } catch (Exception e) {
             log.error("删除消息失败: {}", e.getMessage());
@@ -155,15 +154,10 @@ public class MessageController {
     public ApiResponse<Message> sendMessage(
             @RequestParam Long userId,
             @Valid @RequestBody SendMessageRequest request,
-            HttpSession session) {
+            @CurrentUser JwtPrincipal currentUser) {
         try {
-            User currentUser = (User) session.getAttribute("user");
-            if (currentUser == null) {
-                return ApiResponse.error("未登录");
-            }
-
             // 设置发送者ID
-            request.setSenderId(currentUser.getId());
+            request.setSenderId(currentUser.userId());
 
             Message message = messageService.sendMessage(userId, request);
             return ApiResponse.success("发送成功", message);
@@ -172,4 +166,51 @@ public class MessageController {
             return ApiResponse.error(e.getMessage());
         }
     }
+
+    /**
+     * 群发消息给所有用户（管理员功能）
+     * 创建后台任务后立即返回，通过 /broadcasts/{id} 查询进度
+     */
+    @PostMapping("/broadcast")
+    public ApiResponse<BroadcastProgress> broadcast(@Valid @RequestBody SendMessageRequest request,
+                                                    @CurrentUser JwtPrincipal currentUser) {
+        adminPolicy.requireAdmin(currentUser);
+        try {
+            request.setSenderId(currentUser.userId());
+            return ApiResponse.success("群发任务已创建", broadcastService.createBroadcast(request));
+        } catch (Exception e) {
+            log.error("创建群发任务失败: {}", e.getMessage());
+            return ApiResponse.error(e.getMessage());
+        }
+    }
+
+    /**
+     * 最近的群发任务及进度（管理员功能）
+     */
+    @GetMapping("/broadcasts")
+    public ApiResponse<List<BroadcastProgress>> getBroadcasts(@RequestParam(defaultValue = "20") int size,
+                                                              @CurrentUser JwtPrincipal currentUser) {
+        adminPolicy.requireAdmin(currentUser);
+        try {
+            return ApiResponse.success(broadcastService.getRecentBroadcasts(size));
+        } catch (Exception e) {
+            log.error("获取群发任务失败: {}", e.getMessage());
+            return ApiResponse.error(e.getMessage());
+        }
+    }
+
+    /**
+     * 群发任务的进度（管理员功能）
+     */
+    @GetMapping("/broadcasts/{id}")
+    public ApiResponse<BroadcastProgress> getBroadcast(@PathVariable Long id,
+                                                       @CurrentUser JwtPrincipal currentUser) {
+        adminPolicy.requireAdmin(currentUser);
+        try {
+            return ApiResponse.success(broadcastService.getProgress(id));
+        } catch (Exception e) {
+            log.error("获取群发任务进度失败: {}", e.getMessage());
+            return ApiResponse.error(e.getMessage());
+        }
+    }
 }
@@ -2,11 +2,13 @@ package com.newsapp.controller;
 
 import com.newsapp.dto.ApiResponse;
 import com.newsapp.dto.NewsDto;
+import com.newsapp.dto.NewsPage;
 import com.newsapp.entity.Subscription;
-import com.newsapp.entity.User;
+import com.newsapp.security.CurrentUser;
+import com.newsapp.security.JwtPrincipal;
 import com.newsapp.service.NewsService;
 import com.newsapp.service.SubscriptionService;
-import jakarta.servlet.http.HttpSession;
+import com.newsapp.service.UserPreferenceService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.web.bind.annotation.*;
@@ -24,25 +26,30 @@ public class NewsController {
 
     private final NewsService newsService;
     private final SubscriptionService subscriptionService;
+    private final UserPreferenceService preferenceService;
 
-    public NewsController(NewsService newsService, SubscriptionService subscriptionService) {
+    public NewsController(NewsService newsService, SubscriptionService subscriptionService,
+                          UserPreferenceService preferenceService) {
         this.newsService = newsService;
         this.subscriptionService = subscriptionService;
+        this.preferenceService = preferenceService;
     }
 
     /**
-     * 获取当前用户订阅的新闻
+     * 获取当前用户订阅的新闻时间线
+     * 各类别按发布时间合并去重，每页条数取用户偏好设置中的 pageSize，
+     * 下一页传入上一页返回的 nextCursor
      */
     @GetMapping
-    public ApiResponse<List<NewsDto>> getUserNews(HttpSession session) {
+    public ApiResponse<NewsPage> getUserNews(@RequestParam(required = false) String cursor,
+                                            @CurrentUser JwtPrincipal user) {
         try {
-            User user = getCurrentUser(session);
-            log.info("获取用户订阅的新闻: userId={}", user.getId());
+            log.info("获取用户订阅的新闻: userId={}", user.userId());
 
-            List<Subscription> subscriptions = subscriptionService.getUserSubscriptions(user.getId());
+            List<Subscription> subscriptions = subscriptionService.getUserSubscriptions(user.userId());
 
             if (subscriptions.isEmpty()) {
-                log.warn("用户 {} 没有订阅任何类别", user.getId());
+                log.warn("用户 {} 没有订阅任何类别", user.userId());
                 return ApiResponse.error("请先订阅新闻类别");
             }
 
@@ -50,12 +57,13 @@ public class NewsController {
                     .map(Subscription::getCategory)
                     .toList();
 
-            log.info("用户 {} 订阅的类别: {}", user.getId(), categories);
+            log.info("用户 {} 订阅的类别: {}", user.userId(), categories);
 
-            List<NewsDto> news = newsService.getUserNews(categories);
-            log.info("为用户 {} 获取到 {} 条新闻", user.getId(), news.size());
+            Integer pageSize = preferenceService.getUserPreference(user.userId()).getPageSize();
+            NewsPage page = newsService.getTimeline(categories, cursor, pageSize != null ? pageSize : 10);
+            log.info("为用户 {} 获取到 {} 条新闻", user.userId(), page.getItems().size());
 
-            return ApiResponse.success(news);
+            return ApiResponse.success(page);
 
         } catch (RuntimeException e) {
             log.error("获取用户新闻失败: {}", e.getMessage());
@@ -80,13 +88,19 @@ public class NewsController {
     }
 
     /**
-     * 获取当前登录用户
+     * 分页获取指定类别的历史新闻
      */
-    private User getCurrentUser(HttpSession session) {
-        User user = (User) session.getAttribute("user");
-        if (user == null) {
-            throw new RuntimeException("请先登录");
+    @GetMapping("/category/{category}/history")
+    public ApiResponse<List<NewsDto>> getNewsHistory(@PathVariable String category,
+                                                     @RequestParam(defaultValue = "0") int page,
+                                                     @RequestParam(defaultValue = "20") int size) {
+        try {
+            log.info("获取历史新闻: category={}, page={}, size={}", category, page, size);
+            List<NewsDto> news = newsService.getNewsHistory(category, page, size);
+            return ApiResponse.success(news);
+        } catch (RuntimeException e) {
+            log.error("获取类别 {} 的历史新闻失败: {}", category, e.getMessage());
+            return ApiResponse.error(e.getMessage());
         }
-        return user;
     }
 }
@@ -0,0 +1,40 @@
+package com.newsapp.controller;
+
+import com.newsapp.security.CurrentUser;
+import com.newsapp.security.JwtPrincipal;
+import com.newsapp.service.MessageService;
+import com.newsapp.service.NotificationPushService;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * 通知推送控制器
+ */
+@RestController
+@RequestMapping("/api/notifications")
+public class NotificationController {
+
+    private final NotificationPushService pushService;
+    private final MessageService messageService;
+
+    public NotificationController(NotificationPushService pushService, MessageService messageService) {
+        this.pushService = pushService;
+        this.messageService = messageService;
+    }
+
+    /**
+     * 打开推送连接（text/event-stream）
+     * 连接建立后先推送 unread-count，之后推送 message、unread-count 和 announcement 事件，
+     * 客户端不再需要轮询未读数量。
+     * 连接最迟在访问令牌过期时关闭，登出时立即关闭，客户端需用新的访问令牌重连
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@CurrentUser JwtPrincipal currentUser) {
+        long unreadCount = messageService.getUnreadCount(currentUser.userId());
+        return pushService.subscribe(currentUser.userId(), currentUser.tokenId(), currentUser.expiresAt(),
+                unreadCount);
+    }
+}
@@ -2,9 +2,10 @@ package com.newsapp.controller;
 
 import com.newsapp.dto.ApiResponse;
 import com.newsapp.dto.UserStatisticsResponse;
-import com.newsapp.entity.User;
+import com.newsapp.security.CurrentUser;
+import com.newsapp.security.JwtPrincipal;
 import com.newsapp.service.StatisticsService;
-import jakarta.servlet.http.HttpSession;
+import com.newsapp.service.UserService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.web.bind.annotation.*;
@@ -19,23 +20,20 @@ public class StatisticsController {
     private static final Logger log = LoggerFactory.getLogger(StatisticsController.class);
 
     private final StatisticsService statisticsService;
+    private final UserService userService;
 
-    public StatisticsController(StatisticsService statisticsService) {
+    public StatisticsController(StatisticsService statisticsService, UserService userService) {
         this.statisticsService = statisticsService;
+        this.userService = userService;
     }
 
     /**
      * 获取用户统计数据
      */
     @GetMapping
-    public ApiResponse<UserStatisticsResponse> getStatistics(HttpSession session) {
+    public ApiResponse<UserStatisticsResponse> getStatistics(@CurrentUser JwtPrincipal currentUser) {
         try {
-            User currentUser = (User) session.getAttribute("user");
-            if (currentUser == null) {
-                return ApiResponse.error("未登录");
-            }
-
-            UserStatisticsResponse stats = statisticsService.getUserStatistics(currentUser);
+            UserStatisticsResponse stats = statisticsService.getUserStatistics(userService.getUserById(currentUser.userId()));
             return ApiResponse.success(stats);
         } catch (Exception e) {
             log.error("获取统计数据失败: {}", e.getMessage());
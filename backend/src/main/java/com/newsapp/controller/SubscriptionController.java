@@ -3,9 +3,9 @@ package com.newsapp.controller;
 import com.newsapp.dto.ApiResponse;
 import com.newsapp.dto.SubscriptionRequest;
 import com.newsapp.entity.Subscription;
-import com.newsapp.entity.User;
+import com.newsapp.security.CurrentUser;
+import com.newsapp.security.JwtPrincipal;
 import com.newsapp.service.SubscriptionService;
-import jakarta.servlet.http.HttpSession;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -32,10 +32,9 @@ public class SubscriptionController {
      * 获取当前用户的订阅列表
      */
     @GetMapping
-    public ApiResponse<List<Subscription>> getSubscriptions(HttpSession session) {
+    public ApiResponse<List<Subscription>> getSubscriptions(@CurrentUser JwtPrincipal user) {
         try {
-            User user = getCurrentUser(session);
-            List<Subscription> subscriptions = subscriptionService.getUserSubscriptions(user.getId());
+            List<Subscription> subscriptions = subscriptionService.getUserSubscriptions(user.userId());
             return ApiResponse.success(subscriptions);
         } catch (RuntimeException e) {
             log.error("获取订阅列表失败: {}", e.getMessage());
@@ -47,11 +46,11 @@ public class SubscriptionController {
      * 订阅新闻类别
      */
     @PostMapping
-    public ApiResponse<Subscription> subscribe(@Valid @RequestBody SubscriptionRequest request, HttpSession session) {
+    public ApiResponse<Subscription> subscribe(@Valid @RequestBody SubscriptionRequest request,
+                                              @CurrentUser JwtPrincipal user) {
         try {
-            User user = getCurrentUser(session);
-            Subscription subscription = subscriptionService.subscribe(user.getId(), request.getCategory());
-            log.info("用户 {} 订阅了 {}", user.getUsername(), request.getCategory());
+            Subscription subscription = subscriptionService.subscribe(user.userId(), request.getCategory());
+            log.info("用户 {} 订阅了 {}", user.username(), request.getCategory());
             return ApiResponse.success("订阅成功", subscription);
         } catch (RuntimeException e) {
             log.error("订阅失败: {}", e.getMessage());
@@ -63,26 +62,14 @@ public class SubscriptionController {
      * 取消订阅
      */
     @DeleteMapping("/{category}")
-    public ApiResponse<Void> unsubscribe(@PathVariable String category, HttpSession session) {
+    public ApiResponse<Void> unsubscribe(@PathVariable String category, @CurrentUser JwtPrincipal user) {
         try {
-            User user = getCurrentUser(session);
-            subscriptionService.unsubscribe(user.getId(), category);
-            log.info("用户 {} 取消订阅了 {}", user.getUsername(), category);
+            subscriptionService.unsubscribe(user.userId(), category);
+            log.info("用户 {} 取消订阅了 {}", user.username(), category);
             return ApiResponse.success("取消订阅成功", null);
         } catch (RuntimeException e) {
             log.error("取消订阅失败: {}", e.getMessage());
             return ApiResponse.error(e.getMessage());
         }
     }
-
-    /**
-     * 获取当前登录用户
-     */
-    private User getCurrentUser(HttpSession session) {
-        User user = (User) session.getAttribute("user");
-        if (user == null) {
-            throw new RuntimeException("请先登录");
-        }
-        return user;
-    }
 }
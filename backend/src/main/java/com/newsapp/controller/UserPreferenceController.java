@@ -2,10 +2,10 @@ package com.newsapp.controller;
 
 import com.newsapp.dto.ApiResponse;
 import com.newsapp.dto.UpdatePreferenceRequest;
-import com.newsapp.entity.User;
 import com.newsapp.entity.UserPreference;
+import com.newsapp.security.CurrentUser;
+import com.newsapp.security.JwtPrincipal;
 import com.newsapp.service.UserPreferenceService;
-import jakarta.servlet.http.HttpSession;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.validation.annotation.Validated;
@@ -31,14 +31,9 @@ public class UserPreferenceController {
      * 获取用户偏好设置
      */
     @GetMapping
-    public ApiResponse<UserPreference> getPreferences(HttpSession session) {
+    public ApiResponse<UserPreference> getPreferences(@CurrentUser JwtPrincipal currentUser) {
         try {
-            User currentUser = (User) session.getAttribute("user");
-            if (currentUser == null) {
-                return ApiResponse.error("未登录");
-            }
-
-            UserPreference preference = preferenceService.getUserPreference(currentUser.getId());
+            UserPreference preference = preferenceService.getUserPreference(currentUser.userId());
             return ApiResponse.success(preference);
         } catch (Exception e) {
             log.error("获取用户偏好设置失败: {}", e.getMessage());
@@ -52,15 +47,10 @@ public class UserPreferenceController {
     @PutMapping
     public ApiResponse<UserPreference> updatePreferences(
             @RequestBody UpdatePreferenceRequest request,
-            HttpSession session) {
+            @CurrentUser JwtPrincipal currentUser) {
         try {
-            User currentUser = (User) session.getAttribute("user");
-            if (currentUser == null) {
-                return ApiResponse.error("未登录");
-            }
-
-            UserPreference updated = preferenceService.updatePreference(currentUser.getId(), request);
-            log.info("用户偏好设置更新成功: userId={}", currentUser.getId());
+            UserPreference updated = preferenceService.updatePreference(currentUser.userId(), request);
+            log.info("用户偏好设置更新成功: userId={}", currentUser.userId());
             return ApiResponse.success("偏好设置更新成功", updated);
         } catch (Exception e) {
             log.error("更新用户偏好设置失败: {}", e.getMessage());
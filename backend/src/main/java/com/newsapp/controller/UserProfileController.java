@@ -5,8 +5,11 @@ import com.newsapp.dto.ChangePasswordRequest;
 import com.newsapp.dto.UpdateProfileRequest;
 import com.newsapp.dto.UserProfileResponse;
 import com.newsapp.entity.User;
+import com.newsapp.security.CurrentUser;
+import com.newsapp.security.JwtPrincipal;
+import com.newsapp.security.TokenRevocationList;
+import com.newsapp.service.RefreshTokenService;
 import com.newsapp.service.UserService;
-import jakarta.servlet.http.HttpSession;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -24,23 +27,23 @@ public class UserProfileController {
     private static final Logger log = LoggerFactory.getLogger(UserProfileController.class);
 
     private final UserService userService;
+    private final RefreshTokenService refreshTokenService;
+    private final TokenRevocationList revocationList;
 
-    public UserProfileController(UserService userService) {
+    public UserProfileController(UserService userService, RefreshTokenService refreshTokenService,
+                                 TokenRevocationList revocationList) {
         this.userService = userService;
+        this.refreshTokenService = refreshTokenService;
+        this.revocationList = revocationList;
     }
 
     /**
      * 获取当前用户资料
      */
     @GetMapping
-    public ApiResponse<UserProfileResponse> getProfile(HttpSession session) {
+    public ApiResponse<UserProfileResponse> getProfile(@CurrentUser JwtPrincipal currentUser) {
         try {
-            User currentUser = (User) session.getAttribute("user");
-            if (currentUser == null) {
-                return ApiResponse.error("未登录");
-            }
-
-            UserProfileResponse profile = userService.getUserProfile(currentUser.getId());
+            UserProfileResponse profile = userService.getUserProfile(currentUser.userId());
             return ApiResponse.success(profile);
         } catch (Exception e) {
             log.error("获取用户资料失败: {}", e.getMessage());
@@ -54,17 +57,9 @@ public class UserProfileController {
     @PutMapping
     public ApiResponse<User> updateProfile(
             @Valid @RequestBody UpdateProfileRequest request,
-            HttpSession session) {
+            @CurrentUser JwtPrincipal currentUser) {
         try {
-            User currentUser = (User) session.getAttribute("user");
-            if (currentUser == null) {
-                return ApiResponse.error("未登录");
-            }
-
-            User updatedUser = userService.updateProfile(currentUser.getId(), request);
-            // 更新session中的用户信息
-            session.setAttribute("user", updatedUser);
-
+            User updatedUser = userService.updateProfile(currentUser.userId(), request);
             log.info("用户资料更新成功: userId={}", updatedUser.getId());
             return ApiResponse.success("资料更新成功", updatedUser);
         } catch (Exception e) {
@@ -79,15 +74,12 @@ public class UserProfileController {
     @PutMapping("/password")
     public ApiResponse<Void> changePassword(
             @Valid @RequestBody ChangePasswordRequest request,
-            HttpSession session) {
+            @CurrentUser JwtPrincipal currentUser) {
         try {
-            User currentUser = (User) session.getAttribute("user");
-            if (currentUser == null) {
-                return ApiResponse.error("未登录");
-            }
-
-            userService.changePassword(currentUser.getId(), request);
-            log.info("密码修改成功: userId={}", currentUser.getId());
+            userService.changePassword(currentUser.userId(), request);
+            // 旧密码下签发的刷新令牌全部作废，其他设备需要重新登录
+            refreshTokenService.revokeAllForUser(currentUser.userId());
+            log.info("密码修改成功: userId={}", currentUser.userId());
             return ApiResponse.success("密码修改成功", null);
         } catch (Exception e) {
             log.error("修改密码失败: {}", e.getMessage());
@@ -99,17 +91,13 @@ public class UserProfileController {
      * 注销账户
      */
     @DeleteMapping
-    public ApiResponse<Void> deleteAccount(HttpSession session) {
+    public ApiResponse<Void> deleteAccount(@CurrentUser JwtPrincipal currentUser) {
         try {
-            User currentUser = (User) session.getAttribute("user");
-            if (currentUser == null) {
-                return ApiResponse.error("未登录");
-            }
-
-            userService.deleteUser(currentUser.getId());
-            session.invalidate();
+            userService.deleteUser(currentUser.userId());
+            // 当前访问令牌立即失效；刷新令牌随用户记录级联删除
+            revocationList.revoke(currentUser.tokenId(), currentUser.expiresAt());
 
-            log.info("账户注销成功: userId={}", currentUser.getId());
+            log.info("账户注销成功: userId={}", currentUser.userId());
             return ApiResponse.success("账户注销成功", null);
         } catch (Exception e) {
             log.error("账户注销失败: {}", e.getMessage());
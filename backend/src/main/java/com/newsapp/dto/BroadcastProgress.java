@@ -0,0 +1,22 @@
+package com.newsapp.dto;
+
+import com.newsapp.entity.MessageBroadcast;
+
+import java.time.LocalDateTime;
+
+/**
+ * 群发任务的进度，不含正文和租约信息
+ *
+ * @param totalRecipients 创建任务时的用户总数，之后注册的用户也会收到，delivered 可能略大于它
+ * @param lastError       最近一次失败的原因，成功写入一批后清空
+ */
+public record BroadcastProgress(Long id, String title, String status, Long totalRecipients, Long delivered,
+                                String lastError, LocalDateTime createdAt, LocalDateTime startedAt,
+                                LocalDateTime finishedAt) {
+
+    public static BroadcastProgress from(MessageBroadcast broadcast) {
+        return new BroadcastProgress(broadcast.getId(), broadcast.getTitle(), broadcast.getStatus(),
+                broadcast.getTotalRecipients(), broadcast.getDelivered(), broadcast.getLastError(),
+                broadcast.getCreatedAt(), broadcast.getStartedAt(), broadcast.getFinishedAt());
+    }
+}
@@ -0,0 +1,52 @@
+package com.newsapp.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * news 缓存中的条目：新闻列表、从 NewsAPI 拉取的时间和写入缓存的时间
+ * 读取时根据写入时间判断条目是新鲜、需要后台刷新还是必须同步刷新；
+ * 刷新失败时根据拉取时间判断旧数据是否还能返回
+ */
+public class CachedNews {
+    private List<NewsDto> articles;
+    private long fetchedAt;
+    private long cachedAt;
+
+    public CachedNews() {
+    }
+
+    public CachedNews(List<NewsDto> articles, long fetchedAt) {
+        this(articles, fetchedAt, fetchedAt);
+    }
+
+    public CachedNews(List<NewsDto> articles, long fetchedAt, long cachedAt) {
+        this.articles = new ArrayList<>(articles);
+        this.fetchedAt = fetchedAt;
+        this.cachedAt = cachedAt;
+    }
+
+    public List<NewsDto> getArticles() {
+        return articles;
+    }
+
+    public void setArticles(List<NewsDto> articles) {
+        this.articles = articles;
+    }
+
+    public long getFetchedAt() {
+        return fetchedAt;
+    }
+
+    public void setFetchedAt(long fetchedAt) {
+        this.fetchedAt = fetchedAt;
+    }
+
+    public long getCachedAt() {
+        return cachedAt;
+    }
+
+    public void setCachedAt(long cachedAt) {
+        this.cachedAt = cachedAt;
+    }
+}
@@ -0,0 +1,18 @@
+package com.newsapp.dto;
+
+import com.newsapp.entity.User;
+
+import java.time.LocalDateTime;
+
+/**
+ * users 缓存中的条目：用户资料，不含密码哈希
+ * 不可变，L1 中的同一个实例会被多个请求共享；JSON 字段名与 User 实体一致
+ */
+public record CachedUser(Long id, String username, String email, String avatarUrl, String bio,
+                         LocalDateTime createdAt) {
+
+    public static CachedUser from(User user) {
+        return new CachedUser(user.getId(), user.getUsername(), user.getEmail(), user.getAvatarUrl(),
+                user.getBio(), user.getCreatedAt());
+    }
+}
@@ -1,32 +1,39 @@
 package com.newsapp.dto;
 
-import com.newsapp.entity.User;
-
 /**
  * 登录响应 DTO
- * 包含用户信息和 JWT token
+ * 包含用户信息、短期有效的 JWT 访问令牌和用于续期的刷新令牌
+ * 用户信息使用 CachedUser，不含密码哈希
  */
 public class LoginResponse {
 
-    private User user;
+    private CachedUser user;
     private String token;
     private String tokenType = "Bearer";
     private Long expiresIn;
+    private String refreshToken;
+    private Long refreshExpiresIn;
 
     public LoginResponse() {
     }
 
-    public LoginResponse(User user, String token, Long expiresIn) {
+    public LoginResponse(CachedUser user, String token, Long expiresIn) {
         this.user = user;
         this.token = token;
         this.expiresIn = expiresIn;
     }
 
-    public User getUser() {
+    public LoginResponse(CachedUser user, String token, Long expiresIn, String refreshToken, Long refreshExpiresIn) {
+        this(user, token, expiresIn);
+        this.refreshToken = refreshToken;
+        this.refreshExpiresIn = refreshExpiresIn;
+    }
+
+    public CachedUser getUser() {
         return user;
     }
 
-    public void setUser(User user) {
+    public void setUser(CachedUser user) {
         this.user = user;
     }
 
@@ -53,4 +60,20 @@ public class LoginResponse {
     public void setExpiresIn(Long expiresIn) {
         this.expiresIn = expiresIn;
     }
+
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+
+    public Long getRefreshExpiresIn() {
+        return refreshExpiresIn;
+    }
+
+    public void setRefreshExpiresIn(Long refreshExpiresIn) {
+        this.refreshExpiresIn = refreshExpiresIn;
+    }
 }
@@ -0,0 +1,38 @@
+package com.newsapp.dto;
+
+import java.util.List;
+
+/**
+ * 消息列表的一页
+ */
+public class MessagePage {
+    private List<MessageSummary> items;
+    /**
+     * 下一页的游标，没有更多数据时为 null
+     */
+    private String nextCursor;
+
+    public MessagePage() {
+    }
+
+    public MessagePage(List<MessageSummary> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<MessageSummary> getItems() {
+        return items;
+    }
+
+    public void setItems(List<MessageSummary> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
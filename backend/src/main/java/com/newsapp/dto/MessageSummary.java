@@ -0,0 +1,20 @@
+package com.newsapp.dto;
+
+import com.newsapp.entity.Message;
+
+import java.time.LocalDateTime;
+
+/**
+ * 消息列表中的一条消息，不含正文；正文通过消息详情接口读取
+ *
+ * @param type 消息类型（Message.messageType）
+ * @param read 是否已读（Message.isRead）
+ */
+public record MessageSummary(Long id, String title, String type, Boolean read, Long senderId,
+                             LocalDateTime createdAt) {
+
+    public static MessageSummary from(Message message) {
+        return new MessageSummary(message.getId(), message.getTitle(), message.getMessageType(), message.getIsRead(),
+                message.getSenderId(), message.getCreatedAt());
+    }
+}
@@ -0,0 +1,38 @@
+package com.newsapp.dto;
+
+import java.util.List;
+
+/**
+ * 新闻时间线的一页
+ */
+public class NewsPage {
+    private List<NewsDto> items;
+    /**
+     * 下一页的游标，没有更多数据时为 null
+     */
+    private String nextCursor;
+
+    public NewsPage() {
+    }
+
+    public NewsPage(List<NewsDto> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<NewsDto> getItems() {
+        return items;
+    }
+
+    public void setItems(List<NewsDto> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
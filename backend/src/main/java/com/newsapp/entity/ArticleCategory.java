@@ -0,0 +1,102 @@
+package com.newsapp.entity;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * 文章与类别的关联
+ * NewsAPI 可能在多个类别下返回同一篇文章，每个类别各有一行；
+ * published_at 冗余自 articles，按类别读取最新文章时只扫描 (category, published_at) 索引
+ */
+@Entity
+@Table(name = "article_categories", indexes = {
+        @Index(name = "idx_article_categories_category_published", columnList = "category, published_at")
+})
+@IdClass(ArticleCategory.Key.class)
+public class ArticleCategory {
+
+    @Id
+    @Column(name = "url_hash", length = 64)
+    private String urlHash;
+
+    @Id
+    @Column(length = 50)
+    private String category;
+
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+
+    /**
+     * 最近一次在该类别下拉取到这篇文章的时间
+     */
+    @Column(name = "fetched_at", nullable = false)
+    private LocalDateTime fetchedAt;
+
+    public String getUrlHash() {
+        return urlHash;
+    }
+
+    public void setUrlHash(String urlHash) {
+        this.urlHash = urlHash;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public LocalDateTime getPublishedAt() {
+        return publishedAt;
+    }
+
+    public void setPublishedAt(LocalDateTime publishedAt) {
+        this.publishedAt = publishedAt;
+    }
+
+    public LocalDateTime getFetchedAt() {
+        return fetchedAt;
+    }
+
+    public void setFetchedAt(LocalDateTime fetchedAt) {
+        this.fetchedAt = fetchedAt;
+    }
+
+    /**
+     * 联合主键 (url_hash, category)
+     */
+    public static class Key implements Serializable {
+
+        private String urlHash;
+        private String category;
+
+        public Key() {
+        }
+
+        public Key(String urlHash, String category) {
+            this.urlHash = urlHash;
+            this.category = category;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key key)) {
+                return false;
+            }
+            return Objects.equals(urlHash, key.urlHash) && Objects.equals(category, key.category);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(urlHash, category);
+        }
+    }
+}
@@ -4,13 +4,24 @@ import jakarta.persistence.*;
 
 /**
  * 站内消息实体
+ * 主键取自 messages_seq 表（MySQL 没有序列，Hibernate 用单行表模拟），每次预取 ALLOCATION_SIZE 个，
+ * 插入前即可确定主键，批量插入不必逐行取回自增 ID；群发任务通过 MessageBulkWriter 从同一张表整段预留主键
  */
 @Entity
-@Table(name = "messages")
+@Table(name = "messages", indexes = {
+        @Index(name = "idx_messages_user_created", columnList = "user_id, created_at, id"),
+        @Index(name = "idx_messages_user_read_created", columnList = "user_id, is_read, created_at, id")
+})
 public class Message {
 
+    /**
+     * 每次从 messages_seq 预取的主键个数，与 hibernate.jdbc.batch_size 一致
+     */
+    public static final int ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "messages_seq")
+    @SequenceGenerator(name = "messages_seq", sequenceName = "messages_seq", allocationSize = ALLOCATION_SIZE)
     private Long id;
 
     @Column(name = "user_id", nullable = false)
@@ -39,7 +50,8 @@ public class Message {
 
     @PrePersist
     protected void onCreate() {
-        createdAt = java.time.LocalDateTime.now();
+        // 截断到微秒，与 DATETIME(6) 落库值一致，推送出去的时间与翻页游标看到的相同
+        createdAt = java.time.LocalDateTime.now().truncatedTo(java.time.temporal.ChronoUnit.MICROS);
     }
 
     public Long getId() {
@@ -1,5 +1,6 @@
 package com.newsapp.entity;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
@@ -20,6 +21,10 @@ public class User {
     @Column(unique = true, nullable = false, length = 100)
     private String email;
 
+    /**
+     * BCrypt 哈希，不出现在 JSON 响应中
+     */
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     @Column(nullable = false)
     private String password;
 
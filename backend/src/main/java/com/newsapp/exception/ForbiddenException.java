@@ -0,0 +1,12 @@
+package com.newsapp.exception;
+
+/**
+ * 无权限异常
+ * 已登录但没有执行该操作的权限时抛出，响应 403
+ */
+public class ForbiddenException extends BusinessException {
+
+    public ForbiddenException(String message) {
+        super(message);
+    }
+}
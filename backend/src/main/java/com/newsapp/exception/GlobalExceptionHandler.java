@@ -1,8 +1,10 @@
 package com.newsapp.exception;
 
 import com.newsapp.dto.ApiResponse;
+import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -41,6 +43,38 @@ public class GlobalExceptionHandler {
         return ApiResponse.error(errorMsg);
     }
 
+    /**
+     * 处理未登录异常
+     */
+    @ExceptionHandler(UnauthorizedException.class)
+    @ResponseStatus(HttpStatus.UNAUTHORIZED)
+    public ApiResponse<Void> handleUnauthorizedException(UnauthorizedException ex) {
+        log.debug("未登录: {}", ex.getMessage());
+        return ApiResponse.error(ex.getMessage());
+    }
+
+    /**
+     * 处理无权限异常
+     */
+    @ExceptionHandler(ForbiddenException.class)
+    @ResponseStatus(HttpStatus.FORBIDDEN)
+    public ApiResponse<Void> handleForbiddenException(ForbiddenException ex) {
+        log.warn("无权限: {}", ex.getMessage());
+        return ApiResponse.error(ex.getMessage());
+    }
+
+    /**
+     * 处理请求过多异常，Retry-After 告知客户端何时重试
+     */
+    @ExceptionHandler(TooManyRequestsException.class)
+    @ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+    public ApiResponse<Void> handleTooManyRequestsException(TooManyRequestsException ex,
+                                                            HttpServletResponse response) {
+        log.warn("请求过多: {}", ex.getMessage());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()));
+        return ApiResponse.error(ex.getMessage());
+    }
+
     /**
      * 处理业务异常
      */
@@ -0,0 +1,32 @@
+package com.newsapp.exception;
+
+/**
+ * NewsAPI 调用失败
+ * 包括上游返回非 2xx、被熔断器或限流器拒绝（statusCode 为 0）
+ */
+public class NewsApiException extends RuntimeException {
+
+    private final int statusCode;
+    private final long retryAfterMs;
+
+    public NewsApiException(String message) {
+        this(message, 0, 0);
+    }
+
+    public NewsApiException(String message, int statusCode, long retryAfterMs) {
+        super(message);
+        this.statusCode = statusCode;
+        this.retryAfterMs = retryAfterMs;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * 上游要求的重试等待时间（毫秒），没有时为 0
+     */
+    public long getRetryAfterMs() {
+        return retryAfterMs;
+    }
+}
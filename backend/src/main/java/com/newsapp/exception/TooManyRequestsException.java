@@ -0,0 +1,19 @@
+package com.newsapp.exception;
+
+/**
+ * 请求过多异常
+ * 服务端资源饱和、需要客户端稍后重试时抛出，响应 429
+ */
+public class TooManyRequestsException extends BusinessException {
+
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
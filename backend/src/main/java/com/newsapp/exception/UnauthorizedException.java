@@ -0,0 +1,12 @@
+package com.newsapp.exception;
+
+/**
+ * 未登录异常
+ * 请求没有携带有效的访问令牌时抛出，响应 401
+ */
+public class UnauthorizedException extends BusinessException {
+
+    public UnauthorizedException(String message) {
+        super(message);
+    }
+}
@@ -1,5 +1,7 @@
 package com.newsapp.filter;
 
+import com.newsapp.security.JwtPrincipal;
+import com.newsapp.security.TokenRevocationList;
 import com.newsapp.util.JwtUtil;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -15,6 +17,7 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Optional;
 
 /**
  * JWT 认证过滤器
@@ -26,9 +29,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private static final Logger log = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
 
     private final JwtUtil jwtUtil;
+    private final TokenRevocationList revocationList;
 
-    public JwtAuthenticationFilter(JwtUtil jwtUtil) {
+    public JwtAuthenticationFilter(JwtUtil jwtUtil, TokenRevocationList revocationList) {
         this.jwtUtil = jwtUtil;
+        this.revocationList = revocationList;
     }
 
     @Override
@@ -43,16 +48,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             String token = authHeader.substring(7); // 移除 "Bearer " 前缀
 
             try {
-                // 验证 token
-                if (jwtUtil.validateToken(token)) {
-                    // 从 token 中获取用户信息
-                    String username = jwtUtil.getUsernameFromToken(token);
-                    Long userId = jwtUtil.getUserIdFromToken(token);
+                // 验证 token 并取出用户信息（只解析一次，重复的 token 命中缓存）
+                Optional<JwtPrincipal> verified = jwtUtil.verify(token);
+                if (verified.isPresent() && revocationList.isRevoked(verified.get().tokenId())) {
+                    log.warn("JWT token has been revoked");
+                } else if (verified.isPresent()) {
+                    JwtPrincipal principal = verified.get();
 
-                    // 创建认证对象
+                    // 创建认证对象，主体即已验证的 JwtPrincipal，控制器通过 @CurrentUser 取用
                     UsernamePasswordAuthenticationToken authentication =
                             new UsernamePasswordAuthenticationToken(
-                                    userId,
+                                    principal,
                                     null,
                                     new ArrayList<>()
                             );
@@ -61,7 +67,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                     // 设置到 SecurityContext
                     SecurityContextHolder.getContext().setAuthentication(authentication);
 
-                    log.debug("JWT authentication successful for user: {}", username);
+                    log.debug("JWT authentication successful for user: {}", principal.username());
                 } else {
                     log.warn("Invalid JWT token");
                 }
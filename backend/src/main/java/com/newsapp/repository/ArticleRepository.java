@@ -0,0 +1,37 @@
+package com.newsapp.repository;
+
+import com.newsapp.entity.Article;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 新闻文章 Repository
+ */
+@Repository
+public interface ArticleRepository extends JpaRepository<Article, String> {
+
+    /**
+     * 按 URL 哈希批量查找已存储的文章
+     */
+    List<Article> findByUrlHashIn(Collection<String> urlHashes);
+
+    /**
+     * 获取类别下的文章（按 article_categories 关联），按发布时间倒序分页
+     */
+    @Query("SELECT a FROM ArticleCategory c JOIN Article a ON a.urlHash = c.urlHash "
+            + "WHERE c.category = :category ORDER BY c.publishedAt DESC")
+    List<Article> findByLinkedCategory(@Param("category") String category, Pageable pageable);
+
+    /**
+     * 类别最近一次拉取到文章的时间，类别下没有文章时返回 null
+     */
+    @Query("SELECT MAX(c.fetchedAt) FROM ArticleCategory c WHERE c.category = :category")
+    LocalDateTime findLastFetchedAt(@Param("category") String category);
+}
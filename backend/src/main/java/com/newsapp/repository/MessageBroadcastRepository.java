@@ -0,0 +1,99 @@
+package com.newsapp.repository;
+
+import com.newsapp.entity.MessageBroadcast;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 群发消息任务 Repository
+ * 状态变更都是带条件的 UPDATE：只有租约已过期才能接手，只有持有租约的节点才能记录进度，
+ * 返回 0 表示条件不满足（已被其他节点接手或任务已结束）
+ */
+@Repository
+public interface MessageBroadcastRepository extends JpaRepository<MessageBroadcast, Long> {
+
+    /**
+     * 待执行或执行节点租约已过期的任务
+     */
+    @Query("SELECT b.id FROM MessageBroadcast b WHERE b.status IN ('PENDING', 'RUNNING') "
+            + "AND (b.leaseUntil IS NULL OR b.leaseUntil < :now) ORDER BY b.id")
+    List<Long> findClaimableIds(@Param("now") LocalDateTime now);
+
+    /**
+     * 最近创建的任务
+     */
+    List<MessageBroadcast> findAllByOrderByIdDesc(Pageable pageable);
+
+    /**
+     * 接手任务：租约未过期时不成功
+     *
+     * @return 1 表示接手成功
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE MessageBroadcast b SET b.status = 'RUNNING', b.claimedBy = :nodeId, b.leaseUntil = :leaseUntil, "
+            + "b.startedAt = COALESCE(b.startedAt, :now) "
+            + "WHERE b.id = :id AND b.status IN ('PENDING', 'RUNNING') "
+            + "AND (b.leaseUntil IS NULL OR b.leaseUntil < :now)")
+    int claim(@Param("id") Long id, @Param("nodeId") String nodeId,
+              @Param("now") LocalDateTime now, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    /**
+     * 记录写入的一批并续约；与这批消息的插入在同一事务中
+     *
+     * @return 0 表示已失去租约，调用方应回滚
+     */
+    @Modifying
+    @Query("UPDATE MessageBroadcast b SET b.lastUserId = :lastUserId, b.delivered = b.delivered + :count, "
+            + "b.failures = 0, b.lastError = NULL, b.leaseUntil = :leaseUntil "
+            + "WHERE b.id = :id AND b.claimedBy = :nodeId AND b.status = 'RUNNING'")
+    int recordProgress(@Param("id") Long id, @Param("nodeId") String nodeId, @Param("lastUserId") Long lastUserId,
+                       @Param("count") long count, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    /**
+     * 标记任务完成并释放租约
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE MessageBroadcast b SET b.status = 'COMPLETED', b.finishedAt = :now, "
+            + "b.claimedBy = NULL, b.leaseUntil = NULL "
+            + "WHERE b.id = :id AND b.claimedBy = :nodeId AND b.status = 'RUNNING'")
+    int complete(@Param("id") Long id, @Param("nodeId") String nodeId, @Param("now") LocalDateTime now);
+
+    /**
+     * 记录一次失败；租约延到 retryAt，到期后由任意节点重试
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE MessageBroadcast b SET b.failures = b.failures + 1, b.lastError = :error, "
+            + "b.claimedBy = NULL, b.leaseUntil = :retryAt "
+            + "WHERE b.id = :id AND b.claimedBy = :nodeId AND b.status = 'RUNNING'")
+    int recordFailure(@Param("id") Long id, @Param("nodeId") String nodeId, @Param("error") String error,
+                      @Param("retryAt") LocalDateTime retryAt);
+
+    /**
+     * 连续失败达到上限的任务标记为失败，不再重试
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE MessageBroadcast b SET b.status = 'FAILED', b.finishedAt = :now, b.leaseUntil = NULL "
+            + "WHERE b.id = :id AND b.status = 'RUNNING' AND b.failures >= :maxFailures")
+    int failIfExhausted(@Param("id") Long id, @Param("maxFailures") int maxFailures, @Param("now") LocalDateTime now);
+
+    /**
+     * 节点停止时释放租约，其他节点可以立即接手
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE MessageBroadcast b SET b.claimedBy = NULL, b.leaseUntil = NULL "
+            + "WHERE b.id = :id AND b.claimedBy = :nodeId")
+    int release(@Param("id") Long id, @Param("nodeId") String nodeId);
+}
@@ -1,29 +1,105 @@
 package com.newsapp.repository;
 
+import com.newsapp.dto.MessageSummary;
 import com.newsapp.entity.Message;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * 消息 Repository
+ * 列表查询按 (created_at, id) 倒序做 keyset 分页，只查询列表需要的列（不含正文）：
+ * 全部消息走索引 (user_id, created_at, id)，未读消息走索引 (user_id, is_read, created_at, id)
  */
 @Repository
 public interface MessageRepository extends JpaRepository<Message, Long> {
 
     /**
-     * 获取用户的所有消息，按创建时间倒序
+     * 用户消息列表的第一页
      */
-    List<Message> findByUserIdOrderByCreatedAtDesc(Long userId);
+    @Query("SELECT new com.newsapp.dto.MessageSummary(m.id, m.title, m.messageType, m.isRead, m.senderId, m.createdAt) "
+            + "FROM Message m WHERE m.userId = :userId "
+            + "ORDER BY m.createdAt DESC, m.id DESC")
+    List<MessageSummary> findSummaries(@Param("userId") Long userId, Pageable pageable);
 
     /**
-     * 获取用户的未读消息
+     * 用户消息列表中排在 (createdAt, id) 之后的一页
      */
-    List<Message> findByUserIdAndIsReadFalseOrderByCreatedAtDesc(Long userId);
+    @Query("SELECT new com.newsapp.dto.MessageSummary(m.id, m.title, m.messageType, m.isRead, m.senderId, m.createdAt) "
+            + "FROM Message m WHERE m.userId = :userId "
+            + "AND (m.createdAt < :createdAt OR (m.createdAt = :createdAt AND m.id < :id)) "
+            + "ORDER BY m.createdAt DESC, m.id DESC")
+    List<MessageSummary> findSummariesBefore(@Param("userId") Long userId,
+                                             @Param("createdAt") LocalDateTime createdAt,
+                                             @Param("id") Long id,
+                                             Pageable pageable);
+
+    /**
+     * 用户未读消息列表的第一页
+     */
+    @Query("SELECT new com.newsapp.dto.MessageSummary(m.id, m.title, m.messageType, m.isRead, m.senderId, m.createdAt) "
+            + "FROM Message m WHERE m.userId = :userId AND m.isRead = false "
+            + "ORDER BY m.createdAt DESC, m.id DESC")
+    List<MessageSummary> findUnreadSummaries(@Param("userId") Long userId, Pageable pageable);
+
+    /**
+     * 用户未读消息列表中排在 (createdAt, id) 之后的一页
+     */
+    @Query("SELECT new com.newsapp.dto.MessageSummary(m.id, m.title, m.messageType, m.isRead, m.senderId, m.createdAt) "
+            + "FROM Message m WHERE m.userId = :userId AND m.isRead = false "
+            + "AND (m.createdAt < :createdAt OR (m.createdAt = :createdAt AND m.id < :id)) "
+            + "ORDER BY m.createdAt DESC, m.id DESC")
+    List<MessageSummary> findUnreadSummariesBefore(@Param("userId") Long userId,
+                                                   @Param("createdAt") LocalDateTime createdAt,
+                                                   @Param("id") Long id,
+                                                   Pageable pageable);
+
+    /**
+     * 把用户的未读消息全部标记为已读，一条 UPDATE 完成，不加载实体
+     *
+     * @return 标记的消息数
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Message m SET m.isRead = true, m.readAt = :readAt WHERE m.userId = :userId AND m.isRead = false")
+    int markAllAsRead(@Param("userId") Long userId, @Param("readAt") LocalDateTime readAt);
 
     /**
      * 统计用户未读消息数量
      */
     long countByUserIdAndIsReadFalse(Long userId);
+
+    /**
+     * 用户的未读消息数（对账用）
+     */
+    interface UnreadCountView {
+        Long getUserId();
+
+        Long getUnread();
+    }
+
+    /**
+     * 批量统计用户的未读消息数，没有未读消息的用户不出现在结果中
+     */
+    @Query("SELECT m.userId AS userId, COUNT(m) AS unread FROM Message m "
+            + "WHERE m.userId IN :userIds AND m.isRead = false GROUP BY m.userId")
+    List<UnreadCountView> countUnreadByUserIds(@Param("userIds") Collection<Long> userIds);
+
+    /**
+     * 按 ID 查找消息并加行锁，标记已读和删除时按锁定后的已读状态增减未读计数
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT m FROM Message m WHERE m.id = :id")
+    Optional<Message> findByIdForUpdate(@Param("id") Long id);
 }
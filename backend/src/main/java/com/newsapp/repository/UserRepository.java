@@ -1,9 +1,15 @@
 package com.newsapp.repository;
 
 import com.newsapp.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -31,4 +37,40 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * 检查邮箱是否存在
      */
     boolean existsByEmail(String email);
+
+    /**
+     * 用户名和邮箱（构建唯一性索引用）
+     */
+    interface IdentityView {
+        Long getId();
+
+        String getUsername();
+
+        String getEmail();
+    }
+
+    /**
+     * 按主键顺序读取 afterId 之后的一批用户名和邮箱，只查询三列
+     */
+    @Query("SELECT u.id AS id, u.username AS username, u.email AS email FROM User u "
+            + "WHERE u.id > :afterId ORDER BY u.id")
+    List<IdentityView> findIdentitiesAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * 按主键顺序读取 afterId 之后的一批用户 ID（群发消息的接收者），只扫描主键索引
+     */
+    @Query("SELECT u.id FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * 仅当密码哈希仍是 expected 时更新，避免覆盖期间修改过的密码
+     *
+     * @return 更新的行数，0 表示密码已被修改
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.password = :password WHERE u.id = :id AND u.password = :expected")
+    int updatePasswordIfUnchanged(@Param("id") Long id,
+                                  @Param("expected") String expected,
+                                  @Param("password") String password);
 }
@@ -0,0 +1,42 @@
+package com.newsapp.security;
+
+import com.newsapp.exception.ForbiddenException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 管理员判定
+ * 用户表没有角色字段，管理员由配置的用户 ID 列表（security.admin.user-ids）指定；为空时没有管理员
+ */
+@Component
+public class AdminPolicy {
+
+    private final Set<Long> adminUserIds;
+
+    public AdminPolicy(@Value("${security.admin.user-ids:}") String adminUserIds) {
+        this.adminUserIds = Arrays.stream(adminUserIds.split(","))
+                .map(String::trim)
+                .filter(id -> !id.isEmpty())
+                .map(Long::valueOf)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    public boolean isAdmin(JwtPrincipal principal) {
+        return principal != null && adminUserIds.contains(principal.userId());
+    }
+
+    /**
+     * 要求当前用户是管理员
+     *
+     * @throws ForbiddenException 不是管理员
+     */
+    public void requireAdmin(JwtPrincipal principal) {
+        if (!isAdmin(principal)) {
+            throw new ForbiddenException("需要管理员权限");
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.newsapp.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * BCrypt cost 校准
+ * 在当前机器上实测哈希耗时，选出单次校验不超过目标耗时的最大 cost。
+ * cost 每加 1 耗时翻倍，因此从 minCost 开始逐级测量，下一级预计超出目标时停止。
+ * 校验与生成哈希的计算量相同，这里只测生成。
+ */
+public final class BCryptCostCalibrator {
+
+    private static final Logger log = LoggerFactory.getLogger(BCryptCostCalibrator.class);
+
+    private static final String SAMPLE = "calibration-Password123";
+
+    private BCryptCostCalibrator() {
+    }
+
+    /**
+     * @param targetMillis 单次校验的目标耗时（毫秒）
+     * @param minCost      最小 cost，即使机器很慢也不低于它
+     * @param maxCost      最大 cost
+     * @return 校准后的 cost
+     */
+    public static int calibrate(long targetMillis, int minCost, int maxCost) {
+        if (minCost < 4 || maxCost > 31 || minCost > maxCost) {
+            throw new IllegalArgumentException("BCrypt cost 范围无效: " + minCost + ".." + maxCost);
+        }
+        // 预热，避免第一次测量包含类加载和 JIT
+        new BCryptPasswordEncoder(4).encode(SAMPLE);
+
+        int cost = minCost;
+        long elapsed = measure(cost);
+        while (cost < maxCost && elapsed * 2 <= targetMillis) {
+            cost++;
+            elapsed = measure(cost);
+        }
+        log.info("BCrypt cost 已校准: cost={}, 单次耗时 {}ms（目标 {}ms）", cost, elapsed, targetMillis);
+        return cost;
+    }
+
+    private static long measure(int cost) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(cost);
+        long start = System.nanoTime();
+        encoder.encode(SAMPLE);
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+}
@@ -0,0 +1,19 @@
+package com.newsapp.security;
+
+import java.lang.annotation.*;
+
+/**
+ * 将当前登录用户注入控制器方法参数
+ * 参数类型为 JwtPrincipal，来自 JwtAuthenticationFilter 已验证的 token，不查询数据库也不依赖 HttpSession。
+ * 未登录时：required 为 true 返回 401，为 false 注入 null
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CurrentUser {
+
+    /**
+     * 是否必须登录
+     */
+    boolean required() default true;
+}
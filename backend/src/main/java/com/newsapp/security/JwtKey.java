@@ -0,0 +1,67 @@
+package com.newsapp.security;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECKey;
+
+/**
+ * 密钥环中的一把密钥
+ * 非对称密钥用私钥签名、公钥验签；只有公钥的密钥（已轮换下来的旧密钥）只用于验签。
+ * HMAC 密钥签名和验签用同一把，不会通过 JWKS 公开。
+ *
+ * @param kid             密钥 ID，写在 JWT 头部
+ * @param algorithm       签名算法
+ * @param signingKey      签名用的密钥，只能验签时为 null
+ * @param verificationKey 验签用的密钥
+ */
+public record JwtKey(String kid, SignatureAlgorithm algorithm, Key signingKey, Key verificationKey) {
+
+    /**
+     * 旧版 HS256 共享密钥，签发的 token 头部不带 kid
+     */
+    public static JwtKey hmac(String secret) {
+        Key key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        return new JwtKey(null, SignatureAlgorithm.HS256, key, key);
+    }
+
+    /**
+     * 非对称密钥，算法由密钥类型决定：RSA 为 RS256，EC 按曲线为 ES256/ES384/ES512
+     *
+     * @param privateKey 私钥，只用于验签时传 null
+     */
+    public static JwtKey asymmetric(String kid, PrivateKey privateKey, PublicKey publicKey) {
+        return new JwtKey(kid, algorithmFor(publicKey), privateKey, publicKey);
+    }
+
+    public boolean canSign() {
+        return signingKey != null;
+    }
+
+    /**
+     * 是否可以通过 JWKS 公开（只有非对称密钥的公钥可以）
+     */
+    public boolean isPublishable() {
+        return verificationKey instanceof PublicKey;
+    }
+
+    private static SignatureAlgorithm algorithmFor(PublicKey publicKey) {
+        if ("RSA".equals(publicKey.getAlgorithm())) {
+            return SignatureAlgorithm.RS256;
+        }
+        if (publicKey instanceof ECKey ecKey) {
+            int fieldSize = ecKey.getParams().getCurve().getField().getFieldSize();
+            return switch (fieldSize) {
+                case 256 -> SignatureAlgorithm.ES256;
+                case 384 -> SignatureAlgorithm.ES384;
+                case 521 -> SignatureAlgorithm.ES512;
+                default -> throw new IllegalArgumentException("不支持的 EC 曲线: " + fieldSize + " 位");
+            };
+        }
+        throw new IllegalArgumentException("不支持的密钥类型: " + publicKey.getAlgorithm());
+    }
+}
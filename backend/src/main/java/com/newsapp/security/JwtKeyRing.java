@@ -0,0 +1,226 @@
+package com.newsapp.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.*;
+
+/**
+ * JWT 密钥环
+ * 从 jwt.keys.path 目录加载多把密钥，每把由 kid 标识：
+ * <kid>.pub 为 X.509 PEM 公钥（必需），<kid>.key 为 PKCS#8 PEM 私钥（可选，没有时只用于验签）。
+ * 签名使用 jwt.keys.active-kid 指定的密钥，未指定时使用有私钥的 kid 中字典序最大的一个，
+ * 因此 kid 建议带日期前缀（如 2026-10-rs256）。验签按 JWT 头部的 kid 直接查表。
+ *
+ * 没有配置密钥目录时退回到 jwt.secret 的 HS256 共享密钥；
+ * 配置了密钥目录后，jwt.keys.accept-legacy-hs256 为 true 时仍接受旧的不带 kid 的 HS256 token，
+ * 迁移期间已登录用户不需要重新登录。
+ */
+@Component
+public class JwtKeyRing extends SigningKeyResolverAdapter {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtKeyRing.class);
+
+    @Value("${jwt.keys.path:}")
+    private String keysPath;
+
+    @Value("${jwt.keys.active-kid:}")
+    private String activeKid;
+
+    @Value("${jwt.secret:}")
+    private String legacySecret;
+
+    @Value("${jwt.keys.accept-legacy-hs256:true}")
+    private boolean acceptLegacy;
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * 某一时刻的密钥集合（不可变），重新加载时整体替换
+     */
+    private record Snapshot(Map<String, JwtKey> keys, JwtKey active, JwtKey legacy) {
+    }
+
+    /**
+     * 用给定的密钥构建密钥环（不读取配置和目录）
+     *
+     * @param keys      非对称密钥
+     * @param activeKid 签名使用的 kid，为 null 时使用 legacy
+     * @param legacy    旧版 HS256 密钥，可为 null
+     */
+    public static JwtKeyRing of(Collection<JwtKey> keys, String activeKid, JwtKey legacy) {
+        JwtKeyRing ring = new JwtKeyRing();
+        ring.snapshot = snapshot(keys, activeKid, legacy);
+        return ring;
+    }
+
+    @PostConstruct
+    public void init() {
+        reload();
+    }
+
+    /**
+     * 重新加载密钥目录
+     * 新增密钥文件后无需重启即可生效；加载失败时保留当前密钥
+     */
+    @Scheduled(initialDelayString = "${jwt.keys.reload-interval-ms:60000}",
+            fixedDelayString = "${jwt.keys.reload-interval-ms:60000}")
+    public void reload() {
+        JwtKey legacy = legacySecret != null && !legacySecret.isEmpty() ? JwtKey.hmac(legacySecret) : null;
+        if (keysPath == null || keysPath.isBlank()) {
+            if (snapshot == null) {
+                log.warn("未配置 jwt.keys.path，使用 jwt.secret 的 HS256 共享密钥签名，JWKS 为空");
+                snapshot = snapshot(List.of(), null, legacy);
+            }
+            return;
+        }
+
+        try {
+            List<JwtKey> keys = loadKeys(Path.of(keysPath));
+            String kid = activeKid != null && !activeKid.isBlank() ? activeKid : null;
+            Snapshot loaded = snapshot(keys, kid, acceptLegacy ? legacy : null);
+            Snapshot previous = snapshot;
+            snapshot = loaded;
+            if (previous == null || !previous.keys().keySet().equals(loaded.keys().keySet())
+                    || previous.active() != null && !Objects.equals(previous.active().kid(), loaded.active().kid())) {
+                log.info("JWT 密钥已加载: kids={}, active={}", loaded.keys().keySet(), loaded.active().kid());
+            }
+        } catch (IOException | GeneralSecurityException | IllegalArgumentException e) {
+            if (snapshot == null) {
+                throw new IllegalStateException("加载 JWT 密钥失败: " + e.getMessage(), e);
+            }
+            log.error("重新加载 JWT 密钥失败，继续使用当前密钥: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 当前用于签名的密钥
+     */
+    public JwtKey getActiveKey() {
+        return snapshot.active();
+    }
+
+    /**
+     * 可以公开的验签公钥（JWKS）
+     */
+    public List<JwtKey> getPublicKeys() {
+        return snapshot.keys().values().stream()
+                .filter(JwtKey::isPublishable)
+                .toList();
+    }
+
+    /**
+     * kid 对应的密钥是否仍在密钥环中
+     * 密钥被移除后，用它签发的 token 立即失效
+     */
+    public boolean isTrusted(String kid) {
+        Snapshot current = snapshot;
+        return kid == null ? current.legacy() != null : current.keys().containsKey(kid);
+    }
+
+    /**
+     * 按 JWT 头部的 kid 选择验签密钥，不逐个尝试
+     * jjwt 0.11 的 SigningKeyResolver 以原始类型声明该参数，覆盖时只能沿用原始类型（改为 JwsHeader&lt;?&gt; 无法覆盖）
+     */
+    @Override
+    @SuppressWarnings("rawtypes")
+    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+        Snapshot current = snapshot;
+        String kid = header.getKeyId();
+        JwtKey key = kid == null ? current.legacy() : current.keys().get(kid);
+        if (key == null) {
+            throw new JwtException("未知的签名密钥: kid=" + kid);
+        }
+        return key.verificationKey();
+    }
+
+    private static Snapshot snapshot(Collection<JwtKey> keys, String activeKid, JwtKey legacy) {
+        Map<String, JwtKey> byKid = new LinkedHashMap<>();
+        for (JwtKey key : keys) {
+            byKid.put(key.kid(), key);
+        }
+
+        JwtKey active;
+        if (activeKid != null) {
+            active = byKid.get(activeKid);
+            if (active == null || !active.canSign()) {
+                throw new IllegalArgumentException("签名密钥不存在或没有私钥: kid=" + activeKid);
+            }
+        } else {
+            active = byKid.values().stream()
+                    .filter(JwtKey::canSign)
+                    .max(Comparator.comparing(JwtKey::kid))
+                    .orElse(legacy);
+        }
+        if (active == null) {
+            throw new IllegalArgumentException("没有可用于签名的 JWT 密钥");
+        }
+        return new Snapshot(Collections.unmodifiableMap(byKid), active, legacy);
+    }
+
+    private static List<JwtKey> loadKeys(Path dir) throws IOException, GeneralSecurityException {
+        List<JwtKey> keys = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*.pub")) {
+            for (Path publicFile : files) {
+                String fileName = publicFile.getFileName().toString();
+                String kid = fileName.substring(0, fileName.length() - ".pub".length());
+                PublicKey publicKey = readPublicKey(publicFile);
+                Path privateFile = dir.resolve(kid + ".key");
+                PrivateKey privateKey = Files.exists(privateFile)
+                        ? readPrivateKey(privateFile, publicKey.getAlgorithm())
+                        : null;
+                keys.add(JwtKey.asymmetric(kid, privateKey, publicKey));
+            }
+        }
+        return keys;
+    }
+
+    private static PublicKey readPublicKey(Path file) throws IOException, GeneralSecurityException {
+        byte[] der = readPem(file, "PUBLIC KEY");
+        X509EncodedKeySpec spec = new X509EncodedKeySpec(der);
+        for (String algorithm : List.of("RSA", "EC")) {
+            try {
+                return KeyFactory.getInstance(algorithm).generatePublic(spec);
+            } catch (GeneralSecurityException ignored) {
+                // 尝试下一种密钥类型
+            }
+        }
+        throw new GeneralSecurityException("无法识别的公钥: " + file);
+    }
+
+    private static PrivateKey readPrivateKey(Path file, String algorithm) throws IOException, GeneralSecurityException {
+        byte[] der = readPem(file, "PRIVATE KEY");
+        return KeyFactory.getInstance(algorithm).generatePrivate(new PKCS8EncodedKeySpec(der));
+    }
+
+    private static byte[] readPem(Path file, String type) throws IOException {
+        String pem = Files.readString(file);
+        String begin = "-----BEGIN " + type + "-----";
+        String end = "-----END " + type + "-----";
+        int from = pem.indexOf(begin);
+        int to = pem.indexOf(end);
+        if (from < 0 || to < from) {
+            throw new IllegalArgumentException(file + " 不是 " + type + " PEM 文件");
+        }
+        return Base64.getMimeDecoder().decode(pem.substring(from + begin.length(), to));
+    }
+}
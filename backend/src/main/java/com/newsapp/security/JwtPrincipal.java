@@ -0,0 +1,34 @@
+package com.newsapp.security;
+
+import java.security.Principal;
+import java.time.Instant;
+
+/**
+ * 已验证的 JWT 身份信息（不可变）
+ * 由 JwtUtil.verify 解析一次得到，过滤器直接用作认证主体，控制器通过 @CurrentUser 注入
+ *
+ * @param tokenId   token ID（jti），用于吊销；旧 token 没有时为 null
+ * @param userId    用户 ID
+ * @param username  用户名
+ * @param keyId     签名密钥的 kid，旧版 HS256 token 为 null
+ * @param issuedAt  签发时间
+ * @param expiresAt 过期时间
+ */
+public record JwtPrincipal(String tokenId, Long userId, String username, String keyId, Instant issuedAt, Instant expiresAt)
+        implements Principal {
+
+    /**
+     * 认证主体名称即用户名
+     */
+    @Override
+    public String getName() {
+        return username;
+    }
+
+    /**
+     * 在给定时刻是否已过期
+     */
+    public boolean isExpiredAt(Instant now) {
+        return !now.isBefore(expiresAt);
+    }
+}
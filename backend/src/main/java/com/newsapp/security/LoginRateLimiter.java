@@ -0,0 +1,135 @@
+package com.newsapp.security;
+
+import com.newsapp.exception.TooManyRequestsException;
+import com.newsapp.util.RequestUtils;
+import com.newsapp.util.SlidingWindowRateLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 登录限流
+ * 按客户端 IP 和用户名分别限制滑动窗口内的登录次数，在查询数据库和校验密码之前拒绝，
+ * 撞库攻击不再为每次尝试付出一次 BCrypt 校验。
+ *
+ * 本地计数是第一道判断，不访问网络；开启 redis-sync 后，本地放行的请求再按 Redis 中的集群计数判断，
+ * 多个节点共享同一个限额。Redis 不可用时只按本地计数限流。
+ * IP 取自连接的远端地址；只有受信任的反向代理（server.tomcat.remoteip.internal-proxies）转发的 X-Forwarded-For 才会生效。
+ */
+@Component
+public class LoginRateLimiter {
+
+    private static final Logger log = LoggerFactory.getLogger(LoginRateLimiter.class);
+
+    private static final String KEY_PREFIX = "login:rate:";
+
+    /**
+     * 集群滑动窗口：读取当前和上一窗口的计数，未超限时当前窗口加一
+     * KEYS[1] 当前窗口，KEYS[2] 上一窗口；ARGV 为限额、当前窗口已过去的比例、计数过期时间（毫秒）
+     */
+    private static final RedisScript<Long> ACQUIRE_SCRIPT = new DefaultRedisScript<>(
+            "local current = tonumber(redis.call('get', KEYS[1]) or '0') "
+                    + "local previous = tonumber(redis.call('get', KEYS[2]) or '0') "
+                    + "if previous * (1 - tonumber(ARGV[2])) + current + 1 > tonumber(ARGV[1]) then return 0 end "
+                    + "redis.call('incr', KEYS[1]) "
+                    + "redis.call('pexpire', KEYS[1], ARGV[3]) "
+                    + "return 1",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final boolean enabled;
+    private final boolean redisSync;
+    private final SlidingWindowRateLimiter ipLimiter;
+    private final SlidingWindowRateLimiter usernameLimiter;
+    private final Counter ipRejected;
+    private final Counter usernameRejected;
+
+    public LoginRateLimiter(StringRedisTemplate redisTemplate,
+                            MeterRegistry meterRegistry,
+                            @Value("${security.login-rate-limit.enabled:true}") boolean enabled,
+                            @Value("${security.login-rate-limit.window-ms:60000}") long windowMs,
+                            @Value("${security.login-rate-limit.per-ip:30}") int perIp,
+                            @Value("${security.login-rate-limit.per-username:10}") int perUsername,
+                            @Value("${security.login-rate-limit.max-keys:100000}") long maxKeys,
+                            @Value("${security.login-rate-limit.redis-sync:false}") boolean redisSync) {
+        this.redisTemplate = redisTemplate;
+        this.enabled = enabled;
+        this.redisSync = redisSync;
+        Duration window = Duration.ofMillis(windowMs);
+        this.ipLimiter = new SlidingWindowRateLimiter(perIp, window, maxKeys);
+        this.usernameLimiter = new SlidingWindowRateLimiter(perUsername, window, maxKeys);
+        this.ipRejected = rejectedCounter(meterRegistry, "ip");
+        this.usernameRejected = rejectedCounter(meterRegistry, "username");
+    }
+
+    /**
+     * 登录前检查，超出限制时抛出 TooManyRequestsException（429）
+     *
+     * @param request  当前请求，用于取客户端 IP
+     * @param username 登录用户名
+     */
+    public void check(HttpServletRequest request, String username) {
+        if (!enabled) {
+            return;
+        }
+        String ip = RequestUtils.getClientIpAddress(request);
+        if (!acquire(ipLimiter, "ip:" + ip)) {
+            ipRejected.increment();
+            log.warn("登录过于频繁（IP）: ip={}", ip);
+            throw tooManyRequests(ipLimiter);
+        }
+        if (username != null && !acquire(usernameLimiter, "user:" + username.trim().toLowerCase(Locale.ROOT))) {
+            usernameRejected.increment();
+            log.warn("登录过于频繁（用户名）: username={}, ip={}", username, ip);
+            throw tooManyRequests(usernameLimiter);
+        }
+    }
+
+    private boolean acquire(SlidingWindowRateLimiter limiter, String key) {
+        if (!limiter.tryAcquire(key)) {
+            return false;
+        }
+        return !redisSync || acquireInCluster(limiter, key);
+    }
+
+    private boolean acquireInCluster(SlidingWindowRateLimiter limiter, String key) {
+        // 集群计数按墙上时钟划分窗口，各节点的窗口边界一致；{key} 保证两个窗口落在同一个 Redis Cluster 槽
+        long windowMs = limiter.getWindow().toMillis();
+        long now = System.currentTimeMillis();
+        long window = now / windowMs;
+        double elapsed = (double) (now % windowMs) / windowMs;
+        String prefix = KEY_PREFIX + "{" + key + "}:";
+        try {
+            Long acquired = redisTemplate.execute(ACQUIRE_SCRIPT,
+                    List.of(prefix + window, prefix + (window - 1)),
+                    String.valueOf(limiter.getLimit()), String.valueOf(elapsed), String.valueOf(windowMs * 2));
+            return acquired == null || acquired == 1L;
+        } catch (RuntimeException e) {
+            log.warn("同步登录限流计数失败，仅按本地计数限流: {}", e.getMessage());
+            return true;
+        }
+    }
+
+    private static TooManyRequestsException tooManyRequests(SlidingWindowRateLimiter limiter) {
+        return new TooManyRequestsException("登录尝试过于频繁，请稍后再试",
+                Math.max(1, limiter.getWindow().toSeconds()));
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, String scope) {
+        return Counter.builder("auth.login.rate_limited")
+                .description("登录限流拒绝次数")
+                .tag("scope", scope)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,223 @@
+package com.newsapp.security;
+
+import com.newsapp.util.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * JWT 吊销列表
+ * 被吊销的 jti 存在 Redis（jwt:revoked:&lt;jti&gt;），过期时间等于 token 的剩余有效期。
+ * 每个节点在内存里维护一份布隆过滤器：未命中时直接判定未吊销，不访问 Redis；
+ * 只有可能命中时才查询 Redis 确认。新的吊销通过 Redis pub/sub 增量同步到各节点，
+ * 布隆过滤器无法删除已过期的 jti，因此定期从 Redis 重建。
+ * <p>
+ * 启动时加载失败（Redis 不可用）会按指数退避重试，不等到下一次定期重建。
+ * 过滤器未加载且 Redis 不可用时，按 failOpenWhenUnloaded 决定放行还是拒绝，并计入 jwt.revocation.check_failed；
+ * 过滤器已加载时 Redis 不可用只影响布隆过滤器判定可能存在的少数 token，这些 token 按已吊销处理。
+ */
+public class TokenRevocationList implements MessageListener {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationList.class);
+
+    static final String KEY_PREFIX = "jwt:revoked:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final String channel;
+    private final long expectedInsertions;
+    private final double fpp;
+    private final boolean failOpenWhenUnloaded;
+    private final long minRetryDelayMs;
+    private final long maxRetryDelayMs;
+    private final Counter failedOpen;
+    private final Counter failedClosed;
+
+    private volatile BloomFilter filter;
+
+    /**
+     * 重建期间新吊销的 jti 同时写入正在构建的过滤器，避免切换时丢失
+     */
+    private volatile BloomFilter rebuilding;
+
+    /**
+     * 过滤器是否已从 Redis 完整加载；加载失败时所有检查都回退到 Redis
+     */
+    private volatile boolean loaded;
+
+    /**
+     * 加载失败后下一次重试的时间和间隔，0 表示无需重试
+     */
+    private long nextRetryAtMs;
+    private long retryDelayMs;
+
+    /**
+     * @param channel              吊销通知频道
+     * @param expectedInsertions   预计同时有效的吊销数
+     * @param fpp                  布隆过滤器误判率
+     * @param failOpenWhenUnloaded 过滤器未加载且 Redis 不可用时是否按未吊销处理
+     * @param minRetryDelayMs      加载失败后首次重试的间隔，之后每次翻倍
+     * @param maxRetryDelayMs      重试间隔的上限
+     */
+    public TokenRevocationList(StringRedisTemplate redisTemplate, String channel,
+                               long expectedInsertions, double fpp,
+                               boolean failOpenWhenUnloaded, long minRetryDelayMs, long maxRetryDelayMs,
+                               MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.channel = channel;
+        this.expectedInsertions = expectedInsertions;
+        this.fpp = fpp;
+        this.failOpenWhenUnloaded = failOpenWhenUnloaded;
+        this.minRetryDelayMs = minRetryDelayMs;
+        this.maxRetryDelayMs = Math.max(minRetryDelayMs, maxRetryDelayMs);
+        this.retryDelayMs = minRetryDelayMs;
+        this.failedOpen = checkFailedCounter(meterRegistry, "open");
+        this.failedClosed = checkFailedCounter(meterRegistry, "closed");
+        this.filter = new BloomFilter(expectedInsertions, fpp);
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    @PostConstruct
+    public void init() {
+        rebuild();
+    }
+
+    /**
+     * 吊销 token
+     *
+     * @param tokenId   token 的 jti
+     * @param expiresAt token 过期时间，吊销记录保留到这个时间
+     */
+    public void revoke(String tokenId, Instant expiresAt) {
+        if (tokenId == null) {
+            return;
+        }
+        Duration remaining = Duration.between(Instant.now(), expiresAt);
+        if (remaining.isNegative() || remaining.isZero()) {
+            return;
+        }
+        redisTemplate.opsForValue().set(KEY_PREFIX + tokenId, "1", remaining);
+        remember(tokenId);
+        try {
+            redisTemplate.convertAndSend(channel, tokenId);
+        } catch (Exception e) {
+            // 其他节点在布隆过滤器下次重建时才能看到这条吊销
+            log.warn("广播 token 吊销消息失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * token 是否已被吊销
+     * 布隆过滤器判定不存在时直接返回 false；可能存在时查询 Redis，
+     * Redis 不可用时按已吊销处理（只影响误判的少数 token）。
+     * 过滤器未加载时每次都查询 Redis，Redis 不可用时按 failOpenWhenUnloaded 处理
+     */
+    public boolean isRevoked(String tokenId) {
+        if (tokenId == null) {
+            return false;
+        }
+        if (loaded && !filter.mightContain(tokenId)) {
+            return false;
+        }
+        try {
+            return Boolean.TRUE.equals(redisTemplate.hasKey(KEY_PREFIX + tokenId));
+        } catch (Exception e) {
+            if (!loaded && failOpenWhenUnloaded) {
+                failedOpen.increment();
+                log.warn("吊销列表未加载且查询 token 吊销状态失败，按未吊销处理: {}", e.getMessage());
+                return false;
+            }
+            failedClosed.increment();
+            log.warn("查询 token 吊销状态失败，按已吊销处理: {}", e.getMessage());
+            return true;
+        }
+    }
+
+    /**
+     * 其他节点的吊销通知
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        remember(new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 从 Redis 重建布隆过滤器，去掉已过期的 jti
+     */
+    @Scheduled(initialDelayString = "${jwt.revocation.rebuild-interval-ms:3600000}",
+            fixedDelayString = "${jwt.revocation.rebuild-interval-ms:3600000}")
+    public synchronized void rebuild() {
+        BloomFilter next = new BloomFilter(expectedInsertions, fpp);
+        rebuilding = next;
+        long count = 0;
+        ScanOptions options = ScanOptions.scanOptions().match(KEY_PREFIX + "*").count(1000).build();
+        try (Cursor<String> keys = redisTemplate.scan(options)) {
+            while (keys.hasNext()) {
+                next.put(keys.next().substring(KEY_PREFIX.length()));
+                count++;
+            }
+        } catch (Exception e) {
+            rebuilding = null;
+            if (loaded) {
+                // 沿用现有的过滤器，下一次定期重建时再试
+                log.error("重建 token 吊销列表失败: {}", e.getMessage());
+            } else {
+                nextRetryAtMs = System.currentTimeMillis() + retryDelayMs;
+                log.error("加载 token 吊销列表失败，{}ms 后重试: {}", retryDelayMs, e.getMessage());
+                retryDelayMs = Math.min(Math.max(retryDelayMs * 2, 1), maxRetryDelayMs);
+            }
+            return;
+        }
+        filter = next;
+        rebuilding = null;
+        loaded = true;
+        nextRetryAtMs = 0;
+        retryDelayMs = minRetryDelayMs;
+        log.debug("token 吊销列表已重建: {} 条", count);
+    }
+
+    /**
+     * 过滤器尚未加载成功时，到达退避时间后重试加载
+     */
+    @Scheduled(fixedDelay = 1000)
+    public synchronized void retryLoad() {
+        if (loaded || nextRetryAtMs == 0 || System.currentTimeMillis() < nextRetryAtMs) {
+            return;
+        }
+        rebuild();
+    }
+
+    boolean isLoaded() {
+        return loaded;
+    }
+
+    private static Counter checkFailedCounter(MeterRegistry meterRegistry, String policy) {
+        return Counter.builder("jwt.revocation.check_failed")
+                .description("Redis 不可用、无法确认吊销状态的 token 检查次数")
+                .tag("policy", policy)
+                .register(meterRegistry);
+    }
+
+    private void remember(String tokenId) {
+        // 先读 rebuilding 再读 filter：rebuild 先切换 filter 再清空 rebuilding，两者至少有一个是新过滤器
+        BloomFilter pending = rebuilding;
+        filter.put(tokenId);
+        if (pending != null) {
+            pending.put(tokenId);
+        }
+    }
+}
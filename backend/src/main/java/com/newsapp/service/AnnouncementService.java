@@ -10,10 +10,13 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 公告服务
+ * 公告发布后推送给所有在线用户
  */
 @Service
 public class AnnouncementService {
@@ -21,9 +24,11 @@ public class AnnouncementService {
     private static final Logger log = LoggerFactory.getLogger(AnnouncementService.class);
 
     private final AnnouncementRepository announcementRepository;
+    private final NotificationPushService pushService;
 
-    public AnnouncementService(AnnouncementRepository announcementRepository) {
+    public AnnouncementService(AnnouncementRepository announcementRepository, NotificationPushService pushService) {
         this.announcementRepository = announcementRepository;
+        this.pushService = pushService;
     }
 
     /**
@@ -63,6 +68,11 @@ public class AnnouncementService {
         announcement.setPublishedAt(LocalDateTime.now());
 
         Announcement saved = announcementRepository.save(announcement);
+        Map<String, Object> event = new HashMap<>();
+        event.put("id", saved.getId());
+        event.put("title", saved.getTitle());
+        event.put("publishedAt", saved.getPublishedAt());
+        pushService.publishToAll(NotificationPushService.EVENT_ANNOUNCEMENT, event);
         log.info("公告发布成功: announcementId={}", announcementId);
         return saved;
     }
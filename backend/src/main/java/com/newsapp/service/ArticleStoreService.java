@@ -0,0 +1,230 @@
+package com.newsapp.service;
+
+import com.newsapp.dto.NewsDto;
+import com.newsapp.entity.Article;
+import com.newsapp.repository.ArticleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 新闻文章存储服务
+ * 以规范化 URL 的哈希去重，批量写入；内容未变化的文章直接跳过。
+ * 同一篇文章可以属于多个类别，类别关系记录在 article_categories 中。
+ * 写入使用 INSERT ... ON DUPLICATE KEY UPDATE，多个节点同时写入同一篇新文章时不会因主键冲突使整批失败
+ */
+@Service
+public class ArticleStoreService {
+
+    private static final Logger log = LoggerFactory.getLogger(ArticleStoreService.class);
+
+    /**
+     * 单次历史查询的最大条数
+     */
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private static final String UPSERT_ARTICLE_SQL = "INSERT INTO articles "
+            + "(url_hash, url, title, description, url_to_image, source, category, published_at, "
+            + "content_hash, fetched_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE url = VALUES(url), title = VALUES(title), "
+            + "description = VALUES(description), url_to_image = VALUES(url_to_image), source = VALUES(source), "
+            + "published_at = VALUES(published_at), content_hash = VALUES(content_hash), "
+            + "fetched_at = VALUES(fetched_at), updated_at = VALUES(updated_at)";
+
+    private static final String UPSERT_CATEGORY_SQL = "INSERT INTO article_categories "
+            + "(url_hash, category, published_at, fetched_at) VALUES (?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE published_at = VALUES(published_at), fetched_at = VALUES(fetched_at)";
+
+    private final ArticleRepository articleRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    public ArticleStoreService(ArticleRepository articleRepository, JdbcTemplate jdbcTemplate) {
+        this.articleRepository = articleRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * 批量写入一个类别的新闻
+     * 一次 IN 查询取出已存在的文章，只对新文章和内容有变化的文章执行写入；
+     * 本次拉取到的每篇文章都会登记到该类别下，已由其他类别写入过的文章也能按该类别读到
+     *
+     * @return 实际新增或更新的文章数
+     */
+    @Transactional
+    public int upsert(String category, List<NewsDto> newsList) {
+        Map<String, NewsDto> incoming = new LinkedHashMap<>();
+        for (NewsDto news : newsList) {
+            if (news.getUrl() == null || news.getUrl().isBlank()) {
+                continue;
+            }
+            incoming.putIfAbsent(sha256Hex(canonicalUrl(news.getUrl())), news);
+        }
+        if (incoming.isEmpty()) {
+            return 0;
+        }
+
+        Map<String, Article> existing = articleRepository.findByUrlHashIn(incoming.keySet()).stream()
+                .collect(Collectors.toMap(Article::getUrlHash, Function.identity()));
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> changed = new ArrayList<>();
+        List<Object[]> links = new ArrayList<>();
+        for (Map.Entry<String, NewsDto> entry : incoming.entrySet()) {
+            String urlHash = entry.getKey();
+            NewsDto news = entry.getValue();
+            LocalDateTime publishedAt = parsePublishedAt(news.getPublishedAt());
+            links.add(new Object[]{urlHash, category, publishedAt, now});
+
+            String contentHash = contentHash(news);
+            Article article = existing.get(urlHash);
+            if (article != null && contentHash.equals(article.getContentHash())) {
+                continue;
+            }
+            changed.add(new Object[]{urlHash, news.getUrl(), news.getTitle(), news.getDescription(),
+                    news.getUrlToImage(), news.getSource(), category, publishedAt, contentHash, now, now});
+        }
+
+        if (!changed.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_ARTICLE_SQL, changed);
+        }
+        jdbcTemplate.batchUpdate(UPSERT_CATEGORY_SQL, links);
+        log.debug("写入类别 {} 的文章: 拉取 {} 条, 去重后 {} 条, 写入 {} 条",
+                category, newsList.size(), incoming.size(), changed.size());
+        return changed.size();
+    }
+
+    /**
+     * 获取类别下最新的文章
+     */
+    @Transactional(readOnly = true)
+    public List<NewsDto> getLatest(String category, int limit) {
+        return getHistory(category, 0, limit);
+    }
+
+    /**
+     * 类别最近一次写入文章库的时间，用于判断库中数据是否仍然新鲜
+     *
+     * @return 类别下没有文章时返回 null
+     */
+    @Transactional(readOnly = true)
+    public LocalDateTime getLastFetchedAt(String category) {
+        return articleRepository.findLastFetchedAt(category);
+    }
+
+    /**
+     * 分页获取类别下的历史文章，按发布时间倒序
+     */
+    @Transactional(readOnly = true)
+    public List<NewsDto> getHistory(String category, int page, int size) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        return articleRepository
+                .findByLinkedCategory(category, PageRequest.of(Math.max(page, 0), pageSize))
+                .stream()
+                .map(article -> toDto(article, category))
+                .toList();
+    }
+
+    /**
+     * 规范化 URL：协议和主机小写，去掉片段、utm_* 跟踪参数和末尾斜杠
+     */
+    static String canonicalUrl(String url) {
+        String trimmed = url.trim();
+        try {
+            URI uri = new URI(trimmed);
+            if (uri.getScheme() == null || uri.getHost() == null) {
+                return trimmed;
+            }
+            String query = uri.getRawQuery();
+            if (query != null) {
+                query = Arrays.stream(query.split("&"))
+                        .filter(param -> !param.toLowerCase(Locale.ROOT).startsWith("utm_"))
+                        .collect(Collectors.joining("&"));
+            }
+            String path = uri.getRawPath() == null ? "" : uri.getRawPath();
+            if (path.endsWith("/")) {
+                path = path.substring(0, path.length() - 1);
+            }
+            StringBuilder canonical = new StringBuilder()
+                    .append(uri.getScheme().toLowerCase(Locale.ROOT))
+                    .append("://")
+                    .append(uri.getHost().toLowerCase(Locale.ROOT));
+            if (uri.getPort() != -1) {
+                canonical.append(':').append(uri.getPort());
+            }
+            canonical.append(path);
+            if (query != null && !query.isEmpty()) {
+                canonical.append('?').append(query);
+            }
+            return canonical.toString();
+        } catch (URISyntaxException e) {
+            return trimmed;
+        }
+    }
+
+    static String sha256Hex(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 不可用", e);
+        }
+    }
+
+    static String contentHash(NewsDto news) {
+        return sha256Hex(String.join("\u0000",
+                Objects.toString(news.getTitle(), ""),
+                Objects.toString(news.getDescription(), ""),
+                Objects.toString(news.getUrlToImage(), ""),
+                Objects.toString(news.getSource(), ""),
+                Objects.toString(news.getPublishedAt(), "")));
+    }
+
+    private static LocalDateTime parsePublishedAt(String publishedAt) {
+        if (publishedAt == null || publishedAt.isBlank()) {
+            return null;
+        }
+        try {
+            return LocalDateTime.ofInstant(Instant.parse(publishedAt), ZoneOffset.UTC);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static NewsDto toDto(Article article, String category) {
+        NewsDto news = new NewsDto();
+        news.setTitle(article.getTitle());
+        news.setDescription(article.getDescription());
+        news.setUrl(article.getUrl());
+        news.setUrlToImage(article.getUrlToImage());
+        news.setSource(article.getSource());
+        news.setCategory(category);
+        news.setPublishedAt(article.getPublishedAt() != null
+                ? article.getPublishedAt().toInstant(ZoneOffset.UTC).toString()
+                : "");
+        return news;
+    }
+}
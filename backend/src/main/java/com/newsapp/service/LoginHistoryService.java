@@ -3,6 +3,7 @@ package com.newsapp.service;
 import com.newsapp.dto.LoginHistoryResponse;
 import com.newsapp.entity.LoginHistory;
 import com.newsapp.repository.LoginHistoryRepository;
+import com.newsapp.util.RequestUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -34,7 +35,7 @@ public class LoginHistoryService {
     public LoginHistory recordLogin(Long userId, HttpServletRequest request) {
         LoginHistory history = new LoginHistory();
         history.setUserId(userId);
-        history.setIpAddress(getClientIpAddress(request));
+        history.setIpAddress(RequestUtils.getClientIpAddress(request));
         history.setUserAgent(request.getHeader("User-Agent"));
 
         LoginHistory saved = loginHistoryRepository.save(history);
@@ -69,27 +70,6 @@ public class LoginHistoryService {
                 .collect(Collectors.toList());
     }
 
-    /**
-     * 获取客户端IP地址
-     */
-    private String getClientIpAddress(HttpServletRequest request) {
-        String ip = request.getHeader("X-Forwarded-For");
-        if (ip == null || ip.isEmpty() || "unknown".equalsIgnoreCase(ip)) {
-            ip = request.getHeader("Proxy-Client-IP");
-        }
-        if (ip == null || ip.isEmpty() || "unknown".equalsIgnoreCase(ip)) {
-            ip = request.getHeader("WL-Proxy-Client-IP");
-        }
-        if (ip == null || ip.isEmpty() || "unknown".equalsIgnoreCase(ip)) {
-            ip = request.getRemoteAddr();
-        }
-        // 处理多个IP的情况（X-Forwarded-For可能包含多个IP）
-        if (ip != null && ip.contains(",")) {
-            ip = ip.split(",")[0].trim();
-        }
-        return ip;
-    }
-
     /**
      * 转换为响应对象
      */
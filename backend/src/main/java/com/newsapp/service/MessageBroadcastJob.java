@@ -0,0 +1,212 @@
+package com.newsapp.service;
+
+import com.newsapp.entity.MessageBroadcast;
+import com.newsapp.repository.MessageBroadcastRepository;
+import com.newsapp.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 群发消息的后台执行
+ * 按主键顺序每次读取 chunkSize 个用户 ID，预留同样数量的消息主键，在一个事务中批量插入消息并记录进度；
+ * 提交后用一次 Redis 管道给这批用户的未读计数加一，按在线集合筛出有推送连接的用户，
+ * 把他们的新消息和未读数合成一条推送发布，各节点只推给本节点上的连接。
+ *
+ * 任务通过数据库中的租约在节点之间互斥：定期检查待执行和租约过期的任务，接手后每批写入时续约。
+ * 进度（lastUserId）与消息在同一事务中提交，节点崩溃后接手的节点从 lastUserId 之后继续，不重复也不遗漏；
+ * 失去租约时回滚当前批次并停止。失败后租约延后一段时间再重试，连续失败 maxFailures 次后标记为失败。
+ */
+@Component
+public class MessageBroadcastJob {
+
+    private static final Logger log = LoggerFactory.getLogger(MessageBroadcastJob.class);
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final MessageBroadcastRepository broadcastRepository;
+    private final UserRepository userRepository;
+    private final MessageBulkWriter bulkWriter;
+    private final UnreadMessageCounter unreadCounter;
+    private final NotificationPushService pushService;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final Duration lease;
+    private final int maxFailures;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Set<Long> running = ConcurrentHashMap.newKeySet();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private volatile boolean stopping;
+
+    public MessageBroadcastJob(MessageBroadcastRepository broadcastRepository,
+                               UserRepository userRepository,
+                               MessageBulkWriter bulkWriter,
+                               UnreadMessageCounter unreadCounter,
+                               NotificationPushService pushService,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${messages.broadcast.chunk-size:1000}") int chunkSize,
+                               @Value("${messages.broadcast.lease-ms:60000}") long leaseMs,
+                               @Value("${messages.broadcast.max-failures:5}") int maxFailures) {
+        this.broadcastRepository = broadcastRepository;
+        this.userRepository = userRepository;
+        this.bulkWriter = bulkWriter;
+        this.unreadCounter = unreadCounter;
+        this.pushService = pushService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.lease = Duration.ofMillis(leaseMs);
+        this.maxFailures = maxFailures;
+    }
+
+    /**
+     * 立即检查一次待执行的任务（新建任务后调用），不等下一次定时检查
+     */
+    public void trigger() {
+        if (!stopping) {
+            executor.execute(this::poll);
+        }
+    }
+
+    /**
+     * 接手待执行和租约过期的任务，每个任务在一个虚拟线程中执行
+     */
+    @Scheduled(initialDelayString = "${messages.broadcast.poll-interval-ms:10000}",
+            fixedDelayString = "${messages.broadcast.poll-interval-ms:10000}")
+    public void poll() {
+        if (stopping) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (Long id : broadcastRepository.findClaimableIds(now)) {
+            if (running.contains(id) || broadcastRepository.claim(id, nodeId, now, now.plus(lease)) == 0) {
+                continue;
+            }
+            running.add(id);
+            executor.execute(() -> {
+                try {
+                    run(id);
+                } finally {
+                    running.remove(id);
+                }
+            });
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        stopping = true;
+        executor.shutdown();
+        // 正在写入的批次写完后释放租约
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 执行已接手的任务，直到完成、失去租约、失败或节点停止
+     */
+    void run(Long id) {
+        MessageBroadcast broadcast = broadcastRepository.findById(id).orElse(null);
+        if (broadcast == null) {
+            return;
+        }
+        log.info("开始群发消息: broadcastId={}, 从 userId>{} 继续, 已写入 {}",
+                id, broadcast.getLastUserId(), broadcast.getDelivered());
+        try {
+            long afterId = broadcast.getLastUserId();
+            while (!stopping) {
+                List<Long> userIds = userRepository.findIdsAfter(afterId, PageRequest.of(0, chunkSize));
+                if (!userIds.isEmpty() && !deliverChunk(broadcast, userIds)) {
+                    log.warn("群发任务已被其他节点接手，停止: broadcastId={}", id);
+                    return;
+                }
+                if (userIds.size() < chunkSize) {
+                    broadcastRepository.complete(id, nodeId, LocalDateTime.now());
+                    log.info("群发消息完成: broadcastId={}", id);
+                    return;
+                }
+                afterId = userIds.get(userIds.size() - 1);
+            }
+            broadcastRepository.release(id, nodeId);
+        } catch (RuntimeException e) {
+            log.error("群发消息失败: broadcastId={}, error={}", id, e.getMessage(), e);
+            LocalDateTime now = LocalDateTime.now();
+            broadcastRepository.recordFailure(id, nodeId, truncate(e.getMessage()), now.plus(lease));
+            if (broadcastRepository.failIfExhausted(id, maxFailures, now) > 0) {
+                log.error("群发任务连续失败 {} 次，不再重试: broadcastId={}", maxFailures, id);
+            }
+        }
+    }
+
+    /**
+     * 写入一批消息并记录进度，提交后更新未读计数，整批推送给在线用户
+     *
+     * @return false 表示已失去租约，本批已回滚
+     */
+    private boolean deliverChunk(MessageBroadcast broadcast, List<Long> userIds) {
+        long firstId = bulkWriter.reserveIds(userIds.size());
+        // 与 DATETIME(6) 的精度一致，推送给客户端的时间与表中相同（分页游标依赖它）
+        LocalDateTime createdAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        Long lastUserId = userIds.get(userIds.size() - 1);
+
+        Boolean committed = transactionTemplate.execute(status -> {
+            bulkWriter.insert(firstId, userIds, broadcast, createdAt);
+            if (broadcastRepository.recordProgress(broadcast.getId(), nodeId, lastUserId, userIds.size(),
+                    LocalDateTime.now().plus(lease)) == 0) {
+                status.setRollbackOnly();
+                return false;
+            }
+            return true;
+        });
+        if (!Boolean.TRUE.equals(committed)) {
+            return false;
+        }
+        log.debug("群发消息写入一批: broadcastId={}, count={}, lastUserId={}",
+                broadcast.getId(), userIds.size(), lastUserId);
+
+        Map<Long, Long> unreadCounts = unreadCounter.incrementAll(userIds);
+        Set<Long> online = pushService.filterOnline(userIds);
+        if (online.isEmpty()) {
+            return true;
+        }
+        List<Long> recipients = new ArrayList<>(online.size());
+        List<Long> messageIds = new ArrayList<>(online.size());
+        List<Long> counts = new ArrayList<>(online.size());
+        for (int i = 0; i < userIds.size(); i++) {
+            Long userId = userIds.get(i);
+            if (online.contains(userId)) {
+                recipients.add(userId);
+                messageIds.add(firstId + i);
+                counts.add(unreadCounts.get(userId));
+            }
+        }
+        pushService.publishMessageBatch(new NotificationPushService.MessageBatch(recipients, messageIds, counts,
+                broadcast.getTitle(), broadcast.getMessageType(), broadcast.getSenderId(), createdAt));
+        return true;
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+}
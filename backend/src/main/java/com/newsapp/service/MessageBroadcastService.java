@@ -0,0 +1,92 @@
+package com.newsapp.service;
+
+import com.newsapp.dto.BroadcastProgress;
+import com.newsapp.dto.SendMessageRequest;
+import com.newsapp.entity.MessageBroadcast;
+import com.newsapp.exception.BusinessException;
+import com.newsapp.repository.MessageBroadcastRepository;
+import com.newsapp.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+/**
+ * 群发消息服务
+ * 创建任务后立即返回，消息由 MessageBroadcastJob 在后台分批写入，进度通过任务查询
+ */
+@Service
+public class MessageBroadcastService {
+
+    private static final Logger log = LoggerFactory.getLogger(MessageBroadcastService.class);
+
+    /**
+     * 任务列表最多返回条数
+     */
+    public static final int MAX_LIST_SIZE = 50;
+
+    private final MessageBroadcastRepository broadcastRepository;
+    private final UserRepository userRepository;
+    private final MessageBroadcastJob broadcastJob;
+
+    public MessageBroadcastService(MessageBroadcastRepository broadcastRepository,
+                                   UserRepository userRepository,
+                                   MessageBroadcastJob broadcastJob) {
+        this.broadcastRepository = broadcastRepository;
+        this.userRepository = userRepository;
+        this.broadcastJob = broadcastJob;
+    }
+
+    /**
+     * 创建群发任务，提交后开始执行
+     */
+    @Transactional
+    public BroadcastProgress createBroadcast(SendMessageRequest request) {
+        MessageBroadcast broadcast = new MessageBroadcast();
+        broadcast.setSenderId(request.getSenderId());
+        broadcast.setTitle(request.getTitle());
+        broadcast.setContent(request.getContent());
+        broadcast.setMessageType(request.getMessageType() != null ? request.getMessageType() : "SYSTEM");
+        broadcast.setTotalRecipients(userRepository.count());
+
+        MessageBroadcast saved = broadcastRepository.save(broadcast);
+        log.info("创建群发任务: broadcastId={}, title={}, 用户数={}",
+                saved.getId(), saved.getTitle(), saved.getTotalRecipients());
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    broadcastJob.trigger();
+                }
+            });
+        } else {
+            broadcastJob.trigger();
+        }
+        return BroadcastProgress.from(saved);
+    }
+
+    /**
+     * 群发任务的进度
+     */
+    public BroadcastProgress getProgress(Long broadcastId) {
+        return broadcastRepository.findById(broadcastId)
+                .map(BroadcastProgress::from)
+                .orElseThrow(() -> new BusinessException("群发任务不存在"));
+    }
+
+    /**
+     * 最近的群发任务
+     */
+    public List<BroadcastProgress> getRecentBroadcasts(int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_LIST_SIZE));
+        return broadcastRepository.findAllByOrderByIdDesc(PageRequest.of(0, size)).stream()
+                .map(BroadcastProgress::from)
+                .toList();
+    }
+}
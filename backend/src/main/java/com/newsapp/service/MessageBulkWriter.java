@@ -0,0 +1,111 @@
+package com.newsapp.service;
+
+import com.newsapp.entity.MessageBroadcast;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 用 JDBC 批量写入消息（群发）
+ * 主键从 messages_seq 整段预留，与 Hibernate 的 pooled-lo 预取共用同一张表，两边拿到的区间不会重叠；
+ * 插入不经过持久化上下文，驱动开启 rewriteBatchedStatements 后一批只发送少量多行 INSERT
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class MessageBulkWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(MessageBulkWriter.class);
+
+    private static final String INSERT_SQL = "INSERT INTO messages "
+            + "(id, user_id, sender_id, title, content, is_read, message_type, created_at) "
+            + "VALUES (?, ?, ?, ?, ?, false, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public MessageBulkWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * 把 messages_seq 对齐到现有最大 ID 之后
+     * ddl-auto 在已有数据的库上新建 messages_seq 时初始值为 1，不对齐会与原来自增生成的 ID 冲突；
+     * 依赖 entityManagerFactory 保证在 ddl-auto 建表之后执行
+     */
+    @PostConstruct
+    public void alignSequence() {
+        try {
+            int updated = jdbcTemplate.update("UPDATE messages_seq "
+                    + "SET next_val = (SELECT COALESCE(MAX(id), 0) + 1 FROM messages) "
+                    + "WHERE next_val <= (SELECT COALESCE(MAX(id), 0) FROM messages)");
+            if (updated > 0) {
+                log.info("messages_seq 已对齐到现有最大消息 ID 之后");
+            }
+        } catch (RuntimeException e) {
+            log.warn("对齐 messages_seq 失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 预留 count 个连续主键
+     * 在独立的自动提交语句中执行，行锁只持有一条 UPDATE 的时间，不阻塞其他写消息的请求
+     *
+     * @return 第一个主键，区间为 [返回值, 返回值 + count)
+     */
+    public long reserveIds(int count) {
+        Long first = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                // LAST_INSERT_ID(expr) 记下更新前的值，同一连接上随后读取
+                statement.executeUpdate("UPDATE messages_seq SET next_val = LAST_INSERT_ID(next_val) + " + count);
+                try (ResultSet rs = statement.executeQuery("SELECT LAST_INSERT_ID()")) {
+                    rs.next();
+                    return rs.getLong(1);
+                }
+            }
+        });
+        if (first == null) {
+            throw new IllegalStateException("无法预留消息主键");
+        }
+        return first;
+    }
+
+    /**
+     * 给每个用户写入一条群发消息，主键依次为 firstId, firstId + 1, ...
+     * 应在事务中调用，与任务进度一起提交
+     *
+     * @return 写入的条数
+     */
+    public int insert(long firstId, List<Long> userIds, MessageBroadcast broadcast, LocalDateTime createdAt) {
+        Timestamp created = Timestamp.valueOf(createdAt);
+        jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setLong(1, firstId + i);
+                ps.setLong(2, userIds.get(i));
+                ps.setObject(3, broadcast.getSenderId());
+                ps.setString(4, broadcast.getTitle());
+                ps.setString(5, broadcast.getContent());
+                ps.setString(6, broadcast.getMessageType());
+                ps.setTimestamp(7, created);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return userIds.size();
+            }
+        });
+        return userIds.size();
+    }
+}
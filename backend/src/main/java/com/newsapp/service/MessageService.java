@@ -1,29 +1,50 @@
 package com.newsapp.service;
 
+import com.newsapp.dto.MessagePage;
+import com.newsapp.dto.MessageSummary;
 import com.newsapp.dto.SendMessageRequest;
 import com.newsapp.entity.Message;
 import com.newsapp.exception.BusinessException;
 import com.newsapp.repository.MessageRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
 import java.util.List;
 
 /**
  * 消息服务
+ * 消息列表按 (创建时间, ID) 倒序分页，游标是上一页最后一条消息的 (创建时间, ID)，
+ * 翻页只扫描索引中游标之后的部分，与历史消息总数无关。
+ * 未读数由 UnreadMessageCounter 维护，改变已读状态的操作在提交后增减计数；
+ * 新消息在提交后通过 NotificationPushService 推送给接收者
  */
 @Service
 public class MessageService {
 
     private static final Logger log = LoggerFactory.getLogger(MessageService.class);
 
+    /**
+     * 每页最多条数
+     */
+    public static final int MAX_PAGE_SIZE = 100;
+
     private final MessageRepository messageRepository;
+    private final UnreadMessageCounter unreadCounter;
+    private final NotificationPushService pushService;
 
-    public MessageService(MessageRepository messageRepository) {
+    public MessageService(MessageRepository messageRepository, UnreadMessageCounter unreadCounter,
+                          NotificationPushService pushService) {
         this.messageRepository = messageRepository;
+        this.unreadCounter = unreadCounter;
+        this.pushService = pushService;
     }
 
     /**
@@ -41,29 +62,63 @@ public class MessageService {
         message.setMessageType(request.getMessageType() != null ? request.getMessageType() : "SYSTEM");
 
         Message saved = messageRepository.save(message);
+        unreadCounter.adjustAfterCommit(userId, 1);
+        pushService.publishToUser(userId, NotificationPushService.EVENT_MESSAGE, MessageSummary.from(saved));
         log.info("消息发送成功: messageId={}", saved.getId());
         return saved;
     }
 
     /**
-     * 获取用户的所有消息
+     * 获取用户的消息列表（不含正文）
+     *
+     * @param cursor   上一页返回的游标，第一页为 null
+     * @param pageSize 每页条数，限定在 1..MAX_PAGE_SIZE
      */
-    public List<Message> getUserMessages(Long userId) {
-        return messageRepository.findByUserIdOrderByCreatedAtDesc(userId);
+    public MessagePage getUserMessages(Long userId, String cursor, int pageSize) {
+        int size = clampPageSize(pageSize);
+        // 多取一条判断是否还有下一页
+        Pageable limit = PageRequest.of(0, size + 1);
+        Position after = decodeCursor(cursor);
+        List<MessageSummary> rows = after == null
+                ? messageRepository.findSummaries(userId, limit)
+                : messageRepository.findSummariesBefore(userId, after.createdAt(), after.id(), limit);
+        return toPage(rows, size);
     }
 
     /**
-     * 获取用户的未读消息
+     * 获取用户的未读消息列表（不含正文）
+     *
+     * @param cursor   上一页返回的游标，第一页为 null
+     * @param pageSize 每页条数，限定在 1..MAX_PAGE_SIZE
      */
-    public List<Message> getUnreadMessages(Long userId) {
-        return messageRepository.findByUserIdAndIsReadFalseOrderByCreatedAtDesc(userId);
+    public MessagePage getUnreadMessages(Long userId, String cursor, int pageSize) {
+        int size = clampPageSize(pageSize);
+        Pageable limit = PageRequest.of(0, size + 1);
+        Position after = decodeCursor(cursor);
+        List<MessageSummary> rows = after == null
+                ? messageRepository.findUnreadSummaries(userId, limit)
+                : messageRepository.findUnreadSummariesBefore(userId, after.createdAt(), after.id(), limit);
+        return toPage(rows, size);
+    }
+
+    /**
+     * 获取消息详情（含正文）
+     */
+    public Message getMessage(Long messageId, Long userId) {
+        Message message = messageRepository.findById(messageId)
+                .orElseThrow(() -> new BusinessException("消息不存在"));
+
+        if (!message.getUserId().equals(userId)) {
+            throw new BusinessException("无权限查看此消息");
+        }
+        return message;
     }
 
     /**
-     * 获取未读消息数量
+     * 获取未读消息数量（读取 Redis 中维护的计数）
      */
     public long getUnreadCount(Long userId) {
-        return messageRepository.countByUserIdAndIsReadFalse(userId);
+        return unreadCounter.get(userId);
     }
 
     /**
@@ -71,7 +126,8 @@ public class MessageService {
      */
     @Transactional
     public void markAsRead(Long messageId, Long userId) {
-        Message message = messageRepository.findById(messageId)
+        // 加行锁，并发标记或删除同一条消息时只有一个请求减少未读计数
+        Message message = messageRepository.findByIdForUpdate(messageId)
                 .orElseThrow(() -> new BusinessException("消息不存在"));
 
         if (!message.getUserId().equals(userId)) {
@@ -82,25 +138,22 @@ public class MessageService {
             message.setIsRead(true);
             message.setReadAt(LocalDateTime.now());
             messageRepository.save(message);
+            unreadCounter.adjustAfterCommit(userId, -1);
             log.info("消息标记为已读: messageId={}", messageId);
         }
     }
 
     /**
      * 标记所有消息为已读
+     *
+     * @return 标记的消息数
      */
     @Transactional
-    public void markAllAsRead(Long userId) {
-        List<Message> unreadMessages = getUnreadMessages(userId);
-        LocalDateTime now = LocalDateTime.now();
-
-        for (Message message : unreadMessages) {
-            message.setIsRead(true);
-            message.setReadAt(now);
-        }
-
-        messageRepository.saveAll(unreadMessages);
-        log.info("标记所有消息为已读: userId={}, count={}", userId, unreadMessages.size());
+    public int markAllAsRead(Long userId) {
+        int updated = messageRepository.markAllAsRead(userId, LocalDateTime.now());
+        unreadCounter.adjustAfterCommit(userId, -updated);
+        log.info("标记所有消息为已读: userId={}, count={}", userId, updated);
+        return updated;
     }
 
     /**
@@ -108,7 +161,7 @@ public class MessageService {
      */
     @Transactional
     public void deleteMessage(Long messageId, Long userId) {
-        Message message = messageRepository.findById(messageId)
+        Message message = messageRepository.findByIdForUpdate(messageId)
                 .orElseThrow(() -> new BusinessException("消息不存在"));
 
         if (!message.getUserId().equals(userId)) {
@@ -116,6 +169,50 @@ public class MessageService {
         }
 
         messageRepository.delete(message);
+        if (!message.getIsRead()) {
+            unreadCounter.adjustAfterCommit(userId, -1);
+        }
         log.info("删除消息: messageId={}", messageId);
     }
+
+    /**
+     * 分页位置：上一页最后一条消息
+     */
+    record Position(LocalDateTime createdAt, Long id) {
+    }
+
+    private static int clampPageSize(int pageSize) {
+        return Math.max(1, Math.min(pageSize, MAX_PAGE_SIZE));
+    }
+
+    private static MessagePage toPage(List<MessageSummary> rows, int size) {
+        if (rows.size() <= size) {
+            return new MessagePage(rows, null);
+        }
+        List<MessageSummary> items = rows.subList(0, size);
+        MessageSummary last = items.get(size - 1);
+        return new MessagePage(List.copyOf(items), encodeCursor(new Position(last.createdAt(), last.id())));
+    }
+
+    static String encodeCursor(Position position) {
+        String raw = position.createdAt() + "|" + position.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Position decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            if (separator < 0) {
+                throw new BusinessException("无效的分页游标");
+            }
+            return new Position(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.valueOf(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BusinessException("无效的分页游标");
+        }
+    }
 }
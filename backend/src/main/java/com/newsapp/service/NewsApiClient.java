@@ -0,0 +1,400 @@
+package com.newsapp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.newsapp.dto.NewsDto;
+import com.newsapp.exception.NewsApiException;
+import com.newsapp.util.CircuitBreaker;
+import com.newsapp.util.NewsApiParser;
+import com.newsapp.util.TokenBucket;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * NewsAPI 客户端
+ * 基于 JDK HttpClient：优先 HTTP/2，连接由客户端内部复用；显式的连接和请求超时；
+ * 请求 gzip 压缩；按类别记录 ETag / Last-Modified 发送条件请求，304 时复用上次的结果。
+ * 记录首字节时间（TTFB）和总耗时指标。JDK HttpClient 不单独暴露建连耗时，
+ * 建连时间包含在首字节时间中。
+ * <p>
+ * 每个类别有独立的熔断器和令牌桶，另有一个所有类别共享的令牌桶（NewsAPI 的配额按 API Key 计算）：
+ * 熔断或限流时直接失败而不请求上游，由调用方（快照、文章库、过期缓存）提供数据；
+ * 收到 429 时按 Retry-After 暂停所有类别的请求并降低共享速率。
+ * 除 429 以外的 4xx 是请求本身的问题，不计入熔断失败。调用方需保证类别有效（见 NewsService），
+ * 熔断器、令牌桶和指标按类别创建。
+ */
+@Component
+public class NewsApiClient implements NewsUpstream {
+
+    private static final Logger log = LoggerFactory.getLogger(NewsApiClient.class);
+
+    @Value("${newsapi.api-key}")
+    private String apiKey;
+
+    @Value("${newsapi.base-url}")
+    private String baseUrl;
+
+    @Value("${newsapi.page-size:10}")
+    private int pageSize;
+
+    @Value("${newsapi.http.connect-timeout-ms:2000}")
+    private long connectTimeoutMs;
+
+    @Value("${newsapi.http.request-timeout-ms:5000}")
+    private long requestTimeoutMs;
+
+    @Value("${newsapi.circuit.failure-threshold:5}")
+    private int failureThreshold;
+
+    @Value("${newsapi.circuit.open-duration-ms:30000}")
+    private long openDurationMs;
+
+    @Value("${newsapi.rate-limit.burst:5}")
+    private double rateLimitBurst;
+
+    @Value("${newsapi.rate-limit.requests-per-minute:30}")
+    private double requestsPerMinute;
+
+    @Value("${newsapi.rate-limit.min-requests-per-minute:2}")
+    private double minRequestsPerMinute;
+
+    @Value("${newsapi.rate-limit.global-burst:10}")
+    private double globalBurst;
+
+    @Value("${newsapi.rate-limit.global-requests-per-minute:30}")
+    private double globalRequestsPerMinute;
+
+    /**
+     * 429 响应没有可解析的 Retry-After 时的默认等待时间
+     */
+    private static final long DEFAULT_RETRY_AFTER_MS = 60_000L;
+
+    /**
+     * 上次成功响应的校验信息和结果，用于条件请求
+     */
+    private record CachedResponse(String etag, String lastModified, List<NewsDto> news) {
+    }
+
+    private final NewsApiParser parser;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, CachedResponse> lastResponses = new ConcurrentHashMap<>();
+    private final Map<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+    private final Map<String, TokenBucket> rateLimiters = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private HttpClient httpClient;
+
+    /**
+     * 所有类别共享的令牌桶，对应 API Key 的总配额
+     */
+    private TokenBucket globalLimiter;
+
+    public NewsApiClient(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.parser = new NewsApiParser(objectMapper);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void init() {
+        httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .executor(executor)
+                .build();
+        globalLimiter = new TokenBucket(globalBurst, globalRequestsPerMinute / 60.0, minRequestsPerMinute / 60.0);
+        Gauge.builder("newsapi.ratelimit.global.tokens", globalLimiter, TokenBucket::getAvailableTokens)
+                .register(meterRegistry);
+        Gauge.builder("newsapi.ratelimit.global.rate", globalLimiter, b -> b.getRatePerSecond() * 60)
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * 同步拉取指定类别的头条新闻
+     * 等待可被中断：调用线程被中断（如并发拉取超时）时取消正在进行的请求
+     */
+    @Override
+    public List<NewsDto> fetchTopHeadlines(String category) {
+        CompletableFuture<List<NewsDto>> future = fetchTopHeadlinesAsync(category);
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new NewsApiException("获取新闻失败: 类别 " + category + " 的请求已取消");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new RuntimeException("获取新闻失败: " + cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * 异步拉取指定类别的头条新闻
+     * 取消返回的 future 会同时取消底层的 HTTP 交换
+     */
+    public CompletableFuture<List<NewsDto>> fetchTopHeadlinesAsync(String category) {
+        CircuitBreaker breaker = circuitBreaker(category);
+        TokenBucket limiter = rateLimiter(category);
+        if (!breaker.tryAcquirePermission()) {
+            return rejected(category, "circuit_open", "获取新闻失败: 类别 " + category + " 的 NewsAPI 请求已熔断");
+        }
+        if (!limiter.tryAcquire()) {
+            breaker.releasePermission();
+            return rejected(category, "rate_limited", "获取新闻失败: 类别 " + category + " 的 NewsAPI 请求超出限额");
+        }
+        if (!globalLimiter.tryAcquire()) {
+            limiter.release();
+            breaker.releasePermission();
+            return rejected(category, "rate_limited_global", "获取新闻失败: NewsAPI 请求超出总限额");
+        }
+
+        URI uri = URI.create(baseUrl + "/top-headlines?category=" + URLEncoder.encode(category, StandardCharsets.UTF_8)
+                + "&pageSize=" + pageSize + "&language=en");
+        CachedResponse previous = lastResponses.get(category);
+
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+                .GET()
+                .timeout(Duration.ofMillis(requestTimeoutMs))
+                .header("Accept", "application/json")
+                .header("Accept-Encoding", "gzip");
+        if (apiKey != null && !apiKey.isBlank()) {
+            // 使用请求头传递 API Key，避免出现在 URL 和日志中
+            request.header("X-Api-Key", apiKey);
+        }
+        if (previous != null && previous.etag() != null) {
+            request.header("If-None-Match", previous.etag());
+        }
+        if (previous != null && previous.lastModified() != null) {
+            request.header("If-Modified-Since", previous.lastModified());
+        }
+
+        log.info("请求 NewsAPI: {}", uri);
+        long start = System.nanoTime();
+        // ofInputStream 在收到响应头时即完成，此时的耗时即首字节时间
+        CompletableFuture<HttpResponse<InputStream>> exchange =
+                httpClient.sendAsync(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+        // HttpClient 返回的 future 在 cancel 时会先取消交换、执行下面的处理再标记取消，
+        // 因此返回给调用方的是独立的 future；响应处理和取消分支只有先到的一个记录熔断和指标
+        CompletableFuture<List<NewsDto>> result = new CompletableFuture<>();
+        AtomicBoolean settled = new AtomicBoolean();
+        exchange
+                .handle((response, error) -> {
+                    if (!settled.compareAndSet(false, true)) {
+                        // 调用方已放弃等待，已由取消分支记录
+                        closeQuietly(response);
+                        return null;
+                    }
+                    long ttfbNanos = System.nanoTime() - start;
+                    if (error != null) {
+                        Throwable cause = unwrap(error);
+                        breaker.onFailure();
+                        record(category, "io_error", null, ttfbNanos);
+                        log.error("获取新闻失败: {}", cause.toString());
+                        throw new RuntimeException("获取新闻失败: " + cause, cause);
+                    }
+                    try {
+                        List<NewsDto> news = handleResponse(category, response, previous);
+                        breaker.onSuccess();
+                        limiter.onSuccess();
+                        globalLimiter.onSuccess();
+                        record(category, "success", ttfbNanos, System.nanoTime() - start);
+                        return news;
+                    } catch (RuntimeException e) {
+                        NewsApiException apiError = e instanceof NewsApiException apiException ? apiException : null;
+                        int status = apiError != null ? apiError.getStatusCode() : 0;
+                        if (status == 429) {
+                            // 配额按 API Key 计算，暂停所有类别
+                            globalLimiter.onThrottled(apiError.getRetryAfterMs());
+                            breaker.onFailure();
+                        } else if (status >= 400 && status < 500) {
+                            // 请求本身的问题（参数、API Key），上游是健康的
+                            breaker.releasePermission();
+                        } else {
+                            breaker.onFailure();
+                        }
+                        record(category, "error", ttfbNanos, System.nanoTime() - start);
+                        log.error(e.getMessage());
+                        throw e;
+                    }
+                })
+                .whenComplete((news, error) -> {
+                    if (error != null) {
+                        result.completeExceptionally(unwrap(error));
+                    } else {
+                        result.complete(news);
+                    }
+                });
+        result.whenComplete((news, error) -> {
+            if (result.isCancelled() && settled.compareAndSet(false, true)) {
+                // 调用方放弃等待，不是上游故障：不计入熔断
+                exchange.cancel(true);
+                breaker.releasePermission();
+                record(category, "cancelled", null, System.nanoTime() - start);
+            }
+        });
+        return result;
+    }
+
+    private List<NewsDto> handleResponse(String category, HttpResponse<InputStream> response,
+                                         CachedResponse previous) {
+        try (InputStream body = response.body()) {
+            int status = response.statusCode();
+            if (status == 304 && previous != null) {
+                meterRegistry.counter("newsapi.client.not_modified", "category", category).increment();
+                log.info("NewsAPI 返回 304，复用类别 {} 上次的 {} 条新闻", category, previous.news().size());
+                return new ArrayList<>(previous.news());
+            }
+            if (status == 429) {
+                long retryAfterMs = parseRetryAfter(response.headers().firstValue("Retry-After").orElse(null));
+                throw new NewsApiException("获取新闻失败: NewsAPI 限流 (HTTP 429)，" + retryAfterMs + "ms 后重试",
+                        status, retryAfterMs);
+            }
+            if (status < 200 || status >= 300) {
+                throw new NewsApiException("获取新闻失败: NewsAPI 返回 HTTP " + status, status, 0);
+            }
+
+            InputStream content = "gzip".equalsIgnoreCase(response.headers().firstValue("Content-Encoding").orElse(""))
+                    ? new GZIPInputStream(body)
+                    : body;
+            List<NewsDto> news = parser.parseStream(content);
+
+            String etag = response.headers().firstValue("ETag").orElse(null);
+            String lastModified = response.headers().firstValue("Last-Modified").orElse(null);
+            if (etag != null || lastModified != null) {
+                lastResponses.put(category, new CachedResponse(etag, lastModified, List.copyOf(news)));
+            }
+            log.info("从 NewsAPI 获取到 {} 条 {} 类别的新闻", news.size(), category);
+            return news;
+        } catch (IOException e) {
+            throw new RuntimeException("获取新闻失败: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 所有类别共享的令牌桶
+     */
+    TokenBucket globalRateLimiter() {
+        return globalLimiter;
+    }
+
+    /**
+     * 获取类别的熔断器，首次创建时注册状态指标（0=CLOSED, 1=OPEN, 2=HALF_OPEN）
+     */
+    CircuitBreaker circuitBreaker(String category) {
+        return circuitBreakers.computeIfAbsent(category, key -> {
+            CircuitBreaker breaker = new CircuitBreaker(failureThreshold, openDurationMs);
+            Gauge.builder("newsapi.circuit.state", breaker, b -> b.getState().ordinal())
+                    .tag("category", key)
+                    .register(meterRegistry);
+            return breaker;
+        });
+    }
+
+    /**
+     * 获取类别的令牌桶，首次创建时注册可用令牌数和当前速率指标
+     */
+    TokenBucket rateLimiter(String category) {
+        return rateLimiters.computeIfAbsent(category, key -> {
+            TokenBucket bucket = new TokenBucket(rateLimitBurst, requestsPerMinute / 60.0, minRequestsPerMinute / 60.0);
+            Gauge.builder("newsapi.ratelimit.tokens", bucket, TokenBucket::getAvailableTokens)
+                    .tag("category", key)
+                    .register(meterRegistry);
+            Gauge.builder("newsapi.ratelimit.rate", bucket, b -> b.getRatePerSecond() * 60)
+                    .tag("category", key)
+                    .register(meterRegistry);
+            return bucket;
+        });
+    }
+
+    private CompletableFuture<List<NewsDto>> rejected(String category, String reason, String message) {
+        meterRegistry.counter("newsapi.client.rejected", "category", category, "reason", reason).increment();
+        log.debug(message);
+        return CompletableFuture.failedFuture(new NewsApiException(message));
+    }
+
+    /**
+     * 解析 Retry-After：秒数或 HTTP 日期
+     */
+    static long parseRetryAfter(String retryAfter) {
+        if (retryAfter == null || retryAfter.isBlank()) {
+            return DEFAULT_RETRY_AFTER_MS;
+        }
+        try {
+            return Math.max(Long.parseLong(retryAfter.trim()) * 1000, 0);
+        } catch (NumberFormatException e) {
+            try {
+                Instant until = ZonedDateTime.parse(retryAfter.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+                return Math.max(Duration.between(Instant.now(), until).toMillis(), 0);
+            } catch (DateTimeParseException ignored) {
+                return DEFAULT_RETRY_AFTER_MS;
+            }
+        }
+    }
+
+    /**
+     * 记录耗时指标，连接失败时没有首字节时间
+     */
+    private void record(String category, String outcome, Long ttfbNanos, long totalNanos) {
+        if (ttfbNanos != null) {
+            Timer.builder("newsapi.client.ttfb")
+                    .tag("category", category)
+                    .register(meterRegistry)
+                    .record(Duration.ofNanos(ttfbNanos));
+        }
+        meterRegistry.timer("newsapi.client.duration", "category", category, "outcome", outcome)
+                .record(Duration.ofNanos(totalNanos));
+    }
+
+    private static void closeQuietly(HttpResponse<InputStream> response) {
+        if (response == null) {
+            return;
+        }
+        try {
+            response.body().close();
+        } catch (IOException e) {
+            log.debug("关闭已取消请求的响应失败: {}", e.getMessage());
+        }
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+}
@@ -0,0 +1,276 @@
+package com.newsapp.service;
+
+import com.newsapp.cache.RedisLoadLease;
+import com.newsapp.dto.CachedNews;
+import com.newsapp.dto.NewsDto;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 新闻后台拉取服务
+ * 定时刷新所有类别的新闻到内存快照，请求线程不再同步调用 NewsAPI。
+ * 每个类别独立调度：成功后按刷新间隔（带随机抖动）再次调度，失败后按指数退避重试。
+ * <p>
+ * 每次刷新前先在 Redis 中获取该类别的集群租约，租约在一个刷新间隔内有效且成功后不释放，
+ * 多个节点合计每个间隔只请求一次 NewsAPI；没拿到租约的节点跳过本次刷新，读取时使用共享的文章库和缓存。
+ * Redis 不可用时各节点照常刷新。
+ * <p>
+ * TaskScheduler 只负责定时触发，拉取上游和写库在独立的虚拟线程上执行，
+ * 避免阻塞共用调度线程上的其他定时任务（SSE 心跳、吊销重试、未读数校准等）。
+ * 刷新成功后同时更新 news 缓存，读请求不必等缓存过期才看到新数据。
+ */
+@Service
+public class NewsIngestionService {
+
+    private static final Logger log = LoggerFactory.getLogger(NewsIngestionService.class);
+
+    private static final String LEASE_KEY_PREFIX = "newsapi:ingest:";
+
+    @Value("${newsapi.ingestion.enabled:true}")
+    private boolean enabled;
+
+    @Value("${newsapi.ingestion.refresh-interval-ms:600000}")
+    private long refreshIntervalMs;
+
+    @Value("${newsapi.ingestion.jitter-ratio:0.1}")
+    private double jitterRatio;
+
+    @Value("${newsapi.ingestion.initial-backoff-ms:30000}")
+    private long initialBackoffMs;
+
+    @Value("${newsapi.ingestion.max-backoff-ms:1800000}")
+    private long maxBackoffMs;
+
+    @Value("${newsapi.ingestion.cluster-lease:true}")
+    private boolean clusterLease;
+
+    @Value("${newsapi.page-size:10}")
+    private int pageSize;
+
+    private final NewsUpstream upstream;
+    private final NewsSnapshot snapshot;
+    private final ArticleStoreService articleStore;
+    private final TaskScheduler taskScheduler;
+    private final StringRedisTemplate redisTemplate;
+    private final CacheManager cacheManager;
+    private final ExecutorService refreshExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * 刷新租约，关闭集群租约时为 null
+     */
+    private RedisLoadLease refreshLease;
+
+    /**
+     * 每个类别连续失败的次数，用于计算退避时间
+     */
+    private final Map<String, AtomicInteger> consecutiveFailures = new ConcurrentHashMap<>();
+
+    public NewsIngestionService(NewsUpstream upstream, NewsSnapshot snapshot,
+                                ArticleStoreService articleStore, TaskScheduler taskScheduler,
+                                StringRedisTemplate redisTemplate, CacheManager cacheManager) {
+        this.upstream = upstream;
+        this.snapshot = snapshot;
+        this.articleStore = articleStore;
+        this.taskScheduler = taskScheduler;
+        this.redisTemplate = redisTemplate;
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * 创建刷新租约
+     * 租约时长取刷新间隔扣除抖动后的下限，下一轮最早的调度时租约已过期
+     */
+    @PostConstruct
+    public void init() {
+        if (clusterLease) {
+            long leaseMs = Math.max(1L, (long) (refreshIntervalMs * (1 - jitterRatio)));
+            refreshLease = new RedisLoadLease(redisTemplate, Duration.ofMillis(leaseMs), Duration.ZERO, Duration.ZERO);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    /**
+     * 应用启动完成后为每个类别安排首次刷新
+     * 首次刷新在一个抖动窗口内错开，避免同时打满上游
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            log.info("新闻后台拉取已关闭");
+            return;
+        }
+
+        log.info("启动新闻后台拉取: categories={}, intervalMs={}", SubscriptionService.VALID_CATEGORIES, refreshIntervalMs);
+        for (String category : SubscriptionService.VALID_CATEGORIES) {
+            long initialDelayMs = (long) (ThreadLocalRandom.current().nextDouble() * jitterRatio * refreshIntervalMs);
+            schedule(category, Math.min(initialDelayMs, 5_000L));
+        }
+    }
+
+    /**
+     * 刷新单个类别：拉取上游、写入文章库，再从文章库读出最新文章放入快照
+     *
+     * @return true 如果刷新成功，或本轮已由其他节点刷新
+     */
+    public boolean refresh(String category) {
+        String leaseKey = LEASE_KEY_PREFIX + category;
+        String leaseToken = null;
+        if (refreshLease != null) {
+            try {
+                leaseToken = refreshLease.tryAcquire(leaseKey);
+                if (leaseToken == null) {
+                    log.debug("类别 {} 已由其他节点在本轮刷新，跳过", category);
+                    consecutiveFailures.remove(category);
+                    return true;
+                }
+            } catch (RuntimeException e) {
+                log.warn("获取类别 {} 的刷新租约失败，本节点直接刷新: {}", category, e.getMessage());
+            }
+        }
+
+        try {
+            List<NewsDto> news = upstream.fetchTopHeadlines(category);
+            List<NewsDto> latest = persist(category, news);
+            snapshot.put(category, latest);
+            updateCache(category, latest);
+            consecutiveFailures.remove(category);
+            log.info("刷新类别 {} 的新闻快照: {} 条", category, latest.size());
+            return true;
+        } catch (RuntimeException e) {
+            int failures = consecutiveFailures
+                    .computeIfAbsent(category, key -> new AtomicInteger())
+                    .incrementAndGet();
+            log.warn("刷新类别 {} 的新闻失败（连续 {} 次）: {}", category, failures, e.getMessage());
+            releaseLease(leaseKey, leaseToken);
+            return false;
+        }
+    }
+
+    /**
+     * 刷新失败时释放租约，任何节点都可以按退避时间重试，不必等到租约过期
+     */
+    private void releaseLease(String leaseKey, String leaseToken) {
+        if (leaseToken == null) {
+            return;
+        }
+        try {
+            refreshLease.release(leaseKey, leaseToken);
+        } catch (RuntimeException e) {
+            log.warn("释放类别刷新租约失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 用刷新结果覆盖 news 缓存，TwoLevelCache 会通知其他节点丢弃本地副本
+     * 缓存不可用时只记录日志，快照已更新，读取时仍能拿到新数据
+     */
+    private void updateCache(String category, List<NewsDto> latest) {
+        if (latest.isEmpty()) {
+            return;
+        }
+        try {
+            Cache cache = cacheManager.getCache(NewsService.NEWS_CACHE);
+            if (cache != null) {
+                cache.put(category, new CachedNews(latest, System.currentTimeMillis()));
+            }
+        } catch (RuntimeException e) {
+            log.warn("更新类别 {} 的新闻缓存失败: {}", category, e.getMessage());
+        }
+    }
+
+    /**
+     * 写入文章库并返回库中最新的文章
+     * 文章库不可用时退回到本次拉取的结果，不影响快照刷新
+     */
+    private List<NewsDto> persist(String category, List<NewsDto> news) {
+        try {
+            int written = articleStore.upsert(category, news);
+            log.debug("类别 {} 写入文章库 {} 条", category, written);
+            List<NewsDto> latest = articleStore.getLatest(category, pageSize);
+            return latest.isEmpty() ? news : latest;
+        } catch (RuntimeException e) {
+            log.warn("写入类别 {} 的文章失败，快照使用本次拉取结果: {}", category, e.getMessage());
+            return news;
+        }
+    }
+
+    /**
+     * 计算下次刷新的延迟
+     * 成功时为刷新间隔 ± 抖动；失败时为 initialBackoff * 2^(n-1)，不超过 maxBackoff，同样带抖动
+     */
+    long nextDelayMs(String category) {
+        AtomicInteger failures = consecutiveFailures.get(category);
+        long baseMs;
+        if (failures == null || failures.get() == 0) {
+            baseMs = refreshIntervalMs;
+        } else {
+            int exponent = Math.min(failures.get() - 1, 20);
+            baseMs = Math.min(initialBackoffMs << exponent, maxBackoffMs);
+        }
+        return withJitter(baseMs);
+    }
+
+    /**
+     * 获取类别连续失败次数
+     */
+    int getConsecutiveFailures(String category) {
+        AtomicInteger failures = consecutiveFailures.get(category);
+        return failures != null ? failures.get() : 0;
+    }
+
+    private long withJitter(long baseMs) {
+        if (jitterRatio <= 0) {
+            return baseMs;
+        }
+        double factor = 1 + (ThreadLocalRandom.current().nextDouble() * 2 - 1) * jitterRatio;
+        return Math.max(1L, (long) (baseMs * factor));
+    }
+
+    /**
+     * 到期时调度线程只把刷新提交给虚拟线程，立即返回
+     */
+    void schedule(String category, long delayMs) {
+        taskScheduler.schedule(() -> submit(category), Instant.now().plus(Duration.ofMillis(delayMs)));
+    }
+
+    private void submit(String category) {
+        try {
+            refreshExecutor.execute(() -> refreshAndReschedule(category));
+        } catch (RejectedExecutionException e) {
+            log.debug("应用正在关闭，停止刷新类别 {}", category);
+        }
+    }
+
+    private void refreshAndReschedule(String category) {
+        try {
+            refresh(category);
+        } finally {
+            schedule(category, nextDelayMs(category));
+        }
+    }
+}
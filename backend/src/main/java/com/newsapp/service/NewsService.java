@@ -1,121 +1,340 @@
 package com.newsapp.service;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.newsapp.dto.CachedNews;
 import com.newsapp.dto.NewsDto;
+import com.newsapp.dto.NewsPage;
+import com.newsapp.exception.BusinessException;
+import com.newsapp.exception.NewsApiException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
- * 新闻服务 - 调用 NewsAPI
+ * 新闻服务
+ * 读取顺序：news 缓存（L1 + Redis）-> 后台刷新的内存快照 -> 文章库 -> NewsAPI。
+ * 缓存未命中或过期时按快照、文章库、NewsAPI 的顺序加载；快照和文章库的数据超过 newsapi.ingestion.max-age-ms
+ * 说明后台拉取已停滞，此时跳过它们直接请求 NewsAPI。
  */
 @Service
 public class NewsService {
 
-    private static final Logger logger = LoggerFactory.getLogger(NewsService.class);
-
-    @Value("${newsapi.api-key}")
-    private String apiKey;
+    /**
+     * 新闻缓存名称，缓存 key 为类别
+     */
+    public static final String NEWS_CACHE = "news";
 
-    @Value("${newsapi.base-url}")
-    private String baseUrl;
+    private static final Logger logger = LoggerFactory.getLogger(NewsService.class);
 
     @Value("${newsapi.page-size:10}")
     private int pageSize;
 
-    private final RestTemplate restTemplate;
-    private final ObjectMapper objectMapper;
+    @Value("${newsapi.fanout.parallel:true}")
+    private boolean parallelFanOut;
+
+    @Value("${newsapi.fanout.category-timeout-ms:3000}")
+    private long categoryTimeoutMs;
+
+    @Value("${newsapi.fanout.total-timeout-ms:5000}")
+    private long totalTimeoutMs;
+
+    @Value("${newsapi.ingestion.max-age-ms:1800000}")
+    private long ingestedMaxAgeMs;
+
+    @Value("${newsapi.cache.soft-ttl-ms:300000}")
+    private long softTtlMs;
+
+    @Value("${newsapi.cache.hard-ttl-ms:600000}")
+    private long hardTtlMs;
+
+    @Value("${newsapi.cache.max-stale-ms:86400000}")
+    private long maxStaleMs;
+
+    private final NewsUpstream upstream;
+    private final NewsSnapshot snapshot;
+    private final ArticleStoreService articleStore;
+    private final CacheManager cacheManager;
 
     /**
-     * 构造函数 - 支持依赖注入
+     * 多类别并发拉取使用的虚拟线程执行器，每个类别一个虚拟线程
      */
-    public NewsService(RestTemplate restTemplate, ObjectMapper objectMapper) {
-        this.restTemplate = restTemplate;
-        this.objectMapper = objectMapper;
-    }
+    private final ExecutorService fanOutExecutor = Executors.newVirtualThreadPerTaskExecutor();
 
     /**
-     * 默认构造函数 - 用于 Spring 容器创建
-     * 注意：此构造函数主要用于测试，生产环境推荐使用依赖注入
+     * 正在后台刷新的类别
      */
-    public NewsService() {
-        this.restTemplate = new RestTemplate();
-        this.objectMapper = new ObjectMapper();
+    private final Map<String, CompletableFuture<List<NewsDto>>> revalidating = new ConcurrentHashMap<>();
+
+    public NewsService(NewsUpstream upstream, NewsSnapshot snapshot,
+                       ArticleStoreService articleStore, CacheManager cacheManager) {
+        this.upstream = upstream;
+        this.snapshot = snapshot;
+        this.articleStore = articleStore;
+        this.cacheManager = cacheManager;
     }
 
     /**
      * 获取指定类别的新闻
-     * 使用缓存，缓存 key 为 "news:{category}"
+     * 先读 news 缓存；未命中时并发请求只有一个执行加载（快照 -> 文章库 -> NewsAPI），其余等待同一结果
      */
-    @Cacheable(value = "news", key = "#category", unless = "#result == null || #result.isEmpty()")
-    public List<NewsDto> getNewsByCategory(String category) {
+    public List<NewsDto> getNewsByCategory(String requestedCategory) {
+        String category = requireValidCategory(requestedCategory);
+        Cache cache = cacheManager.getCache(NEWS_CACHE);
+        if (cache == null) {
+            return load(category).getArticles();
+        }
+
+        CachedNews cached = cache.get(category, CachedNews.class);
+        if (cached != null) {
+            return serveCached(cache, category, cached);
+        }
         try {
-            String url = baseUrl + "/top-headlines?category=" + category +
-                         "&apiKey=" + apiKey +
-                         "&pageSize=" + pageSize +
-                         "&language=en";
+            CachedNews loaded = cache.get(category, () -> {
+                CachedNews fresh = load(category);
+                return fresh.getArticles().isEmpty() ? null : fresh;
+            });
+            return loaded != null ? loaded.getArticles() : new ArrayList<>();
+        } catch (Cache.ValueRetrievalException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
 
-            logger.info("请求 NewsAPI: {}", url.replace(apiKey, "***"));
+    /**
+     * 加载类别的最新新闻
+     * 依次使用未过期的内存快照、未过期的文章库数据，都没有时请求 NewsAPI
+     */
+    private CachedNews load(String category) {
+        long now = System.currentTimeMillis();
+        NewsSnapshot.Entry warm = snapshot.getEntry(category);
+        if (warm != null && isFresh(warm.refreshedAt())) {
+            return new CachedNews(warm.articles(), warm.refreshedAt().toEpochMilli(), now);
+        }
+
+        LocalDateTime lastFetchedAt = articleStore.getLastFetchedAt(category);
+        if (lastFetchedAt != null) {
+            Instant storedAt = lastFetchedAt.atZone(ZoneId.systemDefault()).toInstant();
+            if (isFresh(storedAt)) {
+                List<NewsDto> stored = articleStore.getLatest(category, pageSize);
+                if (!stored.isEmpty()) {
+                    return new CachedNews(stored, storedAt.toEpochMilli(), now);
+                }
+            }
+        }
+
+        logger.info("类别 {} 没有新鲜的快照和文章库数据，同步请求 NewsAPI", category);
+        return new CachedNews(fetchTopHeadlines(category), now, now);
+    }
+
+    /**
+     * 快照或文章库中的数据是否在后台拉取的最大间隔之内
+     */
+    private boolean isFresh(Instant fetchedAt) {
+        return Duration.between(fetchedAt, Instant.now()).toMillis() < ingestedMaxAgeMs;
+    }
 
-            String response = restTemplate.getForObject(url, String.class);
-            List<NewsDto> result = parseNewsResponse(response);
-            logger.info("从 NewsAPI 获取到 {} 条 {} 类别的新闻", result.size(), category);
-            return result;
+    /**
+     * 按缓存条目写入后的时间返回新闻
+     * 未超过软过期时间直接返回；超过软过期时间返回旧数据并在后台重新加载；
+     * 超过硬过期时间同步重新加载，失败时只要数据拉取时间未超过 max-stale 仍返回旧数据
+     */
+    private List<NewsDto> serveCached(Cache cache, String category, CachedNews cached) {
+        long now = System.currentTimeMillis();
+        long ageMs = now - cached.getCachedAt();
+        if (ageMs < softTtlMs) {
+            return cached.getArticles();
+        }
+        if (ageMs < hardTtlMs) {
+            revalidate(cache, category);
+            return cached.getArticles();
+        }
 
+        try {
+            List<NewsDto> fresh = revalidate(cache, category).get(categoryTimeoutMs, TimeUnit.MILLISECONDS);
+            if (!fresh.isEmpty()) {
+                return fresh;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         } catch (Exception e) {
-            logger.error("获取新闻失败: {}", e.getMessage());
-            throw new RuntimeException("获取新闻失败: " + e.getMessage());
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            long staleMs = now - cached.getFetchedAt();
+            if (staleMs >= maxStaleMs) {
+                throw new NewsApiException("获取新闻失败: 类别 " + category + " 的缓存数据已超过最长保留时间且刷新失败: "
+                        + cause.getMessage());
+            }
+            logger.warn("类别 {} 的缓存已超过硬过期时间且刷新失败，返回 {} 秒前拉取的数据: {}",
+                    category, staleMs / 1000, cause.getMessage());
+        }
+        return cached.getArticles();
+    }
+
+    /**
+     * 在后台重新加载类别的缓存条目，同一类别同时只有一个加载
+     */
+    private CompletableFuture<List<NewsDto>> revalidate(Cache cache, String category) {
+        CompletableFuture<List<NewsDto>> refresh = new CompletableFuture<>();
+        CompletableFuture<List<NewsDto>> existing = revalidating.putIfAbsent(category, refresh);
+        if (existing != null) {
+            return existing;
         }
+
+        CompletableFuture.supplyAsync(() -> {
+            logger.debug("重新加载类别 {} 的过期缓存", category);
+            CachedNews loaded = load(category);
+            if (!loaded.getArticles().isEmpty()) {
+                cache.put(category, loaded);
+            }
+            return loaded.getArticles();
+        }, fanOutExecutor).whenComplete((result, error) -> {
+            revalidating.remove(category, refresh);
+            if (error != null) {
+                refresh.completeExceptionally(error);
+            } else {
+                refresh.complete(result);
+            }
+        });
+        return refresh;
+    }
+
+    /**
+     * 分页获取类别的历史新闻，只读本地文章库，不请求 NewsAPI
+     */
+    public List<NewsDto> getNewsHistory(String category, int page, int size) {
+        return articleStore.getHistory(requireValidCategory(category), page, size);
+    }
+
+    /**
+     * 校验并规范化类别
+     * 类别来自请求路径，只接受 NewsAPI 支持的类别，避免按任意字符串创建熔断器、令牌桶、指标和上游请求
+     */
+    private static String requireValidCategory(String category) {
+        String normalized = category == null ? "" : category.trim().toLowerCase(Locale.ROOT);
+        if (!SubscriptionService.VALID_CATEGORIES.contains(normalized)) {
+            throw new BusinessException("无效的新闻类别");
+        }
+        return normalized;
+    }
+
+    /**
+     * 直接请求 NewsAPI 获取指定类别的头条新闻，不经过快照和缓存
+     */
+    public List<NewsDto> fetchTopHeadlines(String category) {
+        return upstream.fetchTopHeadlines(category);
     }
 
     /**
      * 获取用户订阅的所有新闻
+     * 多个类别时并发拉取，总耗时取决于最慢的类别而不是所有类别之和
      */
     public List<NewsDto> getUserNews(List<String> categories) {
         List<NewsDto> allNews = new ArrayList<>();
+        getCategoryFeeds(categories).values().forEach(allNews::addAll);
+        return allNews;
+    }
+
+    /**
+     * 获取用户订阅类别的合并时间线
+     * 各类别的新闻按发布时间做多路归并并按 URL 去重，每次只返回一页
+     *
+     * @param cursor   上一页返回的游标，第一页为 null
+     * @param pageSize 每页条数
+     */
+    public NewsPage getTimeline(List<String> categories, String cursor, int pageSize) {
+        return NewsTimeline.merge(getCategoryFeeds(categories), cursor, pageSize);
+    }
+
+    /**
+     * 获取各类别的新闻，结果按订阅顺序排列，失败或超时的类别不在结果中
+     */
+    private Map<String, List<NewsDto>> getCategoryFeeds(List<String> categories) {
+        if (!parallelFanOut || categories.size() <= 1) {
+            return getCategoryFeedsSequentially(categories);
+        }
+        return getCategoryFeedsInParallel(categories);
+    }
+
+    /**
+     * 逐个类别顺序拉取
+     */
+    private Map<String, List<NewsDto>> getCategoryFeedsSequentially(List<String> categories) {
+        Map<String, List<NewsDto>> feeds = new LinkedHashMap<>();
 
         for (String category : categories) {
             try {
-                List<NewsDto> news = getNewsByCategory(category);
-                allNews.addAll(news);
+                feeds.put(category, getNewsByCategory(category));
             } catch (Exception e) {
                 logger.warn("获取类别 {} 的新闻失败: {}", category, e.getMessage());
             }
         }
 
-        return allNews;
+        return feeds;
     }
 
     /**
-     * 解析 NewsAPI 响应
+     * 在虚拟线程上并发拉取各类别新闻
+     * 单个类别超过 category-timeout-ms 即放弃，整体等待不超过 total-timeout-ms，
+     * 超时或失败的类别会被跳过，返回其余类别的部分结果（仍按订阅顺序排列）。
+     * 超时的类别会中断其虚拟线程，正在进行的 NewsAPI 请求随之取消，不在截止时间之后继续消耗配额
      */
-    private List<NewsDto> parseNewsResponse(String jsonResponse) throws Exception {
-        List<NewsDto> newsList = new ArrayList<>();
-
-        JsonNode root = objectMapper.readTree(jsonResponse);
-        JsonNode articles = root.path("articles");
-
-        for (JsonNode article : articles) {
-            NewsDto news = new NewsDto();
-            news.setTitle(article.path("title").asText(""));
-            news.setDescription(article.path("description").asText(""));
-            news.setUrl(article.path("url").asText(""));
-            news.setUrlToImage(article.path("urlToImage").asText(""));
-            news.setPublishedAt(article.path("publishedAt").asText(""));
+    private Map<String, List<NewsDto>> getCategoryFeedsInParallel(List<String> categories) {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(Math.min(categoryTimeoutMs, totalTimeoutMs));
 
-            JsonNode source = article.path("source");
-            news.setSource(source.path("name").asText(""));
+        Map<String, Future<List<NewsDto>>> futures = new LinkedHashMap<>();
+        for (String category : categories) {
+            futures.put(category, fanOutExecutor.submit(() -> getNewsByCategory(category)));
+        }
 
-            newsList.add(news);
+        Map<String, List<NewsDto>> feeds = new LinkedHashMap<>();
+        boolean interrupted = false;
+        for (Map.Entry<String, Future<List<NewsDto>>> entry : futures.entrySet()) {
+            String category = entry.getKey();
+            Future<List<NewsDto>> future = entry.getValue();
+            if (interrupted) {
+                future.cancel(true);
+                continue;
+            }
+            long remainingNanos = deadline - System.nanoTime();
+            try {
+                feeds.put(category, future.get(Math.max(remainingNanos, 0), TimeUnit.NANOSECONDS));
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                logger.warn("获取类别 {} 的新闻超过 {}ms，已取消并跳过",
+                        category, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                future.cancel(true);
+                interrupted = true;
+                logger.warn("获取类别 {} 的新闻被中断", category);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                logger.warn("获取类别 {} 的新闻失败: {}", category, cause.getMessage());
+            }
         }
 
-        return newsList;
+        return feeds;
     }
 }
@@ -0,0 +1,54 @@
+package com.newsapp.service;
+
+import com.newsapp.dto.NewsDto;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 新闻内存快照
+ * 由 NewsIngestionService 在后台定时刷新，请求线程只读，不会阻塞在上游 API 上
+ */
+@Component
+public class NewsSnapshot {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * 快照条目，整体替换，读取方看到的列表不会被修改
+     */
+    public record Entry(List<NewsDto> articles, Instant refreshedAt) {
+    }
+
+    /**
+     * 获取指定类别的新闻，尚未刷新过时返回 null
+     */
+    public List<NewsDto> get(String category) {
+        Entry entry = entries.get(category);
+        return entry != null ? entry.articles() : null;
+    }
+
+    /**
+     * 获取指定类别的快照条目
+     */
+    public Entry getEntry(String category) {
+        return entries.get(category);
+    }
+
+    /**
+     * 替换指定类别的新闻
+     */
+    public void put(String category, List<NewsDto> articles) {
+        entries.put(category, new Entry(List.copyOf(articles), Instant.now()));
+    }
+
+    /**
+     * 是否已有指定类别的数据
+     */
+    public boolean contains(String category) {
+        return entries.containsKey(category);
+    }
+}
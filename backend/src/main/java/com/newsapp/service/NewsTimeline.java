@@ -0,0 +1,199 @@
+package com.newsapp.service;
+
+import com.newsapp.dto.NewsDto;
+import com.newsapp.dto.NewsPage;
+import com.newsapp.exception.BusinessException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * 新闻时间线
+ * 把多个类别的新闻按发布时间倒序做多路归并，按规范化 URL 去重，用游标分页。
+ * 游标记录上一页最后一条新闻的 (发布时间, 规范化 URL)，对客户端不透明。
+ */
+final class NewsTimeline {
+
+    /**
+     * 每页最大条数
+     */
+    static final int MAX_PAGE_SIZE = 100;
+
+    /**
+     * 时间线中的位置，发布时间倒序，相同时间按 URL 升序
+     */
+    record Position(Instant publishedAt, String key) implements Comparable<Position> {
+
+        private static final Comparator<Position> ORDER = Comparator
+                .comparing(Position::publishedAt, Comparator.reverseOrder())
+                .thenComparing(Position::key);
+
+        @Override
+        public int compareTo(Position other) {
+            return ORDER.compare(this, other);
+        }
+    }
+
+    /**
+     * 带有时间线位置的新闻
+     */
+    private record Entry(Position position, NewsDto news) {
+    }
+
+    /**
+     * 归并时每个类别的读取位置
+     */
+    private record Head(Entry entry, List<Entry> feed, int index) {
+    }
+
+    private NewsTimeline() {
+    }
+
+    /**
+     * 归并出游标之后的一页
+     * 每条新闻计算一次位置（O(n)）；类别已按发布时间倒序时（文章库返回的顺序）不再排序，乱序的类别才排序。
+     * 各类别用二分查找定位到游标之后，再只从头部取出需要的条数，归并为 O(pageSize * log k)，k 为类别数
+     */
+    static NewsPage merge(Map<String, List<NewsDto>> feeds, String cursor, int pageSize) {
+        int limit = Math.min(Math.max(pageSize, 1), MAX_PAGE_SIZE);
+        Position after = cursor == null || cursor.isBlank() ? null : decodeCursor(cursor);
+
+        PriorityQueue<Head> heads = new PriorityQueue<>(Math.max(feeds.size(), 1),
+                Comparator.comparing(head -> head.entry().position()));
+        for (List<NewsDto> feed : feeds.values()) {
+            List<Entry> entries = sortedEntries(feed);
+            pushFrom(heads, entries, after == null ? 0 : firstAfter(entries, after));
+        }
+
+        List<NewsDto> items = new ArrayList<>(limit);
+        Set<String> seen = new HashSet<>();
+        Position last = null;
+        while (!heads.isEmpty() && items.size() < limit) {
+            Head head = heads.poll();
+            pushFrom(heads, head.feed(), head.index() + 1);
+
+            Position position = head.entry().position();
+            if (!seen.add(position.key())) {
+                continue;
+            }
+            items.add(head.entry().news());
+            last = position;
+        }
+
+        return new NewsPage(items, hasMoreAfter(heads, last) ? encodeCursor(last) : null);
+    }
+
+    /**
+     * 计算类别内每条新闻的位置，不是按位置有序时才排序
+     */
+    private static List<Entry> sortedEntries(List<NewsDto> feed) {
+        List<Entry> entries = new ArrayList<>(feed.size());
+        boolean sorted = true;
+        for (NewsDto news : feed) {
+            Entry entry = new Entry(positionOf(news), news);
+            if (!entries.isEmpty() && entries.get(entries.size() - 1).position().compareTo(entry.position()) > 0) {
+                sorted = false;
+            }
+            entries.add(entry);
+        }
+        if (!sorted) {
+            entries.sort(Comparator.comparing(Entry::position));
+        }
+        return entries;
+    }
+
+    /**
+     * 二分查找第一条排在 after 之后的新闻
+     */
+    private static int firstAfter(List<Entry> entries, Position after) {
+        int low = 0;
+        int high = entries.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (entries.get(mid).position().compareTo(after) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * 剩余的新闻中是否还有排在 last 之后的（跳过与 last 重复的条目）
+     */
+    private static boolean hasMoreAfter(PriorityQueue<Head> heads, Position last) {
+        if (last == null) {
+            return false;
+        }
+        while (!heads.isEmpty()) {
+            Head head = heads.poll();
+            if (head.entry().position().compareTo(last) > 0) {
+                return true;
+            }
+            pushFrom(heads, head.feed(), head.index() + 1);
+        }
+        return false;
+    }
+
+    private static void pushFrom(PriorityQueue<Head> heads, List<Entry> feed, int index) {
+        if (index < feed.size()) {
+            heads.add(new Head(feed.get(index), feed, index));
+        }
+    }
+
+    static Position positionOf(NewsDto news) {
+        return new Position(parsePublishedAt(news.getPublishedAt()), dedupeKey(news));
+    }
+
+    /**
+     * 去重 key：规范化 URL，没有 URL 时退回到标题
+     */
+    private static String dedupeKey(NewsDto news) {
+        if (news.getUrl() != null && !news.getUrl().isBlank()) {
+            return ArticleStoreService.canonicalUrl(news.getUrl());
+        }
+        return "title:" + (news.getTitle() != null ? news.getTitle() : "");
+    }
+
+    /**
+     * 发布时间缺失或无法解析时排在最后
+     */
+    private static Instant parsePublishedAt(String publishedAt) {
+        if (publishedAt == null || publishedAt.isBlank()) {
+            return Instant.EPOCH;
+        }
+        try {
+            return Instant.parse(publishedAt);
+        } catch (DateTimeParseException e) {
+            return Instant.EPOCH;
+        }
+    }
+
+    static String encodeCursor(Position position) {
+        String raw = position.publishedAt() + "|" + position.key();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Position decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            if (separator < 0) {
+                throw new BusinessException("无效的分页游标");
+            }
+            return new Position(Instant.parse(raw.substring(0, separator)), raw.substring(separator + 1));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BusinessException("无效的分页游标");
+        }
+    }
+}
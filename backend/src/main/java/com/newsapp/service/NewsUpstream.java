@@ -0,0 +1,21 @@
+package com.newsapp.service;
+
+import com.newsapp.dto.NewsDto;
+
+import java.util.List;
+
+/**
+ * 新闻上游数据源
+ * 生产环境由 NewsAPI 实现，测试中可替换为本地桩实现
+ */
+public interface NewsUpstream {
+
+    /**
+     * 拉取指定类别的头条新闻
+     *
+     * @param category 新闻类别
+     * @return 新闻列表
+     * @throws RuntimeException 上游请求或解析失败时抛出
+     */
+    List<NewsDto> fetchTopHeadlines(String category);
+}
@@ -0,0 +1,511 @@
+package com.newsapp.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.newsapp.dto.MessageSummary;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 服务器推送（SSE）：新消息、未读数变化和公告发布
+ * 连接是异步的 SseEmitter，请求线程在建立连接后立即归还，空闲连接只占用一个 socket 和一个 emitter 对象。
+ * 每个连接有自己的待发送队列，同一时间最多一个虚拟线程按入队顺序写出，事件不会乱序，慢客户端也不会阻塞其他连接；
+ * 待发送事件超过 maxPendingEvents 时关闭该连接（客户端重连后重新收到未读数），卡住的客户端不会无限占用内存和线程。
+ *
+ * 事件在事务提交后通过 Redis pub/sub 发布，每个节点（包括发布者自己）收到后推给本节点上的连接，
+ * 用户连在哪个节点都能收到。Redis 不可用时只推给本节点的连接，客户端重连时会重新收到未读数。
+ *
+ * 有连接的用户记在 Redis 的在线集合（有序集合，分值为过期时间）中：打开连接时加入，心跳时续期，
+ * 节点崩溃或用户断开后最迟 presenceTtl 后过期。群发时先按在线集合过滤接收者，
+ * 每批只发布一条消息，各节点只推给本节点上有连接的用户。
+ */
+@Component
+public class NotificationPushService implements MessageListener {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationPushService.class);
+
+    public static final String EVENT_MESSAGE = "message";
+    public static final String EVENT_UNREAD_COUNT = "unread-count";
+    public static final String EVENT_ANNOUNCEMENT = "announcement";
+
+    /**
+     * 节点间的控制消息：关闭用户用某个访问令牌打开的连接（data 为令牌的 jti），不推送给客户端
+     */
+    static final String EVENT_DISCONNECT = "disconnect";
+
+    /**
+     * 节点间的控制消息：一批群发消息（data 为 MessageBatch），各节点拆开后推给本节点上有连接的用户
+     */
+    static final String EVENT_MESSAGE_BATCH = "message-batch";
+
+    static final String PRESENCE_KEY = "notifications:online";
+
+    /**
+     * 推送消息
+     *
+     * @param userId 接收用户，为 null 表示所有在线用户
+     * @param event  事件名
+     * @param data   事件数据（JSON）
+     */
+    public record Push(Long userId, String event, String data) {
+    }
+
+    /**
+     * 一批用户各收到一条群发消息
+     * messageIds、unreadCounts 与 userIds 按下标一一对应，未读计数不存在时为 null（不推送未读数）；其余字段共用
+     */
+    public record MessageBatch(List<Long> userIds, List<Long> messageIds, List<Long> unreadCounts,
+                               String title, String type, Long senderId, LocalDateTime createdAt) {
+
+        MessageSummary summary(int index) {
+            return new MessageSummary(messageIds.get(index), title, type, false, senderId, createdAt);
+        }
+    }
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final String channel;
+    private final long timeoutMs;
+    private final int maxConnectionsPerUser;
+    private final int maxPendingEvents;
+    private final long presenceTtlMs;
+    private final Counter overflowCounter;
+
+    private final Map<Long, Set<Connection>> connections = new ConcurrentHashMap<>();
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    private final ExecutorService sender = Executors.newVirtualThreadPerTaskExecutor();
+
+    public NotificationPushService(StringRedisTemplate redisTemplate,
+                                   ObjectMapper objectMapper,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${notifications.channel:notifications:push}") String channel,
+                                   @Value("${notifications.sse.timeout-ms:1800000}") long timeoutMs,
+                                   @Value("${notifications.sse.max-connections-per-user:5}") int maxConnectionsPerUser,
+                                   @Value("${notifications.sse.max-pending-events:100}") int maxPendingEvents,
+                                   @Value("${notifications.presence.ttl-ms:90000}") long presenceTtlMs) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.channel = channel;
+        this.timeoutMs = timeoutMs;
+        this.maxConnectionsPerUser = maxConnectionsPerUser;
+        this.maxPendingEvents = maxPendingEvents;
+        this.presenceTtlMs = presenceTtlMs;
+        this.overflowCounter = Counter.builder("notifications.sse.overflow")
+                .description("待发送事件超过上限而被关闭的推送连接数")
+                .register(meterRegistry);
+        Gauge.builder("notifications.sse.connections", connectionCount, AtomicInteger::get)
+                .description("本节点上打开的推送连接数")
+                .register(meterRegistry);
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    /**
+     * 为用户打开推送连接，并立即推送当前未读数
+     * 连接最迟在访问令牌过期时结束，客户端用新令牌重连；同一用户的连接数超过上限时关闭最早的连接
+     *
+     * @param tokenId   打开连接所用访问令牌的 jti，登出时按它关闭连接
+     * @param expiresAt 访问令牌的过期时间
+     */
+    public SseEmitter subscribe(Long userId, String tokenId, Instant expiresAt, long unreadCount) {
+        long untilExpiry = Duration.between(Instant.now(), expiresAt).toMillis();
+        SseEmitter emitter = new SseEmitter(Math.max(1, Math.min(timeoutMs, untilExpiry)));
+        register(userId, tokenId, emitter, unreadCount);
+        return emitter;
+    }
+
+    /**
+     * 关闭用户用指定访问令牌打开的连接（所有节点），在登出吊销令牌后调用
+     */
+    public void disconnect(Long userId, String tokenId) {
+        publish(new Push(userId, EVENT_DISCONNECT, tokenId));
+    }
+
+    /**
+     * 登记连接并推送当前未读数
+     */
+    void register(Long userId, String tokenId, SseEmitter emitter, long unreadCount) {
+        Connection connection = new Connection(userId, tokenId, emitter);
+        // 加入和移除都在 compute 中进行，避免加入到刚被移除的空集合
+        Set<Connection> userConnections = connections.compute(userId, (id, existing) -> {
+            Set<Connection> set = existing != null ? existing : new CopyOnWriteArraySet<>();
+            set.add(connection);
+            return set;
+        });
+        connectionCount.incrementAndGet();
+
+        emitter.onCompletion(() -> remove(connection));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> remove(connection));
+
+        if (userConnections.size() > maxConnectionsPerUser) {
+            // CopyOnWriteArraySet 按加入顺序迭代，第一个即最早的连接
+            userConnections.stream().findFirst().ifPresent(oldest -> {
+                remove(oldest);
+                oldest.emitter.complete();
+            });
+        }
+
+        markOnline(Set.of(userId));
+        connection.send(SseEmitter.event().name(EVENT_UNREAD_COUNT).data(countJson(unreadCount)));
+        log.debug("打开推送连接: userId={}, 本节点连接数={}", userId, connectionCount.get());
+    }
+
+    /**
+     * 事务提交后向用户推送事件；不在事务中时立即推送
+     */
+    public void publishToUser(Long userId, String event, Object data) {
+        publishAfterCommit(userId, event, data);
+    }
+
+    /**
+     * 事务提交后向所有在线用户推送事件；不在事务中时立即推送
+     */
+    public void publishToAll(String event, Object data) {
+        publishAfterCommit(null, event, data);
+    }
+
+    /**
+     * 推送用户的最新未读数；由 UnreadMessageCounter 在计数变化后调用
+     */
+    public void publishUnreadCount(Long userId, long count) {
+        publish(new Push(userId, EVENT_UNREAD_COUNT, countJson(count)));
+    }
+
+    /**
+     * 发布一批群发消息，整批只有一条 Redis 消息；由 MessageBroadcastJob 在批次提交后调用
+     */
+    public void publishMessageBatch(MessageBatch batch) {
+        if (batch.userIds().isEmpty()) {
+            return;
+        }
+        try {
+            publish(new Push(null, EVENT_MESSAGE_BATCH, objectMapper.writeValueAsString(batch)));
+        } catch (JsonProcessingException e) {
+            log.warn("无法序列化群发推送: users={}, error={}", batch.userIds().size(), e.getMessage());
+        }
+    }
+
+    /**
+     * 从给定用户中筛出在线集合里未过期的用户，一次 ZMSCORE 完成
+     * Redis 不可用时原样返回，由各节点按本地连接过滤
+     */
+    public Set<Long> filterOnline(List<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return Set.of();
+        }
+        List<Double> scores;
+        try {
+            scores = redisTemplate.opsForZSet().score(PRESENCE_KEY, userIds.stream().map(String::valueOf).toArray());
+        } catch (RuntimeException e) {
+            log.warn("读取在线用户失败，按全部在线处理: users={}, error={}", userIds.size(), e.getMessage());
+            return new LinkedHashSet<>(userIds);
+        }
+        long now = System.currentTimeMillis();
+        Set<Long> online = new LinkedHashSet<>();
+        for (int i = 0; i < userIds.size() && scores != null && i < scores.size(); i++) {
+            Double expiresAt = scores.get(i);
+            if (expiresAt != null && expiresAt > now) {
+                online.add(userIds.get(i));
+            }
+        }
+        return online;
+    }
+
+    /**
+     * 其他节点（以及本节点）发布的推送
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        Push push;
+        try {
+            push = objectMapper.readValue(message.getBody(), Push.class);
+        } catch (IOException e) {
+            log.warn("无法解析推送消息: {}", e.getMessage());
+            return;
+        }
+        deliver(push);
+    }
+
+    /**
+     * 定期发送注释行：防止代理因空闲断开连接，也借写入失败及时清理已断开的客户端
+     */
+    @Scheduled(fixedDelayString = "${notifications.sse.heartbeat-interval-ms:25000}")
+    public void heartbeat() {
+        connections.values().forEach(userConnections -> userConnections.forEach(Connection::heartbeat));
+        markOnline(connections.keySet());
+        try {
+            redisTemplate.opsForZSet().removeRangeByScore(PRESENCE_KEY, 0, System.currentTimeMillis());
+        } catch (RuntimeException e) {
+            log.warn("清理过期的在线用户失败: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        connections.values().forEach(userConnections ->
+                userConnections.forEach(connection -> connection.emitter.complete()));
+        sender.shutdown();
+    }
+
+    /**
+     * 本节点上打开的连接数
+     */
+    int connectionCount() {
+        return connectionCount.get();
+    }
+
+    /**
+     * 把推送写到本节点上对应的连接
+     */
+    void deliver(Push push) {
+        if (EVENT_DISCONNECT.equals(push.event())) {
+            close(push.userId(), push.data());
+            return;
+        }
+        if (EVENT_MESSAGE_BATCH.equals(push.event())) {
+            deliverBatch(push.data());
+            return;
+        }
+        if (push.userId() == null) {
+            connections.values().forEach(userConnections -> deliver(userConnections, push));
+            return;
+        }
+        Set<Connection> userConnections = connections.get(push.userId());
+        if (userConnections != null) {
+            deliver(userConnections, push);
+        }
+    }
+
+    private void deliver(Set<Connection> userConnections, Push push) {
+        for (Connection connection : userConnections) {
+            connection.send(SseEmitter.event().name(push.event()).data(push.data()));
+        }
+    }
+
+    /**
+     * 拆开群发批次，只为本节点上有连接的用户序列化并推送
+     */
+    private void deliverBatch(String data) {
+        MessageBatch batch;
+        try {
+            batch = objectMapper.readValue(data, MessageBatch.class);
+        } catch (IOException e) {
+            log.warn("无法解析群发推送: {}", e.getMessage());
+            return;
+        }
+        for (int i = 0; i < batch.userIds().size(); i++) {
+            Set<Connection> userConnections = connections.get(batch.userIds().get(i));
+            if (userConnections == null) {
+                continue;
+            }
+            Long unreadCount = batch.unreadCounts().get(i);
+            if (unreadCount != null) {
+                deliver(userConnections, new Push(batch.userIds().get(i), EVENT_UNREAD_COUNT, countJson(unreadCount)));
+            }
+            try {
+                deliver(userConnections, new Push(batch.userIds().get(i), EVENT_MESSAGE,
+                        objectMapper.writeValueAsString(batch.summary(i))));
+            } catch (JsonProcessingException e) {
+                log.warn("无法序列化群发消息: userId={}, error={}", batch.userIds().get(i), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 把用户加入在线集合或续期，过期时间为当前时间加 presenceTtl
+     * 用户断开后不立即移除（可能还连在其他节点上），等过期后由心跳清理
+     */
+    private void markOnline(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        double expiresAt = System.currentTimeMillis() + presenceTtlMs;
+        Set<ZSetOperations.TypedTuple<String>> members = new HashSet<>();
+        for (Long userId : userIds) {
+            members.add(ZSetOperations.TypedTuple.of(String.valueOf(userId), expiresAt));
+        }
+        try {
+            redisTemplate.opsForZSet().add(PRESENCE_KEY, members);
+        } catch (RuntimeException e) {
+            log.warn("更新在线用户失败: users={}, error={}", userIds.size(), e.getMessage());
+        }
+    }
+
+    private void close(Long userId, String tokenId) {
+        Set<Connection> userConnections = userId != null ? connections.get(userId) : null;
+        if (userConnections == null) {
+            return;
+        }
+        for (Connection connection : userConnections) {
+            if (Objects.equals(connection.tokenId, tokenId)) {
+                remove(connection);
+                connection.emitter.complete();
+                log.debug("令牌已吊销，关闭推送连接: userId={}", userId);
+            }
+        }
+    }
+
+    private void remove(Connection connection) {
+        connections.computeIfPresent(connection.userId, (id, userConnections) -> {
+            if (userConnections.remove(connection)) {
+                connectionCount.decrementAndGet();
+            }
+            return userConnections.isEmpty() ? null : userConnections;
+        });
+    }
+
+    private void publishAfterCommit(Long userId, String event, Object data) {
+        Push push;
+        try {
+            push = new Push(userId, event, objectMapper.writeValueAsString(data));
+        } catch (JsonProcessingException e) {
+            log.warn("无法序列化推送数据: event={}, error={}", event, e.getMessage());
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(push);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publish(push);
+            }
+        });
+    }
+
+    private void publish(Push push) {
+        try {
+            redisTemplate.convertAndSend(channel, objectMapper.writeValueAsString(push));
+        } catch (Exception e) {
+            // 其他节点上的连接收不到这次推送，客户端重连或刷新页面时恢复
+            log.warn("发布推送消息失败，只推送本节点: event={}, error={}", push.event(), e.getMessage());
+            deliver(push);
+        }
+    }
+
+    private static String countJson(long count) {
+        return "{\"count\":" + count + "}";
+    }
+
+    /**
+     * 一个推送连接及其待发送队列
+     * 入队后如果没有正在写的线程就启动一个，由它按顺序写完队列中的事件后退出
+     */
+    private final class Connection {
+
+        private final Long userId;
+        private final String tokenId;
+        private final SseEmitter emitter;
+        private final ArrayDeque<SseEmitter.SseEventBuilder> pending = new ArrayDeque<>();
+        private boolean writing;
+        private boolean closed;
+
+        Connection(Long userId, String tokenId, SseEmitter emitter) {
+            this.userId = userId;
+            this.tokenId = tokenId;
+            this.emitter = emitter;
+        }
+
+        void send(SseEmitter.SseEventBuilder event) {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                if (pending.size() >= maxPendingEvents) {
+                    closed = true;
+                    pending.clear();
+                } else {
+                    pending.add(event);
+                    if (!writing) {
+                        writing = true;
+                        sender.execute(this::drain);
+                    }
+                    return;
+                }
+            }
+            overflowCounter.increment();
+            log.warn("推送连接积压的事件超过 {} 条，关闭连接: userId={}", maxPendingEvents, userId);
+            remove(this);
+            emitter.complete();
+        }
+
+        /**
+         * 心跳只在没有积压时发送：有事件待写时连接本来就不空闲
+         */
+        void heartbeat() {
+            synchronized (this) {
+                if (writing || !pending.isEmpty()) {
+                    return;
+                }
+            }
+            send(SseEmitter.event().comment("ping"));
+        }
+
+        private void drain() {
+            while (true) {
+                SseEmitter.SseEventBuilder event;
+                synchronized (this) {
+                    event = pending.poll();
+                    if (event == null || closed) {
+                        writing = false;
+                        return;
+                    }
+                }
+                try {
+                    emitter.send(event);
+                } catch (IOException e) {
+                    // 客户端已断开
+                    close();
+                    emitter.completeWithError(e);
+                } catch (IllegalStateException e) {
+                    // 连接已结束
+                    close();
+                }
+            }
+        }
+
+        private void close() {
+            synchronized (this) {
+                closed = true;
+                pending.clear();
+            }
+            remove(this);
+        }
+    }
+}
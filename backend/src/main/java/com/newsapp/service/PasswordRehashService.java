@@ -0,0 +1,114 @@
+package com.newsapp.service;
+
+import com.newsapp.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 登录后的密码重新哈希
+ * 存储的哈希比当前配置弱（cost 较低或没有算法前缀）时，登录成功后用明文密码在后台重新哈希，
+ * 不占用登录请求的时间。单线程执行、队列有界：队列满时丢弃，用户下次登录再试。
+ * 写回时以旧哈希为条件，期间用户修改过密码则放弃。
+ */
+@Service
+public class PasswordRehashService {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordRehashService.class);
+
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+
+    private final Counter upgraded;
+    private final Counter stale;
+    private final Counter failed;
+    private final Counter dropped;
+
+    public PasswordRehashService(UserRepository userRepository,
+                                 PasswordEncoder passwordEncoder,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${security.password.rehash-queue-capacity:1000}") int queueCapacity) {
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-rehash");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.upgraded = counter(meterRegistry, "upgraded");
+        this.stale = counter(meterRegistry, "stale");
+        this.failed = counter(meterRegistry, "failed");
+        this.dropped = counter(meterRegistry, "dropped");
+    }
+
+    /**
+     * 密码校验通过后调用；哈希已是当前强度时什么也不做
+     *
+     * @param userId      用户 ID
+     * @param storedHash  刚校验通过的哈希
+     * @param rawPassword 明文密码
+     */
+    public void rehashIfNeeded(Long userId, String storedHash, String rawPassword) {
+        if (!passwordEncoder.upgradeEncoding(storedHash)) {
+            return;
+        }
+        try {
+            executor.execute(() -> rehash(userId, storedHash, rawPassword));
+        } catch (RejectedExecutionException e) {
+            dropped.increment();
+            log.debug("密码重新哈希队列已满，跳过: userId={}", userId);
+        }
+    }
+
+    /**
+     * 停止接收任务，等待已排队的重新哈希完成（最多 5 秒）
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void rehash(Long userId, String storedHash, String rawPassword) {
+        try {
+            String newHash = passwordEncoder.encode(rawPassword);
+            if (userRepository.updatePasswordIfUnchanged(userId, storedHash, newHash) > 0) {
+                upgraded.increment();
+                log.info("密码哈希已升级: userId={}", userId);
+            } else {
+                stale.increment();
+                log.debug("密码在重新哈希期间已修改，放弃: userId={}", userId);
+            }
+        } catch (RuntimeException e) {
+            failed.increment();
+            log.warn("密码重新哈希失败: userId={}, {}", userId, e.getMessage());
+        }
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("auth.password.rehash")
+                .description("登录后重新哈希密码的结果")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
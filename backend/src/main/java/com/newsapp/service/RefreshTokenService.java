@@ -0,0 +1,143 @@
+package com.newsapp.service;
+
+import com.newsapp.entity.RefreshToken;
+import com.newsapp.exception.BusinessException;
+import com.newsapp.repository.RefreshTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * 刷新令牌服务
+ * 访问令牌短期有效、无状态验证；刷新令牌是随机串，数据库只保存其 SHA-256。
+ * 每次刷新轮换：旧令牌标记为已使用，签发同一家族的新令牌。
+ * 已使用的令牌再次被提交说明它被盗用，整个家族作废，持有者需要重新登录。
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    @Value("${jwt.refresh-expiration:1209600000}")
+    private long refreshExpirationMs;
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository) {
+        this.refreshTokenRepository = refreshTokenRepository;
+    }
+
+    /**
+     * 签发的刷新令牌
+     *
+     * @param userId    用户 ID
+     * @param token     令牌原文，只在签发时返回给客户端
+     * @param expiresIn 有效期（毫秒）
+     */
+    public record IssuedToken(Long userId, String token, long expiresIn) {
+    }
+
+    /**
+     * 登录或注册时签发新的令牌家族
+     */
+    @Transactional
+    public IssuedToken issue(Long userId) {
+        return create(userId, UUID.randomUUID().toString());
+    }
+
+    /**
+     * 用刷新令牌换取新的刷新令牌
+     * 令牌无效、过期或已作废时抛出 BusinessException；检测到重放时作废整个家族后抛出
+     *
+     * @param token 客户端提交的令牌原文
+     * @return 新令牌，userId 为令牌所属用户
+     */
+    @Transactional(noRollbackFor = BusinessException.class)
+    public IssuedToken rotate(String token) {
+        RefreshToken current = refreshTokenRepository.findByTokenHashForUpdate(hash(token))
+                .orElseThrow(() -> new BusinessException("刷新令牌无效"));
+
+        if (current.getRevoked() || current.isExpired()) {
+            throw new BusinessException("刷新令牌已失效，请重新登录");
+        }
+        if (current.getUsedAt() != null) {
+            int revoked = refreshTokenRepository.revokeFamily(current.getFamilyId());
+            log.warn("刷新令牌被重复使用，已作废整个家族: userId={}, family={}, revoked={}",
+                    current.getUserId(), current.getFamilyId(), revoked);
+            throw new BusinessException("刷新令牌已失效，请重新登录");
+        }
+
+        current.setUsedAt(LocalDateTime.now());
+        refreshTokenRepository.save(current);
+        return create(current.getUserId(), current.getFamilyId());
+    }
+
+    /**
+     * 登出时作废令牌所在的家族；令牌不存在时忽略
+     */
+    @Transactional
+    public void revoke(String token) {
+        refreshTokenRepository.findByTokenHash(hash(token))
+                .ifPresent(current -> refreshTokenRepository.revokeFamily(current.getFamilyId()));
+    }
+
+    /**
+     * 作废用户的所有刷新令牌（例如修改密码后）
+     */
+    @Transactional
+    public void revokeAllForUser(Long userId) {
+        int revoked = refreshTokenRepository.revokeAllByUserId(userId);
+        log.info("已作废用户的刷新令牌: userId={}, count={}", userId, revoked);
+    }
+
+    /**
+     * 定期删除过期的令牌
+     */
+    @Scheduled(cron = "${jwt.refresh-cleanup-cron:0 30 3 * * *}")
+    @Transactional
+    public void deleteExpired() {
+        int deleted = refreshTokenRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            log.info("已删除过期的刷新令牌: {}", deleted);
+        }
+    }
+
+    private IssuedToken create(Long userId, String familyId) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        secureRandom.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        RefreshToken refreshToken = new RefreshToken();
+        refreshToken.setUserId(userId);
+        refreshToken.setTokenHash(hash(token));
+        refreshToken.setFamilyId(familyId);
+        refreshToken.setExpiresAt(LocalDateTime.now().plus(Duration.ofMillis(refreshExpirationMs)));
+        refreshTokenRepository.save(refreshToken);
+        return new IssuedToken(userId, token, refreshExpirationMs);
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 不可用", e);
+        }
+    }
+}
@@ -17,6 +17,14 @@ public class SubscriptionService {
 
     private static final Logger log = LoggerFactory.getLogger(SubscriptionService.class);
 
+    /**
+     * NewsAPI 支持的类别
+     */
+    public static final List<String> VALID_CATEGORIES = List.of(
+            "business", "entertainment", "general",
+            "health", "science", "sports", "technology"
+    );
+
     private final SubscriptionRepository subscriptionRepository;
 
     public SubscriptionService(SubscriptionRepository subscriptionRepository) {
@@ -82,12 +90,6 @@ public class SubscriptionService {
      * 验证新闻类别是否有效
      */
     private boolean isValidCategory(String category) {
-        // NewsAPI 支持的类别
-        List<String> validCategories = List.of(
-                "business", "entertainment", "general",
-                "health", "science", "sports", "technology"
-        );
-
-        return validCategories.contains(category.toLowerCase());
+        return VALID_CATEGORIES.contains(category.toLowerCase());
     }
 }
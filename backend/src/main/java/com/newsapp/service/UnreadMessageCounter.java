@@ -0,0 +1,239 @@
+package com.newsapp.service;
+
+import com.newsapp.repository.MessageRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 每个用户的未读消息数
+ * 计数保存在 Redis（messages:unread:&lt;userId&gt;），读取是一次 GET；
+ * 不存在时从 messages 表统计后写入。发送、标记已读、全部已读和删除在事务提交后按变化量原子地增减，
+ * 只增减已存在的计数，不存在时等下次读取重新统计。
+ *
+ * 计数与表之间可能出现偏差（例如统计和提交交错、提交后进程退出），偏差由两种方式收敛：
+ * 计数有过期时间；定期对账时比较 Redis 中的计数和表中的统计，不一致的计数直接删除，下次读取重新统计。
+ * Redis 不可用时直接查询表。
+ *
+ * 单条增减后把新值推送给用户；计数不存在时不推送也不统计表，用户打开推送连接时会重新读取。
+ * 群发的批量加一不逐个推送，新值由调用方合并到每批一条的群发推送中。
+ */
+@Component
+public class UnreadMessageCounter {
+
+    private static final Logger log = LoggerFactory.getLogger(UnreadMessageCounter.class);
+
+    static final String KEY_PREFIX = "messages:unread:";
+
+    /**
+     * 计数存在时增减并返回新值，不存在时返回 nil；减到负数说明计数有偏差，删除后重新统计
+     */
+    private static final RedisScript<Long> ADJUST_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('exists', KEYS[1]) == 0 then return nil end "
+                    + "local value = redis.call('incrby', KEYS[1], ARGV[1]) "
+                    + "if value < 0 then redis.call('del', KEYS[1]) end "
+                    + "return value",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final MessageRepository messageRepository;
+    private final NotificationPushService pushService;
+    private final Duration ttl;
+    private final int reconcileBatchSize;
+    private final Counter drift;
+
+    public UnreadMessageCounter(StringRedisTemplate redisTemplate,
+                                MessageRepository messageRepository,
+                                NotificationPushService pushService,
+                                MeterRegistry meterRegistry,
+                                @Value("${messages.unread-counter.ttl-ms:86400000}") long ttlMs,
+                                @Value("${messages.unread-counter.reconcile-batch-size:500}") int reconcileBatchSize) {
+        this.redisTemplate = redisTemplate;
+        this.messageRepository = messageRepository;
+        this.pushService = pushService;
+        this.ttl = Duration.ofMillis(ttlMs);
+        this.reconcileBatchSize = reconcileBatchSize;
+        this.drift = Counter.builder("messages.unread_counter.drift")
+                .description("对账时发现与表不一致而删除的未读计数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 用户的未读消息数
+     */
+    public long get(Long userId) {
+        String key = KEY_PREFIX + userId;
+        try {
+            String cached = redisTemplate.opsForValue().get(key);
+            if (cached != null) {
+                return Long.parseLong(cached);
+            }
+        } catch (RuntimeException e) {
+            log.warn("读取未读计数失败，直接统计: userId={}, error={}", userId, e.getMessage());
+            return messageRepository.countByUserIdAndIsReadFalse(userId);
+        }
+
+        long count = messageRepository.countByUserIdAndIsReadFalse(userId);
+        try {
+            // 其他请求可能已经写入，以先写入的为准
+            redisTemplate.opsForValue().setIfAbsent(key, String.valueOf(count), ttl);
+        } catch (RuntimeException e) {
+            log.warn("写入未读计数失败: userId={}, error={}", userId, e.getMessage());
+        }
+        return count;
+    }
+
+    /**
+     * 当前事务提交后增减用户的未读计数；不在事务中时立即执行
+     *
+     * @param delta 变化量，新消息为正，标记已读或删除未读消息为负
+     */
+    public void adjustAfterCommit(Long userId, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            adjust(userId, delta);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                adjust(userId, delta);
+            }
+        });
+    }
+
+    /**
+     * 一批用户各收到一条新消息后（已提交）给计数加一，一次管道往返完成
+     * 只增加已存在的计数，不推送；新值由调用方随群发消息一起推送
+     *
+     * @return 计数存在的用户及其新值
+     */
+    public Map<Long, Long> incrementAll(List<Long> userIds) {
+        byte[] script = ADJUST_SCRIPT.getScriptAsString().getBytes(StandardCharsets.UTF_8);
+        byte[] one = "1".getBytes(StandardCharsets.UTF_8);
+        List<Object> results;
+        try {
+            results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (Long userId : userIds) {
+                    connection.scriptingCommands().eval(script, ReturnType.INTEGER, 1,
+                            (KEY_PREFIX + userId).getBytes(StandardCharsets.UTF_8), one);
+                }
+                return null;
+            });
+        } catch (RuntimeException e) {
+            log.warn("批量更新未读计数失败: users={}, error={}", userIds.size(), e.getMessage());
+            return Map.of();
+        }
+
+        Map<Long, Long> updated = new HashMap<>();
+        for (int i = 0; i < userIds.size() && i < results.size(); i++) {
+            if (results.get(i) instanceof Long value) {
+                updated.put(userIds.get(i), value);
+            }
+        }
+        return updated;
+    }
+
+    /**
+     * 对账：逐批比较 Redis 中的计数和表中的统计，删除不一致的计数
+     */
+    @Scheduled(initialDelayString = "${messages.unread-counter.reconcile-interval-ms:300000}",
+            fixedDelayString = "${messages.unread-counter.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        long checked = 0;
+        long removed = 0;
+        List<String> batch = new ArrayList<>(reconcileBatchSize);
+        ScanOptions options = ScanOptions.scanOptions().match(KEY_PREFIX + "*").count(1000).build();
+        try (Cursor<String> keys = redisTemplate.scan(options)) {
+            while (keys.hasNext()) {
+                batch.add(keys.next());
+                if (batch.size() == reconcileBatchSize) {
+                    removed += reconcileBatch(batch);
+                    checked += batch.size();
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                removed += reconcileBatch(batch);
+                checked += batch.size();
+            }
+        } catch (RuntimeException e) {
+            log.warn("未读计数对账失败: {}", e.getMessage());
+            return;
+        }
+        if (removed > 0) {
+            log.info("未读计数对账完成: 检查 {} 个, 删除不一致的 {} 个", checked, removed);
+        }
+    }
+
+    private int reconcileBatch(List<String> keys) {
+        List<String> values = redisTemplate.opsForValue().multiGet(keys);
+        Map<Long, String> cached = new HashMap<>();
+        for (int i = 0; i < keys.size(); i++) {
+            String value = values != null ? values.get(i) : null;
+            if (value != null) {
+                cached.put(Long.valueOf(keys.get(i).substring(KEY_PREFIX.length())), value);
+            }
+        }
+        if (cached.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, Long> actual = new HashMap<>();
+        for (MessageRepository.UnreadCountView row : messageRepository.countUnreadByUserIds(cached.keySet())) {
+            actual.put(row.getUserId(), row.getUnread());
+        }
+
+        List<String> stale = new ArrayList<>();
+        cached.forEach((userId, value) -> {
+            if (Long.parseLong(value) != actual.getOrDefault(userId, 0L)) {
+                stale.add(KEY_PREFIX + userId);
+            }
+        });
+        if (!stale.isEmpty()) {
+            // 统计和读取之间可能有新的变更，删除而不是覆盖：下次读取按表重新统计
+            redisTemplate.delete(stale);
+            drift.increment(stale.size());
+            log.debug("删除不一致的未读计数: {}", stale);
+        }
+        return stale.size();
+    }
+
+    private void adjust(Long userId, long delta) {
+        Long value;
+        try {
+            value = redisTemplate.execute(ADJUST_SCRIPT, List.of(KEY_PREFIX + userId), String.valueOf(delta));
+        } catch (RuntimeException e) {
+            // 计数停留在旧值，直到过期或对账时删除
+            log.warn("更新未读计数失败: userId={}, delta={}, error={}", userId, delta, e.getMessage());
+            return;
+        }
+        if (value == null) {
+            return;
+        }
+        // 减到负数时计数已被删除，按表重新统计
+        pushService.publishUnreadCount(userId, value >= 0 ? value : get(userId));
+    }
+}
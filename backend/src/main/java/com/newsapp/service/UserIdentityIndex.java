@@ -0,0 +1,200 @@
+package com.newsapp.service;
+
+import com.newsapp.repository.UserRepository;
+import com.newsapp.util.BloomFilter;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * 已占用用户名和邮箱的布隆过滤器索引
+ * 注册和修改资料时先查本地过滤器：判定不存在时跳过 existsByUsername / existsByEmail 两次查询，
+ * 可能存在时才查询数据库确认。数据库唯一约束仍是最终依据，过滤器漏掉的并发写入由唯一约束拦截。
+ *
+ * 启动时按主键分批读取 users 表构建；本节点的写入直接加入过滤器，并通过 Redis pub/sub 通知其他节点。
+ * 布隆过滤器无法删除，注销或改名后留下的旧值只会造成多一次查询，定期重建时清除。
+ * 数据库排序规则不区分大小写和重音，键按同样的规则归一化，归一化只会让误判变多、不会漏判。
+ */
+@Component
+public class UserIdentityIndex implements MessageListener {
+
+    private static final Logger log = LoggerFactory.getLogger(UserIdentityIndex.class);
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private static final String USERNAME_PREFIX = "u:";
+    private static final String EMAIL_PREFIX = "e:";
+
+    private final UserRepository userRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final boolean enabled;
+    private final String channel;
+    private final long expectedInsertions;
+    private final double fpp;
+    private final int batchSize;
+
+    private volatile BloomFilter filter;
+
+    /**
+     * 重建期间新写入的键同时加入正在构建的过滤器，避免切换时丢失
+     */
+    private volatile BloomFilter rebuilding;
+
+    /**
+     * 过滤器是否已完整加载；未加载或加载失败时所有检查都查询数据库
+     */
+    private volatile boolean loaded;
+
+    public UserIdentityIndex(UserRepository userRepository,
+                             StringRedisTemplate redisTemplate,
+                             @Value("${user.identity-index.enabled:true}") boolean enabled,
+                             @Value("${user.identity-index.channel:user:identity}") String channel,
+                             @Value("${user.identity-index.expected-users:1000000}") long expectedUsers,
+                             @Value("${user.identity-index.false-positive-rate:0.01}") double fpp,
+                             @Value("${user.identity-index.batch-size:5000}") int batchSize) {
+        this.userRepository = userRepository;
+        this.redisTemplate = redisTemplate;
+        this.enabled = enabled;
+        this.channel = channel;
+        // 每个用户占用户名和邮箱两个键
+        this.expectedInsertions = expectedUsers * 2;
+        this.fpp = fpp;
+        this.batchSize = batchSize;
+        this.filter = new BloomFilter(expectedInsertions, fpp);
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    @PostConstruct
+    public void init() {
+        rebuild();
+    }
+
+    /**
+     * 用户名是否可能已被占用；返回 false 时一定未被占用
+     */
+    public boolean mightContainUsername(String username) {
+        return mightContain(USERNAME_PREFIX, username);
+    }
+
+    /**
+     * 邮箱是否可能已被占用；返回 false 时一定未被占用
+     */
+    public boolean mightContainEmail(String email) {
+        return mightContain(EMAIL_PREFIX, email);
+    }
+
+    /**
+     * 记录新写入的用户名和邮箱（为 null 的参数忽略），并通知其他节点
+     * 应在写入数据库之前调用：事务回滚只会留下一个多余的键
+     */
+    public void add(String username, String email) {
+        StringBuilder message = new StringBuilder();
+        if (username != null) {
+            message.append(USERNAME_PREFIX).append(normalize(username)).append('\n');
+        }
+        if (email != null) {
+            message.append(EMAIL_PREFIX).append(normalize(email)).append('\n');
+        }
+        if (message.isEmpty()) {
+            return;
+        }
+        rememberAll(message.toString());
+        try {
+            redisTemplate.convertAndSend(channel, message.toString());
+        } catch (Exception e) {
+            // 其他节点在下次重建前可能跳过查询，重复值由唯一约束拦截
+            log.warn("广播用户名/邮箱索引更新失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 其他节点的写入通知
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        rememberAll(new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 按主键分批读取 users 表重建过滤器，清除已注销和已改掉的旧值
+     */
+    @Scheduled(initialDelayString = "${user.identity-index.rebuild-interval-ms:86400000}",
+            fixedDelayString = "${user.identity-index.rebuild-interval-ms:86400000}")
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        long startNanos = System.nanoTime();
+        BloomFilter next = new BloomFilter(expectedInsertions, fpp);
+        rebuilding = next;
+        long count = 0;
+        long afterId = 0;
+        try {
+            List<UserRepository.IdentityView> batch;
+            do {
+                batch = userRepository.findIdentitiesAfter(afterId, PageRequest.of(0, batchSize));
+                for (UserRepository.IdentityView identity : batch) {
+                    next.put(USERNAME_PREFIX + normalize(identity.getUsername()));
+                    next.put(EMAIL_PREFIX + normalize(identity.getEmail()));
+                    afterId = identity.getId();
+                }
+                count += batch.size();
+            } while (batch.size() == batchSize);
+        } catch (Exception e) {
+            log.error("加载用户名/邮箱索引失败，唯一性检查将直接查询数据库: {}", e.getMessage());
+            rebuilding = null;
+            return;
+        }
+        filter = next;
+        rebuilding = null;
+        loaded = true;
+        log.info("用户名/邮箱索引已重建: {} 个用户, 耗时 {} ms", count, (System.nanoTime() - startNanos) / 1_000_000);
+    }
+
+    /**
+     * 按数据库排序规则（utf8mb4_unicode_ci）归一化：去掉重音、大小写折叠、忽略末尾空格
+     */
+    static String normalize(String value) {
+        String decomposed = COMBINING_MARKS.matcher(Normalizer.normalize(value, Normalizer.Form.NFD)).replaceAll("");
+        // 先转大写再转小写，把 ß 这类字符折叠成 ss
+        return decomposed.toUpperCase(Locale.ROOT).toLowerCase(Locale.ROOT).stripTrailing();
+    }
+
+    private boolean mightContain(String prefix, String value) {
+        if (!enabled || !loaded || value == null) {
+            return true;
+        }
+        return filter.mightContain(prefix + normalize(value));
+    }
+
+    private void rememberAll(String keys) {
+        // 先读 rebuilding 再读 filter：rebuild 先切换 filter 再清空 rebuilding，两者至少有一个是新过滤器
+        BloomFilter pending = rebuilding;
+        BloomFilter current = filter;
+        for (String key : keys.split("\n")) {
+            if (key.isEmpty()) {
+                continue;
+            }
+            current.put(key);
+            if (pending != null) {
+                pending.put(key);
+            }
+        }
+    }
+}
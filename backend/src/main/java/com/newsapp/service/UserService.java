@@ -1,5 +1,6 @@
 package com.newsapp.service;
 
+import com.newsapp.dto.CachedUser;
 import com.newsapp.dto.ChangePasswordRequest;
 import com.newsapp.dto.LoginRequest;
 import com.newsapp.dto.RegisterRequest;
@@ -10,41 +11,60 @@ import com.newsapp.exception.BusinessException;
 import com.newsapp.repository.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
  * 用户服务
+ * 用户资料按 ID 缓存在 users 缓存（L1 + Redis）中，缓存条目不含密码哈希；
+ * 修改资料、头像、密码和注销时在事务提交后失效，其他节点的 L1 通过失效广播清除
  */
 @Service
 public class UserService {
 
     private static final Logger log = LoggerFactory.getLogger(UserService.class);
 
+    public static final String USER_CACHE = "users";
+
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final PasswordRehashService passwordRehashService;
+    private final UserIdentityIndex userIdentityIndex;
+    private final CacheManager cacheManager;
 
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder,
+                       PasswordRehashService passwordRehashService, UserIdentityIndex userIdentityIndex,
+                       CacheManager cacheManager) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.passwordRehashService = passwordRehashService;
+        this.userIdentityIndex = userIdentityIndex;
+        this.cacheManager = cacheManager;
     }
 
     /**
      * 用户注册
+     * 用户名和邮箱先查本地索引，确定未被占用时不查询数据库；并发注册同名用户由唯一约束拦截
      */
     @Transactional
     public User register(RegisterRequest request) {
         log.info("用户注册请求: username={}", request.getUsername());
 
         // 检查用户名是否已存在
-        if (userRepository.existsByUsername(request.getUsername())) {
+        if (userIdentityIndex.mightContainUsername(request.getUsername())
+                && userRepository.existsByUsername(request.getUsername())) {
             log.warn("注册失败: 用户名已存在 - {}", request.getUsername());
             throw new BusinessException("用户名已存在");
         }
 
         // 检查邮箱是否已存在
-        if (userRepository.existsByEmail(request.getEmail())) {
+        if (userIdentityIndex.mightContainEmail(request.getEmail())
+                && userRepository.existsByEmail(request.getEmail())) {
             log.warn("注册失败: 邮箱已被注册 - {}", request.getEmail());
             throw new BusinessException("邮箱已被注册");
         }
@@ -56,7 +76,8 @@ public class UserService {
         // 使用 BCrypt 加密密码
         user.setPassword(passwordEncoder.encode(request.getPassword()));
 
-        User savedUser = userRepository.save(user);
+        userIdentityIndex.add(user.getUsername(), user.getEmail());
+        User savedUser = saveUnique(user, "用户名或邮箱已被注册");
         log.info("用户注册成功: id={}, username={}", savedUser.getId(), savedUser.getUsername());
 
         return savedUser;
@@ -79,6 +100,8 @@ public class UserService {
             log.warn("登录失败: 密码错误 - {}", request.getUsername());
             throw new BusinessException("用户名或密码错误");
         }
+        // 哈希强度低于当前配置时在后台升级
+        passwordRehashService.rehashIfNeeded(user.getId(), user.getPassword(), request.getPassword());
 
         log.info("用户登录成功: id={}, username={}", user.getId(), user.getUsername());
         return user;
@@ -100,18 +123,34 @@ public class UserService {
                 .orElseThrow(() -> new BusinessException("用户不存在"));
     }
 
+    /**
+     * 获取缓存的用户资料（不含密码），未命中时查询数据库
+     * 只读场景使用；需要修改用户或校验密码时使用 getUserById
+     */
+    public CachedUser getCachedUser(Long userId) {
+        try {
+            return userCache().get(userId, () -> CachedUser.from(getUserById(userId)));
+        } catch (Cache.ValueRetrievalException e) {
+            // 加载时抛出的 BusinessException（用户不存在）原样交给调用方
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
     /**
      * 获取用户资料
      */
     public UserProfileResponse getUserProfile(Long userId) {
-        User user = getUserById(userId);
+        CachedUser user = getCachedUser(userId);
         UserProfileResponse response = new UserProfileResponse();
-        response.setId(user.getId());
-        response.setUsername(user.getUsername());
-        response.setEmail(user.getEmail());
-        response.setAvatar(user.getAvatarUrl());
-        response.setBio(user.getBio());
-        response.setCreatedAt(user.getCreatedAt());
+        response.setId(user.id());
+        response.setUsername(user.username());
+        response.setEmail(user.email());
+        response.setAvatar(user.avatarUrl());
+        response.setBio(user.bio());
+        response.setCreatedAt(user.createdAt());
         return response;
     }
 
@@ -126,18 +165,22 @@ public class UserService {
 
         // 检查用户名是否被占用
         if (request.getUsername() != null && !request.getUsername().equals(user.getUsername())) {
-            if (userRepository.existsByUsername(request.getUsername())) {
+            if (userIdentityIndex.mightContainUsername(request.getUsername())
+                    && userRepository.existsByUsername(request.getUsername())) {
                 throw new BusinessException("用户名已被占用");
             }
             user.setUsername(request.getUsername());
+            userIdentityIndex.add(request.getUsername(), null);
         }
 
         // 检查邮箱是否被占用
         if (request.getEmail() != null && !request.getEmail().equals(user.getEmail())) {
-            if (userRepository.existsByEmail(request.getEmail())) {
+            if (userIdentityIndex.mightContainEmail(request.getEmail())
+                    && userRepository.existsByEmail(request.getEmail())) {
                 throw new BusinessException("邮箱已被占用");
             }
             user.setEmail(request.getEmail());
+            userIdentityIndex.add(null, request.getEmail());
         }
 
         // 更新简介
@@ -145,7 +188,8 @@ public class UserService {
             user.setBio(request.getBio());
         }
 
-        User savedUser = userRepository.save(user);
+        User savedUser = saveUnique(user, "用户名或邮箱已被占用");
+        evictAfterCommit(userId);
         log.info("用户资料更新成功: userId={}", userId);
         return savedUser;
     }
@@ -167,6 +211,7 @@ public class UserService {
         // 设置新密码
         user.setPassword(passwordEncoder.encode(request.getNewPassword()));
         userRepository.save(user);
+        evictAfterCommit(userId);
 
         log.info("密码修改成功: userId={}", userId);
     }
@@ -180,6 +225,7 @@ public class UserService {
         User user = getUserById(userId);
         user.setAvatarUrl(avatarUrl);
         userRepository.save(user);
+        evictAfterCommit(userId);
     }
 
     /**
@@ -192,6 +238,35 @@ public class UserService {
             throw new BusinessException("用户不存在");
         }
         userRepository.deleteById(userId);
+        evictAfterCommit(userId);
         log.info("用户删除成功: userId={}", userId);
     }
+
+    /**
+     * 立即写入数据库，违反用户名或邮箱唯一约束时转换为业务异常
+     * （索引判定未占用后的并发写入只能由唯一约束发现）
+     */
+    private User saveUnique(User user, String conflictMessage) {
+        try {
+            return userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            log.warn("用户名或邮箱唯一约束冲突: username={}, email={}", user.getUsername(), user.getEmail());
+            throw new BusinessException(conflictMessage);
+        }
+    }
+
+    /**
+     * 事务提交后失效用户缓存，避免提交前被并发读取重新加载旧数据；不在事务中时立即失效
+     */
+    private void evictAfterCommit(Long userId) {
+        new TransactionAwareCacheDecorator(userCache()).evict(userId);
+    }
+
+    private Cache userCache() {
+        Cache cache = cacheManager.getCache(USER_CACHE);
+        if (cache == null) {
+            throw new IllegalStateException("缓存未配置: " + USER_CACHE);
+        }
+        return cache;
+    }
 }
@@ -1,31 +1,66 @@
 package com.newsapp.util;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.newsapp.security.JwtKey;
+import com.newsapp.security.JwtKeyRing;
+import com.newsapp.security.JwtPrincipal;
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.security.Keys;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.Date;
+import java.util.Optional;
+import java.util.UUID;
 
 /**
  * JWT 工具类
  * 负责生成、验证和解析 JWT token
+ * 签名和验签密钥由 JwtKeyRing 提供，签发的 token 头部带有 kid
  */
 @Component
 public class JwtUtil {
 
     private static final Logger log = LoggerFactory.getLogger(JwtUtil.class);
 
-    @Value("${jwt.secret:mySecretKeyForJWTTokenGenerationMustBeLongEnough}")
-    private String jwtSecret;
+    private final JwtKeyRing keyRing;
 
     @Value("${jwt.expiration:86400000}")
     private Long jwtExpiration;
 
+    @Value("${jwt.verify-cache.maximum-size:10000}")
+    private long verifyCacheMaximumSize;
+
+    @Value("${jwt.verify-cache.max-ttl-ms:300000}")
+    private long verifyCacheMaxTtlMs;
+
+    /**
+     * 解析器只构建一次（JwtParser 不可变、线程安全），按 kid 从密钥环取验签密钥
+     */
+    private final JwtParser parser;
+
+    /**
+     * 已验证 token 的缓存，键为整个 token 的 SHA-256，
+     * 条目在 token 过期或 max-ttl 到达时（取较早者）失效
+     */
+    private volatile Cache<String, JwtPrincipal> verifiedTokens;
+
+    public JwtUtil(JwtKeyRing keyRing) {
+        this.keyRing = keyRing;
+        this.parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(keyRing)
+                .build();
+    }
+
     /**
      * 生成 JWT token
      *
@@ -36,16 +71,64 @@ public class JwtUtil {
     public String generateToken(String username, Long userId) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtExpiration);
+        JwtKey key = keyRing.getActiveKey();
 
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder();
+        if (key.kid() != null) {
+            builder.setHeaderParam(JwsHeader.KEY_ID, key.kid());
+        }
+        return builder
+                .setId(UUID.randomUUID().toString())
                 .setSubject(username)
                 .claim("userId", userId)
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(key.signingKey(), key.algorithm())
                 .compact();
     }
 
+    /**
+     * 验证 token 并返回其中的身份信息
+     * 只解析、验签一次；同一个 token 再次出现时直接命中缓存，跳过 HMAC 和 JSON 解析
+     *
+     * @param token JWT token
+     * @return 身份信息，token 无效或已过期时为空
+     */
+    public Optional<JwtPrincipal> verify(String token) {
+        if (token == null || token.isEmpty()) {
+            return Optional.empty();
+        }
+        Cache<String, JwtPrincipal> cache = getVerifiedTokens();
+        String cacheKey = cache != null ? cacheKey(token) : null;
+        if (cache != null) {
+            JwtPrincipal cached = cache.getIfPresent(cacheKey);
+            if (cached != null && !cached.isExpiredAt(Instant.now()) && keyRing.isTrusted(cached.keyId())) {
+                return Optional.of(cached);
+            }
+        }
+
+        JwtPrincipal principal;
+        try {
+            Jws<Claims> jws = parser.parseClaimsJws(token);
+            Claims claims = jws.getBody();
+            principal = new JwtPrincipal(
+                    claims.getId(),
+                    claims.get("userId", Long.class),
+                    claims.getSubject(),
+                    jws.getHeader().getKeyId(),
+                    claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+                    claims.getExpiration().toInstant());
+        } catch (JwtException | IllegalArgumentException ex) {
+            log.error("Invalid JWT token: {}", ex.getMessage());
+            return Optional.empty();
+        }
+
+        if (cache != null) {
+            cache.put(cacheKey, principal);
+        }
+        return Optional.of(principal);
+    }
+
     /**
      * 从 token 中获取用户名
      *
@@ -76,10 +159,7 @@ public class JwtUtil {
      */
     public boolean validateToken(String token) {
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token);
+            parser.parseClaimsJws(token);
             return true;
         } catch (SecurityException ex) {
             log.error("Invalid JWT signature: {}", ex.getMessage());
@@ -91,6 +171,9 @@ public class JwtUtil {
             log.error("Unsupported JWT token: {}", ex.getMessage());
         } catch (IllegalArgumentException ex) {
             log.error("JWT claims string is empty: {}", ex.getMessage());
+        } catch (JwtException ex) {
+            // 签名不匹配、kid 未知等
+            log.error("Invalid JWT token: {}", ex.getMessage());
         }
         return false;
     }
@@ -102,21 +185,65 @@ public class JwtUtil {
      * @return Claims
      */
     private Claims getClaimsFromToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
+        return parser
                 .parseClaimsJws(token)
                 .getBody();
     }
 
     /**
-     * 获取签名密钥
-     *
-     * @return 签名密钥
+     * 获取已验证 token 缓存，maximum-size 为 0 时不缓存
+     */
+    private Cache<String, JwtPrincipal> getVerifiedTokens() {
+        if (verifyCacheMaximumSize <= 0) {
+            return null;
+        }
+        Cache<String, JwtPrincipal> cache = verifiedTokens;
+        if (cache == null) {
+            synchronized (this) {
+                cache = verifiedTokens;
+                if (cache == null) {
+                    long maxTtlNanos = Duration.ofMillis(verifyCacheMaxTtlMs).toNanos();
+                    cache = Caffeine.newBuilder()
+                            .maximumSize(verifyCacheMaximumSize)
+                            .expireAfter(new Expiry<String, JwtPrincipal>() {
+                                @Override
+                                public long expireAfterCreate(String key, JwtPrincipal value, long currentTime) {
+                                    long untilExpiry = Duration.between(Instant.now(), value.expiresAt()).toNanos();
+                                    return Math.max(0, Math.min(maxTtlNanos, untilExpiry));
+                                }
+
+                                @Override
+                                public long expireAfterUpdate(String key, JwtPrincipal value,
+                                                              long currentTime, long currentDuration) {
+                                    return expireAfterCreate(key, value, currentTime);
+                                }
+
+                                @Override
+                                public long expireAfterRead(String key, JwtPrincipal value,
+                                                            long currentTime, long currentDuration) {
+                                    return currentDuration;
+                                }
+                            })
+                            .build();
+                    verifiedTokens = cache;
+                }
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * 缓存键：整个 token 的 SHA-256
+     * 不能只用签名段作键，否则伪造的载荷配上一个已缓存的合法签名就会命中缓存
      */
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = jwtSecret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private static String cacheKey(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 不可用", e);
+        }
     }
 
     /**
@@ -0,0 +1,166 @@
+package com.newsapp.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.newsapp.dto.NewsDto;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * NewsAPI 响应解析器
+ * 提供两种解析方式：
+ * 1. 流式解析：直接从响应 InputStream 读取 articles[]，不生成中间 String 和 JsonNode 树
+ * 2. 树解析：先读成 String 再构建 JsonNode 树（旧实现，保留用于对比）
+ */
+public class NewsApiParser {
+
+    private final ObjectMapper objectMapper;
+    private final JsonFactory jsonFactory;
+
+    public NewsApiParser(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    /**
+     * 流式解析 NewsAPI 响应
+     * 字段缺失或为 null 时取空字符串，与树解析的结果一致
+     *
+     * @param in 响应体输入流，调用方负责关闭
+     * @return 新闻列表
+     * @throws IOException JSON 格式错误，或 NewsAPI 返回 status=error
+     */
+    public List<NewsDto> parseStream(InputStream in) throws IOException {
+        List<NewsDto> newsList = new ArrayList<>();
+        String status = null;
+        String message = null;
+
+        try (JsonParser parser = jsonFactory.createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("NewsAPI 响应不是 JSON 对象");
+            }
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken token = parser.nextToken();
+                switch (field) {
+                    case "status" -> status = readText(parser, token);
+                    case "message" -> message = readText(parser, token);
+                    case "articles" -> {
+                        if (token == JsonToken.START_ARRAY) {
+                            readArticles(parser, newsList);
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                    default -> parser.skipChildren();
+                }
+            }
+        }
+
+        if ("error".equals(status)) {
+            throw new IOException("NewsAPI 返回错误: " + message);
+        }
+        return newsList;
+    }
+
+    /**
+     * 树解析 NewsAPI 响应
+     */
+    public List<NewsDto> parseTree(String jsonResponse) throws IOException {
+        List<NewsDto> newsList = new ArrayList<>();
+
+        JsonNode root = objectMapper.readTree(jsonResponse);
+        JsonNode articles = root.path("articles");
+
+        for (JsonNode article : articles) {
+            NewsDto news = new NewsDto();
+            news.setTitle(article.path("title").asText(""));
+            news.setDescription(article.path("description").asText(""));
+            news.setUrl(article.path("url").asText(""));
+            news.setUrlToImage(article.path("urlToImage").asText(""));
+            news.setPublishedAt(article.path("publishedAt").asText(""));
+
+            JsonNode source = article.path("source");
+            news.setSource(source.path("name").asText(""));
+
+            newsList.add(news);
+        }
+
+        return newsList;
+    }
+
+    private void readArticles(JsonParser parser, List<NewsDto> newsList) throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token == JsonToken.START_OBJECT) {
+                newsList.add(readArticle(parser));
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    private NewsDto readArticle(JsonParser parser) throws IOException {
+        NewsDto news = new NewsDto();
+        news.setTitle("");
+        news.setDescription("");
+        news.setUrl("");
+        news.setUrlToImage("");
+        news.setPublishedAt("");
+        news.setSource("");
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken token = parser.nextToken();
+            switch (field) {
+                case "title" -> news.setTitle(readText(parser, token));
+                case "description" -> news.setDescription(readText(parser, token));
+                case "url" -> news.setUrl(readText(parser, token));
+                case "urlToImage" -> news.setUrlToImage(readText(parser, token));
+                case "publishedAt" -> news.setPublishedAt(readText(parser, token));
+                case "source" -> news.setSource(readSourceName(parser, token));
+                default -> parser.skipChildren();
+            }
+        }
+        return news;
+    }
+
+    private String readSourceName(JsonParser parser, JsonToken token) throws IOException {
+        if (token != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return "";
+        }
+        String name = "";
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken valueToken = parser.nextToken();
+            if ("name".equals(field)) {
+                name = readText(parser, valueToken);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return name;
+    }
+
+    /**
+     * 读取标量值为字符串；null、对象和数组按空字符串处理
+     */
+    private String readText(JsonParser parser, JsonToken token) throws IOException {
+        if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return "";
+        }
+        if (token == JsonToken.VALUE_NULL) {
+            return "";
+        }
+        return parser.getValueAsString("");
+    }
+}
@@ -1,6 +1,6 @@
 package com.newsapp.util;
 
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import com.newsapp.config.SecurityConfig;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.sql.Connection;
@@ -10,7 +10,8 @@ import java.sql.ResultSet;
 
 /**
  * 密码修复工具
- * 用于将数据库中的明文密码转换为 BCrypt 加密密码
+ * 用于将数据库中的明文密码转换为 BCrypt 加密密码（与应用相同的 {bcrypt} 前缀格式）
+ * 已经是哈希的密码（带 {bcrypt} 前缀或旧的无前缀 BCrypt）保持不变
  *
  * 使用方法：
  * 1. 修改数据库连接信息
@@ -24,7 +25,7 @@ public class PasswordFixer {
         String username = "root";
         String password = "apeng320";
 
-        PasswordEncoder encoder = new BCryptPasswordEncoder(10);
+        PasswordEncoder encoder = SecurityConfig.delegatingPasswordEncoder(10);
 
         try (Connection conn = DriverManager.getConnection(url, username, password)) {
 
@@ -40,8 +41,8 @@ public class PasswordFixer {
                 String user = rs.getString("username");
                 String pwd = rs.getString("password");
 
-                // 如果密码不是 BCrypt 格式（不以 $2a$ 开头），则需要加密
-                if (pwd == null || pwd.isEmpty() || !pwd.startsWith("$2a$")) {
+                // 只加密明文密码，已有的哈希再加密一次会导致用户无法登录
+                if (pwd != null && !pwd.isEmpty() && !SecurityConfig.isEncodedPassword(pwd)) {
                     String newHash = encoder.encode(pwd);
                     System.out.println("修复用户: " + user + " | 旧密码: " + pwd + " | 新哈希: " + newHash);
 
@@ -55,7 +56,7 @@ public class PasswordFixer {
 
                     fixedCount++;
                 } else {
-                    System.out.println("跳过用户: " + user + " (密码已加密)");
+                    System.out.println("跳过用户: " + user + " (密码已加密或为空)");
                 }
             }
 
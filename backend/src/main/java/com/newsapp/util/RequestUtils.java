@@ -0,0 +1,22 @@
+package com.newsapp.util;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * HTTP 请求工具类
+ */
+public final class RequestUtils {
+
+    private RequestUtils() {
+    }
+
+    /**
+     * 获取客户端IP地址
+     * 使用连接的远端地址，不直接读取 X-Forwarded-For 等请求头（客户端可以任意伪造）。
+     * 部署在反向代理之后时由 server.forward-headers-strategy=native（Tomcat RemoteIpValve）处理：
+     * 只有来自受信任代理（server.tomcat.remoteip.internal-proxies）的请求，远端地址才会被替换为代理转发的客户端地址
+     */
+    public static String getClientIpAddress(HttpServletRequest request) {
+        return request.getRemoteAddr();
+    }
+}
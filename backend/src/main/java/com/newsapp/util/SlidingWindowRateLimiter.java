@@ -0,0 +1,125 @@
+package com.newsapp.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * 按键的滑动窗口限流器（进程内）
+ * 使用滑动窗口计数法：估计值 = 上一窗口计数 × 上一窗口仍在滑动范围内的比例 + 当前窗口计数，
+ * 每个键只需要两个计数，不用记录每次请求的时间戳。
+ *
+ * 每个键的状态打包在一个 AtomicLong 里（窗口序号 32 位 | 上一窗口计数 16 位 | 当前窗口计数 16 位），
+ * 用 CAS 更新，不加锁；键表由 Caffeine 管理，空闲两个窗口后过期，条目数有上限，
+ * 大量伪造的键只会挤掉旧条目而不会耗尽内存。
+ */
+public class SlidingWindowRateLimiter {
+
+    private static final int MAX_COUNT = 0xFFFF;
+
+    private final int limit;
+    private final long windowNanos;
+    private final LongSupplier nanoClock;
+    private final Cache<String, AtomicLong> windows;
+
+    /**
+     * @param limit      每个窗口内允许的请求数（不超过 65535）
+     * @param window     窗口长度
+     * @param maxKeys    同时跟踪的键数上限
+     */
+    public SlidingWindowRateLimiter(int limit, Duration window, long maxKeys) {
+        this(limit, window, maxKeys, System::nanoTime);
+    }
+
+    public SlidingWindowRateLimiter(int limit, Duration window, long maxKeys, LongSupplier nanoClock) {
+        if (limit < 1 || limit > MAX_COUNT) {
+            throw new IllegalArgumentException("limit 必须在 1.." + MAX_COUNT + " 之间: " + limit);
+        }
+        this.limit = limit;
+        this.windowNanos = window.toNanos();
+        this.nanoClock = nanoClock;
+        this.windows = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(window.multipliedBy(2))
+                .ticker(nanoClock::getAsLong)
+                .build();
+    }
+
+    /**
+     * 记录一次请求
+     *
+     * @return true 如果未超出限制；超出时不计数
+     */
+    public boolean tryAcquire(String key) {
+        AtomicLong state = windows.get(key, k -> new AtomicLong());
+        long now = nanoClock.getAsLong();
+        int window = (int) Math.floorDiv(now, windowNanos);
+        double elapsed = (double) Math.floorMod(now, windowNanos) / windowNanos;
+
+        while (true) {
+            long current = state.get();
+            long rolled = roll(current, window);
+            int previousCount = previousCount(rolled);
+            int currentCount = currentCount(rolled);
+            if (previousCount * (1 - elapsed) + currentCount + 1 > limit) {
+                return false;
+            }
+            long next = pack(window, previousCount, Math.min(currentCount + 1, MAX_COUNT));
+            if (state.compareAndSet(current, next)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 当前估计的请求数（不计数）
+     */
+    public double estimate(String key) {
+        AtomicLong state = windows.getIfPresent(key);
+        if (state == null) {
+            return 0;
+        }
+        long now = nanoClock.getAsLong();
+        int window = (int) Math.floorDiv(now, windowNanos);
+        double elapsed = (double) Math.floorMod(now, windowNanos) / windowNanos;
+        long rolled = roll(state.get(), window);
+        return previousCount(rolled) * (1 - elapsed) + currentCount(rolled);
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public Duration getWindow() {
+        return Duration.ofNanos(windowNanos);
+    }
+
+    /**
+     * 把状态推进到给定窗口：相邻窗口时当前计数变为上一窗口计数，更早的全部清零
+     */
+    private static long roll(long state, int window) {
+        int stateWindow = (int) (state >>> 32);
+        if (stateWindow == window) {
+            return state;
+        }
+        if (stateWindow + 1 == window) {
+            return pack(window, currentCount(state), 0);
+        }
+        return pack(window, 0, 0);
+    }
+
+    private static long pack(int window, int previousCount, int currentCount) {
+        return ((long) window << 32) | ((long) previousCount << 16) | currentCount;
+    }
+
+    private static int previousCount(long state) {
+        return (int) (state >>> 16) & MAX_COUNT;
+    }
+
+    private static int currentCount(long state) {
+        return (int) state & MAX_COUNT;
+    }
+}
@@ -0,0 +1,100 @@
+package com.newsapp.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * 自适应令牌桶限流器
+ * 令牌按当前速率补充，桶容量决定允许的突发请求数。
+ * 上游返回限流（429）时速率减半并在 Retry-After 期间拒绝所有请求；
+ * 之后每次成功按最大速率的 1/10 线性恢复，直到最大速率（AIMD）。
+ */
+public class TokenBucket {
+
+    private final double capacity;
+    private final double maxRatePerSecond;
+    private final double minRatePerSecond;
+    private final LongSupplier nanoClock;
+
+    private double ratePerSecond;
+    private double tokens;
+    private long lastRefillNanos;
+    private long blockedUntilNanos;
+
+    /**
+     * @param capacity         桶容量（允许的突发请求数）
+     * @param maxRatePerSecond 最大补充速率（每秒令牌数）
+     * @param minRatePerSecond 被限流后速率的下限
+     */
+    public TokenBucket(double capacity, double maxRatePerSecond, double minRatePerSecond) {
+        this(capacity, maxRatePerSecond, minRatePerSecond, System::nanoTime);
+    }
+
+    public TokenBucket(double capacity, double maxRatePerSecond, double minRatePerSecond, LongSupplier nanoClock) {
+        this.capacity = Math.max(capacity, 1);
+        this.maxRatePerSecond = maxRatePerSecond;
+        this.minRatePerSecond = Math.min(minRatePerSecond, maxRatePerSecond);
+        this.nanoClock = nanoClock;
+        this.ratePerSecond = maxRatePerSecond;
+        this.tokens = this.capacity;
+        this.lastRefillNanos = nanoClock.getAsLong();
+        this.blockedUntilNanos = lastRefillNanos;
+    }
+
+    /**
+     * 尝试取一个令牌
+     *
+     * @return true 如果取到令牌
+     */
+    public synchronized boolean tryAcquire() {
+        long now = nanoClock.getAsLong();
+        refill(now);
+        if (now - blockedUntilNanos < 0 || tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+
+    /**
+     * 退还一个令牌（取到令牌后请求未发出，如被另一个限流器拒绝）
+     */
+    public synchronized void release() {
+        tokens = Math.min(capacity, tokens + 1);
+    }
+
+    /**
+     * 上游限流：速率减半，清空令牌，并在 retryAfterMs 内拒绝请求
+     */
+    public synchronized void onThrottled(long retryAfterMs) {
+        long now = nanoClock.getAsLong();
+        refill(now);
+        ratePerSecond = Math.max(minRatePerSecond, ratePerSecond / 2);
+        tokens = 0;
+        blockedUntilNanos = now + TimeUnit.MILLISECONDS.toNanos(Math.max(retryAfterMs, 0));
+    }
+
+    /**
+     * 请求成功：速率线性恢复
+     */
+    public synchronized void onSuccess() {
+        ratePerSecond = Math.min(maxRatePerSecond, ratePerSecond + maxRatePerSecond / 10);
+    }
+
+    public synchronized double getAvailableTokens() {
+        refill(nanoClock.getAsLong());
+        return tokens;
+    }
+
+    public synchronized double getRatePerSecond() {
+        return ratePerSecond;
+    }
+
+    private void refill(long now) {
+        long elapsed = now - lastRefillNanos;
+        if (elapsed > 0) {
+            tokens = Math.min(capacity, tokens + elapsed * ratePerSecond / TimeUnit.SECONDS.toNanos(1));
+            lastRefillNanos = now;
+        }
+    }
+}
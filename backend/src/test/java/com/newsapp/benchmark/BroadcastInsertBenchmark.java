@@ -0,0 +1,143 @@
+package com.newsapp.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 群发消息写入的基准测试：逐条发送 vs 分批批量插入
+ * 需要可连接的 MySQL，在独立的 messages_bench 表上运行（结构与 messages 相同），不影响业务数据。
+ *
+ * singleRow 复现逐个调用 sendMessage 的数据库访问：每条消息一次自增主键 INSERT、一次提交；
+ * chunked 是 MessageBroadcastJob 的写入方式：主键预先确定，每 1000 条一个事务、一次 executeBatch，
+ * 连接开启 rewriteBatchedStatements，驱动合并成多行 INSERT。两者都不含 HTTP 调用的开销，旧方式的实际耗时更高。
+ *
+ * 运行方式：
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.newsapp.benchmark.BroadcastInsertBenchmark \
+ *     -Dbench.jdbc.url=jdbc:mysql://localhost:3306/news_app_test -Dbench.jdbc.user=root -Dbench.jdbc.password=...
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BroadcastInsertBenchmark {
+
+    private static final int CHUNK_SIZE = 1000;
+
+    /**
+     * 接收者数
+     */
+    @Param({"1000", "10000", "100000"})
+    private int recipients;
+
+    private Connection connection;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        String url = System.getProperty("bench.jdbc.url",
+                "jdbc:mysql://localhost:3306/news_app_test?useSSL=false&serverTimezone=UTC&allowPublicKeyRetrieval=true");
+        connection = DriverManager.getConnection(
+                url + (url.contains("?") ? "&" : "?") + "rewriteBatchedStatements=true",
+                System.getProperty("bench.jdbc.user", "root"),
+                System.getProperty("bench.jdbc.password", ""));
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS messages_bench");
+            statement.execute("CREATE TABLE messages_bench ("
+                    + "id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                    + "user_id BIGINT NOT NULL, "
+                    + "sender_id BIGINT, "
+                    + "title VARCHAR(200) NOT NULL, "
+                    + "content TEXT, "
+                    + "is_read BIT NOT NULL, "
+                    + "message_type VARCHAR(20), "
+                    + "created_at DATETIME(6), "
+                    + "read_at DATETIME(6), "
+                    + "INDEX idx_messages_user_created (user_id, created_at, id), "
+                    + "INDEX idx_messages_user_read_created (user_id, is_read, created_at, id)"
+                    + ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4");
+        }
+    }
+
+    /**
+     * 每次调用前清空表
+     */
+    @Setup(Level.Invocation)
+    public void truncate() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("TRUNCATE TABLE messages_bench");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS messages_bench");
+        }
+        connection.close();
+    }
+
+    /**
+     * 旧方式：每个接收者一次 sendMessage，自增主键，每条一个事务
+     */
+    @Benchmark
+    public int singleRow() throws SQLException {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO messages_bench (user_id, title, content, is_read, message_type, created_at) "
+                        + "VALUES (?, '系统通知', '正文', false, 'SYSTEM', ?)", Statement.RETURN_GENERATED_KEYS)) {
+            for (int userId = 1; userId <= recipients; userId++) {
+                insert.setLong(1, userId);
+                insert.setTimestamp(2, now);
+                insert.executeUpdate();
+                try (ResultSet keys = insert.getGeneratedKeys()) {
+                    keys.next();
+                }
+            }
+        }
+        return recipients;
+    }
+
+    /**
+     * 新方式：主键预先确定，每批一个事务、一次 executeBatch
+     */
+    @Benchmark
+    public int chunked() throws SQLException {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO messages_bench (id, user_id, title, content, is_read, message_type, created_at) "
+                        + "VALUES (?, ?, '系统通知', '正文', false, 'SYSTEM', ?)")) {
+            for (int userId = 1; userId <= recipients; userId++) {
+                insert.setLong(1, userId);
+                insert.setLong(2, userId);
+                insert.setTimestamp(3, now);
+                insert.addBatch();
+                if (userId % CHUNK_SIZE == 0) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        } finally {
+            connection.setAutoCommit(true);
+        }
+        return recipients;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(BroadcastInsertBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
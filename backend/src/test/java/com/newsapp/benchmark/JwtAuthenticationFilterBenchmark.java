@@ -0,0 +1,105 @@
+package com.newsapp.benchmark;
+
+import com.newsapp.filter.JwtAuthenticationFilter;
+import com.newsapp.security.JwtKey;
+import com.newsapp.security.JwtKeyRing;
+import com.newsapp.security.TokenRevocationList;
+import com.newsapp.util.JwtUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtAuthenticationFilter 单次请求开销基准测试：每次验签 vs 命中已验证 token 缓存，
+ * 以及 HS256 / RS256 / ES256 验签的差异
+ *
+ * 运行方式：
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.newsapp.benchmark.JwtAuthenticationFilterBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtAuthenticationFilterBenchmark {
+
+    /**
+     * 已验证 token 缓存的条目数上限，0 表示不缓存（每个请求都解析并验签）
+     */
+    @Param({"0", "10000"})
+    private long verifyCacheMaximumSize;
+
+    @Param({"HS256", "RS256", "ES256"})
+    private String algorithm;
+
+    private JwtAuthenticationFilter filter;
+    private MockHttpServletRequest request;
+
+    @Setup
+    public void setUp() throws Exception {
+        JwtUtil jwtUtil = new JwtUtil(keyRing(algorithm));
+        ReflectionTestUtils.setField(jwtUtil, "jwtExpiration", 3_600_000L);
+        ReflectionTestUtils.setField(jwtUtil, "verifyCacheMaximumSize", verifyCacheMaximumSize);
+        ReflectionTestUtils.setField(jwtUtil, "verifyCacheMaxTtlMs", 300_000L);
+        // 没有吊销记录：只走布隆过滤器判定，不访问 Redis
+        TokenRevocationList revocationList = new TokenRevocationList(null, "jwt:revoked", 100_000, 0.001,
+                true, 1_000, 30_000, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(revocationList, "loaded", true);
+        filter = new JwtAuthenticationFilter(jwtUtil, revocationList);
+
+        request = new MockHttpServletRequest("GET", "/api/news");
+        request.addHeader("Authorization", "Bearer " + jwtUtil.generateToken("benchmark", 1L));
+    }
+
+    @Benchmark
+    public Object filter() throws ServletException, IOException {
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        Object authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+
+    private static JwtKeyRing keyRing(String algorithm) throws Exception {
+        if ("HS256".equals(algorithm)) {
+            return JwtKeyRing.of(List.of(), null,
+                    JwtKey.hmac("BenchmarkSecretKeyForJWTTokenGenerationMustBeLongEnoughForHS256"));
+        }
+        KeyPairGenerator generator;
+        if ("RS256".equals(algorithm)) {
+            generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(2048);
+        } else {
+            generator = KeyPairGenerator.getInstance("EC");
+            generator.initialize(new ECGenParameterSpec("secp256r1"));
+        }
+        KeyPair pair = generator.generateKeyPair();
+        return JwtKeyRing.of(List.of(JwtKey.asymmetric("benchmark", pair.getPrivate(), pair.getPublic())), null, null);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(JwtAuthenticationFilterBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build();
+        new Runner(options).run();
+    }
+}
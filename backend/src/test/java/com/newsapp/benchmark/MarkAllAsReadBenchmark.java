@@ -0,0 +1,173 @@
+package com.newsapp.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 全部标记为已读的基准测试：逐条更新实体 vs 一条 UPDATE
+ * 需要可连接的 MySQL，在独立的 messages_bench 表上运行（结构和索引与 messages 相同），不影响业务数据。
+ *
+ * entityLoop 用 JDBC 复现旧实现的数据库访问：查询全部未读消息（含正文），
+ * 再按 Hibernate 默认的全字段 UPDATE 逐条更新，每 50 条一批（hibernate.jdbc.batch_size）；
+ * setBased 是新实现的单条 UPDATE。两者都不含 Hibernate 自身的脏检查和持久化上下文开销，旧实现的实际耗时更高。
+ *
+ * 运行方式：
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.newsapp.benchmark.MarkAllAsReadBenchmark \
+ *     -Dbench.jdbc.url=jdbc:mysql://localhost:3306/news_app_test -Dbench.jdbc.user=root -Dbench.jdbc.password=...
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MarkAllAsReadBenchmark {
+
+    private static final long USER_ID = 1L;
+    private static final int BATCH_SIZE = 50;
+
+    /**
+     * 用户的未读消息数
+     */
+    @Param({"100", "1000", "10000"})
+    private int unread;
+
+    private Connection connection;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(
+                System.getProperty("bench.jdbc.url",
+                        "jdbc:mysql://localhost:3306/news_app_test?useSSL=false&serverTimezone=UTC&allowPublicKeyRetrieval=true"),
+                System.getProperty("bench.jdbc.user", "root"),
+                System.getProperty("bench.jdbc.password", ""));
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS messages_bench");
+            statement.execute("CREATE TABLE messages_bench ("
+                    + "id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                    + "user_id BIGINT NOT NULL, "
+                    + "sender_id BIGINT, "
+                    + "title VARCHAR(200) NOT NULL, "
+                    + "content TEXT, "
+                    + "is_read BIT NOT NULL, "
+                    + "message_type VARCHAR(20), "
+                    + "created_at DATETIME(6), "
+                    + "read_at DATETIME(6), "
+                    + "INDEX idx_messages_user_created (user_id, created_at, id), "
+                    + "INDEX idx_messages_user_read_created (user_id, is_read, created_at, id)"
+                    + ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4");
+        }
+        String content = "消息正文".repeat(100);
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO messages_bench (user_id, title, content, is_read, message_type, created_at) "
+                        + "VALUES (?, ?, ?, false, 'SYSTEM', ?)")) {
+            LocalDateTime now = LocalDateTime.now();
+            for (int i = 0; i < unread; i++) {
+                insert.setLong(1, USER_ID);
+                insert.setString(2, "消息 " + i);
+                insert.setString(3, content);
+                insert.setObject(4, now.minusSeconds(i));
+                insert.addBatch();
+                if ((i + 1) % 1000 == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+    }
+
+    /**
+     * 每次调用前把消息恢复为未读
+     */
+    @Setup(Level.Invocation)
+    public void resetUnread() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("UPDATE messages_bench SET is_read = false, read_at = NULL");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS messages_bench");
+        }
+        connection.close();
+    }
+
+    /**
+     * 旧实现：加载全部未读实体，逐条设置后 saveAll，刷新时每个实体一条全字段 UPDATE
+     */
+    @Benchmark
+    public int entityLoop() throws SQLException {
+        connection.setAutoCommit(false);
+        try {
+            List<Object[]> rows = new ArrayList<>();
+            try (PreparedStatement select = connection.prepareStatement(
+                    "SELECT id, user_id, sender_id, title, content, is_read, message_type, created_at, read_at "
+                            + "FROM messages_bench WHERE user_id = ? AND is_read = false ORDER BY created_at DESC")) {
+                select.setLong(1, USER_ID);
+                try (ResultSet rs = select.executeQuery()) {
+                    while (rs.next()) {
+                        rows.add(new Object[]{rs.getLong(1), rs.getLong(2), rs.getObject(3), rs.getString(4),
+                                rs.getString(5), rs.getString(7)});
+                    }
+                }
+            }
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            try (PreparedStatement update = connection.prepareStatement(
+                    "UPDATE messages_bench SET user_id = ?, sender_id = ?, title = ?, content = ?, is_read = ?, "
+                            + "message_type = ?, read_at = ? WHERE id = ?")) {
+                for (int i = 0; i < rows.size(); i++) {
+                    Object[] row = rows.get(i);
+                    update.setLong(1, (Long) row[1]);
+                    update.setObject(2, row[2]);
+                    update.setString(3, (String) row[3]);
+                    update.setString(4, (String) row[4]);
+                    update.setBoolean(5, true);
+                    update.setString(6, (String) row[5]);
+                    update.setTimestamp(7, now);
+                    update.setLong(8, (Long) row[0]);
+                    update.addBatch();
+                    if ((i + 1) % BATCH_SIZE == 0) {
+                        update.executeBatch();
+                    }
+                }
+                update.executeBatch();
+            }
+            connection.commit();
+            return rows.size();
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    /**
+     * 新实现：MessageRepository.markAllAsRead 的单条 UPDATE
+     */
+    @Benchmark
+    public int setBased() throws SQLException {
+        try (PreparedStatement update = connection.prepareStatement(
+                "UPDATE messages_bench SET is_read = true, read_at = ? WHERE user_id = ? AND is_read = false")) {
+            update.setTimestamp(1, Timestamp.valueOf(LocalDateTime.now()));
+            update.setLong(2, USER_ID);
+            return update.executeUpdate();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(MarkAllAsReadBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
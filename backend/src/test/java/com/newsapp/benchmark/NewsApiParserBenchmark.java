@@ -0,0 +1,72 @@
+package com.newsapp.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.newsapp.dto.NewsDto;
+import com.newsapp.util.NewsApiParser;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * NewsAPI 响应解析基准测试：树解析 vs 流式解析
+ *
+ * 运行方式：
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.newsapp.benchmark.NewsApiParserBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NewsApiParserBenchmark {
+
+    /**
+     * 每个响应的文章数，100 对应 newsapi.page-size 的上限
+     */
+    @Param({"10", "100"})
+    private int articles;
+
+    private NewsApiParser parser;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() {
+        parser = new NewsApiParser(new ObjectMapper());
+        payload = NewsApiPayloads.topHeadlines(articles).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 旧实现：响应体先读成 String，再 readTree 构建整棵树
+     */
+    @Benchmark
+    public List<NewsDto> treeParse() throws IOException {
+        String body = new String(payload, StandardCharsets.UTF_8);
+        return parser.parseTree(body);
+    }
+
+    /**
+     * 新实现：直接从 InputStream 流式解析
+     */
+    @Benchmark
+    public List<NewsDto> streamingParse() throws IOException {
+        return parser.parseStream(new ByteArrayInputStream(payload));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(NewsApiParserBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build();
+        new Runner(options).run();
+    }
+}
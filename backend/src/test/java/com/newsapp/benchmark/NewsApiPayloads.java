@@ -0,0 +1,35 @@
+package com.newsapp.benchmark;
+
+/**
+ * 生成 NewsAPI top-headlines 格式的测试响应
+ */
+public final class NewsApiPayloads {
+
+    private NewsApiPayloads() {
+    }
+
+    /**
+     * 生成包含指定文章数的响应
+     */
+    public static String topHeadlines(int articles) {
+        StringBuilder json = new StringBuilder(articles * 700)
+                .append("{\"status\":\"ok\",\"totalResults\":").append(articles).append(",\"articles\":[");
+        for (int i = 0; i < articles; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"source\":{\"id\":\"source-").append(i % 7).append("\",\"name\":\"Source ").append(i % 7).append("\"},")
+                .append("\"author\":\"Author ").append(i).append("\",")
+                .append("\"title\":\"Headline number ").append(i).append(" about something newsworthy happening today\",")
+                .append("\"description\":\"A longer description of article ").append(i)
+                .append(" that spans a couple of sentences, as NewsAPI descriptions usually do. ")
+                .append("It includes \\\"quoted\\\" text and unicode \\u00e9 characters.\",")
+                .append("\"url\":\"https://news.example.com/world/2024/01/01/article-").append(i).append("\",")
+                .append("\"urlToImage\":\"https://cdn.example.com/images/article-").append(i).append(".jpg\",")
+                .append("\"publishedAt\":\"2024-01-01T").append(String.format("%02d", i % 24)).append(":00:00Z\",")
+                .append("\"content\":\"Full content preview for article ").append(i)
+                .append(" truncated by NewsAPI to about two hundred characters... [+1234 chars]\"}");
+        }
+        return json.append("]}").toString();
+    }
+}
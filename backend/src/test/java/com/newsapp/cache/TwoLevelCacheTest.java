@@ -0,0 +1,285 @@
+package com.newsapp.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * TwoLevelCache 单元测试
+ * L2 使用 ConcurrentMapCache 代替 Redis
+ */
+@DisplayName("TwoLevelCache 单元测试")
+class TwoLevelCacheTest {
+
+    private ConcurrentMapCacheManager l2CacheManager;
+    private StringRedisTemplate redisTemplate;
+    private CacheInvalidationBus bus;
+    private TwoLevelCacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        l2CacheManager = new ConcurrentMapCacheManager("news");
+        l2CacheManager.setAllowNullValues(false);
+        redisTemplate = mock(StringRedisTemplate.class);
+        bus = new CacheInvalidationBus(redisTemplate, new ObjectMapper(), "cache:invalidate");
+        cacheManager = new TwoLevelCacheManager(l2CacheManager,
+                name -> new TwoLevelCacheManager.L1Spec(16, Duration.ofMinutes(1)), bus, null);
+    }
+
+    private Cache l2() {
+        return l2CacheManager.getCache("news");
+    }
+
+    @Nested
+    @DisplayName("读取")
+    class ReadTests {
+
+        @Test
+        @DisplayName("L1 命中 - 不读取 L2")
+        void get_l1Hit_skipsL2() {
+            Cache cache = cacheManager.getCache("news");
+            cache.put("technology", List.of("a"));
+            l2().evict("technology");
+
+            assertThat(cache.get("technology", List.class)).containsExactly("a");
+        }
+
+        @Test
+        @DisplayName("L1 未命中 - 读取 L2 并回填 L1")
+        void get_l1Miss_readsL2AndPopulatesL1() {
+            Cache cache = cacheManager.getCache("news");
+            l2().put("sports", List.of("b"));
+
+            assertThat(cache.get("sports", List.class)).containsExactly("b");
+            l2().evict("sports");
+            assertThat(cache.get("sports", List.class)).containsExactly("b");
+        }
+
+        @Test
+        @DisplayName("两级都未命中 - 返回 null")
+        void get_miss_returnsNull() {
+            Cache cache = cacheManager.getCache("news");
+
+            assertThat(cache.get("health")).isNull();
+        }
+
+        @Test
+        @DisplayName("值加载 - 未命中时调用加载函数并写入两级")
+        void get_withLoader_loadsOnMiss() {
+            Cache cache = cacheManager.getCache("news");
+
+            String value = cache.get("science", () -> "loaded");
+
+            assertThat(value).isEqualTo("loaded");
+            assertThat(l2().get("science", String.class)).isEqualTo("loaded");
+            assertThat(cache.get("science", () -> "reloaded")).isEqualTo("loaded");
+        }
+    }
+
+    @Nested
+    @DisplayName("失效")
+    class InvalidationTests {
+
+        @Test
+        @DisplayName("写入 - 同时写两级并广播失效消息")
+        void put_writesBothLevelsAndPublishes() {
+            Cache cache = cacheManager.getCache("news");
+
+            cache.put("technology", List.of("a"));
+
+            assertThat(l2().get("technology")).isNotNull();
+            verify(redisTemplate).convertAndSend(eq("cache:invalidate"), contains("\"key\":\"technology\""));
+        }
+
+        @Test
+        @DisplayName("删除 - 同时删除两级")
+        void evict_removesBothLevels() {
+            Cache cache = cacheManager.getCache("news");
+            cache.put("technology", List.of("a"));
+
+            cache.evict("technology");
+
+            assertThat(cache.get("technology")).isNull();
+            assertThat(l2().get("technology")).isNull();
+        }
+
+        @Test
+        @DisplayName("其他节点的失效消息 - 只清除本节点 L1")
+        void remoteInvalidation_evictsL1Only() {
+            Cache cache = cacheManager.getCache("news");
+            cache.put("technology", List.of("old"));
+            l2().put("technology", List.of("new"));
+
+            bus.deliver(new CacheInvalidationBus.Invalidation("other-node", "news", "technology"));
+
+            assertThat(cache.get("technology", List.class)).containsExactly("new");
+        }
+
+        @Test
+        @DisplayName("其他节点清空缓存 - 清空本节点 L1")
+        void remoteClear_clearsL1() {
+            Cache cache = cacheManager.getCache("news");
+            cache.put("technology", List.of("a"));
+            l2().clear();
+
+            bus.deliver(new CacheInvalidationBus.Invalidation("other-node", "news", null));
+
+            assertThat(cache.get("technology")).isNull();
+        }
+
+        @Test
+        @DisplayName("本节点发出的消息 - 忽略")
+        void ownInvalidation_ignored() {
+            Cache cache = cacheManager.getCache("news");
+            cache.put("technology", List.of("a"));
+            l2().evict("technology");
+
+            bus.deliver(new CacheInvalidationBus.Invalidation(bus.getNodeId(), "news", "technology"));
+
+            assertThat(cache.get("technology", List.class)).containsExactly("a");
+        }
+
+        @Test
+        @DisplayName("广播失败 - 不影响写入")
+        void publishFailure_doesNotFailPut() {
+            doThrow(new RuntimeException("Redis 不可用")).when(redisTemplate).convertAndSend(anyString(), anyString());
+            Cache cache = cacheManager.getCache("news");
+
+            cache.put("technology", List.of("a"));
+
+            assertThat(cache.get("technology", List.class)).containsExactly("a");
+        }
+    }
+
+    @Nested
+    @DisplayName("并发加载合并")
+    class SingleFlightTests {
+
+        @Test
+        @DisplayName("并发未命中 - 只加载一次，所有调用得到同一结果")
+        void get_concurrentMisses_loadOnce() throws Exception {
+            Cache cache = cacheManager.getCache("news");
+            AtomicInteger loads = new AtomicInteger();
+            CountDownLatch release = new CountDownLatch(1);
+            int callers = 20;
+
+            ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> cache.get("technology", () -> {
+                    loads.incrementAndGet();
+                    release.await(2, TimeUnit.SECONDS);
+                    return "loaded";
+                })));
+            }
+            Thread.sleep(100);
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertThat(result.get(2, TimeUnit.SECONDS)).isEqualTo("loaded");
+            }
+            executor.shutdown();
+            assertThat(loads.get()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("加载失败 - 抛出 ValueRetrievalException 且不写入缓存")
+        void get_loaderFails_throwsAndCachesNothing() {
+            Cache cache = cacheManager.getCache("news");
+
+            assertThatThrownBy(() -> cache.get("technology", () -> {
+                throw new RuntimeException("获取新闻失败");
+            })).isInstanceOf(Cache.ValueRetrievalException.class)
+                    .hasRootCauseMessage("获取新闻失败");
+
+            assertThat(cache.get("technology")).isNull();
+            assertThat(cache.get("technology", () -> "retry")).isEqualTo("retry");
+        }
+
+        @Test
+        @DisplayName("拿到集群租约 - 本节点加载并释放租约")
+        void get_leaseAcquired_loadsAndReleases() {
+            RedisLoadLease lease = mock(RedisLoadLease.class);
+            when(lease.tryAcquire("news::technology")).thenReturn("token");
+            Cache cache = new TwoLevelCacheManager(l2CacheManager,
+                    name -> new TwoLevelCacheManager.L1Spec(16, Duration.ofMinutes(1)), bus, lease)
+                    .getCache("news");
+
+            assertThat(cache.get("technology", () -> "loaded")).isEqualTo("loaded");
+
+            verify(lease).release("news::technology", "token");
+        }
+
+        @Test
+        @DisplayName("租约被其他节点持有 - 等待对方写入 L2，不调用加载函数")
+        void get_leaseHeldElsewhere_waitsForL2() {
+            RedisLoadLease lease = mock(RedisLoadLease.class);
+            when(lease.tryAcquire(anyString())).thenReturn(null);
+            when(lease.getWaitTimeout()).thenReturn(Duration.ofSeconds(2));
+            when(lease.getPollInterval()).thenReturn(Duration.ofMillis(10));
+            when(lease.isHeld(anyString())).thenAnswer(invocation -> {
+                l2().put("technology", "from-other-node");
+                return true;
+            });
+            Cache cache = new TwoLevelCacheManager(l2CacheManager,
+                    name -> new TwoLevelCacheManager.L1Spec(16, Duration.ofMinutes(1)), bus, lease)
+                    .getCache("news");
+            AtomicInteger loads = new AtomicInteger();
+
+            String value = cache.get("technology", () -> {
+                loads.incrementAndGet();
+                return "local";
+            });
+
+            assertThat(value).isEqualTo("from-other-node");
+            assertThat(loads.get()).isZero();
+        }
+
+        @Test
+        @DisplayName("持有租约的节点失败 - 租约释放后本节点自行加载")
+        void get_leaseReleasedWithoutValue_loadsLocally() {
+            RedisLoadLease lease = mock(RedisLoadLease.class);
+            when(lease.tryAcquire(anyString())).thenReturn(null);
+            when(lease.getWaitTimeout()).thenReturn(Duration.ofSeconds(2));
+            when(lease.getPollInterval()).thenReturn(Duration.ofMillis(10));
+            when(lease.isHeld(anyString())).thenReturn(false);
+            Cache cache = new TwoLevelCacheManager(l2CacheManager,
+                    name -> new TwoLevelCacheManager.L1Spec(16, Duration.ofMinutes(1)), bus, lease)
+                    .getCache("news");
+
+            assertThat(cache.get("technology", () -> "local")).isEqualTo("local");
+        }
+
+        @Test
+        @DisplayName("Redis 不可用 - 直接加载")
+        void get_leaseUnavailable_loadsDirectly() {
+            RedisLoadLease lease = mock(RedisLoadLease.class);
+            when(lease.tryAcquire(anyString())).thenThrow(new RuntimeException("Redis 不可用"));
+            Cache cache = new TwoLevelCacheManager(l2CacheManager,
+                    name -> new TwoLevelCacheManager.L1Spec(16, Duration.ofMinutes(1)), bus, lease)
+                    .getCache("news");
+
+            assertThat(cache.get("technology", () -> "loaded")).isEqualTo("loaded");
+        }
+    }
+}
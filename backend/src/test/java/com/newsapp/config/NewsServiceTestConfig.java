@@ -1,6 +1,7 @@
 package com.newsapp.config;
 
 import com.newsapp.dto.NewsDto;
+import com.newsapp.dto.NewsPage;
 import com.newsapp.service.NewsService;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
@@ -8,6 +9,8 @@ import org.springframework.context.annotation.Bean;
 import java.util.ArrayList;
 import java.util.List;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
@@ -30,6 +33,7 @@ public class NewsServiceTestConfig {
         // 配置 mock 行为
         when(mockService.getUserNews(anyList())).thenReturn(mockNewsList);
         when(mockService.getNewsByCategory(anyString())).thenReturn(mockNewsList);
+        when(mockService.getTimeline(anyList(), any(), anyInt())).thenReturn(new NewsPage(mockNewsList, null));
 
         return mockService;
     }
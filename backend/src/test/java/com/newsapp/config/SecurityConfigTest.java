@@ -0,0 +1,44 @@
+package com.newsapp.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * SecurityConfig 中密码格式相关方法的单元测试
+ */
+@DisplayName("SecurityConfig 密码格式单元测试")
+class SecurityConfigTest {
+
+    @Test
+    @DisplayName("写入的哈希带 {bcrypt} 前缀，并被识别为已加密")
+    void delegatingEncoder_writesPrefixedHash() {
+        PasswordEncoder encoder = SecurityConfig.delegatingPasswordEncoder(4);
+
+        String hash = encoder.encode("Password123");
+
+        assertThat(hash).startsWith("{bcrypt}$2a$04$");
+        assertThat(SecurityConfig.isEncodedPassword(hash)).isTrue();
+        assertThat(encoder.matches("Password123", hash)).isTrue();
+    }
+
+    @Test
+    @DisplayName("无前缀的旧 BCrypt 哈希 - 识别为已加密，仍可校验")
+    void legacyHash_recognized() {
+        String legacy = new BCryptPasswordEncoder(4).encode("Password123");
+
+        assertThat(SecurityConfig.isEncodedPassword(legacy)).isTrue();
+        assertThat(SecurityConfig.delegatingPasswordEncoder(4).matches("Password123", legacy)).isTrue();
+    }
+
+    @Test
+    @DisplayName("明文密码 - 未加密")
+    void plaintext_notEncoded() {
+        assertThat(SecurityConfig.isEncodedPassword("Password123")).isFalse();
+        assertThat(SecurityConfig.isEncodedPassword("$2a$short")).isFalse();
+        assertThat(SecurityConfig.isEncodedPassword(null)).isFalse();
+    }
+}
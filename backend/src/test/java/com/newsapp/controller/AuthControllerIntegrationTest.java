@@ -1,5 +1,6 @@
 package com.newsapp.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.newsapp.dto.LoginRequest;
 import com.newsapp.dto.RegisterRequest;
@@ -12,7 +13,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
-import org.springframework.mock.web.MockHttpSession;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -64,7 +64,8 @@ class AuthControllerIntegrationTest {
                 .andExpect(jsonPath("$.message").value("注册成功"))
                 .andExpect(jsonPath("$.data.username").value("newuser"))
                 .andExpect(jsonPath("$.data.email").value("newuser@example.com"))
-                .andExpect(jsonPath("$.data.id").exists());
+                .andExpect(jsonPath("$.data.id").exists())
+                .andExpect(jsonPath("$..password").isEmpty());
         }
 
         @Test
@@ -160,7 +161,8 @@ class AuthControllerIntegrationTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.success").value(true))
                 .andExpect(jsonPath("$.message").value("登录成功"))
-                .andExpect(jsonPath("$.data.username").value("testuser"));
+                .andExpect(jsonPath("$.data.username").value("testuser"))
+                .andExpect(jsonPath("$..password").isEmpty());
         }
 
         @Test
@@ -214,7 +216,7 @@ class AuthControllerIntegrationTest {
         @DisplayName("获取当前用户 - 未登录")
         void getCurrentUser_notLoggedIn() throws Exception {
             mockMvc.perform(get("/api/auth/current"))
-                .andExpect(status().isOk())
+                .andExpect(status().isUnauthorized())
                 .andExpect(jsonPath("$.success").value(false))
                 .andExpect(jsonPath("$.message").value("未登录"));
         }
@@ -222,23 +224,16 @@ class AuthControllerIntegrationTest {
         @Test
         @DisplayName("获取当前用户 - 已登录")
         void getCurrentUser_loggedIn() throws Exception {
-            // 使用 MockHttpSession 注册并登录
-            MockHttpSession session = new MockHttpSession();
-
             RegisterRequest registerRequest = new RegisterRequest();
             registerRequest.setUsername("testuser");
             registerRequest.setEmail("test@example.com");
             registerRequest.setPassword("Password123");
 
-            mockMvc.perform(post("/api/auth/register")
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .content(objectMapper.writeValueAsString(registerRequest))
-                    .session(session))
-                .andExpect(status().isOk());
+            String bearerToken = registerAndGetBearerToken(registerRequest);
 
             // 检查当前用户
             mockMvc.perform(get("/api/auth/current")
-                    .session(session))
+                    .header("Authorization", bearerToken))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.success").value(true))
                 .andExpect(jsonPath("$.data.username").value("testuser"));
@@ -252,31 +247,36 @@ class AuthControllerIntegrationTest {
         @Test
         @DisplayName("登出成功")
         void logoutSuccess() throws Exception {
-            MockHttpSession session = new MockHttpSession();
-
             // 注册
             RegisterRequest registerRequest = new RegisterRequest();
             registerRequest.setUsername("testuser");
             registerRequest.setEmail("test@example.com");
             registerRequest.setPassword("Password123");
 
-            mockMvc.perform(post("/api/auth/register")
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .content(objectMapper.writeValueAsString(registerRequest))
-                    .session(session))
-                .andExpect(status().isOk());
+            String bearerToken = registerAndGetBearerToken(registerRequest);
 
-            // 登出
+            // 登出（吊销访问令牌）
             mockMvc.perform(post("/api/auth/logout")
-                    .session(session))
+                    .header("Authorization", bearerToken))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.success").value(true))
                 .andExpect(jsonPath("$.message").value("登出成功"));
 
             // 验证登出后无法获取用户
             mockMvc.perform(get("/api/auth/current")
-                    .session(session))
+                    .header("Authorization", bearerToken))
+                .andExpect(status().isUnauthorized())
                 .andExpect(jsonPath("$.success").value(false));
         }
     }
+
+    private String registerAndGetBearerToken(RegisterRequest request) throws Exception {
+        String body = mockMvc.perform(post("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        JsonNode data = objectMapper.readTree(body).get("data");
+        return "Bearer " + data.get("token").asText();
+    }
 }
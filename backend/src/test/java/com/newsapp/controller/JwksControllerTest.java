@@ -0,0 +1,55 @@
+package com.newsapp.controller;
+
+import com.newsapp.security.JwtKey;
+import com.newsapp.security.JwtKeyRing;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * JwksController 单元测试
+ */
+@DisplayName("JwksController 单元测试")
+class JwksControllerTest {
+
+    @Test
+    @DisplayName("公开 RSA 与 EC 公钥，不公开 HS256 共享密钥")
+    @SuppressWarnings("unchecked")
+    void getJwks() throws Exception {
+        KeyPairGenerator rsaGenerator = KeyPairGenerator.getInstance("RSA");
+        rsaGenerator.initialize(2048);
+        KeyPair rsa = rsaGenerator.generateKeyPair();
+        KeyPairGenerator ecGenerator = KeyPairGenerator.getInstance("EC");
+        ecGenerator.initialize(new ECGenParameterSpec("secp256r1"));
+        KeyPair ec = ecGenerator.generateKeyPair();
+        JwtKeyRing keyRing = JwtKeyRing.of(List.of(
+                JwtKey.asymmetric("rsa-1", rsa.getPrivate(), rsa.getPublic()),
+                JwtKey.asymmetric("ec-1", null, ec.getPublic())),
+                null, JwtKey.hmac("TestSecretKeyForJWTTokenGenerationMustBeLongEnough"));
+
+        Map<String, Object> body = new JwksController(keyRing).getJwks().getBody();
+        List<Map<String, Object>> keys = (List<Map<String, Object>>) body.get("keys");
+
+        assertThat(keys).hasSize(2);
+        Map<String, Object> rsaJwk = keys.get(0);
+        assertThat(rsaJwk).containsEntry("kty", "RSA").containsEntry("kid", "rsa-1")
+                .containsEntry("alg", "RS256").containsEntry("e", "AQAB");
+        BigInteger modulus = new BigInteger(1, Base64.getUrlDecoder().decode((String) rsaJwk.get("n")));
+        assertThat(modulus).isEqualTo(((RSAPublicKey) rsa.getPublic()).getModulus());
+
+        Map<String, Object> ecJwk = keys.get(1);
+        assertThat(ecJwk).containsEntry("kty", "EC").containsEntry("crv", "P-256").containsEntry("alg", "ES256");
+        assertThat(Base64.getUrlDecoder().decode((String) ecJwk.get("x"))).hasSize(32);
+        assertThat(Base64.getUrlDecoder().decode((String) ecJwk.get("y"))).hasSize(32);
+    }
+}
@@ -1,5 +1,6 @@
 package com.newsapp.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.newsapp.dto.RegisterRequest;
 import com.newsapp.dto.SubscriptionRequest;
@@ -13,7 +14,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
-import org.springframework.mock.web.MockHttpSession;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -42,7 +42,7 @@ class SubscriptionControllerIntegrationTest {
     @Autowired
     private SubscriptionRepository subscriptionRepository;
 
-    private MockHttpSession session;
+    private String bearerToken;
 
     @BeforeEach
     void setUp() throws Exception {
@@ -50,18 +50,19 @@ class SubscriptionControllerIntegrationTest {
         subscriptionRepository.deleteAll();
         userRepository.deleteAll();
 
-        // 注册并登录用户
-        session = new MockHttpSession();
+        // 注册用户，后续请求携带返回的访问令牌
         RegisterRequest registerRequest = new RegisterRequest();
         registerRequest.setUsername("testuser");
         registerRequest.setEmail("test@example.com");
         registerRequest.setPassword("Password123");
 
-        mockMvc.perform(post("/api/auth/register")
+        String body = mockMvc.perform(post("/api/auth/register")
                 .contentType(MediaType.APPLICATION_JSON)
-                .content(objectMapper.writeValueAsString(registerRequest))
-                .session(session))
-            .andExpect(status().isOk());
+                .content(objectMapper.writeValueAsString(registerRequest)))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        JsonNode data = objectMapper.readTree(body).get("data");
+        bearerToken = "Bearer " + data.get("token").asText();
     }
 
     @Nested
@@ -77,12 +78,12 @@ class SubscriptionControllerIntegrationTest {
             mockMvc.perform(post("/api/subscriptions")
                     .contentType(MediaType.APPLICATION_JSON)
                     .content(objectMapper.writeValueAsString(request))
-                    .session(session))
+                    .header("Authorization", bearerToken))
                 .andExpect(status().isOk());
 
             // 获取订阅列表
             mockMvc.perform(get("/api/subscriptions")
-                    .session(session))
+                    .header("Authorization", bearerToken))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.success").value(true))
                 .andExpect(jsonPath("$.data").isArray())
@@ -94,7 +95,7 @@ class SubscriptionControllerIntegrationTest {
         @DisplayName("获取订阅列表 - 无订阅")
         void getSubscriptions_noSubscriptions() throws Exception {
             mockMvc.perform(get("/api/subscriptions")
-                    .session(session))
+                    .header("Authorization", bearerToken))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.success").value(true))
                 .andExpect(jsonPath("$.data").isArray())
@@ -104,12 +105,10 @@ class SubscriptionControllerIntegrationTest {
         @Test
         @DisplayName("获取订阅列表 - 未登录")
         void getSubscriptions_notLoggedIn() throws Exception {
-            MockHttpSession newSession = new MockHttpSession();
-            mockMvc.perform(get("/api/subscriptions")
-                    .session(newSession))
-                .andExpect(status().isOk())
+            mockMvc.perform(get("/api/subscriptions"))
+                .andExpect(status().isUnauthorized())
                 .andExpect(jsonPath("$.success").value(false))
-                .andExpect(jsonPath("$.message").value("请先登录"));
+                .andExpect(jsonPath("$.message").value("未登录"));
         }
     }
 
@@ -126,7 +125,7 @@ class SubscriptionControllerIntegrationTest {
             mockMvc.perform(post("/api/subscriptions")
                     .contentType(MediaType.APPLICATION_JSON)
                     .content(objectMapper.writeValueAsString(request))
-                    .session(session))
+                    .header("Authorization", bearerToken))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.success").value(true))
                 .andExpect(jsonPath("$.message").value("订阅成功"));
@@ -142,14 +141,14 @@ class SubscriptionControllerIntegrationTest {
             mockMvc.perform(post("/api/subscriptions")
                     .contentType(MediaType.APPLICATION_JSON)
                     .content(objectMapper.writeValueAsString(request))
-                    .session(session))
+                    .header("Authorization", bearerToken))
                 .andExpect(status().isOk());
 
             // 第二次订阅相同类别
             mockMvc.perform(post("/api/subscriptions")
                     .contentType(MediaType.APPLICATION_JSON)
                     .content(objectMapper.writeValueAsString(request))
-                    .session(session))
+                    .header("Authorization", bearerToken))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.success").value(false))
                 .andExpect(jsonPath("$.message").value("您已订阅该类别"));
@@ -168,7 +167,7 @@ class SubscriptionControllerIntegrationTest {
                 mockMvc.perform(post("/api/subscriptions")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request))
-                        .session(session))
+                        .header("Authorization", bearerToken))
                     .andExpect(status().isOk())
                     .andExpect(jsonPath("$.success").value(true));
             }
@@ -183,7 +182,7 @@ class SubscriptionControllerIntegrationTest {
             mockMvc.perform(post("/api/subscriptions")
                     .contentType(MediaType.APPLICATION_JSON)
                     .content(objectMapper.writeValueAsString(request))
-                    .session(session))
+                    .header("Authorization", bearerToken))
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.success").value(false));
         }
@@ -202,12 +201,12 @@ class SubscriptionControllerIntegrationTest {
             mockMvc.perform(post("/api/subscriptions")
                     .contentType(MediaType.APPLICATION_JSON)
                     .content(objectMapper.writeValueAsString(request))
-                    .session(session))
+                    .header("Authorization", bearerToken))
                 .andExpect(status().isOk());
 
             // 取消订阅
             mockMvc.perform(delete("/api/subscriptions/technology")
-                    .session(session))
+                    .header("Authorization", bearerToken))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.success").value(true))
                 .andExpect(jsonPath("$.message").value("取消订阅成功"));
@@ -217,7 +216,7 @@ class SubscriptionControllerIntegrationTest {
         @DisplayName("取消订阅失败 - 未订阅")
         void removeSubscription_notSubscribed() throws Exception {
             mockMvc.perform(delete("/api/subscriptions/technology")
-                    .session(session))
+                    .header("Authorization", bearerToken))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.success").value(false))
                 .andExpect(jsonPath("$.message").value("您未订阅该类别"));
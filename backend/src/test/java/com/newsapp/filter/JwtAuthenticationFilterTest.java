@@ -1,5 +1,7 @@
 package com.newsapp.filter;
 
+import com.newsapp.security.JwtPrincipal;
+import com.newsapp.security.TokenRevocationList;
 import com.newsapp.util.JwtUtil;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -14,6 +16,8 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.io.IOException;
+import java.time.Instant;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -28,6 +32,9 @@ class JwtAuthenticationFilterTest {
     @Mock
     private JwtUtil jwtUtil;
 
+    @Mock
+    private TokenRevocationList revocationList;
+
     @Mock
     private HttpServletRequest request;
 
@@ -50,19 +57,39 @@ class JwtAuthenticationFilterTest {
         String validToken = "valid.jwt.token";
         String username = "testuser";
         Long userId = 1L;
+        JwtPrincipal principal =
+                new JwtPrincipal("jti-1", userId, username, "test-kid", Instant.now(), Instant.now().plusSeconds(3600));
 
         when(request.getHeader("Authorization")).thenReturn("Bearer " + validToken);
-        when(jwtUtil.validateToken(validToken)).thenReturn(true);
-        when(jwtUtil.getUsernameFromToken(validToken)).thenReturn(username);
-        when(jwtUtil.getUserIdFromToken(validToken)).thenReturn(userId);
+        when(jwtUtil.verify(validToken)).thenReturn(Optional.of(principal));
 
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
 
-        verify(jwtUtil).validateToken(validToken);
-        verify(jwtUtil).getUsernameFromToken(validToken);
-        verify(jwtUtil).getUserIdFromToken(validToken);
+        // 只验证一次，不再分别解析用户名和用户 ID
+        verify(jwtUtil).verify(validToken);
+        verify(jwtUtil, never()).validateToken(any());
+        verify(jwtUtil, never()).getUsernameFromToken(any());
+        verify(jwtUtil, never()).getUserIdFromToken(any());
         verify(filterChain).doFilter(request, response);
         assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+        // 主体即 JwtPrincipal，@CurrentUser 直接注入
+        assertEquals(principal, SecurityContextHolder.getContext().getAuthentication().getPrincipal());
+        assertEquals(username, SecurityContextHolder.getContext().getAuthentication().getName());
+    }
+
+    @Test
+    void testDoFilterInternal_RevokedToken() throws ServletException, IOException {
+        String revokedToken = "revoked.jwt.token";
+
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + revokedToken);
+        when(jwtUtil.verify(revokedToken)).thenReturn(Optional.of(
+                new JwtPrincipal("jti-2", 1L, "testuser", "test-kid", Instant.now(), Instant.now().plusSeconds(3600))));
+        when(revocationList.isRevoked("jti-2")).thenReturn(true);
+
+        jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
+
+        verify(filterChain).doFilter(request, response);
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
     }
 
     @Test
@@ -71,7 +98,7 @@ class JwtAuthenticationFilterTest {
 
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
 
-        verify(jwtUtil, never()).validateToken(any());
+        verify(jwtUtil, never()).verify(any());
         verify(filterChain).doFilter(request, response);
         assertNull(SecurityContextHolder.getContext().getAuthentication());
     }
@@ -81,13 +108,13 @@ class JwtAuthenticationFilterTest {
         String invalidToken = "invalid.token";
 
         when(request.getHeader("Authorization")).thenReturn("Bearer " + invalidToken);
-        when(jwtUtil.validateToken(invalidToken)).thenReturn(false);
+        when(jwtUtil.verify(invalidToken)).thenReturn(Optional.empty());
 
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
 
-        verify(jwtUtil).validateToken(invalidToken);
-        verify(jwtUtil, never()).getUsernameFromToken(any());
+        verify(jwtUtil).verify(invalidToken);
         verify(filterChain).doFilter(request, response);
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
     }
 
     @Test
@@ -96,7 +123,7 @@ class JwtAuthenticationFilterTest {
 
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
 
-        verify(jwtUtil, never()).validateToken(any());
+        verify(jwtUtil, never()).verify(any());
         verify(filterChain).doFilter(request, response);
         assertNull(SecurityContextHolder.getContext().getAuthentication());
     }
@@ -107,7 +134,7 @@ class JwtAuthenticationFilterTest {
 
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
 
-        verify(jwtUtil, never()).validateToken(any());
+        verify(jwtUtil, never()).verify(any());
         verify(filterChain).doFilter(request, response);
     }
 }
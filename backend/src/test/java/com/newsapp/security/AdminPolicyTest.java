@@ -0,0 +1,51 @@
+package com.newsapp.security;
+
+import com.newsapp.exception.ForbiddenException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * AdminPolicy 单元测试
+ */
+@DisplayName("AdminPolicy 单元测试")
+class AdminPolicyTest {
+
+    private static JwtPrincipal user(long userId) {
+        Instant now = Instant.now();
+        return new JwtPrincipal("jti-" + userId, userId, "user" + userId, null, now, now.plusSeconds(900));
+    }
+
+    @Test
+    @DisplayName("配置的用户 ID - 是管理员")
+    void configuredIds_areAdmins() {
+        AdminPolicy policy = new AdminPolicy(" 1, 42 ");
+
+        assertThat(policy.isAdmin(user(1))).isTrue();
+        assertThat(policy.isAdmin(user(42))).isTrue();
+        assertThatCode(() -> policy.requireAdmin(user(42))).doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("其他用户 - 拒绝")
+    void otherUsers_forbidden() {
+        AdminPolicy policy = new AdminPolicy("1");
+
+        assertThat(policy.isAdmin(user(2))).isFalse();
+        assertThatThrownBy(() -> policy.requireAdmin(user(2)))
+                .isInstanceOf(ForbiddenException.class)
+                .hasMessage("需要管理员权限");
+    }
+
+    @Test
+    @DisplayName("未配置 - 没有管理员")
+    void notConfigured_noAdmins() {
+        AdminPolicy policy = new AdminPolicy("");
+
+        assertThat(policy.isAdmin(user(1))).isFalse();
+        assertThat(policy.isAdmin(null)).isFalse();
+    }
+}
@@ -0,0 +1,34 @@
+package com.newsapp.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * BCryptCostCalibrator 单元测试
+ */
+@DisplayName("BCryptCostCalibrator 单元测试")
+class BCryptCostCalibratorTest {
+
+    @Test
+    @DisplayName("目标耗时很短 - 不低于最小 cost")
+    void tinyTarget_returnsMinCost() {
+        assertThat(BCryptCostCalibrator.calibrate(0, 5, 8)).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("目标耗时很长 - 不超过最大 cost")
+    void hugeTarget_cappedAtMaxCost() {
+        assertThat(BCryptCostCalibrator.calibrate(60_000, 4, 6)).isEqualTo(6);
+    }
+
+    @Test
+    @DisplayName("cost 范围无效 - 抛出异常")
+    void invalidRange_throws() {
+        assertThatThrownBy(() -> BCryptCostCalibrator.calibrate(250, 12, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> BCryptCostCalibrator.calibrate(250, 3, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,123 @@
+package com.newsapp.security;
+
+import com.newsapp.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * BoundedPasswordEncoder 单元测试
+ */
+@DisplayName("BoundedPasswordEncoder 单元测试")
+class BoundedPasswordEncoderTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private BlockingEncoder delegate;
+    private BoundedPasswordEncoder encoder;
+    private ExecutorService callers;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        delegate = new BlockingEncoder();
+        // 1 个哈希线程 + 1 个排队位置
+        encoder = new BoundedPasswordEncoder(delegate, 1, 1, meterRegistry);
+        callers = Executors.newCachedThreadPool();
+    }
+
+    @AfterEach
+    void tearDown() {
+        delegate.release.countDown();
+        callers.shutdownNow();
+        encoder.close();
+    }
+
+    @Test
+    @DisplayName("在哈希线程中执行并返回结果")
+    void delegatesOnPoolThread() {
+        delegate.release.countDown();
+
+        assertThat(encoder.encode("secret")).isEqualTo("hashed:secret");
+        assertThat(encoder.matches("secret", "hashed:secret")).isTrue();
+        assertThat(encoder.matches("other", "hashed:secret")).isFalse();
+        assertThat(delegate.lastThread).startsWith("password-hashing-");
+        assertThat(meterRegistry.get("auth.password.hashing.duration").tag("operation", "matches").timer().count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("线程和队列都占满 - 立即拒绝并计数")
+    void saturated_rejectsImmediately() throws Exception {
+        Future<String> running = callers.submit(() -> encoder.encode("a"));
+        assertThat(delegate.started.await(5, TimeUnit.SECONDS)).isTrue();
+        Future<String> queued = callers.submit(() -> encoder.encode("b"));
+        awaitQueueSize(1);
+
+        assertThatThrownBy(() -> encoder.encode("c"))
+                .isInstanceOf(TooManyRequestsException.class)
+                .satisfies(e -> assertThat(((TooManyRequestsException) e).getRetryAfterSeconds()).isPositive());
+        assertThat(meterRegistry.get("auth.password.hashing.rejected").counter().count()).isEqualTo(1);
+
+        delegate.release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("hashed:a");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("hashed:b");
+    }
+
+    @Test
+    @DisplayName("编码器抛出的运行时异常原样传给调用方")
+    void delegateException_propagated() {
+        delegate.release.countDown();
+
+        assertThatThrownBy(() -> encoder.matches("secret", null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("encodedPassword is null");
+    }
+
+    private void awaitQueueSize(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("auth.password.hashing.queue").gauge().value() < expected) {
+            if (System.nanoTime() > deadline) {
+                fail("队列长度未达到 " + expected);
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    /**
+     * release 之前阻塞的编码器，用来占住哈希线程
+     */
+    private static class BlockingEncoder implements PasswordEncoder {
+
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        volatile String lastThread;
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            lastThread = Thread.currentThread().getName();
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "hashed:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            lastThread = Thread.currentThread().getName();
+            if (encodedPassword == null) {
+                throw new IllegalArgumentException("encodedPassword is null");
+            }
+            return encodedPassword.equals("hashed:" + rawPassword);
+        }
+    }
+}
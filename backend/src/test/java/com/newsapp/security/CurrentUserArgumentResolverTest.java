@@ -0,0 +1,78 @@
+package com.newsapp.security;
+
+import com.newsapp.exception.UnauthorizedException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.MethodParameter;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.lang.reflect.Method;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * CurrentUserArgumentResolver 单元测试
+ */
+@DisplayName("CurrentUserArgumentResolver 单元测试")
+class CurrentUserArgumentResolverTest {
+
+    private final CurrentUserArgumentResolver resolver = new CurrentUserArgumentResolver();
+
+    @SuppressWarnings("unused")
+    private void handler(@CurrentUser JwtPrincipal required,
+                         @CurrentUser(required = false) JwtPrincipal optional,
+                         JwtPrincipal unannotated) {
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("只解析带 @CurrentUser 的 JwtPrincipal 参数")
+    void supportsParameter() {
+        assertThat(resolver.supportsParameter(parameter(0))).isTrue();
+        assertThat(resolver.supportsParameter(parameter(1))).isTrue();
+        assertThat(resolver.supportsParameter(parameter(2))).isFalse();
+    }
+
+    @Test
+    @DisplayName("已认证 - 注入过滤器设置的 JwtPrincipal")
+    void resolve_authenticated() {
+        JwtPrincipal principal = new JwtPrincipal("jti-1", 1L, "testuser", null,
+                Instant.now(), Instant.now().plusSeconds(900));
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, List.of()));
+
+        assertThat(resolver.resolveArgument(parameter(0), null, null, null)).isSameAs(principal);
+    }
+
+    @Test
+    @DisplayName("未认证且必须登录 - 抛出 UnauthorizedException")
+    void resolve_anonymous_required() {
+        assertThatThrownBy(() -> resolver.resolveArgument(parameter(0), null, null, null))
+                .isInstanceOf(UnauthorizedException.class)
+                .hasMessage("未登录");
+    }
+
+    @Test
+    @DisplayName("未认证且可选 - 注入 null")
+    void resolve_anonymous_optional() {
+        assertThat(resolver.resolveArgument(parameter(1), null, null, null)).isNull();
+    }
+
+    private static MethodParameter parameter(int index) {
+        try {
+            Method method = CurrentUserArgumentResolverTest.class.getDeclaredMethod("handler",
+                    JwtPrincipal.class, JwtPrincipal.class, JwtPrincipal.class);
+            return new MethodParameter(method, index);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.newsapp.security;
+
+import com.newsapp.util.JwtUtil;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * JwtKeyRing 单元测试
+ */
+@DisplayName("JwtKeyRing 单元测试")
+class JwtKeyRingTest {
+
+    private static final String SECRET = "TestSecretKeyForJWTTokenGenerationMustBeLongEnough";
+
+    @TempDir
+    Path keysDir;
+
+    private JwtKeyRing keyRing;
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setUp() {
+        keyRing = new JwtKeyRing();
+        ReflectionTestUtils.setField(keyRing, "keysPath", keysDir.toString());
+        ReflectionTestUtils.setField(keyRing, "activeKid", "");
+        ReflectionTestUtils.setField(keyRing, "legacySecret", SECRET);
+        ReflectionTestUtils.setField(keyRing, "acceptLegacy", true);
+
+        jwtUtil = new JwtUtil(keyRing);
+        ReflectionTestUtils.setField(jwtUtil, "jwtExpiration", 3_600_000L);
+        ReflectionTestUtils.setField(jwtUtil, "verifyCacheMaximumSize", 100L);
+        ReflectionTestUtils.setField(jwtUtil, "verifyCacheMaxTtlMs", 60_000L);
+    }
+
+    private static KeyPair rsa() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        return generator.generateKeyPair();
+    }
+
+    private static KeyPair ec() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        return generator.generateKeyPair();
+    }
+
+    private void writeKey(String kid, KeyPair pair, boolean withPrivate) throws IOException {
+        Files.writeString(keysDir.resolve(kid + ".pub"), pem("PUBLIC KEY", pair.getPublic().getEncoded()));
+        if (withPrivate) {
+            Files.writeString(keysDir.resolve(kid + ".key"), pem("PRIVATE KEY", pair.getPrivate().getEncoded()));
+        }
+    }
+
+    private static String pem(String type, byte[] der) {
+        return "-----BEGIN " + type + "-----\n"
+                + Base64.getMimeEncoder(64, "\n".getBytes()).encodeToString(der)
+                + "\n-----END " + type + "-----\n";
+    }
+
+    private String kidOf(String token) {
+        return jwtUtil.verify(token).orElseThrow().keyId();
+    }
+
+    @Nested
+    @DisplayName("加载密钥")
+    class LoadTests {
+
+        @Test
+        @DisplayName("按文件名作为 kid 加载 RSA 和 EC 密钥，按密钥类型确定算法")
+        void load_rsaAndEc() throws Exception {
+            writeKey("2026-09-rs256", rsa(), true);
+            writeKey("2026-10-es256", ec(), true);
+
+            keyRing.init();
+
+            assertThat(keyRing.getPublicKeys())
+                    .extracting(JwtKey::kid, JwtKey::algorithm)
+                    .containsExactlyInAnyOrder(
+                            tuple("2026-09-rs256", SignatureAlgorithm.RS256),
+                            tuple("2026-10-es256", SignatureAlgorithm.ES256));
+        }
+
+        @Test
+        @DisplayName("未指定 active-kid - 使用有私钥的 kid 中字典序最大的")
+        void activeKey_defaultsToLatestSigningKey() throws Exception {
+            writeKey("2026-09-rs256", rsa(), true);
+            writeKey("2026-10-rs256", rsa(), true);
+            writeKey("2026-11-rs256", rsa(), false);
+
+            keyRing.init();
+
+            assertThat(keyRing.getActiveKey().kid()).isEqualTo("2026-10-rs256");
+            assertThat(kidOf(jwtUtil.generateToken("user", 1L))).isEqualTo("2026-10-rs256");
+        }
+
+        @Test
+        @DisplayName("指定 active-kid")
+        void activeKey_configured() throws Exception {
+            writeKey("2026-09-rs256", rsa(), true);
+            writeKey("2026-10-rs256", rsa(), true);
+            ReflectionTestUtils.setField(keyRing, "activeKid", "2026-09-rs256");
+
+            keyRing.init();
+
+            assertThat(keyRing.getActiveKey().kid()).isEqualTo("2026-09-rs256");
+        }
+
+        @Test
+        @DisplayName("未配置密钥目录 - 退回 HS256 共享密钥，JWKS 为空")
+        void noKeysPath_fallsBackToHmac() {
+            ReflectionTestUtils.setField(keyRing, "keysPath", "");
+
+            keyRing.init();
+
+            assertThat(keyRing.getActiveKey().algorithm()).isEqualTo(SignatureAlgorithm.HS256);
+            assertThat(keyRing.getPublicKeys()).isEmpty();
+            assertThat(kidOf(jwtUtil.generateToken("user", 1L))).isNull();
+        }
+
+        @Test
+        @DisplayName("重新加载失败 - 保留当前密钥")
+        void reloadFailure_keepsCurrentKeys() throws Exception {
+            writeKey("2026-10-rs256", rsa(), true);
+            keyRing.init();
+
+            Files.writeString(keysDir.resolve("broken.pub"), "not a pem");
+            keyRing.reload();
+
+            assertThat(keyRing.getActiveKey().kid()).isEqualTo("2026-10-rs256");
+        }
+    }
+
+    @Nested
+    @DisplayName("验签与轮换")
+    class RotationTests {
+
+        @Test
+        @DisplayName("新增密钥后新 token 使用新 kid，旧 token 仍然有效")
+        void rotate_oldTokensStillVerify() throws Exception {
+            writeKey("2026-09-rs256", rsa(), true);
+            keyRing.init();
+            String oldToken = jwtUtil.generateToken("user", 1L);
+
+            writeKey("2026-10-es256", ec(), true);
+            keyRing.reload();
+            String newToken = jwtUtil.generateToken("user", 1L);
+
+            assertThat(kidOf(newToken)).isEqualTo("2026-10-es256");
+            assertThat(kidOf(oldToken)).isEqualTo("2026-09-rs256");
+        }
+
+        @Test
+        @DisplayName("移除密钥后用它签发的 token 失效，包括已缓存的")
+        void removeKey_rejectsItsTokens() throws Exception {
+            writeKey("2026-09-rs256", rsa(), true);
+            keyRing.init();
+            String oldToken = jwtUtil.generateToken("user", 1L);
+            assertThat(jwtUtil.verify(oldToken)).isPresent();
+
+            writeKey("2026-10-rs256", rsa(), true);
+            Files.delete(keysDir.resolve("2026-09-rs256.pub"));
+            Files.delete(keysDir.resolve("2026-09-rs256.key"));
+            keyRing.reload();
+
+            assertThat(jwtUtil.verify(oldToken)).isEmpty();
+            assertThat(jwtUtil.validateToken(oldToken)).isFalse();
+        }
+
+        @Test
+        @DisplayName("kid 未知 - 拒绝")
+        void unknownKid_rejected() throws Exception {
+            KeyPair other = rsa();
+            JwtUtil otherUtil = new JwtUtil(JwtKeyRing.of(
+                    List.of(JwtKey.asymmetric("elsewhere", other.getPrivate(), other.getPublic())), null, null));
+            ReflectionTestUtils.setField(otherUtil, "jwtExpiration", 3_600_000L);
+            writeKey("2026-10-rs256", rsa(), true);
+            keyRing.init();
+
+            assertThat(jwtUtil.verify(otherUtil.generateToken("user", 1L))).isEmpty();
+        }
+
+        @Test
+        @DisplayName("迁移期间接受旧的 HS256 token，关闭后拒绝")
+        void legacyToken_acceptedOnlyWhenEnabled() throws Exception {
+            JwtUtil legacyUtil = new JwtUtil(JwtKeyRing.of(List.of(), null, JwtKey.hmac(SECRET)));
+            ReflectionTestUtils.setField(legacyUtil, "jwtExpiration", 3_600_000L);
+            String legacyToken = legacyUtil.generateToken("user", 1L);
+            writeKey("2026-10-rs256", rsa(), true);
+
+            keyRing.init();
+            assertThat(jwtUtil.validateToken(legacyToken)).isTrue();
+
+            ReflectionTestUtils.setField(keyRing, "acceptLegacy", false);
+            keyRing.reload();
+            assertThat(jwtUtil.validateToken(legacyToken)).isFalse();
+        }
+    }
+}
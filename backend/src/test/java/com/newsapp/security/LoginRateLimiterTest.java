@@ -0,0 +1,128 @@
+package com.newsapp.security;
+
+import com.newsapp.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * LoginRateLimiter 单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("LoginRateLimiter 单元测试")
+class LoginRateLimiterTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    /**
+     * 每分钟每个 IP 3 次、每个用户名 2 次
+     */
+    private LoginRateLimiter limiter(boolean redisSync) {
+        return new LoginRateLimiter(redisTemplate, meterRegistry, true, 60_000, 3, 2, 1_000, redisSync);
+    }
+
+    private static MockHttpServletRequest requestFrom(String remoteAddr) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr(remoteAddr);
+        return request;
+    }
+
+    @Test
+    @DisplayName("同一用户名超出限额 - 拒绝，用户名不区分大小写")
+    void perUsername_limited() {
+        LoginRateLimiter limiter = limiter(false);
+        limiter.check(requestFrom("10.0.0.1"), "alice");
+        limiter.check(requestFrom("10.0.0.2"), "Alice ");
+
+        assertThatThrownBy(() -> limiter.check(requestFrom("10.0.0.3"), "ALICE"))
+                .isInstanceOf(TooManyRequestsException.class);
+        assertThat(meterRegistry.get("auth.login.rate_limited").tag("scope", "username").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("同一 IP 超出限额 - 按连接的远端地址拒绝")
+    void perIp_limited() {
+        LoginRateLimiter limiter = limiter(false);
+        limiter.check(requestFrom("203.0.113.7"), "u1");
+        limiter.check(requestFrom("203.0.113.7"), "u2");
+        limiter.check(requestFrom("203.0.113.7"), "u3");
+
+        assertThatThrownBy(() -> limiter.check(requestFrom("203.0.113.7"), "u4"))
+                .isInstanceOf(TooManyRequestsException.class)
+                .satisfies(e -> assertThat(((TooManyRequestsException) e).getRetryAfterSeconds()).isEqualTo(60));
+        assertThat(meterRegistry.get("auth.login.rate_limited").tag("scope", "ip").counter().count())
+                .isEqualTo(1);
+        // 其他 IP 不受影响
+        limiter.check(requestFrom("198.51.100.1"), "u5");
+    }
+
+    @Test
+    @DisplayName("伪造 X-Forwarded-For - 不能绕过 IP 限额")
+    void perIp_spoofedForwardedFor_ignored() {
+        LoginRateLimiter limiter = limiter(false);
+        for (int i = 1; i <= 3; i++) {
+            MockHttpServletRequest request = requestFrom("203.0.113.7");
+            request.addHeader("X-Forwarded-For", "198.51.100." + i);
+            limiter.check(request, "u" + i);
+        }
+
+        MockHttpServletRequest request = requestFrom("203.0.113.7");
+        request.addHeader("X-Forwarded-For", "198.51.100.99");
+        assertThatThrownBy(() -> limiter.check(request, "u4"))
+                .isInstanceOf(TooManyRequestsException.class);
+    }
+
+    @Test
+    @DisplayName("关闭 Redis 同步 - 不访问 Redis")
+    void localOnly_noRedis() {
+        limiter(false).check(requestFrom("10.0.0.1"), "alice");
+
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    @DisplayName("开启 Redis 同步 - 集群计数超限时拒绝")
+    @SuppressWarnings("unchecked")
+    void redisSync_clusterLimitRejects() {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any(), any())).thenReturn(0L);
+
+        assertThatThrownBy(() -> limiter(true).check(requestFrom("10.0.0.1"), "alice"))
+                .isInstanceOf(TooManyRequestsException.class);
+        verify(redisTemplate).execute(any(RedisScript.class),
+                argThat((List<String> keys) -> keys.get(0).startsWith("login:rate:{ip:10.0.0.1}:")),
+                eq("3"), any(), eq("120000"));
+    }
+
+    @Test
+    @DisplayName("开启 Redis 同步 - Redis 不可用时按本地计数放行")
+    @SuppressWarnings("unchecked")
+    void redisSync_failureFallsBackToLocal() {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any(), any()))
+                .thenThrow(new RedisConnectionFailureException("down"));
+
+        assertThatCode(() -> limiter(true).check(requestFrom("10.0.0.1"), "alice")).doesNotThrowAnyException();
+    }
+}
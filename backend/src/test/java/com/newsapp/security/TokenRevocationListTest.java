@@ -0,0 +1,191 @@
+package com.newsapp.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Iterator;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * TokenRevocationList 单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TokenRevocationList 单元测试")
+class TokenRevocationListTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @Mock
+    private Cursor<String> cursor;
+
+    private SimpleMeterRegistry meterRegistry;
+    private TokenRevocationList revocationList;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        revocationList = newRevocationList(true, 60_000);
+    }
+
+    private TokenRevocationList newRevocationList(boolean failOpenWhenUnloaded, long minRetryDelayMs) {
+        return new TokenRevocationList(redisTemplate, "jwt:revoked", 1_000, 0.001,
+                failOpenWhenUnloaded, minRetryDelayMs, 60_000, meterRegistry);
+    }
+
+    private double checkFailed(String policy) {
+        return meterRegistry.get("jwt.revocation.check_failed").tag("policy", policy).counter().count();
+    }
+
+    /**
+     * 模拟 Redis 中已有的吊销记录并重建过滤器
+     */
+    private void loadFromRedis(String... tokenIds) {
+        Iterator<String> keys = Arrays.stream(tokenIds)
+                .map(id -> TokenRevocationList.KEY_PREFIX + id)
+                .iterator();
+        when(redisTemplate.scan(any())).thenReturn(cursor);
+        when(cursor.hasNext()).thenAnswer(invocation -> keys.hasNext());
+        lenient().when(cursor.next()).thenAnswer(invocation -> keys.next());
+        revocationList.rebuild();
+    }
+
+    @Test
+    @DisplayName("布隆过滤器未命中 - 不访问 Redis")
+    void notRevoked_skipsRedis() {
+        loadFromRedis();
+
+        assertThat(revocationList.isRevoked("jti-1")).isFalse();
+        verify(redisTemplate, never()).hasKey(anyString());
+    }
+
+    @Test
+    @DisplayName("启动时从 Redis 加载已有的吊销记录")
+    void rebuild_loadsExistingRevocations() {
+        loadFromRedis("jti-1", "jti-2");
+        when(redisTemplate.hasKey(TokenRevocationList.KEY_PREFIX + "jti-2")).thenReturn(true);
+
+        assertThat(revocationList.isRevoked("jti-2")).isTrue();
+    }
+
+    @Test
+    @DisplayName("吊销 - 写入 Redis（TTL 为剩余有效期）并通知其他节点")
+    void revoke_storesWithRemainingLifetime() {
+        loadFromRedis();
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(redisTemplate.hasKey(TokenRevocationList.KEY_PREFIX + "jti-1")).thenReturn(true);
+
+        revocationList.revoke("jti-1", Instant.now().plusSeconds(600));
+
+        verify(valueOperations).set(eq(TokenRevocationList.KEY_PREFIX + "jti-1"), eq("1"),
+                argThat((Duration ttl) -> ttl.compareTo(Duration.ofSeconds(590)) > 0
+                        && ttl.compareTo(Duration.ofSeconds(600)) <= 0));
+        verify(redisTemplate).convertAndSend("jwt:revoked", "jti-1");
+        assertThat(revocationList.isRevoked("jti-1")).isTrue();
+    }
+
+    @Test
+    @DisplayName("已过期的 token - 无需吊销")
+    void revoke_expiredToken_ignored() {
+        revocationList.revoke("jti-1", Instant.now().minusSeconds(1));
+
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    @DisplayName("其他节点的吊销通知 - 加入本地过滤器")
+    void onMessage_addsToFilter() {
+        loadFromRedis();
+        when(redisTemplate.hasKey(TokenRevocationList.KEY_PREFIX + "jti-9")).thenReturn(true);
+
+        revocationList.onMessage(new DefaultMessage(
+                "jwt:revoked".getBytes(StandardCharsets.UTF_8), "jti-9".getBytes(StandardCharsets.UTF_8)), null);
+
+        assertThat(revocationList.isRevoked("jti-9")).isTrue();
+    }
+
+    @Test
+    @DisplayName("过滤器未加载 - 回退到 Redis；Redis 不可用时放行并计数")
+    void notLoaded_fallsBackToRedis_failsOpen() {
+        when(redisTemplate.scan(any())).thenThrow(new RedisConnectionFailureException("down"));
+        revocationList.rebuild();
+        when(redisTemplate.hasKey(anyString())).thenReturn(true)
+                .thenThrow(new RedisConnectionFailureException("down"));
+
+        assertThat(revocationList.isRevoked("jti-1")).isTrue();
+        assertThat(revocationList.isRevoked("jti-1")).isFalse();
+        assertThat(checkFailed("open")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("过滤器未加载且配置为拒绝 - Redis 不可用时按已吊销处理")
+    void notLoaded_failClosedPolicy() {
+        revocationList = newRevocationList(false, 60_000);
+        when(redisTemplate.scan(any())).thenThrow(new RedisConnectionFailureException("down"));
+        revocationList.rebuild();
+        when(redisTemplate.hasKey(anyString())).thenThrow(new RedisConnectionFailureException("down"));
+
+        assertThat(revocationList.isRevoked("jti-1")).isTrue();
+        assertThat(checkFailed("closed")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("过滤器已加载 - 可能命中且 Redis 不可用时按已吊销处理")
+    void loaded_mightContain_redisDown_failsClosed() {
+        loadFromRedis("jti-1");
+        when(redisTemplate.hasKey(anyString())).thenThrow(new RedisConnectionFailureException("down"));
+
+        assertThat(revocationList.isRevoked("jti-1")).isTrue();
+        assertThat(checkFailed("closed")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("启动时加载失败 - 到达退避时间后重试加载")
+    void loadFailure_retriedAfterBackoff() {
+        revocationList = newRevocationList(true, 0);
+        when(redisTemplate.scan(any())).thenThrow(new RedisConnectionFailureException("down"))
+                .thenReturn(cursor);
+        when(cursor.hasNext()).thenReturn(false);
+
+        revocationList.init();
+        assertThat(revocationList.isLoaded()).isFalse();
+
+        revocationList.retryLoad();
+        assertThat(revocationList.isLoaded()).isTrue();
+
+        revocationList.retryLoad();
+        verify(redisTemplate, times(2)).scan(any());
+    }
+
+    @Test
+    @DisplayName("启动时加载失败 - 退避时间未到时不重试")
+    void loadFailure_waitsForBackoff() {
+        when(redisTemplate.scan(any())).thenThrow(new RedisConnectionFailureException("down"));
+
+        revocationList.init();
+        revocationList.retryLoad();
+
+        verify(redisTemplate, times(1)).scan(any());
+        assertThat(revocationList.isLoaded()).isFalse();
+    }
+}
@@ -0,0 +1,169 @@
+package com.newsapp.service;
+
+import com.newsapp.dto.NewsDto;
+import com.newsapp.entity.Article;
+import com.newsapp.repository.ArticleRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * ArticleStoreService 单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ArticleStoreService 单元测试")
+class ArticleStoreServiceTest {
+
+    @Mock
+    private ArticleRepository articleRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private ArticleStoreService articleStoreService;
+
+    private static NewsDto news(String url, String title) {
+        NewsDto news = new NewsDto();
+        news.setUrl(url);
+        news.setTitle(title);
+        news.setPublishedAt("2024-01-01T12:00:00Z");
+        return news;
+    }
+
+    private static Article stored(NewsDto news, String category) {
+        Article article = new Article();
+        article.setUrlHash(ArticleStoreService.sha256Hex(ArticleStoreService.canonicalUrl(news.getUrl())));
+        article.setUrl(news.getUrl());
+        article.setTitle(news.getTitle());
+        article.setCategory(category);
+        article.setContentHash(ArticleStoreService.contentHash(news));
+        return article;
+    }
+
+    @Nested
+    @DisplayName("批量写入")
+    class UpsertTests {
+
+        @Test
+        @DisplayName("新文章 - 批量写入，同一 URL 只保留一条")
+        void upsert_newArticles_dedupedAndSavedInOneBatch() {
+            when(articleRepository.findByUrlHashIn(anyCollection())).thenReturn(List.of());
+
+            int written = articleStoreService.upsert("technology", List.of(
+                    news("https://example.com/a", "A"),
+                    news("https://EXAMPLE.com/a/?utm_source=x#top", "A again"),
+                    news("https://example.com/b", "B"),
+                    news("", "no url")));
+
+            assertThat(written).isEqualTo(2);
+            assertThat(articleRows()).extracting(row -> row[2]).containsExactly("A", "B");
+            assertThat(articleRows()).allSatisfy(row -> assertThat(row[6]).isEqualTo("technology"));
+            assertThat(categoryRows()).extracting(row -> row[1]).containsExactly("technology", "technology");
+        }
+
+        @Test
+        @DisplayName("内容未变化 - 跳过文章写入，仍登记类别")
+        void upsert_unchangedArticle_skipped() {
+            NewsDto news = news("https://example.com/a", "A");
+            when(articleRepository.findByUrlHashIn(anyCollection())).thenReturn(List.of(stored(news, "technology")));
+
+            int written = articleStoreService.upsert("technology", List.of(news("https://example.com/a", "A")));
+
+            assertThat(written).isZero();
+            verify(jdbcTemplate, never()).batchUpdate(startsWith("INSERT INTO articles "), anyList());
+            assertThat(categoryRows()).hasSize(1);
+        }
+
+        @Test
+        @DisplayName("内容有变化 - 更新已存在的文章")
+        void upsert_changedArticle_updated() {
+            NewsDto news = news("https://example.com/a", "A");
+            when(articleRepository.findByUrlHashIn(anyCollection())).thenReturn(List.of(stored(news, "technology")));
+
+            int written = articleStoreService.upsert("technology", List.of(news("https://example.com/a", "A v2")));
+
+            assertThat(written).isEqualTo(1);
+            assertThat(articleRows()).extracting(row -> row[2]).containsExactly("A v2");
+        }
+
+        @Test
+        @DisplayName("已在其他类别下的文章 - 登记到当前类别")
+        void upsert_articleInAnotherCategory_linked() {
+            NewsDto news = news("https://example.com/a", "A");
+            when(articleRepository.findByUrlHashIn(anyCollection())).thenReturn(List.of(stored(news, "general")));
+
+            articleStoreService.upsert("business", List.of(news("https://example.com/a", "A")));
+
+            verify(jdbcTemplate, never()).batchUpdate(startsWith("INSERT INTO articles "), anyList());
+            assertThat(categoryRows()).singleElement().satisfies(row -> {
+                assertThat(row[0]).isEqualTo(stored(news, "general").getUrlHash());
+                assertThat(row[1]).isEqualTo("business");
+            });
+        }
+
+        private List<Object[]> articleRows() {
+            return batchArgs("INSERT INTO articles ");
+        }
+
+        private List<Object[]> categoryRows() {
+            return batchArgs("INSERT INTO article_categories ");
+        }
+
+        @SuppressWarnings("unchecked")
+        private List<Object[]> batchArgs(String sqlPrefix) {
+            ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+            verify(jdbcTemplate).batchUpdate(startsWith(sqlPrefix), captor.capture());
+            return captor.getValue();
+        }
+    }
+
+    @Nested
+    @DisplayName("按类别读取")
+    class ReadTests {
+
+        @Test
+        @DisplayName("返回的新闻使用查询的类别")
+        void getHistory_usesRequestedCategory() {
+            Article article = stored(news("https://example.com/a", "A"), "general");
+            when(articleRepository.findByLinkedCategory(eq("business"), any())).thenReturn(List.of(article));
+
+            List<NewsDto> result = articleStoreService.getHistory("business", 0, 10);
+
+            assertThat(result).singleElement().satisfies(news -> {
+                assertThat(news.getTitle()).isEqualTo("A");
+                assertThat(news.getCategory()).isEqualTo("business");
+            });
+        }
+    }
+
+    @Nested
+    @DisplayName("URL 规范化")
+    class CanonicalUrlTests {
+
+        @Test
+        @DisplayName("去掉片段、跟踪参数和末尾斜杠，主机小写")
+        void canonicalUrl_normalizesUrl() {
+            assertThat(ArticleStoreService.canonicalUrl("HTTPS://News.Example.com/path/?id=1&utm_medium=rss#x"))
+                    .isEqualTo("https://news.example.com/path?id=1");
+        }
+
+        @Test
+        @DisplayName("无法解析的 URL 原样返回")
+        void canonicalUrl_invalidUrl_returnedAsIs() {
+            assertThat(ArticleStoreService.canonicalUrl(" not a url ")).isEqualTo("not a url");
+        }
+    }
+}
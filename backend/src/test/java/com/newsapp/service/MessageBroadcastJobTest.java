@@ -0,0 +1,177 @@
+package com.newsapp.service;
+
+import com.newsapp.entity.MessageBroadcast;
+import com.newsapp.repository.MessageBroadcastRepository;
+import com.newsapp.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * MessageBroadcastJob 单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("MessageBroadcastJob 单元测试")
+class MessageBroadcastJobTest {
+
+    private static final Long BROADCAST_ID = 7L;
+
+    @Mock
+    private MessageBroadcastRepository broadcastRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private MessageBulkWriter bulkWriter;
+
+    @Mock
+    private UnreadMessageCounter unreadCounter;
+
+    @Mock
+    private NotificationPushService pushService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private MessageBroadcastJob job;
+    private MessageBroadcast broadcast;
+
+    @BeforeEach
+    void setUp() {
+        job = new MessageBroadcastJob(broadcastRepository, userRepository, bulkWriter, unreadCounter, pushService,
+                transactionManager, 2, 60_000, 3);
+        broadcast = new MessageBroadcast();
+        broadcast.setId(BROADCAST_ID);
+        broadcast.setTitle("系统通知");
+        broadcast.setContent("正文");
+        broadcast.setStatus(MessageBroadcast.STATUS_RUNNING);
+        when(broadcastRepository.findById(BROADCAST_ID)).thenReturn(Optional.of(broadcast));
+    }
+
+    private void inTransaction() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+    }
+
+    @Test
+    @DisplayName("分批写入 - 每批预留主键、插入并记录进度，最后一批不足一批时完成")
+    void run_chunksUntilComplete() {
+        inTransaction();
+        when(userRepository.findIdsAfter(0L, PageRequest.of(0, 2))).thenReturn(List.of(1L, 2L));
+        when(userRepository.findIdsAfter(2L, PageRequest.of(0, 2))).thenReturn(List.of(3L));
+        when(bulkWriter.reserveIds(2)).thenReturn(100L);
+        when(bulkWriter.reserveIds(1)).thenReturn(200L);
+        when(broadcastRepository.recordProgress(eq(BROADCAST_ID), anyString(), anyLong(), anyLong(), any()))
+                .thenReturn(1);
+
+        job.run(BROADCAST_ID);
+
+        verify(bulkWriter).insert(eq(100L), eq(List.of(1L, 2L)), eq(broadcast), any());
+        verify(bulkWriter).insert(eq(200L), eq(List.of(3L)), eq(broadcast), any());
+        verify(broadcastRepository).recordProgress(eq(BROADCAST_ID), anyString(), eq(2L), eq(2L), any());
+        verify(broadcastRepository).recordProgress(eq(BROADCAST_ID), anyString(), eq(3L), eq(1L), any());
+        verify(broadcastRepository).complete(eq(BROADCAST_ID), anyString(), any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("接手中断的任务 - 从 lastUserId 之后继续")
+    void run_resumesAfterLastUserId() {
+        broadcast.setLastUserId(41L);
+        when(userRepository.findIdsAfter(41L, PageRequest.of(0, 2))).thenReturn(List.of());
+
+        job.run(BROADCAST_ID);
+
+        verify(bulkWriter, never()).reserveIds(anyInt());
+        verify(broadcastRepository).complete(eq(BROADCAST_ID), anyString(), any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("提交后 - 更新未读计数，在线用户整批发布一次")
+    void run_publishesOneBatchForOnlineUsers() {
+        inTransaction();
+        when(userRepository.findIdsAfter(0L, PageRequest.of(0, 2))).thenReturn(List.of(1L, 2L));
+        when(userRepository.findIdsAfter(2L, PageRequest.of(0, 2))).thenReturn(List.of());
+        when(bulkWriter.reserveIds(2)).thenReturn(100L);
+        when(broadcastRepository.recordProgress(eq(BROADCAST_ID), anyString(), anyLong(), anyLong(), any()))
+                .thenReturn(1);
+        when(unreadCounter.incrementAll(List.of(1L, 2L))).thenReturn(Map.of(1L, 4L));
+        when(pushService.filterOnline(List.of(1L, 2L))).thenReturn(Set.of(2L));
+
+        job.run(BROADCAST_ID);
+
+        ArgumentCaptor<NotificationPushService.MessageBatch> batch =
+                ArgumentCaptor.forClass(NotificationPushService.MessageBatch.class);
+        verify(pushService).publishMessageBatch(batch.capture());
+        assertThat(batch.getValue().userIds()).containsExactly(2L);
+        assertThat(batch.getValue().messageIds()).containsExactly(101L);
+        assertThat(batch.getValue().unreadCounts()).containsExactly((Long) null);
+        assertThat(batch.getValue().title()).isEqualTo("系统通知");
+        assertThat(batch.getValue().summary(0).read()).isFalse();
+        verify(pushService, never()).publishToUser(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("提交后 - 没有在线用户时不发布")
+    void run_noOnlineUsers_skipsPublish() {
+        inTransaction();
+        when(userRepository.findIdsAfter(0L, PageRequest.of(0, 2))).thenReturn(List.of(1L));
+        when(bulkWriter.reserveIds(1)).thenReturn(100L);
+        when(broadcastRepository.recordProgress(eq(BROADCAST_ID), anyString(), anyLong(), anyLong(), any()))
+                .thenReturn(1);
+        when(pushService.filterOnline(List.of(1L))).thenReturn(Set.of());
+
+        job.run(BROADCAST_ID);
+
+        verify(unreadCounter).incrementAll(List.of(1L));
+        verify(pushService, never()).publishMessageBatch(any());
+    }
+
+    @Test
+    @DisplayName("失去租约 - 回滚本批并停止，不更新计数")
+    void run_lostLease_stops() {
+        inTransaction();
+        when(userRepository.findIdsAfter(0L, PageRequest.of(0, 2))).thenReturn(List.of(1L, 2L));
+        when(bulkWriter.reserveIds(2)).thenReturn(100L);
+        when(broadcastRepository.recordProgress(eq(BROADCAST_ID), anyString(), anyLong(), anyLong(), any()))
+                .thenReturn(0);
+
+        job.run(BROADCAST_ID);
+
+        ArgumentCaptor<SimpleTransactionStatus> status = ArgumentCaptor.forClass(SimpleTransactionStatus.class);
+        verify(transactionManager).commit(status.capture());
+        assertThat(status.getValue().isRollbackOnly()).isTrue();
+        verify(broadcastRepository, never()).complete(any(), any(), any());
+        verifyNoInteractions(unreadCounter, pushService);
+    }
+
+    @Test
+    @DisplayName("写入失败 - 记录失败并延后重试，达到上限时标记失败")
+    void run_failure_recorded() {
+        when(userRepository.findIdsAfter(0L, PageRequest.of(0, 2))).thenReturn(List.of(1L, 2L));
+        when(bulkWriter.reserveIds(2)).thenThrow(new QueryTimeoutException("lock wait timeout"));
+
+        job.run(BROADCAST_ID);
+
+        verify(broadcastRepository).recordFailure(eq(BROADCAST_ID), anyString(), eq("lock wait timeout"), any());
+        verify(broadcastRepository).failIfExhausted(eq(BROADCAST_ID), eq(3), any());
+        verify(broadcastRepository, never()).complete(any(), any(), any());
+    }
+}
@@ -0,0 +1,253 @@
+package com.newsapp.service;
+
+import com.newsapp.dto.MessagePage;
+import com.newsapp.dto.MessageSummary;
+import com.newsapp.dto.SendMessageRequest;
+import com.newsapp.entity.Message;
+import com.newsapp.exception.BusinessException;
+import com.newsapp.repository.MessageRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * MessageService 单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("MessageService 单元测试")
+class MessageServiceTest {
+
+    private static final Long USER_ID = 1L;
+    private static final LocalDateTime BASE = LocalDateTime.of(2026, 10, 17, 12, 0, 0, 123_456_000);
+
+    @Mock
+    private MessageRepository messageRepository;
+
+    @Mock
+    private UnreadMessageCounter unreadCounter;
+
+    @Mock
+    private NotificationPushService pushService;
+
+    @InjectMocks
+    private MessageService messageService;
+
+    /**
+     * 按时间倒序的 count 条消息，id 从 start 递减
+     */
+    private static List<MessageSummary> summaries(long start, int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> new MessageSummary(start - i, "消息" + (start - i), "SYSTEM", false, null,
+                        BASE.minusMinutes(start - (start - i) + 1)))
+                .toList();
+    }
+
+    @Nested
+    @DisplayName("消息列表分页")
+    class PaginationTests {
+
+        @Test
+        @DisplayName("第一页 - 多取一条判断下一页，游标指向本页最后一条")
+        void firstPage_hasMore() {
+            when(messageRepository.findSummaries(USER_ID, PageRequest.of(0, 3))).thenReturn(summaries(10, 3));
+
+            MessagePage page = messageService.getUserMessages(USER_ID, null, 2);
+
+            assertThat(page.getItems()).extracting(MessageSummary::id).containsExactly(10L, 9L);
+            assertThat(page.getNextCursor()).isNotNull();
+            MessageService.Position position = MessageService.decodeCursor(page.getNextCursor());
+            assertThat(position.id()).isEqualTo(9L);
+            assertThat(position.createdAt()).isEqualTo(page.getItems().get(1).createdAt());
+        }
+
+        @Test
+        @DisplayName("下一页 - 按游标的 (创建时间, ID) 查询")
+        void nextPage_usesCursor() {
+            MessageSummary last = summaries(9, 1).get(0);
+            String cursor = MessageService.encodeCursor(new MessageService.Position(last.createdAt(), last.id()));
+            when(messageRepository.findSummariesBefore(eq(USER_ID), eq(last.createdAt()), eq(9L), any()))
+                    .thenReturn(summaries(8, 1));
+
+            MessagePage page = messageService.getUserMessages(USER_ID, cursor, 2);
+
+            assertThat(page.getItems()).extracting(MessageSummary::id).containsExactly(8L);
+            assertThat(page.getNextCursor()).isNull();
+            verify(messageRepository, never()).findSummaries(any(), any());
+        }
+
+        @Test
+        @DisplayName("未读消息 - 使用未读查询")
+        void unread_usesUnreadQuery() {
+            when(messageRepository.findUnreadSummaries(USER_ID, PageRequest.of(0, 21))).thenReturn(summaries(5, 2));
+
+            MessagePage page = messageService.getUnreadMessages(USER_ID, "", 20);
+
+            assertThat(page.getItems()).hasSize(2);
+            assertThat(page.getNextCursor()).isNull();
+        }
+
+        @Test
+        @DisplayName("每页条数超出范围 - 限定在 1..MAX_PAGE_SIZE")
+        void pageSize_clamped() {
+            when(messageRepository.findSummaries(eq(USER_ID), any())).thenReturn(List.of());
+
+            messageService.getUserMessages(USER_ID, null, 10_000);
+            messageService.getUserMessages(USER_ID, null, 0);
+
+            verify(messageRepository).findSummaries(USER_ID, PageRequest.of(0, MessageService.MAX_PAGE_SIZE + 1));
+            verify(messageRepository).findSummaries(USER_ID, PageRequest.of(0, 2));
+        }
+
+        @Test
+        @DisplayName("无效游标 - 抛出 BusinessException")
+        void invalidCursor() {
+            assertThatThrownBy(() -> messageService.getUserMessages(USER_ID, "not-a-cursor", 20))
+                    .isInstanceOf(BusinessException.class)
+                    .hasMessage("无效的分页游标");
+        }
+    }
+
+    @Nested
+    @DisplayName("消息详情")
+    class DetailTests {
+
+        @Test
+        @DisplayName("本人的消息 - 返回含正文的消息")
+        void getMessage_owner() {
+            Message message = new Message();
+            message.setId(3L);
+            message.setUserId(USER_ID);
+            message.setContent("正文");
+            when(messageRepository.findById(3L)).thenReturn(Optional.of(message));
+
+            assertThat(messageService.getMessage(3L, USER_ID).getContent()).isEqualTo("正文");
+        }
+
+        @Test
+        @DisplayName("他人的消息 - 抛出 BusinessException")
+        void getMessage_otherUser() {
+            Message message = new Message();
+            message.setId(3L);
+            message.setUserId(2L);
+            when(messageRepository.findById(3L)).thenReturn(Optional.of(message));
+
+            assertThatThrownBy(() -> messageService.getMessage(3L, USER_ID))
+                    .isInstanceOf(BusinessException.class)
+                    .hasMessage("无权限查看此消息");
+        }
+    }
+
+    @Nested
+    @DisplayName("全部标记为已读")
+    class MarkAllAsReadTests {
+
+        @Test
+        @DisplayName("一条 UPDATE 完成并返回标记数，不加载实体")
+        void markAllAsRead_setBased() {
+            when(messageRepository.markAllAsRead(eq(USER_ID), any(LocalDateTime.class))).thenReturn(42);
+
+            assertThat(messageService.markAllAsRead(USER_ID)).isEqualTo(42);
+            verify(messageRepository).markAllAsRead(eq(USER_ID), any(LocalDateTime.class));
+            verifyNoMoreInteractions(messageRepository);
+            verify(unreadCounter).adjustAfterCommit(USER_ID, -42);
+        }
+    }
+
+    @Nested
+    @DisplayName("未读计数")
+    class UnreadCounterTests {
+
+        private Message message(Long id, boolean read) {
+            Message message = new Message();
+            message.setId(id);
+            message.setUserId(USER_ID);
+            message.setIsRead(read);
+            return message;
+        }
+
+        @Test
+        @DisplayName("未读数量 - 读取维护的计数，不统计表")
+        void getUnreadCount_readsCounter() {
+            when(unreadCounter.get(USER_ID)).thenReturn(7L);
+
+            assertThat(messageService.getUnreadCount(USER_ID)).isEqualTo(7L);
+            verifyNoInteractions(messageRepository);
+        }
+
+        @Test
+        @DisplayName("发送消息 - 计数加一")
+        void sendMessage_increments() {
+            SendMessageRequest request = new SendMessageRequest();
+            request.setTitle("标题");
+            request.setContent("正文");
+            when(messageRepository.save(any(Message.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+            messageService.sendMessage(USER_ID, request);
+
+            verify(unreadCounter).adjustAfterCommit(USER_ID, 1);
+        }
+
+        @Test
+        @DisplayName("发送消息 - 提交后推送给接收者")
+        void sendMessage_pushes() {
+            SendMessageRequest request = new SendMessageRequest();
+            request.setTitle("标题");
+            request.setContent("正文");
+            when(messageRepository.save(any(Message.class))).thenAnswer(invocation -> {
+                Message saved = invocation.getArgument(0);
+                saved.setId(8L);
+                return saved;
+            });
+
+            messageService.sendMessage(USER_ID, request);
+
+            ArgumentCaptor<Object> event = ArgumentCaptor.forClass(Object.class);
+            verify(pushService).publishToUser(eq(USER_ID), eq(NotificationPushService.EVENT_MESSAGE), event.capture());
+            assertThat(event.getValue()).isInstanceOfSatisfying(MessageSummary.class, summary -> {
+                assertThat(summary.id()).isEqualTo(8L);
+                assertThat(summary.title()).isEqualTo("标题");
+            });
+        }
+
+        @Test
+        @DisplayName("标记已读 - 只有未读消息减一")
+        void markAsRead_decrementsOnlyWhenUnread() {
+            when(messageRepository.findByIdForUpdate(3L)).thenReturn(Optional.of(message(3L, false)));
+            when(messageRepository.findByIdForUpdate(4L)).thenReturn(Optional.of(message(4L, true)));
+
+            messageService.markAsRead(3L, USER_ID);
+            messageService.markAsRead(4L, USER_ID);
+
+            verify(unreadCounter, times(1)).adjustAfterCommit(USER_ID, -1);
+        }
+
+        @Test
+        @DisplayName("删除消息 - 删除未读消息时减一")
+        void deleteMessage_decrementsWhenUnread() {
+            when(messageRepository.findByIdForUpdate(3L)).thenReturn(Optional.of(message(3L, false)));
+            when(messageRepository.findByIdForUpdate(4L)).thenReturn(Optional.of(message(4L, true)));
+
+            messageService.deleteMessage(3L, USER_ID);
+            messageService.deleteMessage(4L, USER_ID);
+
+            verify(messageRepository, times(2)).delete(any(Message.class));
+            verify(unreadCounter, times(1)).adjustAfterCommit(USER_ID, -1);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.newsapp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.newsapp.dto.NewsDto;
+import com.newsapp.exception.NewsApiException;
+import com.newsapp.util.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * NewsApiClient 单元测试
+ * 使用本地桩服务器代替 NewsAPI
+ */
+@DisplayName("NewsApiClient 单元测试")
+class NewsApiClientTest {
+
+    private NewsApiStubServer server;
+    private SimpleMeterRegistry meterRegistry;
+    private NewsApiClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new NewsApiStubServer();
+        meterRegistry = new SimpleMeterRegistry();
+        client = new NewsApiClient(new ObjectMapper(), meterRegistry);
+        ReflectionTestUtils.setField(client, "apiKey", "test-key");
+        ReflectionTestUtils.setField(client, "baseUrl", server.baseUrl());
+        ReflectionTestUtils.setField(client, "pageSize", 10);
+        ReflectionTestUtils.setField(client, "connectTimeoutMs", 1_000L);
+        ReflectionTestUtils.setField(client, "requestTimeoutMs", 500L);
+        ReflectionTestUtils.setField(client, "failureThreshold", 2);
+        ReflectionTestUtils.setField(client, "openDurationMs", 60_000L);
+        ReflectionTestUtils.setField(client, "rateLimitBurst", 5.0);
+        ReflectionTestUtils.setField(client, "requestsPerMinute", 60.0);
+        ReflectionTestUtils.setField(client, "minRequestsPerMinute", 1.0);
+        ReflectionTestUtils.setField(client, "globalBurst", 10.0);
+        ReflectionTestUtils.setField(client, "globalRequestsPerMinute", 60.0);
+        client.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.shutdown();
+        server.close();
+    }
+
+    @Test
+    @DisplayName("正常响应 - 解析新闻并通过请求头发送 API Key")
+    void fetch_success() {
+        server.articles(5);
+
+        List<NewsDto> news = client.fetchTopHeadlines("technology");
+
+        assertThat(news).hasSize(5);
+        assertThat(server.requests().get(0).getFirst("X-Api-Key")).isEqualTo("test-key");
+        assertThat(server.requests().get(0).getFirst("Accept-Encoding")).isEqualTo("gzip");
+        assertThat(meterRegistry.get("newsapi.client.ttfb").tag("category", "technology").timer().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("newsapi.client.duration").tag("outcome", "success").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("gzip 响应 - 解压后解析")
+    void fetch_gzip() {
+        server.articles(4).gzip(true);
+
+        assertThat(client.fetchTopHeadlines("science")).hasSize(4);
+    }
+
+    @Test
+    @DisplayName("条件请求 - 304 时复用上次结果")
+    void fetch_notModified_reusesPreviousResult() {
+        server.articles(3).etag("\"v1\"");
+
+        List<NewsDto> first = client.fetchTopHeadlines("sports");
+        List<NewsDto> second = client.fetchTopHeadlines("sports");
+
+        assertThat(second).usingRecursiveFieldByFieldElementComparator().isEqualTo(first);
+        assertThat(server.requests().get(1).getFirst("If-None-Match")).isEqualTo("\"v1\"");
+        assertThat(meterRegistry.get("newsapi.client.not_modified").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("非 2xx 响应 - 抛出异常")
+    void fetch_errorStatus_throws() {
+        server.status(500).body("{\"status\":\"error\",\"message\":\"boom\"}");
+
+        assertThatThrownBy(() -> client.fetchTopHeadlines("health"))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("获取新闻失败")
+                .hasMessageContaining("500");
+    }
+
+    @Test
+    @DisplayName("响应超时 - 抛出异常并记录指标")
+    void fetch_timeout_throws() {
+        server.delayMs(2_000);
+
+        assertThatThrownBy(() -> client.fetchTopHeadlines("business"))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("获取新闻失败");
+        assertThat(meterRegistry.get("newsapi.client.duration").tag("outcome", "io_error").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("调用线程被中断 - 取消请求，不计入熔断失败")
+    void fetch_interrupted_cancelsRequest() throws Exception {
+        server.delayMs(2_000);
+        CompletableFuture<Throwable> failure = new CompletableFuture<>();
+        Thread caller = Thread.ofVirtual().start(() -> {
+            try {
+                client.fetchTopHeadlines("business");
+                failure.complete(null);
+            } catch (RuntimeException e) {
+                failure.complete(e);
+            }
+        });
+
+        Thread.sleep(100);
+        caller.interrupt();
+
+        assertThat(failure.get(1, TimeUnit.SECONDS))
+                .isInstanceOf(NewsApiException.class)
+                .hasMessageContaining("已取消");
+        assertThat(meterRegistry.get("newsapi.client.duration").tag("outcome", "cancelled").timer().count())
+                .isEqualTo(1);
+        assertThat(client.circuitBreaker("business").getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    @DisplayName("连续失败达到阈值 - 熔断后不再请求上游")
+    void fetch_circuitOpens_afterConsecutiveFailures() {
+        server.status(503).body("{}");
+
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> client.fetchTopHeadlines("general")).isInstanceOf(NewsApiException.class);
+        }
+        assertThatThrownBy(() -> client.fetchTopHeadlines("general"))
+                .isInstanceOf(NewsApiException.class)
+                .hasMessageContaining("熔断");
+
+        assertThat(server.requests()).hasSize(2);
+        assertThat(client.circuitBreaker("general").getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(meterRegistry.get("newsapi.circuit.state").tag("category", "general").gauge().value())
+                .isEqualTo(CircuitBreaker.State.OPEN.ordinal());
+    }
+
+    @Test
+    @DisplayName("4xx 响应 - 请求本身的问题，不计入熔断失败")
+    void fetch_clientError_doesNotOpenCircuit() {
+        server.status(401).body("{\"status\":\"error\",\"code\":\"apiKeyInvalid\"}");
+
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> client.fetchTopHeadlines("science"))
+                    .isInstanceOf(NewsApiException.class)
+                    .hasMessageContaining("401");
+        }
+
+        assertThat(server.requests()).hasSize(3);
+        assertThat(client.circuitBreaker("science").getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    @DisplayName("429 - 按 Retry-After 暂停所有类别的请求并降低总速率")
+    void fetch_throttled_respectsRetryAfter() {
+        server.status(429).body("{\"status\":\"error\",\"code\":\"rateLimited\"}");
+
+        assertThatThrownBy(() -> client.fetchTopHeadlines("entertainment"))
+                .isInstanceOf(NewsApiException.class)
+                .hasMessageContaining("429");
+        server.status(200).body(null);
+        assertThatThrownBy(() -> client.fetchTopHeadlines("entertainment"))
+                .isInstanceOf(NewsApiException.class)
+                .hasMessageContaining("超出总限额");
+        assertThatThrownBy(() -> client.fetchTopHeadlines("health"))
+                .isInstanceOf(NewsApiException.class)
+                .hasMessageContaining("超出总限额");
+
+        assertThat(server.requests()).hasSize(1);
+        assertThat(client.globalRateLimiter().getRatePerSecond()).isEqualTo(0.5);
+        assertThat(client.rateLimiter("health").getAvailableTokens()).isEqualTo(5.0);
+    }
+
+    @Test
+    @DisplayName("总限额 - 所有类别合计的请求数受共享令牌桶限制")
+    void fetch_globalLimit_appliesAcrossCategories() {
+        ReflectionTestUtils.setField(client, "globalBurst", 2.0);
+        client.init();
+
+        assertThat(client.fetchTopHeadlines("health")).hasSize(3);
+        assertThat(client.fetchTopHeadlines("sports")).hasSize(3);
+        assertThatThrownBy(() -> client.fetchTopHeadlines("science"))
+                .isInstanceOf(NewsApiException.class)
+                .hasMessageContaining("超出总限额");
+
+        assertThat(server.requests()).hasSize(2);
+        assertThat(client.circuitBreaker("science").getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    @DisplayName("Retry-After 解析 - 秒数、缺失时使用默认值")
+    void parseRetryAfter() {
+        assertThat(NewsApiClient.parseRetryAfter("30")).isEqualTo(30_000L);
+        assertThat(NewsApiClient.parseRetryAfter(null)).isEqualTo(60_000L);
+        assertThat(NewsApiClient.parseRetryAfter("garbage")).isEqualTo(60_000L);
+    }
+}
@@ -0,0 +1,129 @@
+package com.newsapp.service;
+
+import com.newsapp.benchmark.NewsApiPayloads;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 本地 NewsAPI 桩服务器
+ * 在随机端口上提供 /top-headlines，可配置状态码、延迟、ETag 和 gzip，并记录收到的请求头
+ */
+public class NewsApiStubServer implements AutoCloseable {
+
+    private final HttpServer server;
+    private final List<Headers> requests = new CopyOnWriteArrayList<>();
+
+    private volatile int status = 200;
+    private volatile int articles = 3;
+    private volatile String body;
+    private volatile String etag;
+    private volatile boolean gzip;
+    private volatile long delayMs;
+
+    public NewsApiStubServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/top-headlines", this::handle);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public NewsApiStubServer status(int status) {
+        this.status = status;
+        return this;
+    }
+
+    public NewsApiStubServer articles(int articles) {
+        this.articles = articles;
+        return this;
+    }
+
+    /**
+     * 使用固定的响应体，代替按文章数生成的响应
+     */
+    public NewsApiStubServer body(String body) {
+        this.body = body;
+        return this;
+    }
+
+    /**
+     * 设置 ETag，请求带有相同的 If-None-Match 时返回 304
+     */
+    public NewsApiStubServer etag(String etag) {
+        this.etag = etag;
+        return this;
+    }
+
+    public NewsApiStubServer gzip(boolean gzip) {
+        this.gzip = gzip;
+        return this;
+    }
+
+    public NewsApiStubServer delayMs(long delayMs) {
+        this.delayMs = delayMs;
+        return this;
+    }
+
+    /**
+     * 收到的请求头，按请求顺序
+     */
+    public List<Headers> requests() {
+        return requests;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.add(exchange.getRequestHeaders());
+        try {
+            if (delayMs > 0) {
+                Thread.sleep(delayMs);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+        if (etag != null) {
+            exchange.getResponseHeaders().set("ETag", etag);
+            if (etag.equals(ifNoneMatch)) {
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+        }
+
+        byte[] payload = (body != null ? body : NewsApiPayloads.topHeadlines(articles))
+                .getBytes(StandardCharsets.UTF_8);
+        if (gzip) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+                out.write(payload);
+            }
+            payload = compressed.toByteArray();
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, payload.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(payload);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
@@ -0,0 +1,252 @@
+package com.newsapp.service;
+
+import com.newsapp.dto.CachedNews;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * NewsIngestionService 单元测试
+ * 使用本地桩上游代替 NewsAPI
+ */
+@DisplayName("NewsIngestionService 单元测试")
+class NewsIngestionServiceTest {
+
+    private StubNewsUpstream upstream;
+    private NewsSnapshot snapshot;
+    private ArticleStoreService articleStore;
+    private NewsIngestionService ingestionService;
+    private StringRedisTemplate redisTemplate;
+    private ValueOperations<String, String> valueOperations;
+    private TaskScheduler taskScheduler;
+    private Cache newsCache;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        upstream = new StubNewsUpstream();
+        snapshot = new NewsSnapshot();
+        articleStore = mock(ArticleStoreService.class);
+        redisTemplate = mock(StringRedisTemplate.class);
+        valueOperations = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(true);
+        taskScheduler = mock(TaskScheduler.class);
+        newsCache = new ConcurrentMapCache(NewsService.NEWS_CACHE);
+        CacheManager cacheManager = mock(CacheManager.class);
+        when(cacheManager.getCache(NewsService.NEWS_CACHE)).thenReturn(newsCache);
+        ingestionService = new NewsIngestionService(upstream, snapshot, articleStore, taskScheduler,
+                redisTemplate, cacheManager);
+        ReflectionTestUtils.setField(ingestionService, "refreshIntervalMs", 600_000L);
+        ReflectionTestUtils.setField(ingestionService, "jitterRatio", 0.0);
+        ReflectionTestUtils.setField(ingestionService, "initialBackoffMs", 1_000L);
+        ReflectionTestUtils.setField(ingestionService, "maxBackoffMs", 5_000L);
+        ReflectionTestUtils.setField(ingestionService, "clusterLease", true);
+        ingestionService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        ingestionService.shutdown();
+    }
+
+    @Test
+    @DisplayName("刷新成功 - 覆盖 news 缓存")
+    void refresh_success_updatesNewsCache() {
+        upstream.respond("technology", 3);
+        newsCache.put("technology", new CachedNews(List.of(), 0L));
+
+        ingestionService.refresh("technology");
+
+        CachedNews cached = newsCache.get("technology", CachedNews.class);
+        assertThat(cached).isNotNull();
+        assertThat(cached.getArticles()).hasSize(3);
+        assertThat(cached.getCachedAt()).isPositive();
+    }
+
+    @Test
+    @DisplayName("刷新失败 - 不改动 news 缓存")
+    void refresh_failure_keepsNewsCache() {
+        upstream.fail("technology");
+        CachedNews previous = new CachedNews(List.of(), 1L);
+        newsCache.put("technology", previous);
+
+        ingestionService.refresh("technology");
+
+        assertThat(newsCache.get("technology", CachedNews.class)).isSameAs(previous);
+    }
+
+    @Test
+    @DisplayName("定时触发 - 调度线程不等待上游，刷新完成后再次调度")
+    void schedule_runsRefreshOffSchedulerThread() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        NewsUpstream blocking = category -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return upstream.respond(category, 1).fetchTopHeadlines(category);
+        };
+        ReflectionTestUtils.setField(ingestionService, "upstream", blocking);
+        ingestionService.schedule("technology", 0L);
+        ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+        verify(taskScheduler).schedule(task.capture(), any(Instant.class));
+
+        task.getValue().run();
+
+        verify(taskScheduler, times(1)).schedule(any(Runnable.class), any(Instant.class));
+        release.countDown();
+        verify(taskScheduler, timeout(2_000).times(2)).schedule(any(Runnable.class), any(Instant.class));
+        assertThat(snapshot.get("technology")).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("其他节点已持有本轮租约 - 不请求上游")
+    void refresh_leaseHeldElsewhere_skipsUpstream() {
+        upstream.respond("technology", 3);
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(false);
+
+        boolean result = ingestionService.refresh("technology");
+
+        assertThat(result).isTrue();
+        assertThat(upstream.callCount("technology")).isZero();
+        assertThat(snapshot.get("technology")).isNull();
+    }
+
+    @Test
+    @DisplayName("租约时长为一个刷新间隔，成功后不释放")
+    void refresh_success_keepsLeaseForInterval() {
+        upstream.respond("technology", 3);
+
+        ingestionService.refresh("technology");
+
+        verify(valueOperations).setIfAbsent(contains("newsapi:ingest:technology"), anyString(),
+                eq(Duration.ofMillis(600_000L)));
+        verify(redisTemplate, never()).execute(any(RedisScript.class), anyList(), any());
+    }
+
+    @Test
+    @DisplayName("刷新失败 - 释放租约以便按退避时间重试")
+    void refresh_failure_releasesLease() {
+        upstream.fail("technology");
+
+        ingestionService.refresh("technology");
+
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of("cache:lease:newsapi:ingest:technology")),
+                anyString());
+    }
+
+    @Test
+    @DisplayName("Redis 不可用 - 本节点照常刷新")
+    void refresh_redisDown_refreshesAnyway() {
+        upstream.respond("technology", 3);
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class)))
+                .thenThrow(new RedisConnectionFailureException("down"));
+
+        assertThat(ingestionService.refresh("technology")).isTrue();
+        assertThat(snapshot.get("technology")).hasSize(3);
+    }
+
+    @Test
+    @DisplayName("刷新成功 - 写入快照")
+    void refresh_success_updatesSnapshot() {
+        upstream.respond("technology", 3);
+
+        boolean result = ingestionService.refresh("technology");
+
+        assertThat(result).isTrue();
+        assertThat(snapshot.get("technology")).hasSize(3);
+        assertThat(ingestionService.nextDelayMs("technology")).isEqualTo(600_000L);
+    }
+
+    @Test
+    @DisplayName("刷新成功 - 写入文章库并从文章库读取快照")
+    void refresh_success_persistsAndReadsFromStore() {
+        upstream.respond("business", 2);
+        StubNewsUpstream stored = new StubNewsUpstream().respond("business", 5);
+        when(articleStore.getLatest(eq("business"), anyInt()))
+                .thenReturn(stored.fetchTopHeadlines("business"));
+
+        ingestionService.refresh("business");
+
+        verify(articleStore).upsert(eq("business"), argThat(list -> list.size() == 2));
+        assertThat(snapshot.get("business")).hasSize(5);
+    }
+
+    @Test
+    @DisplayName("文章库不可用 - 快照使用本次拉取结果")
+    void refresh_storeUnavailable_fallsBackToFetched() {
+        upstream.respond("general", 2);
+        when(articleStore.upsert(anyString(), anyList())).thenThrow(new RuntimeException("db down"));
+
+        boolean result = ingestionService.refresh("general");
+
+        assertThat(result).isTrue();
+        assertThat(snapshot.get("general")).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("刷新失败 - 保留旧快照")
+    void refresh_failure_keepsPreviousSnapshot() {
+        upstream.respond("sports", 2);
+        ingestionService.refresh("sports");
+
+        upstream.fail("sports");
+        boolean result = ingestionService.refresh("sports");
+
+        assertThat(result).isFalse();
+        assertThat(snapshot.get("sports")).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("连续失败 - 指数退避且不超过上限")
+    void refresh_consecutiveFailures_backsOffExponentially() {
+        upstream.fail("health");
+
+        ingestionService.refresh("health");
+        assertThat(ingestionService.nextDelayMs("health")).isEqualTo(1_000L);
+        ingestionService.refresh("health");
+        assertThat(ingestionService.nextDelayMs("health")).isEqualTo(2_000L);
+        ingestionService.refresh("health");
+        assertThat(ingestionService.nextDelayMs("health")).isEqualTo(4_000L);
+        ingestionService.refresh("health");
+        assertThat(ingestionService.nextDelayMs("health")).isEqualTo(5_000L);
+
+        upstream.respond("health", 1);
+        ingestionService.refresh("health");
+        assertThat(ingestionService.getConsecutiveFailures("health")).isZero();
+        assertThat(ingestionService.nextDelayMs("health")).isEqualTo(600_000L);
+    }
+
+    @Test
+    @DisplayName("随机抖动 - 延迟落在抖动范围内")
+    void nextDelay_withJitter_staysWithinBounds() {
+        ReflectionTestUtils.setField(ingestionService, "jitterRatio", 0.1);
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(ingestionService.nextDelayMs("science")).isBetween(540_000L, 660_000L);
+        }
+    }
+}
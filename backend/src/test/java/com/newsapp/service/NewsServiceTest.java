@@ -0,0 +1,390 @@
+package com.newsapp.service;
+
+import com.newsapp.dto.CachedNews;
+import com.newsapp.dto.NewsDto;
+import com.newsapp.exception.BusinessException;
+import com.newsapp.exception.NewsApiException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * NewsService 单元测试
+ */
+@DisplayName("NewsService 单元测试")
+class NewsServiceTest {
+
+    private NewsService newsService;
+    private NewsSnapshot snapshot;
+    private CacheManager cacheManager;
+    private ArticleStoreService articleStore;
+
+    @BeforeEach
+    void setUp() {
+        snapshot = new NewsSnapshot();
+        cacheManager = new ConcurrentMapCacheManager(NewsService.NEWS_CACHE);
+        articleStore = mock(ArticleStoreService.class);
+        newsService = spy(new NewsService(new StubNewsUpstream(), snapshot, articleStore, cacheManager));
+        ReflectionTestUtils.setField(newsService, "parallelFanOut", true);
+        ReflectionTestUtils.setField(newsService, "categoryTimeoutMs", 200L);
+        ReflectionTestUtils.setField(newsService, "totalTimeoutMs", 500L);
+        ReflectionTestUtils.setField(newsService, "ingestedMaxAgeMs", 600_000L);
+        ReflectionTestUtils.setField(newsService, "softTtlMs", 60_000L);
+        ReflectionTestUtils.setField(newsService, "hardTtlMs", 120_000L);
+        ReflectionTestUtils.setField(newsService, "maxStaleMs", 3_600_000L);
+    }
+
+    private static List<NewsDto> newsOf(String title) {
+        NewsDto news = new NewsDto();
+        news.setTitle(title);
+        return List.of(news);
+    }
+
+    @Nested
+    @DisplayName("多类别并发拉取")
+    class FanOutTests {
+
+        @Test
+        @DisplayName("并发拉取 - 按订阅顺序合并结果")
+        void getUserNews_parallel_keepsCategoryOrder() {
+            doAnswer(invocation -> {
+                Thread.sleep(50);
+                return newsOf("tech");
+            }).when(newsService).getNewsByCategory("technology");
+            doReturn(newsOf("sports")).when(newsService).getNewsByCategory("sports");
+
+            List<NewsDto> result = newsService.getUserNews(List.of("technology", "sports"));
+
+            assertThat(result).extracting(NewsDto::getTitle).containsExactly("tech", "sports");
+        }
+
+        @Test
+        @DisplayName("并发拉取 - 总耗时取决于最慢的类别")
+        void getUserNews_parallel_latencyBoundedBySlowest() {
+            doAnswer(invocation -> {
+                Thread.sleep(150);
+                return newsOf(invocation.getArgument(0));
+            }).when(newsService).getNewsByCategory(anyString());
+
+            long start = System.nanoTime();
+            List<NewsDto> result = newsService.getUserNews(
+                    List.of("business", "health", "science", "sports"));
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+            assertThat(result).hasSize(4);
+            assertThat(elapsedMs).isLessThan(450);
+        }
+
+        @Test
+        @DisplayName("单类别超时 - 返回其余类别的部分结果")
+        void getUserNews_parallel_partialResultsOnTimeout() {
+            doAnswer(invocation -> {
+                Thread.sleep(1_000);
+                return newsOf("slow");
+            }).when(newsService).getNewsByCategory("business");
+            doReturn(newsOf("health")).when(newsService).getNewsByCategory("health");
+
+            List<NewsDto> result = newsService.getUserNews(List.of("business", "health"));
+
+            assertThat(result).extracting(NewsDto::getTitle).containsExactly("health");
+        }
+
+        @Test
+        @DisplayName("单类别超时 - 中断仍在执行的拉取")
+        void getUserNews_parallel_interruptsTimedOutFetch() throws Exception {
+            CountDownLatch interrupted = new CountDownLatch(1);
+            doAnswer(invocation -> {
+                try {
+                    Thread.sleep(5_000);
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                    throw e;
+                }
+                return newsOf("slow");
+            }).when(newsService).getNewsByCategory("business");
+            doReturn(newsOf("health")).when(newsService).getNewsByCategory("health");
+
+            newsService.getUserNews(List.of("business", "health"));
+
+            assertThat(interrupted.await(1, TimeUnit.SECONDS)).isTrue();
+        }
+
+        @Test
+        @DisplayName("单类别失败 - 跳过失败类别")
+        void getUserNews_parallel_skipsFailedCategory() {
+            doThrow(new RuntimeException("获取新闻失败")).when(newsService).getNewsByCategory("business");
+            doReturn(newsOf("health")).when(newsService).getNewsByCategory("health");
+
+            List<NewsDto> result = newsService.getUserNews(List.of("business", "health"));
+
+            assertThat(result).extracting(NewsDto::getTitle).containsExactly("health");
+        }
+
+        @Test
+        @DisplayName("关闭并发模式 - 顺序拉取")
+        void getUserNews_sequentialWhenDisabled() {
+            ReflectionTestUtils.setField(newsService, "parallelFanOut", false);
+            doReturn(newsOf("a")).when(newsService).getNewsByCategory("business");
+            doReturn(newsOf("b")).when(newsService).getNewsByCategory("health");
+
+            List<NewsDto> result = newsService.getUserNews(List.of("business", "health"));
+
+            assertThat(result).extracting(NewsDto::getTitle).containsExactly("a", "b");
+        }
+    }
+
+    @Nested
+    @DisplayName("按类别读取")
+    class GetNewsByCategoryTests {
+
+        @Test
+        @DisplayName("快照已就绪 - 不请求上游")
+        void getNewsByCategory_snapshotHit_skipsUpstream() {
+            snapshot.put("technology", newsOf("warm"));
+
+            List<NewsDto> result = newsService.getNewsByCategory("technology");
+
+            assertThat(result).extracting(NewsDto::getTitle).containsExactly("warm");
+            verify(newsService, never()).fetchTopHeadlines(anyString());
+        }
+
+        @Test
+        @DisplayName("无效类别 - 拒绝，不请求上游")
+        void getNewsByCategory_invalidCategory_rejected() {
+            assertThatThrownBy(() -> newsService.getNewsByCategory("no-such-category"))
+                    .isInstanceOf(BusinessException.class)
+                    .hasMessage("无效的新闻类别");
+            assertThatThrownBy(() -> newsService.getNewsHistory("no-such-category", 0, 20))
+                    .isInstanceOf(BusinessException.class);
+
+            verify(newsService, never()).fetchTopHeadlines(anyString());
+            verifyNoInteractions(articleStore);
+        }
+
+        @Test
+        @DisplayName("类别大小写 - 规范化为小写")
+        void getNewsByCategory_normalizesCase() {
+            snapshot.put("technology", newsOf("warm"));
+
+            assertThat(newsService.getNewsByCategory("Technology")).extracting(NewsDto::getTitle)
+                    .containsExactly("warm");
+        }
+
+        @Test
+        @DisplayName("快照已过期 - 不再使用，请求上游")
+        void getNewsByCategory_staleSnapshot_fallsThrough() {
+            ReflectionTestUtils.setField(newsService, "ingestedMaxAgeMs", 0L);
+            snapshot.put("technology", newsOf("old"));
+            doReturn(newsOf("fresh")).when(newsService).fetchTopHeadlines("technology");
+
+            List<NewsDto> result = newsService.getNewsByCategory("technology");
+
+            assertThat(result).extracting(NewsDto::getTitle).containsExactly("fresh");
+        }
+
+        @Test
+        @DisplayName("快照未就绪 - 读取文章库")
+        void getNewsByCategory_snapshotMiss_readsArticleStore() {
+            when(articleStore.getLastFetchedAt("health")).thenReturn(LocalDateTime.now().minusMinutes(1));
+            when(articleStore.getLatest(eq("health"), anyInt())).thenReturn(newsOf("stored"));
+
+            List<NewsDto> result = newsService.getNewsByCategory("health");
+
+            assertThat(result).extracting(NewsDto::getTitle).containsExactly("stored");
+            verify(newsService, never()).fetchTopHeadlines(anyString());
+        }
+
+        @Test
+        @DisplayName("缓存在文章库之前 - 再次读取不查询文章库")
+        void getNewsByCategory_cachedInFrontOfArticleStore() {
+            when(articleStore.getLastFetchedAt("health")).thenReturn(LocalDateTime.now().minusMinutes(1));
+            when(articleStore.getLatest(eq("health"), anyInt())).thenReturn(newsOf("stored"));
+
+            newsService.getNewsByCategory("health");
+            List<NewsDto> result = newsService.getNewsByCategory("health");
+
+            assertThat(result).extracting(NewsDto::getTitle).containsExactly("stored");
+            verify(articleStore, times(1)).getLatest(eq("health"), anyInt());
+        }
+
+        @Test
+        @DisplayName("文章库数据已过期 - 不再使用，请求上游")
+        void getNewsByCategory_staleArticleStore_fallsThrough() {
+            when(articleStore.getLastFetchedAt("health")).thenReturn(LocalDateTime.now().minusHours(1));
+            doReturn(newsOf("fresh")).when(newsService).fetchTopHeadlines("health");
+
+            List<NewsDto> result = newsService.getNewsByCategory("health");
+
+            assertThat(result).extracting(NewsDto::getTitle).containsExactly("fresh");
+            verify(articleStore, never()).getLatest(anyString(), anyInt());
+        }
+
+        @Test
+        @DisplayName("快照未就绪 - 请求上游并写入缓存")
+        void getNewsByCategory_snapshotMiss_fetchesAndCaches() {
+            doReturn(newsOf("cold")).when(newsService).fetchTopHeadlines("sports");
+
+            newsService.getNewsByCategory("sports");
+            List<NewsDto> result = newsService.getNewsByCategory("sports");
+
+            assertThat(result).extracting(NewsDto::getTitle).containsExactly("cold");
+            verify(newsService, times(1)).fetchTopHeadlines("sports");
+        }
+    
+        @Test
+        @DisplayName("并发冷启动 - 只请求一次上游")
+        void getNewsByCategory_concurrentMisses_fetchOnce() throws Exception {
+            doAnswer(invocation -> {
+                Thread.sleep(100);
+                return newsOf("cold");
+            }).when(newsService).fetchTopHeadlines("sports");
+
+            ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+            List<Future<List<NewsDto>>> results = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                results.add(executor.submit(() -> newsService.getNewsByCategory("sports")));
+            }
+            for (Future<List<NewsDto>> result : results) {
+                assertThat(result.get(2, TimeUnit.SECONDS)).extracting(NewsDto::getTitle).containsExactly("cold");
+            }
+            executor.shutdown();
+
+            verify(newsService, times(1)).fetchTopHeadlines("sports");
+        }
+
+        @Test
+        @DisplayName("上游失败 - 抛出原始异常")
+        void getNewsByCategory_upstreamFails_rethrows() {
+            doThrow(new RuntimeException("获取新闻失败: timeout")).when(newsService).fetchTopHeadlines("sports");
+
+            assertThatThrownBy(() -> newsService.getNewsByCategory("sports"))
+                    .isInstanceOf(RuntimeException.class)
+                    .hasMessage("获取新闻失败: timeout");
+        }
+    }
+
+    @Nested
+    @DisplayName("缓存过期后的读取")
+    class StaleWhileRevalidateTests {
+
+        private void cacheAged(String category, String title, long ageMs) {
+            cacheManager.getCache(NewsService.NEWS_CACHE)
+                    .put(category, new CachedNews(newsOf(title), System.currentTimeMillis() - ageMs));
+        }
+
+        private CachedNews cachedEntry(String category) {
+            return cacheManager.getCache(NewsService.NEWS_CACHE).get(category, CachedNews.class);
+        }
+
+        @Test
+        @DisplayName("未超过软过期 - 直接返回，不请求上游")
+        void fresh_servedWithoutUpstream() {
+            cacheAged("sports", "fresh", 1_000);
+
+            assertThat(newsService.getNewsByCategory("sports")).extracting(NewsDto::getTitle).containsExactly("fresh");
+            verify(newsService, never()).fetchTopHeadlines(anyString());
+        }
+
+        @Test
+        @DisplayName("超过软过期 - 立即返回旧数据并在后台刷新")
+        void softExpired_servesStaleAndRefreshesInBackground() {
+            cacheAged("sports", "stale", 90_000);
+            doAnswer(invocation -> {
+                Thread.sleep(100);
+                return newsOf("refreshed");
+            }).when(newsService).fetchTopHeadlines("sports");
+
+            long start = System.nanoTime();
+            List<NewsDto> result = newsService.getNewsByCategory("sports");
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+            assertThat(result).extracting(NewsDto::getTitle).containsExactly("stale");
+            assertThat(elapsedMs).isLessThan(100);
+            verify(newsService, timeout(1_000)).fetchTopHeadlines("sports");
+            await(() -> cachedEntry("sports").getArticles().get(0).getTitle().equals("refreshed"));
+        }
+
+        @Test
+        @DisplayName("超过软过期 - 并发读取只触发一次后台刷新")
+        void softExpired_singleBackgroundRefresh() throws Exception {
+            cacheAged("sports", "stale", 90_000);
+            doAnswer(invocation -> {
+                Thread.sleep(200);
+                return newsOf("refreshed");
+            }).when(newsService).fetchTopHeadlines("sports");
+
+            for (int i = 0; i < 5; i++) {
+                newsService.getNewsByCategory("sports");
+            }
+            Thread.sleep(300);
+
+            verify(newsService, times(1)).fetchTopHeadlines("sports");
+        }
+
+        @Test
+        @DisplayName("超过硬过期 - 同步刷新并返回新数据")
+        void hardExpired_refreshesSynchronously() {
+            cacheAged("sports", "expired", 180_000);
+            doReturn(newsOf("refreshed")).when(newsService).fetchTopHeadlines("sports");
+
+            assertThat(newsService.getNewsByCategory("sports")).extracting(NewsDto::getTitle).containsExactly("refreshed");
+        }
+
+        @Test
+        @DisplayName("超过硬过期且上游失败 - 仍返回旧数据")
+        void hardExpired_upstreamDown_servesStale() {
+            cacheAged("sports", "expired", 180_000);
+            doThrow(new RuntimeException("获取新闻失败: 503")).when(newsService).fetchTopHeadlines("sports");
+
+            assertThat(newsService.getNewsByCategory("sports")).extracting(NewsDto::getTitle).containsExactly("expired");
+        }
+
+        @Test
+        @DisplayName("超过硬过期且上游失败 - 数据超过最长保留时间时不再返回")
+        void hardExpired_beyondMaxStale_throws() {
+            cacheAged("sports", "ancient", 7_200_000);
+            doThrow(new RuntimeException("获取新闻失败: 503")).when(newsService).fetchTopHeadlines("sports");
+
+            assertThatThrownBy(() -> newsService.getNewsByCategory("sports"))
+                    .isInstanceOf(NewsApiException.class)
+                    .hasMessageContaining("503");
+        }
+
+        @Test
+        @DisplayName("超过软过期 - 从快照重新加载，不请求上游")
+        void softExpired_reloadsFromSnapshot() {
+            cacheAged("sports", "stale", 90_000);
+            snapshot.put("sports", newsOf("ingested"));
+
+            newsService.getNewsByCategory("sports");
+
+            await(() -> cachedEntry("sports").getArticles().get(0).getTitle().equals("ingested"));
+            verify(newsService, never()).fetchTopHeadlines(anyString());
+        }
+
+        private void await(BooleanSupplier condition) {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+            while (!condition.getAsBoolean()) {
+                assertThat(System.nanoTime()).as("等待条件超时").isLessThan(deadline);
+                Thread.onSpinWait();
+            }
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.newsapp.service;
+
+import com.newsapp.dto.NewsDto;
+import com.newsapp.dto.NewsPage;
+import com.newsapp.exception.BusinessException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * NewsTimeline 单元测试
+ */
+@DisplayName("NewsTimeline 单元测试")
+class NewsTimelineTest {
+
+    private static NewsDto news(String slug, String publishedAt) {
+        NewsDto news = new NewsDto();
+        news.setTitle(slug);
+        news.setUrl("https://example.com/" + slug);
+        news.setPublishedAt(publishedAt);
+        return news;
+    }
+
+    private static Map<String, List<NewsDto>> feeds() {
+        Map<String, List<NewsDto>> feeds = new LinkedHashMap<>();
+        feeds.put("technology", List.of(
+                news("t1", "2024-01-01T12:00:00Z"),
+                news("t2", "2024-01-01T09:00:00Z"),
+                news("t3", "2024-01-01T06:00:00Z")));
+        feeds.put("business", List.of(
+                news("b1", "2024-01-01T11:00:00Z"),
+                news("shared", "2024-01-01T08:00:00Z")));
+        feeds.put("science", List.of(
+                news("shared", "2024-01-01T08:00:00Z"),
+                news("s1", "2024-01-01T07:00:00Z")));
+        return feeds;
+    }
+
+    @Test
+    @DisplayName("多类别按发布时间倒序归并，跨类别重复的新闻只出现一次")
+    void merge_ordersByPublishedAtAndDedupes() {
+        NewsPage page = NewsTimeline.merge(feeds(), null, 10);
+
+        assertThat(page.getItems()).extracting(NewsDto::getTitle)
+                .containsExactly("t1", "b1", "t2", "shared", "s1", "t3");
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("游标分页 - 逐页读取与一次读取结果一致")
+    void merge_cursorPagination_coversTimelineOnce() {
+        List<String> titles = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            NewsPage page = NewsTimeline.merge(feeds(), cursor, 2);
+            assertThat(page.getItems()).hasSizeLessThanOrEqualTo(2);
+            page.getItems().forEach(item -> titles.add(item.getTitle()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(titles).containsExactly("t1", "b1", "t2", "shared", "s1", "t3");
+        assertThat(pages).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("类别内顺序错乱时仍按发布时间排列")
+    void merge_unsortedFeed_sorted() {
+        Map<String, List<NewsDto>> feeds = Map.of("health", List.of(
+                news("old", "2024-01-01T01:00:00Z"),
+                news("new", "2024-01-02T01:00:00Z")));
+
+        assertThat(NewsTimeline.merge(feeds, null, 10).getItems())
+                .extracting(NewsDto::getTitle).containsExactly("new", "old");
+    }
+
+    @Test
+    @DisplayName("页大小超出上限时按上限截断")
+    void merge_pageSizeClamped() {
+        List<NewsDto> many = new ArrayList<>();
+        for (int i = 0; i < NewsTimeline.MAX_PAGE_SIZE + 20; i++) {
+            many.add(news("n" + i, "2024-01-01T00:00:00Z"));
+        }
+
+        NewsPage page = NewsTimeline.merge(Map.of("general", many), null, 1_000);
+
+        assertThat(page.getItems()).hasSize(NewsTimeline.MAX_PAGE_SIZE);
+        assertThat(page.getNextCursor()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("无效游标 - 抛出业务异常")
+    void merge_invalidCursor_throws() {
+        assertThatThrownBy(() -> NewsTimeline.merge(feeds(), "not-a-cursor!", 10))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("无效的分页游标");
+    }
+}
@@ -0,0 +1,402 @@
+package com.newsapp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * NotificationPushService 单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("NotificationPushService 单元测试")
+class NotificationPushServiceTest {
+
+    private static final long SEND_TIMEOUT_MS = 1000;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ZSetOperations<String, String> zSetOperations;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+    private SimpleMeterRegistry meterRegistry;
+    private NotificationPushService pushService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        lenient().when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        pushService = new NotificationPushService(redisTemplate, objectMapper, meterRegistry,
+                "notifications:push", 60_000, 2, 3, 90_000);
+    }
+
+    /**
+     * 记录写出的事件；release 之前每次写入都阻塞，模拟慢客户端
+     */
+    private static class SlowEmitter extends SseEmitter {
+
+        private final CountDownLatch released = new CountDownLatch(1);
+        private final AtomicInteger writing = new AtomicInteger();
+        private final AtomicInteger maxConcurrentWrites = new AtomicInteger();
+        private final List<String> written = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            maxConcurrentWrites.accumulateAndGet(writing.incrementAndGet(), Math::max);
+            try {
+                released.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            } finally {
+                writing.decrementAndGet();
+            }
+            written.add(builder.build().stream()
+                    .map(part -> part.getData().toString())
+                    .collect(Collectors.joining()));
+        }
+
+        void release() {
+            released.countDown();
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        pushService.shutdown();
+    }
+
+    @Test
+    @DisplayName("打开连接 - 立即推送未读数")
+    void register_sendsUnreadCount() throws IOException {
+        SseEmitter emitter = mock(SseEmitter.class);
+
+        pushService.register(1L, "jti-1", emitter, 3);
+
+        verify(emitter, timeout(SEND_TIMEOUT_MS)).send(any(SseEmitter.SseEventBuilder.class));
+        assertThat(pushService.connectionCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("打开连接 - 加入在线集合，过期时间为当前时间加有效期")
+    void register_marksOnline() {
+        long before = System.currentTimeMillis();
+
+        pushService.register(1L, "jti-1", mock(SseEmitter.class), 0);
+
+        ArgumentCaptor<Set<ZSetOperations.TypedTuple<String>>> members = ArgumentCaptor.forClass(Set.class);
+        verify(zSetOperations).add(eq(NotificationPushService.PRESENCE_KEY), members.capture());
+        assertThat(members.getValue()).singleElement().satisfies(member -> {
+            assertThat(member.getValue()).isEqualTo("1");
+            assertThat(member.getScore()).isGreaterThanOrEqualTo(before + 90_000.0);
+        });
+    }
+
+    @Test
+    @DisplayName("心跳 - 为本节点的用户续期并清理过期成员")
+    void heartbeat_refreshesPresence() {
+        pushService.register(1L, "jti-1", mock(SseEmitter.class), 0);
+        pushService.register(2L, "jti-2", mock(SseEmitter.class), 0);
+        clearInvocations(zSetOperations);
+
+        pushService.heartbeat();
+
+        ArgumentCaptor<Set<ZSetOperations.TypedTuple<String>>> members = ArgumentCaptor.forClass(Set.class);
+        verify(zSetOperations).add(eq(NotificationPushService.PRESENCE_KEY), members.capture());
+        assertThat(members.getValue()).extracting(ZSetOperations.TypedTuple::getValue)
+                .containsExactlyInAnyOrder("1", "2");
+        verify(zSetOperations).removeRangeByScore(eq(NotificationPushService.PRESENCE_KEY), eq(0.0), anyDouble());
+    }
+
+    @Test
+    @DisplayName("筛选在线用户 - 一次 ZMSCORE，只保留未过期的成员")
+    void filterOnline_keepsUnexpiredMembers() {
+        double future = System.currentTimeMillis() + 60_000.0;
+        when(zSetOperations.score(NotificationPushService.PRESENCE_KEY, "1", "2", "3"))
+                .thenReturn(Arrays.asList(future, null, 1.0));
+
+        assertThat(pushService.filterOnline(List.of(1L, 2L, 3L))).containsExactly(1L);
+    }
+
+    @Test
+    @DisplayName("筛选在线用户 - Redis 不可用时全部保留，由各节点按本地连接过滤")
+    void filterOnline_redisDown_keepsAll() {
+        when(zSetOperations.score(anyString(), any(Object[].class)))
+                .thenThrow(new RedisConnectionFailureException("down"));
+
+        assertThat(pushService.filterOnline(List.of(1L, 2L))).containsExactly(1L, 2L);
+    }
+
+    @Test
+    @DisplayName("群发批次 - 整批只发布一条消息")
+    void publishMessageBatch_publishesOnce() throws Exception {
+        NotificationPushService.MessageBatch batch = new NotificationPushService.MessageBatch(
+                List.of(1L, 2L), List.of(100L, 101L), Arrays.asList(4L, null), "系统通知", "system", 9L,
+                LocalDateTime.of(2024, 1, 1, 12, 0, 0, 123_456_000));
+
+        pushService.publishMessageBatch(batch);
+
+        ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).convertAndSend(eq("notifications:push"), payload.capture());
+        NotificationPushService.Push push = objectMapper.readValue(payload.getValue(), NotificationPushService.Push.class);
+        assertThat(push.userId()).isNull();
+        assertThat(push.event()).isEqualTo(NotificationPushService.EVENT_MESSAGE_BATCH);
+        assertThat(objectMapper.readValue(push.data(), NotificationPushService.MessageBatch.class)).isEqualTo(batch);
+    }
+
+    @Test
+    @DisplayName("收到群发批次 - 只推给本节点上有连接的用户，计数存在时先推未读数")
+    void deliver_messageBatch_onlyLocalUsers() throws Exception {
+        SlowEmitter first = new SlowEmitter();
+        SlowEmitter second = new SlowEmitter();
+        SseEmitter other = mock(SseEmitter.class);
+        pushService.register(1L, "jti-1", first, 0);
+        pushService.register(2L, "jti-2", second, 0);
+        pushService.register(5L, "jti-5", other, 0);
+        NotificationPushService.MessageBatch batch = new NotificationPushService.MessageBatch(
+                List.of(1L, 2L, 3L), List.of(100L, 101L, 102L), Arrays.asList(4L, null, 7L), "系统通知", "system", 9L,
+                LocalDateTime.of(2024, 1, 1, 12, 0));
+
+        pushService.deliver(new NotificationPushService.Push(null, NotificationPushService.EVENT_MESSAGE_BATCH,
+                objectMapper.writeValueAsString(batch)));
+        first.release();
+        second.release();
+
+        await(() -> first.written.size() == 3 && second.written.size() == 2);
+        assertThat(first.written.get(1)).contains("{\"count\":4}");
+        assertThat(first.written.get(2)).contains("\"id\":100").contains("系统通知");
+        assertThat(second.written.get(1)).contains("\"id\":101");
+        verify(other, after(100).times(1)).send(any(SseEmitter.SseEventBuilder.class));
+    }
+
+    @Test
+    @DisplayName("打开连接 - 超时不晚于访问令牌过期")
+    void subscribe_timeoutCappedAtTokenExpiry() {
+        SseEmitter shortLived = pushService.subscribe(1L, "jti-1", Instant.now().plusSeconds(5), 0);
+        SseEmitter longLived = pushService.subscribe(2L, "jti-2", Instant.now().plusSeconds(3600), 0);
+
+        assertThat(shortLived.getTimeout()).isBetween(4_000L, 5_000L);
+        assertThat(longLived.getTimeout()).isEqualTo(60_000L);
+    }
+
+    @Test
+    @DisplayName("登出 - 通过频道通知各节点关闭该令牌打开的连接")
+    void disconnect_publishes() throws Exception {
+        pushService.disconnect(1L, "jti-1");
+
+        ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).convertAndSend(eq("notifications:push"), payload.capture());
+        assertThat(objectMapper.readValue(payload.getValue(), NotificationPushService.Push.class))
+                .isEqualTo(new NotificationPushService.Push(1L, NotificationPushService.EVENT_DISCONNECT, "jti-1"));
+    }
+
+    @Test
+    @DisplayName("收到关闭通知 - 只关闭该令牌打开的连接，不推送给客户端")
+    void deliver_disconnect_closesTokenConnections() throws IOException {
+        SseEmitter loggedOut = mock(SseEmitter.class);
+        SseEmitter otherDevice = mock(SseEmitter.class);
+        pushService.register(1L, "jti-1", loggedOut, 0);
+        pushService.register(1L, "jti-9", otherDevice, 0);
+
+        pushService.deliver(new NotificationPushService.Push(1L, NotificationPushService.EVENT_DISCONNECT, "jti-1"));
+
+        verify(loggedOut).complete();
+        verify(otherDevice, never()).complete();
+        verify(otherDevice, after(100).times(1)).send(any(SseEmitter.SseEventBuilder.class));
+        assertThat(pushService.connectionCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("超过每个用户的连接上限 - 关闭最早的连接")
+    void register_overLimit_closesOldest() {
+        SseEmitter first = mock(SseEmitter.class);
+        SseEmitter second = mock(SseEmitter.class);
+        SseEmitter third = mock(SseEmitter.class);
+
+        pushService.register(1L, "jti-1", first, 0);
+        pushService.register(1L, "jti-1", second, 0);
+        pushService.register(1L, "jti-1", third, 0);
+
+        verify(first).complete();
+        verify(second, never()).complete();
+        assertThat(pushService.connectionCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("用户推送 - 只写到该用户的连接")
+    void deliver_toUser() throws IOException {
+        SseEmitter mine = mock(SseEmitter.class);
+        SseEmitter other = mock(SseEmitter.class);
+        pushService.register(1L, "jti-1", mine, 0);
+        pushService.register(2L, "jti-2", other, 0);
+
+        pushService.deliver(new NotificationPushService.Push(1L, "message", "{}"));
+
+        verify(mine, timeout(SEND_TIMEOUT_MS).times(2)).send(any(SseEmitter.SseEventBuilder.class));
+        verify(other, after(100).times(1)).send(any(SseEmitter.SseEventBuilder.class));
+    }
+
+    @Test
+    @DisplayName("广播推送 - 写到所有连接")
+    void deliver_toAll() throws IOException {
+        SseEmitter first = mock(SseEmitter.class);
+        SseEmitter second = mock(SseEmitter.class);
+        pushService.register(1L, "jti-1", first, 0);
+        pushService.register(2L, "jti-2", second, 0);
+
+        pushService.deliver(new NotificationPushService.Push(null, "announcement", "{}"));
+
+        verify(first, timeout(SEND_TIMEOUT_MS).times(2)).send(any(SseEmitter.SseEventBuilder.class));
+        verify(second, timeout(SEND_TIMEOUT_MS).times(2)).send(any(SseEmitter.SseEventBuilder.class));
+    }
+
+    @Test
+    @DisplayName("慢客户端 - 同一连接只有一个写线程，事件按发布顺序写出")
+    void deliver_slowClient_writesInOrder() {
+        pushService.shutdown();
+        pushService = new NotificationPushService(redisTemplate, objectMapper, meterRegistry,
+                "notifications:push", 60_000, 2, 100, 90_000);
+        SlowEmitter emitter = new SlowEmitter();
+        pushService.register(1L, "jti-1", emitter, 0);
+
+        for (int i = 0; i < 20; i++) {
+            pushService.deliver(new NotificationPushService.Push(1L, "message", "{\"seq\":" + i + "}"));
+        }
+        emitter.release();
+
+        await(() -> emitter.written.size() == 21);
+        assertThat(emitter.maxConcurrentWrites.get()).isEqualTo(1);
+        assertThat(emitter.written.get(0)).contains("unread-count");
+        for (int i = 0; i < 20; i++) {
+            assertThat(emitter.written.get(i + 1)).contains("{\"seq\":" + i + "}");
+        }
+    }
+
+    @Test
+    @DisplayName("积压超过上限 - 关闭连接")
+    void deliver_overPendingLimit_closesConnection() {
+        SlowEmitter emitter = spy(new SlowEmitter());
+        pushService.register(1L, "jti-1", emitter, 0);
+        // 未读数正在写（阻塞），之后的事件排队
+        await(() -> emitter.writing.get() == 1);
+
+        for (int i = 0; i < 4; i++) {
+            pushService.deliver(new NotificationPushService.Push(1L, "message", "{}"));
+        }
+
+        verify(emitter).complete();
+        assertThat(pushService.connectionCount()).isZero();
+        assertThat(meterRegistry.get("notifications.sse.overflow").counter().count()).isEqualTo(1);
+        emitter.release();
+    }
+
+    @Test
+    @DisplayName("写入失败 - 移除连接")
+    void send_failure_removesConnection() throws Exception {
+        CompletableFuture<Throwable> failure = new CompletableFuture<>();
+        SseEmitter emitter = new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) throws IOException {
+                throw new IOException("broken pipe");
+            }
+
+            @Override
+            public synchronized void completeWithError(Throwable ex) {
+                failure.complete(ex);
+            }
+        };
+
+        pushService.register(1L, "jti-1", emitter, 0);
+
+        assertThat(failure.get(SEND_TIMEOUT_MS, TimeUnit.MILLISECONDS)).isInstanceOf(IOException.class);
+        assertThat(pushService.connectionCount()).isZero();
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + SEND_TIMEOUT_MS;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("等待超时").isLessThan(deadline);
+            Thread.onSpinWait();
+        }
+    }
+
+    @Test
+    @DisplayName("在事务中 - 提交后才发布")
+    void publish_inTransaction_afterCommit() throws Exception {
+        TransactionSynchronizationManager.initSynchronization();
+
+        pushService.publishToUser(1L, "message", Map.of("id", 5));
+        verifyNoInteractions(redisTemplate);
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).convertAndSend(eq("notifications:push"), payload.capture());
+        NotificationPushService.Push push = objectMapper.readValue(payload.getValue(), NotificationPushService.Push.class);
+        assertThat(push).isEqualTo(new NotificationPushService.Push(1L, "message", "{\"id\":5}"));
+    }
+
+    @Test
+    @DisplayName("Redis 不可用 - 推送给本节点的连接")
+    void publish_redisDown_deliversLocally() throws IOException {
+        SseEmitter emitter = mock(SseEmitter.class);
+        pushService.register(1L, "jti-1", emitter, 0);
+        when(redisTemplate.convertAndSend(anyString(), anyString()))
+                .thenThrow(new RedisConnectionFailureException("down"));
+
+        pushService.publishUnreadCount(1L, 4);
+
+        verify(emitter, timeout(SEND_TIMEOUT_MS).times(2)).send(any(SseEmitter.SseEventBuilder.class));
+    }
+
+    @Test
+    @DisplayName("收到频道消息 - 推送给本节点的连接")
+    void onMessage_delivers() throws IOException {
+        SseEmitter emitter = mock(SseEmitter.class);
+        pushService.register(1L, "jti-1", emitter, 0);
+        byte[] body = "{\"userId\":1,\"event\":\"unread-count\",\"data\":\"{\\\"count\\\":2}\"}"
+                .getBytes(StandardCharsets.UTF_8);
+
+        pushService.onMessage(new DefaultMessage("notifications:push".getBytes(StandardCharsets.UTF_8), body), null);
+
+        verify(emitter, timeout(SEND_TIMEOUT_MS).times(2)).send(any(SseEmitter.SseEventBuilder.class));
+    }
+}
@@ -0,0 +1,110 @@
+package com.newsapp.service;
+
+import com.newsapp.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * PasswordRehashService 单元测试
+ * 使用与 SecurityConfig 相同结构的编码器，cost 取最低值以加快测试
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PasswordRehashService 单元测试")
+class PasswordRehashServiceTest {
+
+    private static final String RAW = "Password123";
+
+    @Mock
+    private UserRepository userRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PasswordEncoder encoder;
+    private PasswordRehashService service;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        encoder = encoder(5);
+        service = new PasswordRehashService(userRepository, encoder, meterRegistry, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    @DisplayName("当前强度的哈希 - 不重新哈希")
+    void currentHash_skipped() {
+        service.rehashIfNeeded(1L, encoder.encode(RAW), RAW);
+
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    @DisplayName("cost 较低的哈希 - 后台升级并以旧哈希为条件写回")
+    void weakerCost_upgraded() {
+        String weak = encoder(4).encode(RAW);
+        when(userRepository.updatePasswordIfUnchanged(eq(1L), eq(weak), anyString())).thenReturn(1);
+
+        service.rehashIfNeeded(1L, weak, RAW);
+
+        ArgumentCaptor<String> newHash = ArgumentCaptor.forClass(String.class);
+        verify(userRepository, timeout(5_000)).updatePasswordIfUnchanged(eq(1L), eq(weak), newHash.capture());
+        assertThat(newHash.getValue()).startsWith("{bcrypt}$2a$05$");
+        assertThat(encoder.matches(RAW, newHash.getValue())).isTrue();
+        assertThat(encoder.upgradeEncoding(newHash.getValue())).isFalse();
+    }
+
+    @Test
+    @DisplayName("没有算法前缀的旧哈希 - 仍可校验，登录后补上前缀")
+    void legacyHash_upgraded() {
+        String legacy = new BCryptPasswordEncoder(5).encode(RAW);
+        when(userRepository.updatePasswordIfUnchanged(eq(1L), eq(legacy), anyString())).thenReturn(1);
+
+        assertThat(encoder.matches(RAW, legacy)).isTrue();
+        service.rehashIfNeeded(1L, legacy, RAW);
+
+        verify(userRepository, timeout(5_000)).updatePasswordIfUnchanged(eq(1L), eq(legacy), startsWith("{bcrypt}"));
+    }
+
+    @Test
+    @DisplayName("重新哈希期间密码已修改 - 不覆盖")
+    void changedMeanwhile_notOverwritten() {
+        String weak = encoder(4).encode(RAW);
+        when(userRepository.updatePasswordIfUnchanged(eq(1L), eq(weak), anyString())).thenReturn(0);
+
+        service.rehashIfNeeded(1L, weak, RAW);
+
+        // shutdown 等待后台任务结束
+        service.shutdown();
+        verify(userRepository).updatePasswordIfUnchanged(eq(1L), eq(weak), anyString());
+        assertThat(meterRegistry.get("auth.password.rehash").tag("outcome", "stale").counter().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("auth.password.rehash").tag("outcome", "upgraded").counter().count())
+                .isZero();
+    }
+
+    private static PasswordEncoder encoder(int cost) {
+        DelegatingPasswordEncoder delegating =
+                new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", new BCryptPasswordEncoder(cost)));
+        delegating.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+        return delegating;
+    }
+}
@@ -0,0 +1,143 @@
+package com.newsapp.service;
+
+import com.newsapp.entity.RefreshToken;
+import com.newsapp.exception.BusinessException;
+import com.newsapp.repository.RefreshTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * RefreshTokenService 单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RefreshTokenService 单元测试")
+class RefreshTokenServiceTest {
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @InjectMocks
+    private RefreshTokenService refreshTokenService;
+
+    /**
+     * 按哈希保存的令牌，模拟数据库
+     */
+    private final Map<String, RefreshToken> stored = new HashMap<>();
+    private final List<RefreshToken> saved = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(refreshTokenService, "refreshExpirationMs", 3_600_000L);
+        lenient().when(refreshTokenRepository.save(any(RefreshToken.class))).thenAnswer(invocation -> {
+            RefreshToken token = invocation.getArgument(0);
+            stored.put(token.getTokenHash(), token);
+            if (!saved.contains(token)) {
+                saved.add(token);
+            }
+            return token;
+        });
+        lenient().when(refreshTokenRepository.findByTokenHashForUpdate(anyString()))
+                .thenAnswer(invocation -> Optional.ofNullable(stored.get(invocation.<String>getArgument(0))));
+    }
+
+    @Nested
+    @DisplayName("签发令牌")
+    class IssueTests {
+
+        @Test
+        @DisplayName("只保存令牌的哈希")
+        void issue_storesHashOnly() {
+            RefreshTokenService.IssuedToken issued = refreshTokenService.issue(1L);
+
+            ArgumentCaptor<RefreshToken> captor = ArgumentCaptor.forClass(RefreshToken.class);
+            verify(refreshTokenRepository).save(captor.capture());
+            RefreshToken saved = captor.getValue();
+            assertThat(saved.getUserId()).isEqualTo(1L);
+            assertThat(saved.getTokenHash()).hasSize(64).isNotEqualTo(issued.token());
+            assertThat(saved.getExpiresAt()).isAfter(LocalDateTime.now().plusMinutes(59));
+            assertThat(issued.expiresIn()).isEqualTo(3_600_000L);
+        }
+
+        @Test
+        @DisplayName("每次登录是新的令牌家族")
+        void issue_newFamilyPerLogin() {
+            refreshTokenService.issue(1L);
+            refreshTokenService.issue(1L);
+
+            assertThat(saved).extracting(RefreshToken::getFamilyId).doesNotHaveDuplicates();
+        }
+    }
+
+    @Nested
+    @DisplayName("轮换令牌")
+    class RotateTests {
+
+        @Test
+        @DisplayName("成功 - 旧令牌标记为已使用，新令牌属于同一家族")
+        void rotate_success() {
+            RefreshTokenService.IssuedToken first = refreshTokenService.issue(1L);
+
+            RefreshTokenService.IssuedToken second = refreshTokenService.rotate(first.token());
+
+            assertThat(second.userId()).isEqualTo(1L);
+            assertThat(second.token()).isNotEqualTo(first.token());
+            assertThat(saved.get(1).getFamilyId()).isEqualTo(saved.get(0).getFamilyId());
+            assertThat(saved.get(0).getUsedAt()).isNotNull();
+            assertThat(saved.get(1).getUsedAt()).isNull();
+        }
+
+        @Test
+        @DisplayName("重复使用 - 作废整个家族")
+        void rotate_reuse_revokesFamily() {
+            RefreshTokenService.IssuedToken first = refreshTokenService.issue(1L);
+            refreshTokenService.rotate(first.token());
+            String familyId = saved.get(0).getFamilyId();
+
+            assertThatThrownBy(() -> refreshTokenService.rotate(first.token()))
+                    .isInstanceOf(BusinessException.class)
+                    .hasMessageContaining("请重新登录");
+            verify(refreshTokenRepository).revokeFamily(familyId);
+        }
+
+        @Test
+        @DisplayName("已作废或已过期 - 拒绝")
+        void rotate_revokedOrExpired_rejected() {
+            RefreshTokenService.IssuedToken revoked = refreshTokenService.issue(1L);
+            saved.get(0).setRevoked(true);
+            RefreshTokenService.IssuedToken expired = refreshTokenService.issue(1L);
+            saved.get(1).setExpiresAt(LocalDateTime.now().minusSeconds(1));
+
+            assertThatThrownBy(() -> refreshTokenService.rotate(revoked.token())).isInstanceOf(BusinessException.class);
+            assertThatThrownBy(() -> refreshTokenService.rotate(expired.token())).isInstanceOf(BusinessException.class);
+            verify(refreshTokenRepository, never()).revokeFamily(anyString());
+        }
+
+        @Test
+        @DisplayName("未知令牌 - 拒绝")
+        void rotate_unknown_rejected() {
+            assertThatThrownBy(() -> refreshTokenService.rotate("unknown"))
+                    .isInstanceOf(BusinessException.class)
+                    .hasMessageContaining("无效");
+        }
+    }
+}
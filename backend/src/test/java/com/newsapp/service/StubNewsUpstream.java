@@ -0,0 +1,65 @@
+package com.newsapp.service;
+
+import com.newsapp.dto.NewsDto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 本地桩上游
+ * 代替 NewsAPI 返回固定新闻，可按类别模拟失败，并记录调用次数
+ */
+public class StubNewsUpstream implements NewsUpstream {
+
+    private final Map<String, List<NewsDto>> responses = new ConcurrentHashMap<>();
+    private final Map<String, RuntimeException> failures = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> calls = new ConcurrentHashMap<>();
+
+    /**
+     * 设置类别返回的新闻条数，标题为 "{category}-{序号}"
+     */
+    public StubNewsUpstream respond(String category, int count) {
+        List<NewsDto> news = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            NewsDto dto = new NewsDto();
+            dto.setTitle(category + "-" + i);
+            dto.setUrl("https://example.com/" + category + "/" + i);
+            dto.setPublishedAt("2024-01-01T12:00:0" + (i % 10) + "Z");
+            dto.setSource("Stub");
+            dto.setCategory(category);
+            news.add(dto);
+        }
+        responses.put(category, news);
+        failures.remove(category);
+        return this;
+    }
+
+    /**
+     * 让类别的请求失败
+     */
+    public StubNewsUpstream fail(String category) {
+        failures.put(category, new RuntimeException("获取新闻失败: stub upstream down"));
+        return this;
+    }
+
+    /**
+     * 获取类别被请求的次数
+     */
+    public int callCount(String category) {
+        AtomicInteger count = calls.get(category);
+        return count != null ? count.get() : 0;
+    }
+
+    @Override
+    public List<NewsDto> fetchTopHeadlines(String category) {
+        calls.computeIfAbsent(category, key -> new AtomicInteger()).incrementAndGet();
+        RuntimeException failure = failures.get(category);
+        if (failure != null) {
+            throw failure;
+        }
+        return responses.getOrDefault(category, List.of());
+    }
+}
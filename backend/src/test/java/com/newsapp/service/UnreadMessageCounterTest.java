@@ -0,0 +1,207 @@
+package com.newsapp.service;
+
+import com.newsapp.repository.MessageRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * UnreadMessageCounter 单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UnreadMessageCounter 单元测试")
+class UnreadMessageCounterTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @Mock
+    private MessageRepository messageRepository;
+
+    @Mock
+    private NotificationPushService pushService;
+
+    @Mock
+    private Cursor<String> cursor;
+
+    private SimpleMeterRegistry meterRegistry;
+    private UnreadMessageCounter counter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        counter = new UnreadMessageCounter(redisTemplate, messageRepository, pushService, meterRegistry, 60_000, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("计数存在 - 直接返回，不统计表")
+    void get_hit() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get("messages:unread:1")).thenReturn("5");
+
+        assertThat(counter.get(1L)).isEqualTo(5);
+        verifyNoInteractions(messageRepository);
+    }
+
+    @Test
+    @DisplayName("计数不存在 - 统计表并写入（不覆盖已写入的值）")
+    void get_miss_loadsFromTable() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(messageRepository.countByUserIdAndIsReadFalse(1L)).thenReturn(3L);
+
+        assertThat(counter.get(1L)).isEqualTo(3);
+        verify(valueOperations).setIfAbsent("messages:unread:1", "3", Duration.ofMillis(60_000));
+    }
+
+    @Test
+    @DisplayName("Redis 不可用 - 直接统计表")
+    void get_redisDown_fallsBackToTable() {
+        when(redisTemplate.opsForValue()).thenThrow(new RedisConnectionFailureException("down"));
+        when(messageRepository.countByUserIdAndIsReadFalse(1L)).thenReturn(4L);
+
+        assertThat(counter.get(1L)).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("不在事务中 - 立即增减")
+    void adjust_withoutTransaction_immediate() {
+        counter.adjustAfterCommit(1L, -2);
+
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of("messages:unread:1")), eq("-2"));
+    }
+
+    @Test
+    @DisplayName("在事务中 - 提交后才增减")
+    void adjust_inTransaction_afterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        counter.adjustAfterCommit(1L, 1);
+        verifyNoInteractions(redisTemplate);
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of("messages:unread:1")), eq("1"));
+    }
+
+    @Test
+    @DisplayName("计数存在 - 推送增减后的值")
+    void adjust_existing_pushesNewValue() {
+        when(redisTemplate.execute(any(RedisScript.class), eq(List.of("messages:unread:1")), eq("1"))).thenReturn(6L);
+
+        counter.adjustAfterCommit(1L, 1);
+
+        verify(pushService).publishUnreadCount(1L, 6);
+        verifyNoInteractions(messageRepository);
+    }
+
+    @Test
+    @DisplayName("计数不存在 - 用户不在线，不推送也不统计表")
+    void adjust_missing_noPush() {
+        counter.adjustAfterCommit(1L, 1);
+
+        verifyNoInteractions(pushService, messageRepository);
+    }
+
+    @Test
+    @DisplayName("减到负数 - 按表重新统计后推送")
+    void adjust_negative_recountsAndPushes() {
+        when(redisTemplate.execute(any(RedisScript.class), eq(List.of("messages:unread:1")), eq("-1"))).thenReturn(-1L);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(messageRepository.countByUserIdAndIsReadFalse(1L)).thenReturn(2L);
+
+        counter.adjustAfterCommit(1L, -1);
+
+        verify(pushService).publishUnreadCount(1L, 2);
+    }
+
+    @Test
+    @DisplayName("批量加一 - 一次管道完成，返回计数存在的用户，不逐个推送")
+    void incrementAll_pipelined() {
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenReturn(Arrays.asList(3L, null));
+
+        Map<Long, Long> updated = counter.incrementAll(List.of(1L, 2L));
+
+        assertThat(updated).containsExactly(entry(1L, 3L));
+        verifyNoInteractions(pushService);
+        verify(redisTemplate, never()).execute(any(RedisScript.class), anyList(), any());
+    }
+
+    @Test
+    @DisplayName("变化量为 0 - 不访问 Redis")
+    void adjust_zero_noop() {
+        counter.adjustAfterCommit(1L, 0);
+
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    @DisplayName("对账 - 删除与表不一致的计数")
+    void reconcile_deletesDrifted() {
+        Iterator<String> keys = List.of("messages:unread:1", "messages:unread:2", "messages:unread:3").iterator();
+        when(redisTemplate.scan(any())).thenReturn(cursor);
+        when(cursor.hasNext()).thenAnswer(invocation -> keys.hasNext());
+        when(cursor.next()).thenAnswer(invocation -> keys.next());
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.multiGet(List.of("messages:unread:1", "messages:unread:2")))
+                .thenReturn(Arrays.asList("2", "0"));
+        when(valueOperations.multiGet(List.of("messages:unread:3"))).thenReturn(Arrays.asList("1"));
+        // 用户 1 实际 2 条（一致），用户 2 实际 1 条（偏少），用户 3 实际 0 条（偏多）
+        when(messageRepository.countUnreadByUserIds(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> userIds = invocation.getArgument(0);
+            return userIds.contains(1L) ? List.of(view(1L, 2L), view(2L, 1L)) : List.of();
+        });
+
+        counter.reconcile();
+
+        verify(redisTemplate).delete(List.of("messages:unread:2"));
+        verify(redisTemplate).delete(List.of("messages:unread:3"));
+        assertThat(meterRegistry.get("messages.unread_counter.drift").counter().count()).isEqualTo(2);
+    }
+
+    private static MessageRepository.UnreadCountView view(Long userId, Long unread) {
+        return new MessageRepository.UnreadCountView() {
+            @Override
+            public Long getUserId() {
+                return userId;
+            }
+
+            @Override
+            public Long getUnread() {
+                return unread;
+            }
+        };
+    }
+}
@@ -0,0 +1,160 @@
+package com.newsapp.service;
+
+import com.newsapp.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * UserIdentityIndex 单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UserIdentityIndex 单元测试")
+class UserIdentityIndexTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    private UserIdentityIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = newIndex(true);
+    }
+
+    @Test
+    @DisplayName("未加载 - 所有值都按可能存在处理")
+    void notLoaded_mightContainEverything() {
+        assertThat(index.mightContainUsername("anyone")).isTrue();
+        assertThat(index.mightContainEmail("anyone@example.com")).isTrue();
+    }
+
+    @Test
+    @DisplayName("分批加载 - 已有值命中，不存在的值判定为未占用")
+    void rebuild_loadsAllBatches() {
+        when(userRepository.findIdentitiesAfter(eq(0L), any()))
+                .thenReturn(List.of(identity(1L, "alice", "alice@example.com"),
+                        identity(2L, "bob", "bob@example.com")));
+        when(userRepository.findIdentitiesAfter(eq(2L), any()))
+                .thenReturn(List.of(identity(5L, "carol", "carol@example.com")));
+
+        index.rebuild();
+
+        verify(userRepository).findIdentitiesAfter(0L, PageRequest.of(0, 2));
+        verify(userRepository).findIdentitiesAfter(2L, PageRequest.of(0, 2));
+        assertThat(index.mightContainUsername("alice")).isTrue();
+        assertThat(index.mightContainUsername("carol")).isTrue();
+        assertThat(index.mightContainEmail("bob@example.com")).isTrue();
+        assertThat(index.mightContainUsername("dave")).isFalse();
+        assertThat(index.mightContainEmail("dave@example.com")).isFalse();
+        // 用户名和邮箱分开索引
+        assertThat(index.mightContainEmail("alice")).isFalse();
+    }
+
+    @Test
+    @DisplayName("按数据库排序规则匹配 - 忽略大小写、重音和末尾空格")
+    void rebuild_matchesCollationEquivalents() {
+        when(userRepository.findIdentitiesAfter(eq(0L), any()))
+                .thenReturn(List.of(identity(1L, "José", "Jose@Example.com")));
+
+        index.rebuild();
+
+        assertThat(index.mightContainUsername("JOSE")).isTrue();
+        assertThat(index.mightContainUsername("jose ")).isTrue();
+        assertThat(index.mightContainEmail("jose@example.com")).isTrue();
+    }
+
+    @Test
+    @DisplayName("新写入 - 立即可见并广播给其他节点")
+    void add_remembersAndBroadcasts() {
+        when(userRepository.findIdentitiesAfter(eq(0L), any())).thenReturn(List.of());
+        index.rebuild();
+
+        index.add("NewUser", "new@example.com");
+
+        assertThat(index.mightContainUsername("newuser")).isTrue();
+        assertThat(index.mightContainEmail("new@example.com")).isTrue();
+        verify(redisTemplate).convertAndSend("user:identity", "u:newuser\ne:new@example.com\n");
+    }
+
+    @Test
+    @DisplayName("其他节点的写入通知 - 加入本地过滤器")
+    void onMessage_remembersKeys() {
+        when(userRepository.findIdentitiesAfter(eq(0L), any())).thenReturn(List.of());
+        index.rebuild();
+
+        index.onMessage(new DefaultMessage("user:identity".getBytes(StandardCharsets.UTF_8),
+                "u:remote\n".getBytes(StandardCharsets.UTF_8)), null);
+
+        assertThat(index.mightContainUsername("remote")).isTrue();
+        assertThat(index.mightContainEmail("remote")).isFalse();
+    }
+
+    @Test
+    @DisplayName("广播失败 - 本地写入不受影响")
+    void add_broadcastFailure_ignored() {
+        doThrow(new RuntimeException("redis down")).when(redisTemplate).convertAndSend(anyString(), anyString());
+
+        assertThatCode(() -> index.add("someone", null)).doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("加载失败 - 保持未加载，检查回退到数据库")
+    void rebuild_failure_fallsBackToDatabase() {
+        when(userRepository.findIdentitiesAfter(anyLong(), any())).thenThrow(new RuntimeException("db down"));
+
+        index.rebuild();
+
+        assertThat(index.mightContainUsername("anyone")).isTrue();
+    }
+
+    @Test
+    @DisplayName("关闭索引 - 不加载，所有值都按可能存在处理")
+    void disabled_neverLoads() {
+        UserIdentityIndex disabled = newIndex(false);
+
+        disabled.rebuild();
+
+        verifyNoInteractions(userRepository);
+        assertThat(disabled.mightContainUsername("anyone")).isTrue();
+    }
+
+    private UserIdentityIndex newIndex(boolean enabled) {
+        return new UserIdentityIndex(userRepository, redisTemplate, enabled, "user:identity", 1000, 0.001, 2);
+    }
+
+    private static UserRepository.IdentityView identity(Long id, String username, String email) {
+        return new UserRepository.IdentityView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getUsername() {
+                return username;
+            }
+
+            @Override
+            public String getEmail() {
+                return email;
+            }
+        };
+    }
+}
@@ -1,5 +1,6 @@
 package com.newsapp.service;
 
+import com.newsapp.dto.CachedUser;
 import com.newsapp.dto.LoginRequest;
 import com.newsapp.dto.RegisterRequest;
 import com.newsapp.entity.User;
@@ -13,6 +14,9 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.Optional;
@@ -36,6 +40,15 @@ class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private PasswordRehashService passwordRehashService;
+
+    @Mock
+    private UserIdentityIndex userIdentityIndex;
+
+    @Mock
+    private CacheManager cacheManager;
+
     @InjectMocks
     private UserService userService;
 
@@ -70,10 +83,12 @@ class UserServiceTest {
         @DisplayName("注册成功 - 新用户")
         void registerSuccess_newUser() {
             // Given
+            when(userIdentityIndex.mightContainUsername(anyString())).thenReturn(true);
+            when(userIdentityIndex.mightContainEmail(anyString())).thenReturn(true);
             when(userRepository.existsByUsername(anyString())).thenReturn(false);
             when(userRepository.existsByEmail(anyString())).thenReturn(false);
             when(passwordEncoder.encode(anyString())).thenReturn("$2a$10$encoded");
-            when(userRepository.save(any(User.class))).thenReturn(testUser);
+            when(userRepository.saveAndFlush(any(User.class))).thenReturn(testUser);
 
             // When
             User result = userService.register(registerRequest);
@@ -86,13 +101,45 @@ class UserServiceTest {
             verify(userRepository).existsByUsername("testuser");
             verify(userRepository).existsByEmail("test@example.com");
             verify(passwordEncoder).encode("Password123");
-            verify(userRepository).save(any(User.class));
+            verify(userRepository).saveAndFlush(any(User.class));
+            verify(userIdentityIndex).add("testuser", "test@example.com");
+        }
+
+        @Test
+        @DisplayName("注册成功 - 索引判定未占用时不查询数据库")
+        void registerSuccess_indexMiss_skipsExistsQueries() {
+            // Given
+            when(passwordEncoder.encode(anyString())).thenReturn("$2a$10$encoded");
+            when(userRepository.saveAndFlush(any(User.class))).thenReturn(testUser);
+
+            // When
+            userService.register(registerRequest);
+
+            // Then
+            verify(userRepository, never()).existsByUsername(anyString());
+            verify(userRepository, never()).existsByEmail(anyString());
+            verify(userRepository).saveAndFlush(any(User.class));
+        }
+
+        @Test
+        @DisplayName("注册失败 - 并发注册触发唯一约束")
+        void registerFail_uniqueConstraintViolated() {
+            // Given
+            when(passwordEncoder.encode(anyString())).thenReturn("$2a$10$encoded");
+            when(userRepository.saveAndFlush(any(User.class)))
+                .thenThrow(new DataIntegrityViolationException("Duplicate entry 'testuser'"));
+
+            // When & Then
+            assertThatThrownBy(() -> userService.register(registerRequest))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("用户名或邮箱已被注册");
         }
 
         @Test
         @DisplayName("注册失败 - 用户名已存在")
         void registerFail_usernameExists() {
             // Given
+            when(userIdentityIndex.mightContainUsername("testuser")).thenReturn(true);
             when(userRepository.existsByUsername("testuser")).thenReturn(true);
 
             // When & Then
@@ -100,13 +147,15 @@ class UserServiceTest {
                 .isInstanceOf(BusinessException.class)
                 .hasMessage("用户名已存在");
 
-            verify(userRepository, never()).save(any(User.class));
+            verify(userRepository, never()).saveAndFlush(any(User.class));
         }
 
         @Test
         @DisplayName("注册失败 - 邮箱已存在")
         void registerFail_emailExists() {
             // Given
+            when(userIdentityIndex.mightContainUsername("testuser")).thenReturn(true);
+            when(userIdentityIndex.mightContainEmail("test@example.com")).thenReturn(true);
             when(userRepository.existsByUsername("testuser")).thenReturn(false);
             when(userRepository.existsByEmail("test@example.com")).thenReturn(true);
 
@@ -115,17 +164,19 @@ class UserServiceTest {
                 .isInstanceOf(BusinessException.class)
                 .hasMessage("邮箱已被注册");
 
-            verify(userRepository, never()).save(any(User.class));
+            verify(userRepository, never()).saveAndFlush(any(User.class));
         }
 
         @Test
         @DisplayName("注册成功 - 密码被加密")
         void registerSuccess_passwordIsEncoded() {
             // Given
+            when(userIdentityIndex.mightContainUsername(anyString())).thenReturn(true);
+            when(userIdentityIndex.mightContainEmail(anyString())).thenReturn(true);
             when(userRepository.existsByUsername(anyString())).thenReturn(false);
             when(userRepository.existsByEmail(anyString())).thenReturn(false);
             when(passwordEncoder.encode("Password123")).thenReturn("$2a$10$encodedHash");
-            when(userRepository.save(any(User.class))).thenAnswer(invocation -> {
+            when(userRepository.saveAndFlush(any(User.class))).thenAnswer(invocation -> {
                 User user = invocation.getArgument(0);
                 assertThat(user.getPassword()).isEqualTo("$2a$10$encodedHash");
                 return user;
@@ -159,6 +210,8 @@ class UserServiceTest {
 
             verify(userRepository).findByUsername("testuser");
             verify(passwordEncoder).matches("Password123", testUser.getPassword());
+            // 校验通过后交给后台判断是否需要升级哈希
+            verify(passwordRehashService).rehashIfNeeded(1L, testUser.getPassword(), "Password123");
         }
 
         @Test
@@ -186,6 +239,8 @@ class UserServiceTest {
             assertThatThrownBy(() -> userService.login(loginRequest))
                 .isInstanceOf(BusinessException.class)
                 .hasMessage("用户名或密码错误");
+
+            verify(passwordRehashService, never()).rehashIfNeeded(any(), any(), any());
         }
 
         @Test
@@ -204,4 +259,66 @@ class UserServiceTest {
             verify(passwordEncoder).matches("Password123", hashedPassword);
         }
     }
+
+    @Nested
+    @DisplayName("用户资料缓存测试")
+    class CachedUserTests {
+
+        private ConcurrentMapCache cache;
+
+        @BeforeEach
+        void setUp() {
+            cache = new ConcurrentMapCache(UserService.USER_CACHE);
+            when(cacheManager.getCache(UserService.USER_CACHE)).thenReturn(cache);
+        }
+
+        @Test
+        @DisplayName("读取资料 - 只在首次查询数据库")
+        void getCachedUser_loadsOnce() {
+            when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+
+            CachedUser first = userService.getCachedUser(1L);
+            CachedUser second = userService.getCachedUser(1L);
+
+            assertThat(second).isSameAs(first);
+            assertThat(first.username()).isEqualTo("testuser");
+            assertThat(userService.getUserProfile(1L).getEmail()).isEqualTo("test@example.com");
+            verify(userRepository, times(1)).findById(1L);
+        }
+
+        @Test
+        @DisplayName("用户不存在 - 抛出 BusinessException 且不缓存")
+        void getCachedUser_notFound() {
+            when(userRepository.findById(99L)).thenReturn(Optional.empty());
+
+            assertThatThrownBy(() -> userService.getCachedUser(99L))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("用户不存在");
+            assertThat(cache.get(99L)).isNull();
+        }
+
+        @Test
+        @DisplayName("更新头像 - 失效缓存，下次读取到新头像")
+        void updateAvatarUrl_evicts() {
+            when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+            userService.getCachedUser(1L);
+
+            userService.updateAvatarUrl(1L, "/uploads/avatars/new.png");
+
+            assertThat(cache.get(1L)).isNull();
+            assertThat(userService.getCachedUser(1L).avatarUrl()).isEqualTo("/uploads/avatars/new.png");
+        }
+
+        @Test
+        @DisplayName("注销账户 - 失效缓存")
+        void deleteUser_evicts() {
+            cache.put(1L, CachedUser.from(testUser));
+            when(userRepository.existsById(1L)).thenReturn(true);
+
+            userService.deleteUser(1L);
+
+            assertThat(cache.get(1L)).isNull();
+            verify(userRepository).deleteById(1L);
+        }
+    }
 }
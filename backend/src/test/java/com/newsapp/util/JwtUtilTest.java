@@ -1,23 +1,31 @@
 package com.newsapp.util;
 
+import com.newsapp.security.JwtKey;
+import com.newsapp.security.JwtKeyRing;
+import com.newsapp.security.JwtPrincipal;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
-import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Base64;
+import java.util.List;
+import java.util.Date;
+import java.util.Optional;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
  * JWT 工具类单元测试
  */
-@ExtendWith(MockitoExtension.class)
 class JwtUtilTest {
 
-    @InjectMocks
     private JwtUtil jwtUtil;
 
     private static final String TEST_SECRET = "TestSecretKeyForJWTTokenGenerationMustBeLongEnough";
@@ -25,9 +33,11 @@ class JwtUtilTest {
 
     @BeforeEach
     void setUp() {
+        jwtUtil = new JwtUtil(JwtKeyRing.of(List.of(), null, JwtKey.hmac(TEST_SECRET)));
         // 使用反射设置私有字段
-        ReflectionTestUtils.setField(jwtUtil, "jwtSecret", TEST_SECRET);
         ReflectionTestUtils.setField(jwtUtil, "jwtExpiration", TEST_EXPIRATION);
+        ReflectionTestUtils.setField(jwtUtil, "verifyCacheMaximumSize", 100L);
+        ReflectionTestUtils.setField(jwtUtil, "verifyCacheMaxTtlMs", 60000L);
     }
 
     @Test
@@ -109,4 +119,93 @@ class JwtUtilTest {
         assertEquals(1L, jwtUtil.getUserIdFromToken(token1));
         assertEquals(2L, jwtUtil.getUserIdFromToken(token2));
     }
+
+    @Test
+    void testVerify_Valid() {
+        String token = jwtUtil.generateToken("testuser", 7L);
+
+        Optional<JwtPrincipal> principal = jwtUtil.verify(token);
+
+        assertTrue(principal.isPresent());
+        assertEquals(7L, principal.get().userId());
+        assertEquals("testuser", principal.get().username());
+        assertNotNull(principal.get().tokenId());
+        assertNotNull(principal.get().expiresAt());
+    }
+
+    @Test
+    void testVerify_RepeatedTokenHitsCache() {
+        String token = jwtUtil.generateToken("testuser", 7L);
+
+        JwtPrincipal first = jwtUtil.verify(token).orElseThrow();
+        JwtPrincipal second = jwtUtil.verify(token).orElseThrow();
+
+        assertSame(first, second);
+    }
+
+    @Test
+    void testVerify_CacheDisabled() {
+        ReflectionTestUtils.setField(jwtUtil, "verifyCacheMaximumSize", 0L);
+        String token = jwtUtil.generateToken("testuser", 7L);
+
+        JwtPrincipal first = jwtUtil.verify(token).orElseThrow();
+        JwtPrincipal second = jwtUtil.verify(token).orElseThrow();
+
+        assertNotSame(first, second);
+        assertEquals(first, second);
+    }
+
+    @Test
+    void testVerify_TamperedPayloadWithCachedSignature() {
+        String token = jwtUtil.generateToken("testuser", 7L);
+        assertTrue(jwtUtil.verify(token).isPresent());
+
+        // 保留已缓存 token 的签名，换成另一个用户的载荷
+        String[] parts = token.split("\\.");
+        String forgedPayload = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                "{\"sub\":\"admin\",\"userId\":1,\"exp\":9999999999}".getBytes(StandardCharsets.UTF_8));
+        String forged = parts[0] + "." + forgedPayload + "." + parts[2];
+
+        assertFalse(jwtUtil.verify(forged).isPresent());
+    }
+
+    @Test
+    void testVerify_Expired() {
+        String expired = Jwts.builder()
+                .setSubject("testuser")
+                .claim("userId", 7L)
+                .setIssuedAt(new Date(System.currentTimeMillis() - 20000))
+                .setExpiration(new Date(System.currentTimeMillis() - 10000))
+                .signWith(Keys.hmacShaKeyFor(TEST_SECRET.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS256)
+                .compact();
+
+        assertFalse(jwtUtil.verify(expired).isPresent());
+    }
+
+    @Test
+    void testVerify_Invalid() {
+        assertFalse(jwtUtil.verify("invalid.token.string").isPresent());
+        assertFalse(jwtUtil.verify("").isPresent());
+        assertFalse(jwtUtil.verify(null).isPresent());
+    }
+
+    @Test
+    void testGenerateToken_AsymmetricKeyCarriesKid() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        KeyPair pair = generator.generateKeyPair();
+        JwtKey ecKey = JwtKey.asymmetric("2026-10-es256", pair.getPrivate(), pair.getPublic());
+        JwtUtil ecUtil = new JwtUtil(JwtKeyRing.of(List.of(ecKey), null, null));
+        ReflectionTestUtils.setField(ecUtil, "jwtExpiration", TEST_EXPIRATION);
+        ReflectionTestUtils.setField(ecUtil, "verifyCacheMaximumSize", 100L);
+        ReflectionTestUtils.setField(ecUtil, "verifyCacheMaxTtlMs", 60000L);
+
+        String token = ecUtil.generateToken("testuser", 7L);
+        JwtPrincipal principal = ecUtil.verify(token).orElseThrow();
+
+        assertEquals("2026-10-es256", principal.keyId());
+        assertEquals(7L, principal.userId());
+        // 没有配置旧版 HS256 密钥时不接受 HS256 token
+        assertFalse(ecUtil.verify(jwtUtil.generateToken("testuser", 7L)).isPresent());
+    }
 }
@@ -0,0 +1,73 @@
+package com.newsapp.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.newsapp.benchmark.NewsApiPayloads;
+import com.newsapp.dto.NewsDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * NewsApiParser 单元测试
+ */
+@DisplayName("NewsApiParser 单元测试")
+class NewsApiParserTest {
+
+    private final NewsApiParser parser = new NewsApiParser(new ObjectMapper());
+
+    private static InputStream stream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("流式解析与树解析结果一致")
+    void parseStream_matchesTreeParse() throws IOException {
+        String json = NewsApiPayloads.topHeadlines(25);
+
+        List<NewsDto> streamed = parser.parseStream(stream(json));
+        List<NewsDto> tree = parser.parseTree(json);
+
+        assertThat(streamed).hasSize(25);
+        assertThat(streamed).usingRecursiveFieldByFieldElementComparator().isEqualTo(tree);
+        assertThat(streamed.get(3).getSource()).isEqualTo("Source 3");
+    }
+
+    @Test
+    @DisplayName("null 和缺失字段解析为空字符串")
+    void parseStream_nullAndMissingFields() throws IOException {
+        String json = "{\"status\":\"ok\",\"articles\":[{\"source\":{\"id\":null,\"name\":null},"
+                + "\"title\":\"T\",\"description\":null,\"extra\":{\"nested\":[1,2]}}]}";
+
+        List<NewsDto> streamed = parser.parseStream(stream(json));
+
+        assertThat(streamed).usingRecursiveFieldByFieldElementComparator().isEqualTo(parser.parseTree(json));
+        assertThat(streamed.get(0).getDescription()).isEmpty();
+        assertThat(streamed.get(0).getUrl()).isEmpty();
+        assertThat(streamed.get(0).getSource()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("articles 出现在 status 之前也能解析")
+    void parseStream_fieldOrderIndependent() throws IOException {
+        String json = "{\"articles\":[{\"title\":\"A\"}],\"totalResults\":1,\"status\":\"ok\"}";
+
+        assertThat(parser.parseStream(stream(json))).extracting(NewsDto::getTitle).containsExactly("A");
+    }
+
+    @Test
+    @DisplayName("NewsAPI 返回错误状态时抛出异常")
+    void parseStream_errorStatus_throws() {
+        String json = "{\"status\":\"error\",\"code\":\"apiKeyInvalid\",\"message\":\"Your API key is invalid\"}";
+
+        assertThatThrownBy(() -> parser.parseStream(stream(json)))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Your API key is invalid");
+    }
+}
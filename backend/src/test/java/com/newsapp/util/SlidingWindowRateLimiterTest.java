@@ -0,0 +1,119 @@
+package com.newsapp.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * SlidingWindowRateLimiter 单元测试
+ */
+@DisplayName("SlidingWindowRateLimiter 单元测试")
+class SlidingWindowRateLimiterTest {
+
+    private AtomicLong nanos;
+    private SlidingWindowRateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        nanos = new AtomicLong(0);
+        // 每 10 秒 4 次
+        limiter = new SlidingWindowRateLimiter(4, Duration.ofSeconds(10), 1_000, nanos::get);
+    }
+
+    private void advanceMs(long ms) {
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(ms));
+    }
+
+    @Test
+    @DisplayName("窗口内超出限额 - 拒绝且不计数")
+    void overLimit_rejected() {
+        for (int i = 0; i < 4; i++) {
+            assertThat(limiter.tryAcquire("a")).isTrue();
+        }
+        assertThat(limiter.tryAcquire("a")).isFalse();
+        assertThat(limiter.estimate("a")).isEqualTo(4.0);
+    }
+
+    @Test
+    @DisplayName("不同的键分别计数")
+    void keys_independent() {
+        for (int i = 0; i < 4; i++) {
+            limiter.tryAcquire("a");
+        }
+        assertThat(limiter.tryAcquire("b")).isTrue();
+    }
+
+    @Test
+    @DisplayName("上一窗口的计数按剩余比例衰减")
+    void previousWindow_weighted() {
+        for (int i = 0; i < 4; i++) {
+            limiter.tryAcquire("a");
+        }
+        // 进入下一窗口 25%：上一窗口计 4 × 0.75 = 3，还能再放行 1 次
+        advanceMs(12_500);
+        assertThat(limiter.estimate("a")).isEqualTo(3.0);
+        assertThat(limiter.tryAcquire("a")).isTrue();
+        assertThat(limiter.tryAcquire("a")).isFalse();
+
+        // 进入下一窗口 75%：4 × 0.25 + 1 = 2
+        advanceMs(5_000);
+        assertThat(limiter.estimate("a")).isEqualTo(2.0);
+        assertThat(limiter.tryAcquire("a")).isTrue();
+    }
+
+    @Test
+    @DisplayName("空闲超过一个完整窗口 - 计数清零")
+    void idleWindows_reset() {
+        for (int i = 0; i < 4; i++) {
+            limiter.tryAcquire("a");
+        }
+        advanceMs(25_000);
+        assertThat(limiter.estimate("a")).isZero();
+        for (int i = 0; i < 4; i++) {
+            assertThat(limiter.tryAcquire("a")).isTrue();
+        }
+    }
+
+    @Test
+    @DisplayName("并发请求 - 放行数不超过限额")
+    void concurrent_neverExceedsLimit() throws Exception {
+        SlidingWindowRateLimiter shared = new SlidingWindowRateLimiter(100, Duration.ofSeconds(10), 10, () -> 0L);
+        AtomicInteger admitted = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int i = 0; i < 1_000; i++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                if (shared.tryAcquire("hot")) {
+                    admitted.incrementAndGet();
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        // 时钟固定在窗口起点，放行数应恰好等于限额
+        assertThat(admitted.get()).isEqualTo(100);
+    }
+
+    @Test
+    @DisplayName("限额超出计数范围 - 抛出异常")
+    void invalidLimit_throws() {
+        assertThatThrownBy(() -> new SlidingWindowRateLimiter(0, Duration.ofSeconds(1), 10))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new SlidingWindowRateLimiter(70_000, Duration.ofSeconds(1), 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
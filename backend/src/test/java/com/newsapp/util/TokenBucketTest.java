@@ -0,0 +1,79 @@
+package com.newsapp.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * TokenBucket 单元测试
+ */
+@DisplayName("TokenBucket 单元测试")
+class TokenBucketTest {
+
+    private AtomicLong nanos;
+    private TokenBucket bucket;
+
+    @BeforeEach
+    void setUp() {
+        nanos = new AtomicLong(0);
+        // 容量 2，最大每秒 1 个，下限每秒 0.1 个
+        bucket = new TokenBucket(2, 1.0, 0.1, nanos::get);
+    }
+
+    private void advanceMs(long ms) {
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(ms));
+    }
+
+    @Test
+    @DisplayName("突发请求不超过桶容量")
+    void burst_limitedByCapacity() {
+        assertThat(bucket.tryAcquire()).isTrue();
+        assertThat(bucket.tryAcquire()).isTrue();
+        assertThat(bucket.tryAcquire()).isFalse();
+    }
+
+    @Test
+    @DisplayName("令牌按速率补充")
+    void tokens_refillAtRate() {
+        bucket.tryAcquire();
+        bucket.tryAcquire();
+
+        advanceMs(999);
+        assertThat(bucket.tryAcquire()).isFalse();
+        advanceMs(1);
+        assertThat(bucket.tryAcquire()).isTrue();
+    }
+
+    @Test
+    @DisplayName("被限流 - Retry-After 期间拒绝，之后速率减半")
+    void throttled_blocksAndHalvesRate() {
+        bucket.onThrottled(5_000);
+
+        advanceMs(4_999);
+        assertThat(bucket.tryAcquire()).isFalse();
+        assertThat(bucket.getRatePerSecond()).isEqualTo(0.5);
+
+        advanceMs(1);
+        // 5 秒内按每秒 0.5 个补充了 2 个（桶容量）
+        assertThat(bucket.tryAcquire()).isTrue();
+    }
+
+    @Test
+    @DisplayName("速率不低于下限，成功后线性恢复到最大速率")
+    void rate_boundedAndRecovers() {
+        for (int i = 0; i < 10; i++) {
+            bucket.onThrottled(0);
+        }
+        assertThat(bucket.getRatePerSecond()).isEqualTo(0.1);
+
+        for (int i = 0; i < 20; i++) {
+            bucket.onSuccess();
+        }
+        assertThat(bucket.getRatePerSecond()).isEqualTo(1.0);
+    }
+}
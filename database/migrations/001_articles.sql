@@ -0,0 +1,23 @@
+-- 新闻文章库
+-- 日期: 2026-10-17
+-- 说明: 后台拉取的新闻按规范化 URL 的 SHA-256 去重存储，供新闻列表、历史和分页读取
+--       开发/测试环境由 Hibernate ddl-auto 自动建表，生产环境 (ddl-auto=validate) 需手动执行
+
+SET NAMES utf8mb4;
+
+CREATE TABLE IF NOT EXISTS articles (
+    url_hash CHAR(64) NOT NULL PRIMARY KEY,
+    url VARCHAR(2048) NOT NULL,
+    title VARCHAR(500),
+    description TEXT,
+    url_to_image VARCHAR(2048),
+    source VARCHAR(200),
+    category VARCHAR(50) NOT NULL,
+    published_at DATETIME(6),
+    content_hash CHAR(64) NOT NULL,
+    fetched_at DATETIME(6) NOT NULL,
+    updated_at DATETIME(6),
+
+    INDEX idx_articles_category_published (category, published_at),
+    INDEX idx_articles_published (published_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
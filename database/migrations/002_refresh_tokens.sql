@@ -0,0 +1,23 @@
+-- 刷新令牌
+-- 日期: 2026-10-17
+-- 说明: 访问令牌改为短期有效，刷新令牌只保存 SHA-256，按家族（family_id）轮换并检测重放
+--       开发/测试环境由 Hibernate ddl-auto 自动建表，生产环境 (ddl-auto=validate) 需手动执行
+
+SET NAMES utf8mb4;
+
+CREATE TABLE IF NOT EXISTS refresh_tokens (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    token_hash CHAR(64) NOT NULL,
+    family_id CHAR(36) NOT NULL,
+    expires_at DATETIME(6) NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    used_at DATETIME(6),
+    revoked BIT NOT NULL DEFAULT 0,
+
+    UNIQUE KEY uk_refresh_tokens_hash (token_hash),
+    INDEX idx_refresh_tokens_family (family_id),
+    INDEX idx_refresh_tokens_user (user_id),
+    INDEX idx_refresh_tokens_expires (expires_at),
+    CONSTRAINT fk_refresh_tokens_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
@@ -0,0 +1,12 @@
+-- 消息列表 keyset 分页索引
+-- 日期: 2026-10-17
+-- 说明: 消息列表按 (created_at, id) 倒序分页，游标条件为 (created_at, id) < 上一页最后一条；
+--       全部消息使用 (user_id, created_at, id)，未读消息使用 (user_id, is_read, created_at, id)，
+--       翻页时只扫描游标之后的索引范围，不再排序用户的全部消息
+--       开发/测试环境由 Hibernate ddl-auto 自动建索引，生产环境 (ddl-auto=validate) 需手动执行
+
+SET NAMES utf8mb4;
+
+ALTER TABLE messages
+    ADD INDEX idx_messages_user_created (user_id, created_at, id),
+    ADD INDEX idx_messages_user_read_created (user_id, is_read, created_at, id);
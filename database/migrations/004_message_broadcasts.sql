@@ -0,0 +1,39 @@
+-- 消息主键序列与群发任务
+-- 日期: 2026-10-17
+-- 说明: messages 的主键改为从 messages_seq 预取（Hibernate 以单行表模拟序列，pooled-lo：表中存下一段的起始值），
+--       插入前即可确定主键，JPA 和群发任务都能批量插入；messages.id 上原有的 AUTO_INCREMENT 保留，不再使用
+--       message_broadcasts 记录群发任务的进度（last_user_id 之前的接收者已写入）和执行节点的租约，
+--       节点崩溃后其他节点在租约过期后从 last_user_id 继续
+--       开发/测试环境由 Hibernate ddl-auto 自动建表（启动时 MessageBulkWriter 会把 messages_seq 对齐到现有最大 ID 之后），
+--       生产环境 (ddl-auto=validate) 需手动执行
+
+SET NAMES utf8mb4;
+
+CREATE TABLE IF NOT EXISTS messages_seq (
+    next_val BIGINT
+) ENGINE=InnoDB;
+
+INSERT INTO messages_seq (next_val)
+SELECT next_id FROM (SELECT COALESCE(MAX(id), 0) + 1 AS next_id FROM messages) m
+WHERE NOT EXISTS (SELECT 1 FROM messages_seq);
+
+CREATE TABLE IF NOT EXISTS message_broadcasts (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    sender_id BIGINT,
+    title VARCHAR(200) NOT NULL,
+    content TEXT,
+    message_type VARCHAR(20),
+    status VARCHAR(20) NOT NULL,
+    total_recipients BIGINT NOT NULL,
+    delivered BIGINT NOT NULL,
+    last_user_id BIGINT NOT NULL,
+    failures INT NOT NULL,
+    last_error VARCHAR(500),
+    claimed_by VARCHAR(36),
+    lease_until DATETIME(6),
+    created_at DATETIME(6),
+    started_at DATETIME(6),
+    finished_at DATETIME(6),
+
+    INDEX idx_message_broadcasts_status (status)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
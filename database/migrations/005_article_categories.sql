@@ -0,0 +1,22 @@
+-- 文章与类别的关联
+-- 日期: 2026-10-17
+-- 说明: NewsAPI 可能在多个类别下返回同一篇文章，articles 以 url_hash 为主键只能记录一个类别，
+--       其他类别读取最新文章和历史时会漏掉它。类别关系改为记录在 article_categories 中，
+--       按类别读取时走 (category, published_at) 索引再关联 articles；articles.category 只保留首次拉取到的类别。
+--       开发/测试环境由 Hibernate ddl-auto 自动建表，生产环境 (ddl-auto=validate) 需手动执行
+
+SET NAMES utf8mb4;
+
+CREATE TABLE IF NOT EXISTS article_categories (
+    url_hash CHAR(64) NOT NULL,
+    category VARCHAR(50) NOT NULL,
+    published_at DATETIME(6),
+    fetched_at DATETIME(6) NOT NULL,
+
+    PRIMARY KEY (url_hash, category),
+    INDEX idx_article_categories_category_published (category, published_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- 已有文章登记到写入时的类别
+INSERT IGNORE INTO article_categories (url_hash, category, published_at, fetched_at)
+SELECT url_hash, category, published_at, fetched_at FROM articles;
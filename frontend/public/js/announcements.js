@@ -150,24 +150,6 @@ function escapeHtml(text) {
     return div.innerHTML;
 }
 
-/**
- * 更新消息徽章
- */
-async function updateMessageBadge() {
-    const result = await messageAPI.getUnreadCount();
-    if (result.success && result.data > 0) {
-        const badge = document.getElementById('messageBadge');
-        if (badge) {
-            badge.textContent = result.data > 99 ? '99+' : result.data;
-        }
-    } else {
-        const badge = document.getElementById('messageBadge');
-        if (badge) {
-            badge.textContent = '';
-        }
-    }
-}
-
 // 点击模态框外部关闭
 window.onclick = function(event) {
     const modal = document.getElementById('announcementModal');
@@ -40,8 +40,81 @@ async function refreshCsrfToken() {
     return await getCsrfToken();
 }
 
+// 访问令牌和刷新令牌的存储键
+const ACCESS_TOKEN_KEY = 'accessToken';
+const REFRESH_TOKEN_KEY = 'refreshToken';
+
+// 进行中的刷新请求，并发的 401 共用同一次刷新
+let refreshPromise = null;
+
+/**
+ * 保存登录、注册或刷新返回的令牌
+ */
+function saveTokens(data) {
+    if (data && data.token) {
+        localStorage.setItem(ACCESS_TOKEN_KEY, data.token);
+    }
+    if (data && data.refreshToken) {
+        localStorage.setItem(REFRESH_TOKEN_KEY, data.refreshToken);
+    }
+}
+
+/**
+ * 清除本地令牌
+ */
+function clearTokens() {
+    localStorage.removeItem(ACCESS_TOKEN_KEY);
+    localStorage.removeItem(REFRESH_TOKEN_KEY);
+}
+
+/**
+ * 附带访问令牌的请求头
+ */
+function authHeaders(headers = {}) {
+    const token = localStorage.getItem(ACCESS_TOKEN_KEY);
+    return token ? { ...headers, 'Authorization': `Bearer ${token}` } : headers;
+}
+
+/**
+ * 用刷新令牌换取新的令牌对
+ * 成功返回 true；刷新令牌无效时清除本地令牌并返回 false
+ */
+async function refreshAccessToken() {
+    const refreshToken = localStorage.getItem(REFRESH_TOKEN_KEY);
+    if (!refreshToken) {
+        return false;
+    }
+    if (!refreshPromise) {
+        refreshPromise = (async () => {
+            try {
+                const response = await fetch(`${API_BASE_URL}/auth/refresh`, {
+                    method: 'POST',
+                    headers: { 'Content-Type': 'application/json' },
+                    body: JSON.stringify({ refreshToken }),
+                });
+                const result = await response.json().catch(() => null);
+                if (response.ok && result && result.success) {
+                    saveTokens(result.data);
+                    return true;
+                }
+                clearTokens();
+                return false;
+            } catch (error) {
+                console.warn('刷新访问令牌失败:', error);
+                return false;
+            } finally {
+                refreshPromise = null;
+            }
+        })();
+    }
+    return refreshPromise;
+}
+
 // API 请求封装
+// options.skipAuthRedirect 为 true 时 401 不跳转登录页（例如首页检查登录状态）
 async function apiRequest(url, options = {}) {
+    const { skipAuthRedirect, ...fetchOptions } = options;
+    options = fetchOptions;
     try {
         // 对于需要修改数据的请求（POST, PUT, DELETE, PATCH），添加 CSRF Token
         const method = (options.method || 'GET').toUpperCase();
@@ -55,15 +128,22 @@ async function apiRequest(url, options = {}) {
             }
         }
 
-        const response = await fetch(`${API_BASE_URL}${url}`, {
+        const send = () => fetch(`${API_BASE_URL}${url}`, {
             ...options,
-            headers: {
+            headers: authHeaders({
                 'Content-Type': 'application/json',
                 ...options.headers,
-            },
+            }),
             credentials: 'include', // 携带 cookie
         });
 
+        let response = await send();
+
+        // 访问令牌过期时刷新一次后重试
+        if (response.status === 401 && !url.startsWith('/auth/') && await refreshAccessToken()) {
+            response = await send();
+        }
+
         // 检查 HTTP 状态码
         if (!response.ok) {
             // 根据不同的 HTTP 状态码返回不同的错误信息
@@ -75,7 +155,8 @@ async function apiRequest(url, options = {}) {
                 case 401:
                     errorMessage = '未登录，请先登录';
                     // 自动跳转到登录页
-                    if (!window.location.pathname.endsWith('login.html') &&
+                    if (!skipAuthRedirect &&
+                        !window.location.pathname.endsWith('login.html') &&
                         !window.location.pathname.endsWith('register.html')) {
                         window.location.href = 'login.html';
                     }
@@ -123,32 +204,47 @@ async function apiRequest(url, options = {}) {
 
 // 认证 API
 const authAPI = {
-    // 注册
-    register: (username, email, password) => {
-        return apiRequest('/auth/register', {
+    // 注册，成功后保存令牌
+    register: async (username, email, password) => {
+        const result = await apiRequest('/auth/register', {
             method: 'POST',
             body: JSON.stringify({ username, email, password }),
         });
+        if (result.success) {
+            saveTokens(result.data);
+        }
+        return result;
     },
 
-    // 登录
-    login: (username, password) => {
-        return apiRequest('/auth/login', {
+    // 登录，成功后保存令牌
+    login: async (username, password) => {
+        const result = await apiRequest('/auth/login', {
             method: 'POST',
             body: JSON.stringify({ username, password }),
         });
+        if (result.success) {
+            saveTokens(result.data);
+        }
+        return result;
     },
 
-    // 登出
-    logout: () => {
-        return apiRequest('/auth/logout', {
+    // 登出，服务端吊销访问令牌和刷新令牌后清除本地令牌
+    logout: async () => {
+        const result = await apiRequest('/auth/logout', {
             method: 'POST',
+            body: JSON.stringify({ refreshToken: localStorage.getItem(REFRESH_TOKEN_KEY) }),
         });
+        clearTokens();
+        return result;
     },
 
-    // 获取当前用户
-    getCurrentUser: () => {
-        return apiRequest('/auth/current');
+    // 获取当前用户（未登录时不跳转，由调用方决定如何展示）
+    getCurrentUser: async () => {
+        let result = await apiRequest('/auth/current', { skipAuthRedirect: true });
+        if (!result.success && await refreshAccessToken()) {
+            result = await apiRequest('/auth/current', { skipAuthRedirect: true });
+        }
+        return result;
     },
 };
 
@@ -177,15 +273,20 @@ const subscriptionAPI = {
 
 // 新闻 API
 const newsAPI = {
-    // 获取用户新闻
-    getUserNews: () => {
-        return apiRequest('/news');
+    // 获取用户新闻时间线，cursor 为上一页返回的 nextCursor
+    getUserNews: (cursor = null) => {
+        return apiRequest(cursor ? `/news?cursor=${encodeURIComponent(cursor)}` : '/news');
     },
 
     // 获取指定类别新闻
     getNewsByCategory: (category) => {
         return apiRequest(`/news/category/${category}`);
     },
+
+    // 分页获取指定类别的历史新闻
+    getNewsHistory: (category, page = 0, size = 20) => {
+        return apiRequest(`/news/category/${category}/history?page=${page}&size=${size}`);
+    },
 };
 
 // 个人资料 API
@@ -235,14 +336,21 @@ const profileAPI = {
 
 // 消息通知 API
 const messageAPI = {
-    // 获取所有消息
-    getAllMessages: () => {
-        return apiRequest('/messages');
+    // 获取消息列表（分页，不含正文），cursor 为上一页返回的 nextCursor
+    getAllMessages: (cursor) => {
+        const query = cursor ? `?cursor=${encodeURIComponent(cursor)}` : '';
+        return apiRequest(`/messages${query}`);
+    },
+
+    // 获取未读消息列表（分页，不含正文）
+    getUnreadMessages: (cursor) => {
+        const query = cursor ? `?cursor=${encodeURIComponent(cursor)}` : '';
+        return apiRequest(`/messages/unread${query}`);
     },
 
-    // 获取未读消息
-    getUnreadMessages: () => {
-        return apiRequest('/messages/unread');
+    // 获取消息详情（含正文）
+    getMessage: (id) => {
+        return apiRequest(`/messages/${id}`);
     },
 
     // 获取未读消息数量
@@ -272,6 +380,92 @@ const messageAPI = {
     },
 };
 
+// 通知推送 API
+// EventSource 不能携带 Authorization 请求头，这里用 fetch 读取 text/event-stream
+const notificationAPI = {
+    // 打开推送连接，onEvent(event, data) 收到 unread-count、message、announcement 事件；
+    // 连接断开后自动重连，访问令牌过期时先刷新。返回值的 close() 关闭连接
+    subscribe: (onEvent) => {
+        let closed = false;
+        let controller = null;
+
+        const connect = async () => {
+            while (!closed) {
+                controller = new AbortController();
+                try {
+                    const response = await fetch(`${API_BASE_URL}/notifications/stream`, {
+                        headers: authHeaders({ 'Accept': 'text/event-stream' }),
+                        credentials: 'include',
+                        signal: controller.signal,
+                    });
+                    if (response.status === 401) {
+                        if (!await refreshAccessToken()) {
+                            return;
+                        }
+                        continue;
+                    }
+                    if (response.ok) {
+                        await readEventStream(response.body, onEvent);
+                    }
+                } catch (error) {
+                    if (closed) {
+                        return;
+                    }
+                    console.warn('推送连接断开:', error);
+                }
+                // 服务端超时或网络中断后稍等再重连
+                await new Promise(resolve => setTimeout(resolve, 3000));
+            }
+        };
+        connect();
+
+        return {
+            close: () => {
+                closed = true;
+                if (controller) {
+                    controller.abort();
+                }
+            },
+        };
+    },
+};
+
+/**
+ * 逐条解析 text/event-stream，忽略注释行（心跳）
+ */
+async function readEventStream(body, onEvent) {
+    const reader = body.pipeThrough(new TextDecoderStream()).getReader();
+    let buffer = '';
+    while (true) {
+        const { value, done } = await reader.read();
+        if (done) {
+            return;
+        }
+        buffer += value.replace(/\r\n?/g, '\n');
+        let boundary;
+        while ((boundary = buffer.indexOf('\n\n')) >= 0) {
+            const block = buffer.slice(0, boundary);
+            buffer = buffer.slice(boundary + 2);
+            let event = 'message';
+            const data = [];
+            for (const line of block.split('\n')) {
+                if (line.startsWith('event:')) {
+                    event = line.slice(6).trim();
+                } else if (line.startsWith('data:')) {
+                    data.push(line.slice(5).replace(/^ /, ''));
+                }
+            }
+            if (data.length > 0) {
+                try {
+                    onEvent(event, JSON.parse(data.join('\n')));
+                } catch (error) {
+                    console.warn('无法解析推送事件:', error);
+                }
+            }
+        }
+    }
+}
+
 // 系统公告 API
 const announcementAPI = {
     // 获取已发布的公告
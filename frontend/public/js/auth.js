@@ -82,8 +82,8 @@ async function checkLoginStatus() {
         // 更新导航栏用户信息
         updateNavUserInfo(result.data);
 
-        // 更新消息徽章
-        updateMessageBadge();
+        // 打开推送连接，连接后推送的未读数更新消息徽章
+        startNotifications();
 
         return true;
     } else {
@@ -139,16 +139,33 @@ async function isLoggedIn() {
 async function updateMessageBadge() {
     try {
         const result = await messageAPI.getUnreadCount();
-        const badge = document.getElementById('messageBadge');
-        if (badge) {
-            if (result.success && result.data > 0) {
-                badge.textContent = result.data > 99 ? '99+' : result.data;
-            } else {
-                badge.textContent = '';
-            }
-        }
+        setMessageBadge(result.success ? result.data?.count : 0);
     } catch (error) {
         console.error('更新消息徽章失败:', error);
     }
 }
 
+// 设置消息徽章上的未读数
+function setMessageBadge(count) {
+    const badge = document.getElementById('messageBadge');
+    if (badge) {
+        badge.textContent = count > 0 ? (count > 99 ? '99+' : count) : '';
+    }
+}
+
+// 当前页面的推送连接
+let notificationSubscription = null;
+
+// 打开推送连接：unread-count 事件更新消息徽章，所有事件以 notification 事件转发给页面脚本
+function startNotifications() {
+    if (notificationSubscription) {
+        return;
+    }
+    notificationSubscription = notificationAPI.subscribe((event, data) => {
+        if (event === 'unread-count') {
+            setMessageBadge(data.count);
+        }
+        document.dispatchEvent(new CustomEvent('notification', { detail: { event, data } }));
+    });
+}
+
@@ -1,21 +1,49 @@
-// 消息列表数据
+// 消息列表数据（已加载的各页）
 let allMessages = [];
+let nextCursor = null;
 let currentFilter = 'all';
 let currentMessageId = null;
 
 /**
- * 加载消息列表
+ * 加载消息列表第一页
  */
 async function loadMessages() {
     const result = await messageAPI.getAllMessages();
     if (result.success) {
-        allMessages = result.data || [];
+        allMessages = result.data?.items || [];
+        nextCursor = result.data?.nextCursor || null;
         filterMessages(currentFilter);
     } else {
         showMessage('加载消息失败: ' + result.message, 'error');
     }
 }
 
+/**
+ * 加载下一页消息
+ */
+async function loadMoreMessages() {
+    if (!nextCursor) return;
+    const result = await messageAPI.getAllMessages(nextCursor);
+    if (result.success) {
+        allMessages = allMessages.concat(result.data?.items || []);
+        nextCursor = result.data?.nextCursor || null;
+        filterMessages(currentFilter);
+    } else {
+        showMessage('加载消息失败: ' + result.message, 'error');
+    }
+}
+
+/**
+ * 推送的新消息插入列表顶部
+ */
+document.addEventListener('notification', (e) => {
+    const { event, data } = e.detail;
+    if (event === 'message' && !allMessages.some(msg => msg.id === data.id)) {
+        allMessages.unshift(data);
+        filterMessages(currentFilter);
+    }
+});
+
 /**
  * 过滤消息
  */
@@ -45,6 +73,7 @@ function filterMessages(filter) {
 function displayMessages(messages) {
     const messagesList = document.getElementById('messagesList');
     const emptyState = document.getElementById('emptyState');
+    document.getElementById('loadMore').style.display = nextCursor ? 'block' : 'none';
 
     if (messages.length === 0) {
         messagesList.innerHTML = '';
@@ -72,7 +101,6 @@ function createMessageItem(message) {
                     <h3 class="message-item-title">${escapeHtml(message.title)}</h3>
                     <span class="message-item-time">${time}</span>
                 </div>
-                <p class="message-item-preview">${escapeHtml(message.content)}</p>
             </div>
             <div class="message-item-actions">
                 ${!message.read ? `<button onclick="event.stopPropagation(); markAsRead(${message.id})">标记已读</button>` : ''}
@@ -102,6 +130,13 @@ async function openMessage(messageId) {
     const message = allMessages.find(msg => msg.id === messageId);
     if (!message) return;
 
+    // 列表不含正文，打开时读取详情
+    const detail = await messageAPI.getMessage(messageId);
+    if (!detail.success) {
+        showMessage('加载消息失败: ' + detail.message, 'error');
+        return;
+    }
+
     currentMessageId = messageId;
 
     // 如果未读，标记为已读
@@ -114,7 +149,7 @@ async function openMessage(messageId) {
     document.getElementById('modalType').textContent = getMessageTypeName(message.type);
     document.getElementById('modalType').className = `message-type ${message.type}`;
     document.getElementById('modalTime').textContent = formatTime(message.createdAt);
-    document.getElementById('modalContent').textContent = message.content;
+    document.getElementById('modalContent').textContent = detail.data.content;
 
     document.getElementById('messageModal').style.display = 'flex';
 }
@@ -140,8 +175,6 @@ async function markAsRead(messageId) {
         }
         // 重新显示
         filterMessages(currentFilter);
-        // 更新徽章
-        updateMessageBadge();
     } else {
         showMessage('标记失败: ' + result.message, 'error');
     }
@@ -157,8 +190,6 @@ async function markAllAsRead() {
         allMessages.forEach(msg => msg.read = true);
         // 重新显示
         filterMessages(currentFilter);
-        // 更新徽章
-        updateMessageBadge();
         showMessage('已将所有消息标记为已读', 'success');
     } else {
         showMessage('操作失败: ' + result.message, 'error');
@@ -178,8 +209,6 @@ async function deleteMessage(messageId) {
         allMessages = allMessages.filter(msg => msg.id !== messageId);
         // 重新显示
         filterMessages(currentFilter);
-        // 更新徽章
-        updateMessageBadge();
         showMessage('消息已删除', 'success');
     } else {
         showMessage('删除失败: ' + result.message, 'error');
@@ -203,8 +232,6 @@ async function deleteCurrentMessage() {
         allMessages = allMessages.filter(msg => msg.id !== currentMessageId);
         // 重新显示
         filterMessages(currentFilter);
-        // 更新徽章
-        updateMessageBadge();
         showMessage('消息已删除', 'success');
     } else {
         showMessage('删除失败: ' + result.message, 'error');
@@ -286,24 +313,6 @@ function showMessage(message, type) {
     console.log(`[${type}] ${message}`);
 }
 
-/**
- * 更新消息徽章
- */
-async function updateMessageBadge() {
-    const result = await messageAPI.getUnreadCount();
-    if (result.success && result.data > 0) {
-        const badge = document.getElementById('messageBadge');
-        if (badge) {
-            badge.textContent = result.data > 99 ? '99+' : result.data;
-        }
-    } else {
-        const badge = document.getElementById('messageBadge');
-        if (badge) {
-            badge.textContent = '';
-        }
-    }
-}
-
 // 点击模态框外部关闭
 window.onclick = function(event) {
     const modal = document.getElementById('messageModal');
@@ -104,15 +104,12 @@ async function removeSubscription(category) {
     }
 }
 
-// 加载新闻
-async function loadNews() {
-    const newsList = document.getElementById('newsList');
-    newsList.innerHTML = '<p style="text-align: center; color: #999;">加载中...</p>';
-
-    const result = await newsAPI.getUserNews();
+// 新闻时间线下一页的游标
+let newsNextCursor = null;
 
-    if (result.success && result.data && result.data.length > 0) {
-        newsList.innerHTML = result.data.map(news => `
+// 渲染单条新闻
+function renderNewsItem(news) {
+    return `
             <div class="news-item">
                 ${news.urlToImage ? `<img src="${news.urlToImage}" alt="${news.title}" onerror="this.style.display='none'">` : ''}
                 <div class="news-item-content">
@@ -124,7 +121,33 @@ async function loadNews() {
                     </div>
                 </div>
             </div>
-        `).join('');
+        `;
+}
+
+// 根据是否还有下一页显示“加载更多”按钮
+function renderLoadMoreButton(newsList) {
+    const existing = document.getElementById('loadMoreNews');
+    if (existing) {
+        existing.remove();
+    }
+    if (newsNextCursor) {
+        newsList.insertAdjacentHTML('beforeend',
+            '<button id="loadMoreNews" onclick="loadMoreNews()" class="btn btn-primary" style="display: block; margin: 16px auto;">加载更多</button>');
+    }
+}
+
+// 加载新闻（时间线第一页）
+async function loadNews() {
+    const newsList = document.getElementById('newsList');
+    newsList.innerHTML = '<p style="text-align: center; color: #999;">加载中...</p>';
+    newsNextCursor = null;
+
+    const result = await newsAPI.getUserNews();
+
+    if (result.success && result.data && result.data.items && result.data.items.length > 0) {
+        newsList.innerHTML = result.data.items.map(renderNewsItem).join('');
+        newsNextCursor = result.data.nextCursor;
+        renderLoadMoreButton(newsList);
     } else if (result.message && result.message.includes('订阅')) {
         newsList.innerHTML = '<p style="text-align: center; color: #999;">请先订阅新闻类别</p>';
     } else {
@@ -132,3 +155,32 @@ async function loadNews() {
     }
 }
 
+// 加载时间线下一页
+async function loadMoreNews() {
+    if (!newsNextCursor) {
+        return;
+    }
+    const newsList = document.getElementById('newsList');
+    const button = document.getElementById('loadMoreNews');
+    if (button) {
+        button.disabled = true;
+        button.textContent = '加载中...';
+    }
+
+    const result = await newsAPI.getUserNews(newsNextCursor);
+
+    if (result.success && result.data) {
+        if (button) {
+            button.remove();
+        }
+        newsList.insertAdjacentHTML('beforeend', (result.data.items || []).map(renderNewsItem).join(''));
+        newsNextCursor = result.data.nextCursor;
+        renderLoadMoreButton(newsList);
+    } else {
+        showNewsMessage(result.message || '加载更多新闻失败', 'error');
+        if (button) {
+            button.disabled = false;
+            button.textContent = '加载更多';
+        }
+    }
+}
@@ -133,24 +133,6 @@ function showSaveMessage(message, success) {
     }, 3000);
 }
 
-/**
- * 更新消息徽章
- */
-async function updateMessageBadge() {
-    const result = await messageAPI.getUnreadCount();
-    if (result.success && result.data > 0) {
-        const badge = document.getElementById('messageBadge');
-        if (badge) {
-            badge.textContent = result.data > 99 ? '99+' : result.data;
-        }
-    } else {
-        const badge = document.getElementById('messageBadge');
-        if (badge) {
-            badge.textContent = '';
-        }
-    }
-}
-
 /**
  * 获取当前偏好设置（供其他页面使用）
  */
@@ -122,6 +122,7 @@ async function uploadAvatar(file) {
 
         const response = await fetch(`${API_BASE_URL}/avatar`, {
             method: 'POST',
+            headers: authHeaders(),
             credentials: 'include',
             body: formData,
         });
@@ -267,16 +268,3 @@ function formatDateTime(dateString) {
         minute: '2-digit'
     });
 }
-
-/**
- * 更新消息徽章（供其他页面调用）
- */
-async function updateMessageBadge() {
-    const result = await messageAPI.getUnreadCount();
-    if (result.success && result.data > 0) {
-        const badge = document.getElementById('messageBadge');
-        if (badge) {
-            badge.textContent = result.data > 99 ? '99+' : result.data;
-        }
-    }
-}
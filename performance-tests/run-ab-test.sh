@@ -80,6 +80,35 @@ echo ""
 echo "✓ News test completed"
 echo ""
 
+# 测试 4: 登录风暴期间的新闻接口
+# 密码哈希在有界线程池中执行，饱和时登录直接返回 429（计入 Non-2xx responses），
+# 新闻接口的响应时间应与测试 3 接近
+echo "========================================="
+echo "Test 4: News Endpoint During Login Storm"
+echo "========================================="
+echo "Login: Requests 2000, Concurrency 100 (background)"
+echo "News:  Requests 500, Concurrency 50"
+echo ""
+
+ab -n 2000 -c 100 \
+   -p /tmp/login.json \
+   -T application/json \
+   http://localhost:8081/api/auth/login \
+   > "$RESULTS_DIR/login-storm-test.txt" 2>&1 &
+STORM_PID=$!
+sleep 1
+
+ab -n 500 -c 50 \
+   http://localhost:8081/api/news/category/technology \
+   | tee "$RESULTS_DIR/news-under-storm-test.txt"
+
+wait $STORM_PID || true
+grep -E "Requests per second|Non-2xx responses|Time per request" "$RESULTS_DIR/login-storm-test.txt" || true
+
+echo ""
+echo "✓ Login storm test completed"
+echo ""
+
 # 清理临时文件
 rm -f /tmp/register.json /tmp/login.json
 
@@ -93,9 +122,12 @@ echo "To view detailed results:"
 echo "  cat $RESULTS_DIR/register-test.txt"
 echo "  cat $RESULTS_DIR/login-test.txt"
 echo "  cat $RESULTS_DIR/news-test.txt"
+echo "  cat $RESULTS_DIR/login-storm-test.txt"
+echo "  cat $RESULTS_DIR/news-under-storm-test.txt"
 echo ""
 echo "Key metrics to look for:"
 echo "  - Requests per second (higher is better)"
 echo "  - Time per request (lower is better)"
 echo "  - Failed requests (should be 0 or low)"
+echo "  - Non-2xx responses during the login storm (HTTP 429 when the hashing pool is saturated)"
 echo ""